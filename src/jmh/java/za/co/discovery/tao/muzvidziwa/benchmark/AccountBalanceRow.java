@@ -0,0 +1,62 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+
+import java.math.BigDecimal;
+
+/**
+ * A row of the single query balance read, as the repository would return it.
+ */
+record AccountBalanceRow(Integer clientId, String title, String name, String surname, String clientSubTypeCode,
+                         String clientAccountNumber, String accountTypeCode, String currencyCode,
+                         BigDecimal displayBalance, BigDecimal creditCardLimit) implements ClientAccountBalanceProjection {
+    @Override
+    public Integer getClientId() {
+        return clientId;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSurname() {
+        return surname;
+    }
+
+    @Override
+    public String getClientSubTypeCode() {
+        return clientSubTypeCode;
+    }
+
+    @Override
+    public String getClientAccountNumber() {
+        return clientAccountNumber;
+    }
+
+    @Override
+    public String getAccountTypeCode() {
+        return accountTypeCode;
+    }
+
+    @Override
+    public String getCurrencyCode() {
+        return currencyCode;
+    }
+
+    @Override
+    public BigDecimal getDisplayBalance() {
+        return displayBalance;
+    }
+
+    @Override
+    public BigDecimal getCreditCardLimit() {
+        return creditCardLimit;
+    }
+}
@@ -0,0 +1,167 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
+import za.co.discovery.tao.muzvidziwa.domain.service.impl.BankServiceImpl;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the private account sorts of {@code BankServiceImpl}, mapping each row to an {@link AccountDto} included,
+ * against the insertion sorts they replaced ({@link LegacyAccountSort}) over the same mapped accounts:
+ * <ul>
+ *   <li>byBalanceDescending - {@code sortClientAccountsByBalanceDescending} over ZAR CHQ and SVGS accounts, as the
+ *       transactional balances are sorted.</li>
+ *   <li>byZarBalanceAscending - {@code sortClientAccountsByZarBalanceAscending} over CFCA accounts in 8 currencies, as
+ *       the forex balances are sorted.</li>
+ * </ul>
+ * The balances are drawn from a seeded random, so some of the accounts tie. The set up checks both approaches list the
+ * accounts in the same order. The service is built without a Spring context and the methods are called through a
+ * {@link MethodHandle}.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=AccountSortBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountSortBenchmark {
+    private static final String TRACE_ID = "benchmark";
+
+    // A mix of multiplied and divided rates, taken from the sample data migration
+    private static final String[][] RATES = {
+            {"ZAR", "*", "1"}, {"USD", "*", "18.6167"}, {"EUR", "*", "14.3169"}, {"GBP", "*", "16.3907"},
+            {"AUD", "/", "0.1134"}, {"AED", "/", "0.3196"}, {"CHF", "/", "0.0834"}, {"JPY", "/", "9.32"}
+    };
+
+    @Param({"1", "5", "50", "100", "500", "10000"})
+    private int accounts;
+
+    private BankServiceImpl bankService;
+    private MethodHandle sortByBalanceDescending;
+    private MethodHandle sortByZarBalanceAscending;
+    private MethodHandle prepareClientAccountDto;
+    private List<AccountBalanceRow> transactionalAccounts;
+    private List<AccountBalanceRow> forexAccounts;
+
+    @Setup
+    public void setUp() throws Throwable {
+        ((Logger) LoggerFactory.getLogger(LoggerUtils.class)).setLevel(Level.INFO);
+
+        final Map<String, CurrencyConversionRate> currencyConversionRates = new HashMap<>();
+        for (String[] rate : RATES) {
+            final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+            currencyConversionRate.setCurrencyCode(rate[0]);
+            currencyConversionRate.setConversionIndicator(rate[1]);
+            currencyConversionRate.setRate(new BigDecimal(rate[2]));
+            currencyConversionRates.put(rate[0], currencyConversionRate);
+        }
+        final CurrencyConversionCache currencyConversionCache = new CurrencyConversionCache();
+        currencyConversionCache.replaceCurrencyConversionRates(currencyConversionRates, TRACE_ID);
+
+        // The account type descriptions are looked up in the reference data
+        final ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(List.of(createAccountType("CHQ", "Cheque Account", true),
+                createAccountType("SVGS", "Savings Account", true), createAccountType("CFCA", "Customer Foreign Currency Account", false)),
+                List.of(), List.of(), List.of());
+        bankService = new BankServiceImpl(null, null, null, null, null, null, null, null, referenceDataRegistry, null,
+                new ZarConverter(currencyConversionCache), null,
+                new BankMetrics(new SimpleMeterRegistry(), null, currencyConversionCache, null));
+        // The CHQ balances include the overdraft facility
+        ReflectionTestUtils.invokeSetterMethod(bankService, "overdraftLimit", new BigDecimal("10000"));
+        final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(BankServiceImpl.class, MethodHandles.lookup());
+        final MethodType sortType = MethodType.methodType(List.class, List.class, String.class);
+        sortByBalanceDescending = lookup.findVirtual(BankServiceImpl.class, "sortClientAccountsByBalanceDescending", sortType);
+        sortByZarBalanceAscending = lookup.findVirtual(BankServiceImpl.class, "sortClientAccountsByZarBalanceAscending", sortType);
+        prepareClientAccountDto = lookup.findVirtual(BankServiceImpl.class, "prepareClientAccountDto",
+                MethodType.methodType(AccountDto.class, ClientAccountBalanceProjection.class, String.class));
+
+        final Random random = new Random(42);
+        transactionalAccounts = new ArrayList<>(accounts);
+        forexAccounts = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            final String accountNumber = String.valueOf(4_000_000_000L + i);
+            // Drawn from 4 x accounts values so the sorts meet ties
+            final BigDecimal balance = BigDecimal.valueOf(random.nextInt(accounts * 4) * 1_000L - accounts * 1_000L, 2);
+            transactionalAccounts.add(new AccountBalanceRow(1, "Mr", "Benchmark", "Client", "MAL", accountNumber, i % 2 == 0 ? "CHQ" : "SVGS",
+                    "ZAR", balance, null));
+            forexAccounts.add(new AccountBalanceRow(1, "Mr", "Benchmark", "Client", "MAL", accountNumber, "CFCA",
+                    RATES[1 + i % (RATES.length - 1)][0], balance, null));
+        }
+
+        if (!byBalanceDescending().equals(legacyByBalanceDescending()) || !byZarBalanceAscending().equals(legacyByZarBalanceAscending())) {
+            throw new IllegalStateException("The sorts list the accounts in a different order than the insertion sorts");
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<AccountDto> byBalanceDescending() throws Throwable {
+        return (List<AccountDto>) sortByBalanceDescending.invokeExact(bankService, (List) transactionalAccounts, TRACE_ID);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<AccountDto> byZarBalanceAscending() throws Throwable {
+        return (List<AccountDto>) sortByZarBalanceAscending.invokeExact(bankService, (List) forexAccounts, TRACE_ID);
+    }
+
+    @Benchmark
+    public List<AccountDto> legacyByBalanceDescending() throws Throwable {
+        return LegacyAccountSort.sortByBalanceDescending(prepareClientAccountDtos(transactionalAccounts));
+    }
+
+    @Benchmark
+    public List<AccountDto> legacyByZarBalanceAscending() throws Throwable {
+        return LegacyAccountSort.sortByZarBalanceAscending(prepareClientAccountDtos(forexAccounts));
+    }
+
+    private static AccountType createAccountType(final String accountTypeCode, final String description, final boolean transactional) {
+        final AccountType accountType = new AccountType();
+        accountType.setAccountTypeCode(accountTypeCode);
+        accountType.setDescription(description);
+        accountType.setTransactional(transactional);
+        return accountType;
+    }
+
+    private List<AccountDto> prepareClientAccountDtos(final List<AccountBalanceRow> clientAccounts) throws Throwable {
+        final List<AccountDto> accountDtoList = new ArrayList<>();
+        for (AccountBalanceRow clientAccount : clientAccounts) {
+            accountDtoList.add((AccountDto) prepareClientAccountDto.invokeExact(bankService, (ClientAccountBalanceProjection) clientAccount, TRACE_ID));
+        }
+        return accountDtoList;
+    }
+}
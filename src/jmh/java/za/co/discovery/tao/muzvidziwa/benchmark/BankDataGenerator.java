@@ -0,0 +1,160 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk loads generated clients, client accounts and ATMs on top of the sample data migrations, for benchmarks that need
+ * a bank of realistic size. The data is the same from run to run.
+ */
+final class BankDataGenerator {
+    static final int FIRST_CLIENT_ID = 1_000;
+    static final int FIRST_ATM_ID = 1_000;
+    static final int[] NOTE_DENOMINATION_IDS = {1, 2, 3, 4, 5};
+    // application-config.overdraft-limit, the client positions are summed with it
+    static final BigDecimal OVERDRAFT_LIMIT = new BigDecimal("10000");
+    // The placeholders the application passes the migrations, see spring.flyway.placeholders
+    static final Map<String, String> FLYWAY_PLACEHOLDERS = Map.of("overdraftLimit", OVERDRAFT_LIMIT.toPlainString());
+
+    private static final long FIRST_ACCOUNT_NUMBER = 8_000_000_000L;
+    private static final int MAX_ACCOUNTS_PER_CLIENT = 10;
+    private static final int BATCH_SIZE = 5_000;
+
+    private BankDataGenerator() {
+    }
+
+    /**
+     * The account number of a generated client's account.
+     *
+     * @param accountType the index of the account type in the list the clients were generated with
+     */
+    static String accountNumber(final int clientId, final int accountType) {
+        return Long.toString(FIRST_ACCOUNT_NUMBER + (long) (clientId - FIRST_CLIENT_ID) * MAX_ACCOUNTS_PER_CLIENT + accountType);
+    }
+
+    /**
+     * Generates clients with IDs from {@link #FIRST_CLIENT_ID}, each with one account of every given account type. Foreign
+     * currency accounts are held in USD, credit card accounts get a credit card limit. Balances are spread over
+     * 0.00 to 99 999.99, so some clients hold the same balance in more than one account. The clients' positions are
+     * worked out once all the accounts are in, if the schema has the CLIENT_POSITION table.
+     */
+    static void generateClients(final Connection connection, final int clients, final List<String> accountTypes) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        final Random random = new Random(42);
+        try (PreparedStatement client = connection.prepareStatement("INSERT INTO CLIENT VALUES (?, 'Mx', ?, ?, ?, ?)");
+             PreparedStatement account = connection.prepareStatement("INSERT INTO CLIENT_ACCOUNT VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement limit = connection.prepareStatement("INSERT INTO CREDIT_CARD_LIMIT VALUES (?, ?)")) {
+            final Date dob = Date.valueOf("1980-01-01");
+            for (int i = 0; i < clients; i++) {
+                final int clientId = FIRST_CLIENT_ID + i;
+                client.setInt(1, clientId);
+                client.setString(2, "Name" + i);
+                client.setString(3, "Surname" + i);
+                client.setDate(4, dob);
+                client.setString(5, i % 10 == 0 ? "SME" : (i % 2 == 0 ? "FEM" : "MAL"));
+                client.addBatch();
+
+                for (int type = 0; type < accountTypes.size(); type++) {
+                    account.setString(1, accountNumber(clientId, type));
+                    account.setInt(2, clientId);
+                    account.setString(3, accountTypes.get(type));
+                    account.setString(4, "CFCA".equals(accountTypes.get(type)) ? "USD" : "ZAR");
+                    account.setBigDecimal(5, BigDecimal.valueOf(random.nextInt(10_000) * 1_000L, 2));
+                    account.addBatch();
+
+                    if ("CCRD".equals(accountTypes.get(type))) {
+                        limit.setString(1, accountNumber(clientId, type));
+                        limit.setBigDecimal(2, BigDecimal.valueOf(20_000));
+                        limit.addBatch();
+                    }
+                }
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    client.executeBatch();
+                    account.executeBatch();
+                    limit.executeBatch();
+                    connection.commit();
+                }
+            }
+            client.executeBatch();
+            account.executeBatch();
+            limit.executeBatch();
+            connection.commit();
+
+            if (hasClientPositions(connection)) {
+                calculateClientPositions(connection, clients);
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Works out the generated clients' positions with the statement the application recalculates them with, a batch of
+     * clients at a time so the grouping stays small.
+     */
+    private static void calculateClientPositions(final Connection connection, final int clients) throws SQLException {
+        try (PreparedStatement positions = connection.prepareStatement((ClientPositionRepository.RECALCULATE_CLIENT_POSITIONS
+                + "      where c.CLIENT_ID between ? and ?\n" + ClientPositionRepository.GROUP_BY_CLIENT).replace(":overdraftLimit", "?"))) {
+            for (int from = FIRST_CLIENT_ID; from < FIRST_CLIENT_ID + clients; from += BATCH_SIZE) {
+                positions.setBigDecimal(1, OVERDRAFT_LIMIT);
+                positions.setInt(2, from);
+                positions.setInt(3, from + BATCH_SIZE - 1);
+                positions.executeUpdate();
+                connection.commit();
+            }
+        }
+    }
+
+    private static boolean hasClientPositions(final Connection connection) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, "CLIENT_POSITION", null)) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Generates ATMs with IDs from {@link #FIRST_ATM_ID}, each holding 100 notes of every note denomination.
+     */
+    static void generateAtms(final Connection connection, final int atms) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement atm = connection.prepareStatement("INSERT INTO ATM VALUES (?, ?, 'Generated')");
+             PreparedStatement allocation = connection.prepareStatement("INSERT INTO ATM_ALLOCATION VALUES (DEFAULT, ?, ?, 100)")) {
+            for (int i = 0; i < atms; i++) {
+                final int atmId = FIRST_ATM_ID + i;
+                atm.setInt(1, atmId);
+                atm.setString(2, "GEN" + i);
+                atm.addBatch();
+                for (int denominationId : NOTE_DENOMINATION_IDS) {
+                    allocation.setInt(1, atmId);
+                    allocation.setInt(2, denominationId);
+                    allocation.addBatch();
+                }
+            }
+            atm.executeBatch();
+            allocation.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Refreshes the statistics the query planner picks indexes by.
+     */
+    static void analyze(final Connection connection) throws SQLException {
+        try (PreparedStatement analyze = connection.prepareStatement("ANALYZE")) {
+            analyze.execute();
+        }
+    }
+}
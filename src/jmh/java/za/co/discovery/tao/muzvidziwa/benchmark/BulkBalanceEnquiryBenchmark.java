@@ -0,0 +1,131 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.discovery.tao.muzvidziwa.BankBalanceDispensingSystem;
+
+import javax.sql.DataSource;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the time to read the balances of 1 000 clients over HTTP with one bulk balance enquiry
+ * ({@code POST /queryBalances}) vs 1 000 calls of the single client endpoints, for the transactional view and for the
+ * transactional and currency views ({@code ALL}, two single client calls per client).
+ * <p>
+ * The balance response cache is off, so both read the accounts from the database on every call. The application runs
+ * in-process on an in-memory database, so the network and database round trips saved are cheaper here than in production.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=BulkBalanceEnquiryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkBalanceEnquiryBenchmark {
+    private static final int CLIENTS = 1_000;
+
+    @Param({"TRANSACTIONAL", "ALL"})
+    private String views;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private List<HttpRequest> singleRequests;
+    private HttpRequest bulkRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        final int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        // Passed as command line arguments so they take precedence over application.yml
+        context = new SpringApplicationBuilder(BankBalanceDispensingSystem.class)
+                .run("--server.port=" + port,
+                        "--spring.datasource.url=jdbc:h2:mem:bulk-balance-enquiry-" + views,
+                        "--application-config.balance-cache.max-bytes=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.za.co.discovery.tao.muzvidziwa=WARN");
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            BankDataGenerator.generateClients(connection, CLIENTS, List.of("CHQ", "SVGS", "CCRD", "CFCA"));
+            BankDataGenerator.analyze(connection);
+        }
+
+        final String baseUrl = "http://localhost:" + port + "/discovery-atm";
+        final boolean currencyView = "ALL".equals(views);
+        final List<Integer> clientIds = new ArrayList<>();
+        singleRequests = new ArrayList<>();
+        for (int clientId = BankDataGenerator.FIRST_CLIENT_ID; clientId < BankDataGenerator.FIRST_CLIENT_ID + CLIENTS; clientId++) {
+            clientIds.add(clientId);
+            singleRequests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/queryTransactionalBalances?clientId=" + clientId)).GET().build());
+            if (currencyView) {
+                singleRequests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/queryCcyBalances?clientId=" + clientId)).GET().build());
+            }
+        }
+        bulkRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/queryBalances?views=" + (currencyView ? "TRANSACTIONAL,CURRENCY" : "TRANSACTIONAL")))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(clientIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"))))
+                .build();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // The currency conversion rates are loaded shortly after start-up, until then the clients' accounts are not shown
+        final String lastAccountNumber = BankDataGenerator.accountNumber(BankDataGenerator.FIRST_CLIENT_ID + CLIENTS - 1, 0);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!send(bulkRequest).contains(lastAccountNumber)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The bulk balance enquiry did not return the generated clients' accounts");
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long singleClientCalls() throws Exception {
+        long length = 0;
+        for (HttpRequest singleRequest : singleRequests) {
+            length += send(singleRequest).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long bulkBalanceEnquiry() throws Exception {
+        return send(bulkRequest).length();
+    }
+
+    private String send(final HttpRequest request) throws Exception {
+        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
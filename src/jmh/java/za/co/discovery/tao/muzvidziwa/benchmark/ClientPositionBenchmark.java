@@ -0,0 +1,184 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.service.ReportWriter;
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the client aggregate financial position summed from the client's accounts, as the month-end report did before
+ * the positions were kept on CLIENT_POSITION, with the kept position, against a generated bank of 500k client accounts
+ * (100k clients with a cheque, savings, credit card, personal loan and foreign currency account each):
+ * <ul>
+ *   <li>{@code summedPosition} and {@code keptPosition} look up the position of a random client</li>
+ *   <li>{@code summedReport} and {@code keptReport} build the month-end report over all the clients in memory, the same way for
+ *       both, so only the SQL differs</li>
+ *   <li>{@code debit} and {@code debitWithPosition} debit a random client's cheque account, the latter also moving the
+ *       client's position as a withdrawal does now</li>
+ * </ul>
+ * The kept statements are read from the {@link Query} annotations of the {@link ClientPositionRepository}.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=ClientPositionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ClientPositionBenchmark {
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "PLOAN", "CFCA");
+    private static final int CHEQUE_ACCOUNT_TYPE = ACCOUNT_TYPES.indexOf("CHQ");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "client-position-benchmark");
+    private static final MonthEndReport REPORT = MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION;
+    private static final String DEBIT_SQL = """
+            update CLIENT_ACCOUNT ca
+            set ca.DISPLAY_BALANCE = ca.DISPLAY_BALANCE - :amount
+            where ca.CLIENT_ACCOUNT_NUMBER = :clientAccountNumber
+                and ca.CLIENT_ID = :clientId
+                and ca.DISPLAY_BALANCE + :overdraftLimit >= :amount
+            """;
+    private static final int KEYS = 4_096;
+
+    @Param({"500000"})
+    private int accounts;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private String keptReportSql;
+    private String keptPositionSql;
+    private String positionChangeSql;
+
+    private final int[] clientIds = new int[KEYS];
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String url = "jdbc:h2:mem:client-positions;DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .load()
+                .migrate();
+
+        dataSource = new SingleConnectionDataSource(url, "sa", "sa", true);
+        final int clients = accounts / ACCOUNT_TYPES.size();
+        try (Connection connection = dataSource.getConnection()) {
+            BankDataGenerator.generateClients(connection, clients, ACCOUNT_TYPES);
+            BankDataGenerator.analyze(connection);
+        }
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        keptReportSql = new ReportWriter(jdbcTemplate, new DefaultResourceLoader(), REPORT_DIRECTORY.toString(), 1000, false).readSql(REPORT);
+        keptPositionSql = query("findClientPositionByClientId");
+        positionChangeSql = query("applyTransactionalBalanceChange");
+
+        final Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            clientIds[i] = BankDataGenerator.FIRST_CLIENT_ID + random.nextInt(clients);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        dataSource.destroy();
+        if (Files.exists(REPORT_DIRECTORY)) {
+            try (Stream<Path> paths = Files.walk(REPORT_DIRECTORY)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> summedPosition() {
+        final int clientId = nextClientId();
+        return namedParameterJdbcTemplate.queryForList(LegacyClientAggregateFinancialPositionReport.SQL,
+                Map.of("fromClientId", clientId, "toClientId", clientId));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> keptPosition() {
+        return namedParameterJdbcTemplate.queryForList(keptPositionSql, Map.of("clientId", nextClientId()));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Path summedReport() throws IOException {
+        return LegacyReportWriter.writeReport(namedParameterJdbcTemplate, LegacyClientAggregateFinancialPositionReport.SQL, REPORT,
+                REPORT_DIRECTORY.resolve("summed-report.txt"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Path keptReport() throws IOException {
+        return LegacyReportWriter.writeReport(namedParameterJdbcTemplate, keptReportSql, REPORT, REPORT_DIRECTORY.resolve("kept-report.txt"));
+    }
+
+    @Benchmark
+    public int debit() {
+        return namedParameterJdbcTemplate.update(DEBIT_SQL, debitParameters(nextClientId()));
+    }
+
+    @Benchmark
+    public int debitWithPosition() {
+        final Map<String, Object> parameters = debitParameters(nextClientId());
+        namedParameterJdbcTemplate.update(DEBIT_SQL, parameters);
+        return namedParameterJdbcTemplate.update(positionChangeSql, parameters);
+    }
+
+    private Map<String, Object> debitParameters(final int clientId) {
+        // The amount doubles as the change in the balance, it is paid back as soon as it is debited
+        return Map.of("clientId", clientId,
+                "clientAccountNumber", BankDataGenerator.accountNumber(clientId, CHEQUE_ACCOUNT_TYPE),
+                "amount", (next & 1) == 0 ? BigDecimal.ONE : BigDecimal.ONE.negate(),
+                "overdraftLimit", BankDataGenerator.OVERDRAFT_LIMIT);
+    }
+
+    private int nextClientId() {
+        return clientIds[next++ & (KEYS - 1)];
+    }
+
+    private static String query(final String methodName) {
+        final Method method = Arrays.stream(ClientPositionRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return method.getAnnotation(Query.class).value();
+    }
+}
@@ -0,0 +1,102 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.discovery.tao.muzvidziwa.BankBalanceDispensingSystem;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of writing the dispensed note counts of a withdrawal to ATM_ALLOCATION when a single note of
+ * each of 4, 8 or 16 denominations is dispensed, updating one denomination at a time with a flush after each
+ * ({@code per-denomination}) and as a single JDBC batch ({@code batched}).
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=DenominationCountWriteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DenominationCountWriteBenchmark {
+    private static final long ATM_ID = 100;
+    private static final int FIRST_DENOMINATION_ID = 100;
+    private static final int MAX_DENOMINATIONS = 16;
+
+    @Param({"4", "8", "16"})
+    private int denominations;
+
+    @Param({"per-denomination", "batched"})
+    private String writer;
+
+    private ConfigurableApplicationContext context;
+    private AtmAllocationRepository atmAllocationRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private List<AtmAllocationUpdateDto> updates;
+
+    @Setup
+    public void setUp() {
+        // Passed as command line arguments so they take precedence over application.yml
+        context = new SpringApplicationBuilder(BankBalanceDispensingSystem.class)
+                .run("--spring.main.web-application-type=none",
+                        "--spring.datasource.url=jdbc:h2:mem:denomination-writes-" + denominations + "-" + writer,
+                        "--logging.level.root=WARN",
+                        "--logging.level.za.co.discovery.tao.muzvidziwa=WARN");
+
+        // An ATM of its own with enough notes of every denomination to never run dry during the run
+        final JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO ATM VALUES (?, 'BENCH', 'Benchmark')", ATM_ID);
+        for (int i = 0; i < MAX_DENOMINATIONS; i++) {
+            jdbcTemplate.update("INSERT INTO DENOMINATION VALUES (?, ?, 'N')", FIRST_DENOMINATION_ID + i, 1000 + i);
+            jdbcTemplate.update("INSERT INTO ATM_ALLOCATION VALUES (DEFAULT, ?, ?, ?)", ATM_ID, FIRST_DENOMINATION_ID + i, Integer.MAX_VALUE);
+        }
+
+        updates = new ArrayList<>();
+        for (int i = 0; i < denominations; i++) {
+            updates.add(new AtmAllocationUpdateDto((long) FIRST_DENOMINATION_ID + i, 1));
+        }
+
+        atmAllocationRepository = context.getBean(AtmAllocationRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void updateDenominationCounts() {
+        if ("batched".equals(writer)) {
+            atmAllocationRepository.updateDenominationCounts(ATM_ID, updates);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                LegacyDenominationCountWriter.updateDenominationCounts(entityManager, ATM_ID, updates));
+    }
+}
@@ -0,0 +1,146 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassette;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+import za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
+import za.co.discovery.tao.muzvidziwa.domain.service.impl.BankServiceImpl;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the private {@code BankServiceImpl.dispenseCash}, the denomination check and the {@link DispensingEngine} plan
+ * with its suggestion of the largest lower amount, per cassette shape and requested amount:
+ * <ul>
+ *   <li>FUNDED - R200, R100, R50, R20 and R10 notes, 100 of each.</li>
+ *   <li>LARGE_NOTES - only R200 and R100 notes, amounts that are not a multiple of R100 are rejected up front.</li>
+ *   <li>DRAINED - all five notes but only a few of each, the larger amounts cannot be dispensed in full and a lower
+ *       amount is suggested.</li>
+ * </ul>
+ * The service is built without a Spring context and the method is called through a {@link MethodHandle}. The rejected
+ * withdrawals log an error, the log is switched off so the logic is measured rather than the console.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=DispenseCashBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispenseCashBenchmark {
+    private static final String TRACE_ID = "benchmark";
+    private static final long ATM_ID = 1;
+    private static final String[] DENOMINATIONS = {"200.00", "100.00", "50.00", "20.00", "10.00"};
+
+    @Param({"FUNDED", "LARGE_NOTES", "DRAINED"})
+    private String cassette;
+
+    @Param({"250", "2500", "9990"})
+    private String amount;
+
+    private BankServiceImpl bankService;
+    private MethodHandle dispenseCash;
+    private AtmCassetteRegistry atmCassetteRegistry;
+    private AtmCassette atmCassette;
+    private Money withdrawalAmount;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(LoggerUtils.class)).setLevel(Level.OFF);
+
+        final int[] counts = switch (cassette) {
+            case "FUNDED" -> new int[]{100, 100, 100, 100, 100};
+            case "LARGE_NOTES" -> new int[]{100, 100, 0, 0, 0};
+            default -> new int[]{2, 3, 4, 5, 50};
+        };
+        final List<AtmAllocation> atmAllocations = new ArrayList<>();
+        for (int i = 0; i < DENOMINATIONS.length; i++) {
+            // The registry only loads the denominations that have notes
+            if (counts[i] > 0) {
+                atmAllocations.add(createAtmAllocation(i + 1, DENOMINATIONS[i], counts[i]));
+            }
+        }
+
+        // Only findAtmAllocationByAtmId is called, when the cassette is loaded
+        final AtmAllocationRepository atmAllocationRepository = (AtmAllocationRepository) Proxy.newProxyInstance(
+                AtmAllocationRepository.class.getClassLoader(), new Class<?>[]{AtmAllocationRepository.class},
+                (proxy, method, args) -> Optional.of(atmAllocations));
+        final ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(List.of(), List.of(), List.of(),
+                atmAllocations.stream().map(AtmAllocation::getDenomination).toList());
+        atmCassetteRegistry = new AtmCassetteRegistry(atmAllocationRepository, referenceDataRegistry);
+        atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        // dispenseCash reads the note counts under the lock, the benchmark thread locks the cassette around each call
+        atmCassette.unlock();
+
+        final CurrencyConversionCache currencyConversionCache = new CurrencyConversionCache();
+        bankService = new BankServiceImpl(null, null, null, null, null, null, atmCassetteRegistry, null, referenceDataRegistry, new DispensingEngine(),
+                new ZarConverter(currencyConversionCache), null, new BankMetrics(new SimpleMeterRegistry(), atmCassetteRegistry, currencyConversionCache, null));
+        dispenseCash = MethodHandles.privateLookupIn(BankServiceImpl.class, MethodHandles.lookup()).findVirtual(BankServiceImpl.class, "dispenseCash",
+                MethodType.methodType(DispensePlanDto.class, AtmCassette.class, Money.class, String.class));
+        withdrawalAmount = Money.of(new BigDecimal(amount), Money.BALANCE_SCALE, RoundingMode.UNNECESSARY);
+    }
+
+    @Benchmark
+    public Object dispenseCash() throws Throwable {
+        atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID);
+        try {
+            return (DispensePlanDto) dispenseCash.invokeExact(bankService, atmCassette, withdrawalAmount, TRACE_ID);
+        } catch (final BankServiceException bSE) {
+            return bSE.getMessage();
+        } finally {
+            atmCassette.unlock();
+        }
+    }
+
+    private static AtmAllocation createAtmAllocation(final int denominationId, final String denominationValue, final int count) {
+        final DenominationType denominationType = new DenominationType();
+        denominationType.setDenominationTypeCode("N");
+
+        final Denomination denomination = new Denomination();
+        denomination.setDenominationId(denominationId);
+        denomination.setDenominationValue(new BigDecimal(denominationValue));
+        denomination.setDenominationType(denominationType);
+
+        final AtmAllocation atmAllocation = new AtmAllocation();
+        atmAllocation.setAtmAllocationId(denominationId);
+        atmAllocation.setDenomination(denomination);
+        atmAllocation.setCount(count);
+        return atmAllocation;
+    }
+}
@@ -0,0 +1,86 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+import za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link DispensingEngine} with the legacy greedy pass and its one rand at a time fallback search.
+ * <ul>
+ *   <li>FUNDED - R2 500 requested from a well funded ATM, the greedy pass succeeds first time.</li>
+ *   <li>DRAINED - R50 000 requested from a nearly drained ATM, the greedy pass fails and the fallback search runs.</li>
+ * </ul>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=DispensingEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispensingEngineBenchmark {
+    private static final long[] DENOMINATION_CENTS = {20000, 10000, 5000, 2000, 1000};
+
+    @Param({"FUNDED", "DRAINED"})
+    private String scenario;
+
+    private final DispensingEngine dispensingEngine = new DispensingEngine();
+
+    private int[] availableCounts;
+    private long requestedCents;
+
+    private List<BigDecimal> denominationsDescending;
+    private Map<BigDecimal, Integer> counts;
+    private BigDecimal requestedAmount;
+
+    @Setup
+    public void setUp() {
+        if ("FUNDED".equals(scenario)) {
+            availableCounts = new int[]{123, 158, 123, 193, 656};
+            requestedCents = 250_000;
+        } else {
+            availableCounts = new int[]{2, 3, 4, 5, 50};
+            requestedCents = 5_000_000;
+        }
+
+        denominationsDescending = new ArrayList<>();
+        counts = new HashMap<>();
+        for (int i = 0; i < DENOMINATION_CENTS.length; i++) {
+            final BigDecimal denomination = BigDecimal.valueOf(DENOMINATION_CENTS[i], 2);
+            denominationsDescending.add(denomination);
+            counts.put(denomination, availableCounts[i]);
+        }
+        requestedAmount = BigDecimal.valueOf(requestedCents, 2);
+    }
+
+    @Benchmark
+    public DispensePlanDto dispensingEngine() {
+        return dispensingEngine.plan(DENOMINATION_CENTS, availableCounts, requestedCents);
+    }
+
+    @Benchmark
+    public BigDecimal legacyGreedyWithFallback() {
+        final BigDecimal remaining = LegacyGreedyDispenser.dispense(denominationsDescending, counts, requestedAmount);
+        if (remaining.compareTo(BigDecimal.ZERO) == 0) {
+            return requestedAmount;
+        }
+        return LegacyGreedyDispenser.findNextDispensableAmount(denominationsDescending, counts, requestedAmount);
+    }
+}
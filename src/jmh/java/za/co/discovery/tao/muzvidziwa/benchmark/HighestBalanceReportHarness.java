@@ -0,0 +1,142 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.service.ReportWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Times the highest-balance month-end report built in memory with the correlated {@code MAX(DISPLAY_BALANCE)} subquery
+ * it used before and streamed by the {@link ReportWriter}, which picks each client's highest balances from the client's
+ * accounts as they are read, against generated banks of 10k up to 5M client accounts (a fifth as many clients, each with
+ * a cheque, savings, credit card, personal loan and foreign currency account). The fastest of three runs is reported and
+ * the reports are compared byte for byte. The query plans are printed for the first bank.
+ * <p>
+ * The bank lives in an H2 file database under {@code target/highest-balance-report-harness}, spilling query results of
+ * more than 10k rows to disk, as in the {@link ReportHeapHarness}.
+ * <p>
+ * Run with (the argument is a comma separated list of the numbers of client accounts, 10000,100000,1000000,5000000 by
+ * default):
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec \
+ *     -Dbenchmark.main-class=za.co.discovery.tao.muzvidziwa.benchmark.HighestBalanceReportHarness -Dbenchmark.args=10000,100000
+ * </pre>
+ */
+public final class HighestBalanceReportHarness {
+    private static final String DEFAULT_ACCOUNTS = "10000,100000,1000000,5000000";
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "PLOAN", "CFCA");
+    private static final Path WORK_DIRECTORY = Path.of("target", "highest-balance-report-harness");
+    private static final Map<String, Object> ALL_CLIENTS = Map.of("fromClientId", Integer.MIN_VALUE, "toClientId", Integer.MAX_VALUE);
+    private static final int RUNS = 3;
+    private static final MonthEndReport REPORT = MonthEndReport.TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE;
+
+    private HighestBalanceReportHarness() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int[] accountCounts = Arrays.stream((args.length > 0 && args[0].matches("[\\d,]+") ? args[0] : DEFAULT_ACCOUNTS).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        final List<String> results = new ArrayList<>();
+        for (int i = 0; i < accountCounts.length; i++) {
+            results.add(run(accountCounts[i], i == 0));
+        }
+
+        System.out.println();
+        System.out.printf("%10s %16s %16s %10s %10s%n", "Accounts", "Correlated (s)", "Streamed (s)", "Rows", "Identical");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(final int accounts, final boolean explain) throws Exception {
+        deleteRecursively(WORK_DIRECTORY);
+        final String url = "jdbc:h2:file:" + WORK_DIRECTORY.toAbsolutePath().resolve("bank") + ";MAX_MEMORY_ROWS=10000";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .load()
+                .migrate();
+
+        final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "sa", "sa", true);
+        try {
+            System.out.printf("Generating %d client accounts...%n", accounts);
+            try (Connection connection = dataSource.getConnection()) {
+                BankDataGenerator.generateClients(connection, accounts / ACCOUNT_TYPES.size(), ACCOUNT_TYPES);
+                BankDataGenerator.analyze(connection);
+            }
+
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            final NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+            final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, new DefaultResourceLoader(),
+                    WORK_DIRECTORY.resolve("reports").toString(), 1000, false);
+            final String sql = reportWriter.readSql(REPORT);
+
+            if (explain) {
+                System.out.println("Correlated subquery plan:");
+                System.out.println(namedParameterJdbcTemplate.queryForObject("EXPLAIN " + LegacyHighestBalanceReport.SQL, ALL_CLIENTS, String.class));
+                System.out.println("Streamed plan:");
+                System.out.println(namedParameterJdbcTemplate.queryForObject("EXPLAIN " + sql, ALL_CLIENTS, String.class));
+            }
+
+            final Path correlatedReport = WORK_DIRECTORY.resolve("correlated-report.txt");
+            final Path[] streamedReport = new Path[1];
+            final double correlatedSeconds = time(() -> LegacyReportWriter.writeReport(namedParameterJdbcTemplate,
+                    LegacyHighestBalanceReport.SQL, REPORT, correlatedReport));
+            final double streamedSeconds = time(() -> streamedReport[0] = reportWriter.writeReport(REPORT, "highest-balance-report-harness"));
+
+            final long rows;
+            try (Stream<String> lines = Files.lines(streamedReport[0])) {
+                rows = lines.count() - 1;
+            }
+            return String.format("%10d %16.3f %16.3f %10d %10s", accounts, correlatedSeconds, streamedSeconds, rows,
+                    Files.mismatch(correlatedReport, streamedReport[0]) == -1 ? "yes" : "NO");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * @return the fastest of {@link #RUNS} runs, in seconds
+     */
+    private static double time(final ReportTask task) throws Exception {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            System.gc();
+            final long start = System.nanoTime();
+            task.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest / 1_000_000_000.0;
+    }
+
+    private static void deleteRecursively(final Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReportTask {
+        Path run() throws Exception;
+    }
+}
@@ -0,0 +1,82 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JSON results of the {@link JmhRunner}, i.e., of the previous and the current version, benchmark by
+ * benchmark and parameters by parameters. A change larger than the two scores' error margins together is marked as a
+ * regression or an improvement, depending on whether the benchmark's mode measures time or throughput.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Dbenchmark.main-class=za.co.discovery.tao.muzvidziwa.benchmark.JmhResultComparison
+ * "-Dbenchmark.args=target/jmh-results/baseline.json target/jmh-results/current.json"
+ */
+public final class JmhResultComparison {
+    private JmhResultComparison() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final String[] files = String.join(" ", args).trim().split("\\s+");
+        if (files.length != 2) {
+            System.out.println("Usage: JmhResultComparison <baseline.json> <current.json>");
+            return;
+        }
+
+        final Map<String, JsonNode> baseline = readResults(new File(files[0]));
+        final Map<String, JsonNode> current = readResults(new File(files[1]));
+
+        System.out.printf("%-100s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            final JsonNode currentResult = entry.getValue();
+            final JsonNode currentMetric = currentResult.get("primaryMetric");
+            final JsonNode baselineResult = baseline.get(entry.getKey());
+            if (baselineResult == null) {
+                System.out.printf("%-100s %14s %14.3f %9s  new%n", entry.getKey(), "-", currentMetric.get("score").asDouble(), "-");
+                continue;
+            }
+
+            final JsonNode baselineMetric = baselineResult.get("primaryMetric");
+            final double baselineScore = baselineMetric.get("score").asDouble();
+            final double currentScore = currentMetric.get("score").asDouble();
+            final double change = (currentScore - baselineScore) / baselineScore * 100;
+            // A NaN error, i.e., of a single iteration, never marks a change
+            final boolean significant = Math.abs(currentScore - baselineScore)
+                    > baselineMetric.get("scoreError").asDouble(Double.NaN) + currentMetric.get("scoreError").asDouble(Double.NaN);
+            // Throughput is better when higher, the other modes measure time and are better when lower
+            final boolean higherIsBetter = "thrpt".equals(currentResult.get("mode").asText());
+            final String verdict = !significant ? "" : (currentScore > baselineScore) == higherIsBetter ? "  improvement" : "  REGRESSION";
+            System.out.printf("%-100s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), baselineScore, currentScore, change, verdict);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-100s %14.3f %14s %9s  removed%n", key, baseline.get(key).get("primaryMetric").get("score").asDouble(), "-", "-");
+            }
+        }
+    }
+
+    /**
+     * @return the results by benchmark and parameters, i.e., {@code DispenseCashBenchmark.dispenseCash {amount=250, cassette=FUNDED} (ns/op)}
+     */
+    private static Map<String, JsonNode> readResults(final File file) throws Exception {
+        final Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            final Map<String, String> params = new TreeMap<>();
+            final JsonNode paramsNode = result.get("params");
+            if (paramsNode != null) {
+                for (Map.Entry<String, JsonNode> param : paramsNode.properties()) {
+                    params.put(param.getKey(), param.getValue().asText());
+                }
+            }
+            final String benchmark = result.get("benchmark").asText();
+            final String key = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1)
+                    + (params.isEmpty() ? "" : " " + params) + " (" + result.get("primaryMetric").get("scoreUnit").asText() + ")";
+            results.put(key, result);
+        }
+        return results;
+    }
+}
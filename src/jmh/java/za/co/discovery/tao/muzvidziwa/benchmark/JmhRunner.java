@@ -0,0 +1,57 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON, so the results of two versions can be compared with
+ * {@link JmhResultComparison}.
+ * <p>
+ * The arguments are JMH's own, split on whitespace as Maven passes {@code -Dbenchmark.args} as a single argument, i.e.,
+ * {@code -Dbenchmark.args="DispenseCashBenchmark -wi 1 -i 3"}. Unless a result file is given with {@code -rff}, the
+ * results are written to {@code target/jmh-results/<benchmarks>-<time>.json}.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=DispenseCashBenchmark
+ */
+public final class JmhRunner {
+    private static final Path RESULTS_DIRECTORY = Path.of("target", "jmh-results");
+    private static final DateTimeFormatter RESULT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private JmhRunner() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> jmhArgs = new ArrayList<>();
+        for (String arg : args) {
+            jmhArgs.addAll(Arrays.asList(arg.trim().split("\\s+")));
+        }
+        jmhArgs.removeIf(String::isEmpty);
+
+        if (!jmhArgs.contains("-rff")) {
+            Files.createDirectories(RESULTS_DIRECTORY);
+            // The first argument that is not an option (or an option's value) names the benchmarks run
+            String benchmarks = "all";
+            for (int i = 0; i < jmhArgs.size(); i++) {
+                if (jmhArgs.get(i).startsWith("-")) {
+                    i++;
+                } else if (!".*".equals(jmhArgs.get(i))) {
+                    benchmarks = jmhArgs.get(i).replaceAll("[^A-Za-z0-9._-]", "_");
+                    break;
+                }
+            }
+            jmhArgs.add("-rff");
+            jmhArgs.add(RESULTS_DIRECTORY.resolve(benchmarks + "-" + LocalDateTime.now().format(RESULT_TIME) + ".json").toString());
+        }
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+        }
+
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
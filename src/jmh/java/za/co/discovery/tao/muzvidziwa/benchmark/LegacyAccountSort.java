@@ -0,0 +1,62 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class preserves the insertion sorts {@code BankServiceImpl} sorted the accounts with before they were sorted on a
+ * key read once per account, so the two approaches can be compared side by side. The accounts are inserted as they were
+ * mapped, in the order they were read.
+ */
+final class LegacyAccountSort {
+
+    private LegacyAccountSort() {
+    }
+
+    /**
+     * Inserts each account before the first sorted account with an equal or lower balance.
+     */
+    static List<AccountDto> sortByBalanceDescending(final List<AccountDto> accountDtoList) {
+        final List<AccountDto> sortedAccountDtoList = new ArrayList<>();
+        for (AccountDto accountDto : accountDtoList) {
+            int insertIndex = 0;
+            while (insertIndex < sortedAccountDtoList.size()) {
+                BigDecimal currentBalance = sortedAccountDtoList.get(insertIndex).balance();
+                BigDecimal newBalance = accountDto.balance() != null ? accountDto.balance() : BigDecimal.ZERO;
+                BigDecimal compareBalance = currentBalance != null ? currentBalance : BigDecimal.ZERO;
+
+                if (newBalance.compareTo(compareBalance) >= 0) {
+                    break;
+                }
+                insertIndex++;
+            }
+            sortedAccountDtoList.add(insertIndex, accountDto);
+        }
+        return sortedAccountDtoList;
+    }
+
+    /**
+     * Inserts each account before the first sorted account with a higher ZAR balance.
+     */
+    static List<AccountDto> sortByZarBalanceAscending(final List<AccountDto> accountDtoList) {
+        final List<AccountDto> sortedAccountDtoList = new ArrayList<>();
+        for (AccountDto accountDto : accountDtoList) {
+            int insertIndex = 0;
+            while (insertIndex < sortedAccountDtoList.size()) {
+                BigDecimal currentZarBalance = sortedAccountDtoList.get(insertIndex).zarBalance();
+                BigDecimal newZarBalance = accountDto.zarBalance() != null ? accountDto.zarBalance() : BigDecimal.ZERO;
+                BigDecimal compareZarBalance = currentZarBalance != null ? currentZarBalance : BigDecimal.ZERO;
+
+                if (newZarBalance.compareTo(compareZarBalance) < 0) {
+                    break;
+                }
+                insertIndex++;
+            }
+            sortedAccountDtoList.add(insertIndex, accountDto);
+        }
+        return sortedAccountDtoList;
+    }
+}
@@ -0,0 +1,72 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
+import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class preserves the BigDecimal arithmetic {@code BankServiceImpl} did on the balances and withdrawal amounts before
+ * they were held as {@link za.co.discovery.tao.muzvidziwa.domain.model.dto.Money}: the overdraft limit is parsed from its
+ * String on every use, and every amount put on a response is rescaled to 3 decimals.
+ */
+final class LegacyBalanceArithmetic {
+
+    private LegacyBalanceArithmetic() {
+    }
+
+    /**
+     * @return {balance or ccyBalance, zarBalance, accountLimit} of the account, as {@code prepareClientAccountDto} set them
+     */
+    static BigDecimal[] balances(final String accountTypeCode, final String currencyCode, final BigDecimal displayBalance,
+                                 final BigDecimal creditCardLimit, final String overdraftLimit, final ConversionRatesDto conversionRatesDto) {
+        final BigDecimal balance = displayBalance.setScale(3, RoundingMode.HALF_UP);
+        BigDecimal zarBalance = currencyCode.equalsIgnoreCase("ZAR")
+                ? displayBalance.setScale(3, RoundingMode.HALF_UP)
+                : toZar(displayBalance, conversionRatesDto);
+
+        final BigDecimal accountLimit;
+        if (accountTypeCode.equalsIgnoreCase("CHQ") && currencyCode.equalsIgnoreCase("ZAR")) {
+            accountLimit = GeneralUtils.parseBigDecimal(overdraftLimit).add(displayBalance).setScale(3, RoundingMode.HALF_UP);
+        } else if (accountTypeCode.equalsIgnoreCase("CCRD") && currencyCode.equalsIgnoreCase("ZAR")) {
+            zarBalance = displayBalance.subtract(creditCardLimit).setScale(3, RoundingMode.HALF_UP);
+            accountLimit = creditCardLimit.setScale(3, RoundingMode.HALF_UP);
+        } else {
+            accountLimit = balance.setScale(3, RoundingMode.HALF_UP);
+        }
+        return new BigDecimal[]{balance, zarBalance, accountLimit};
+    }
+
+    // Multiplies or divides by the rate, as the conversion did before the rates were normalized
+    private static BigDecimal toZar(final BigDecimal amount, final ConversionRatesDto conversionRatesDto) {
+        return switch (conversionRatesDto.getConversionIndicator()) {
+            case DIVIDE -> amount.divide(conversionRatesDto.getConversionRate(), 3, RoundingMode.HALF_UP);
+            case MULTIPLY -> amount.multiply(conversionRatesDto.getConversionRate()).setScale(3, RoundingMode.HALF_UP);
+        };
+    }
+
+    /**
+     * @return the balance after the withdrawal, or null if the funds or the smallest denomination do not cover it, as
+     * {@code postWithdrawal} and {@code dispenseCash} checked it
+     */
+    static BigDecimal withdraw(final String accountTypeCode, final BigDecimal displayBalance, final BigDecimal withdrawalAmount,
+                               final String overdraftLimit, final BigDecimal smallestDenomination) {
+        if (!GeneralUtils.isPositiveBigDecimal(withdrawalAmount)) {
+            return null;
+        }
+        BigDecimal overdraftFacility = BigDecimal.ZERO;
+        if (accountTypeCode.equalsIgnoreCase("CHQ")) {
+            overdraftFacility = GeneralUtils.parseBigDecimal(overdraftLimit);
+        }
+        if (overdraftFacility.add(displayBalance).compareTo(withdrawalAmount) < 0
+                || withdrawalAmount.remainder(smallestDenomination).compareTo(BigDecimal.ZERO) != 0) {
+            return null;
+        }
+        // The cents the dispensing engine is asked for
+        if (withdrawalAmount.movePointRight(2).setScale(0, RoundingMode.DOWN).longValueExact() <= 0) {
+            return null;
+        }
+        return displayBalance.subtract(withdrawalAmount);
+    }
+}
@@ -0,0 +1,47 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * This class preserves the per-account currency conversion {@code BankServiceImpl} did before the
+ * {@link za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter} was introduced: the rate is held as a String, looked
+ * up from the cache for every use and parsed into a BigDecimal each time.
+ */
+final class LegacyCurrencyConversion {
+
+    private LegacyCurrencyConversion() {
+    }
+
+    /**
+     * The cached rate as it used to be held, i.e., {conversionRate, conversionIndicator}.
+     */
+    static String[] rate(final String conversionRate, final String conversionIndicator) {
+        return new String[]{conversionRate, conversionIndicator};
+    }
+
+    /**
+     * @return {displayRate, zarBalance} of the account, or null if the currency has no usable rate
+     */
+    static BigDecimal[] convert(final Map<String, String[]> rates, final String currencyCode, final BigDecimal displayBalance) {
+        if (rates.get(currencyCode) == null
+                || rates.get(currencyCode)[0] == null
+                || GeneralUtils.parseBigDecimal(rates.get(currencyCode)[0]) == null) {
+            return null;
+        }
+        final BigDecimal displayRate = GeneralUtils.parseBigDecimal(rates.get(currencyCode)[0]).setScale(3, RoundingMode.HALF_UP);
+
+        BigDecimal convertedZarBalance = null;
+        switch (rates.get(currencyCode)[1]) {
+            case ("/") -> convertedZarBalance = displayBalance
+                    .divide(GeneralUtils.parseBigDecimal(rates.get(currencyCode)[0]), 3, RoundingMode.HALF_UP);
+            case ("*") -> convertedZarBalance = displayBalance
+                    .multiply(GeneralUtils.parseBigDecimal(rates.get(currencyCode)[0]));
+        }
+
+        return new BigDecimal[]{displayRate, convertedZarBalance != null ? convertedZarBalance.setScale(3, RoundingMode.HALF_UP) : null};
+    }
+}
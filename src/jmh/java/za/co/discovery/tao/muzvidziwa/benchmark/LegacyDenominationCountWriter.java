@@ -0,0 +1,36 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
+
+import java.util.List;
+
+/**
+ * This class preserves the denomination count update {@code AtmAllocationRepositoryImpl} did before the updates were
+ * batched: a native query per denomination, each followed by a flush, so the two approaches can be compared side by side.
+ * It has to be called in a transaction.
+ */
+final class LegacyDenominationCountWriter {
+
+    private LegacyDenominationCountWriter() {
+    }
+
+    static void updateDenominationCounts(final EntityManager entityManager, final long atmId, final List<AtmAllocationUpdateDto> updates) {
+        for (AtmAllocationUpdateDto update : updates) {
+            final int updatedRows = entityManager.createNativeQuery(
+                            "UPDATE ATM_ALLOCATION aa " +
+                                    "SET aa.COUNT = aa.COUNT - :count " +
+                                    "WHERE aa.ATM_ID = :atmId AND aa.DENOMINATION_ID = :denominationId AND aa.COUNT >= :count"
+                    )
+                    .setParameter("count", update.getDispensedCount())
+                    .setParameter("atmId", atmId)
+                    .setParameter("denominationId", update.getDenominationId())
+                    .executeUpdate();
+            if (updatedRows == 0) {
+                throw new IllegalStateException("ATM ID " + atmId + " does not hold " + update.getDispensedCount()
+                        + " notes of denomination ID " + update.getDenominationId());
+            }
+            entityManager.flush();
+        }
+    }
+}
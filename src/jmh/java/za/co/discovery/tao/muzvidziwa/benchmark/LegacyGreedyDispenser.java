@@ -0,0 +1,49 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class preserves the greedy dispense pass and the one rand at a time fallback search that
+ * {@code BankServiceImpl} used before the {@link za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine}
+ * was introduced, so the two approaches can be compared side by side.
+ */
+final class LegacyGreedyDispenser {
+
+    private LegacyGreedyDispenser() {
+    }
+
+    /**
+     * Greedy pass over the denominations (sorted in descending order).
+     *
+     * @return the amount left over after the greedy pass, zero if the amount could be dispensed
+     */
+    static BigDecimal dispense(final List<BigDecimal> denominationsDescending, final Map<BigDecimal, Integer> counts, final BigDecimal amount) {
+        BigDecimal remaining = amount;
+        for (BigDecimal denomination : denominationsDescending) {
+            int available = counts.get(denomination);
+            int toDispense = remaining.divideToIntegralValue(denomination).intValue();
+            int notesToDispense = Math.min(toDispense, available);
+            remaining = remaining.subtract(denomination.multiply(BigDecimal.valueOf(notesToDispense)));
+        }
+        return remaining;
+    }
+
+    /**
+     * Walks down from the requested amount one rand at a time, re-running the greedy pass on every step.
+     *
+     * @return the next lower amount the greedy pass can dispense, zero if there is none
+     */
+    static BigDecimal findNextDispensableAmount(final List<BigDecimal> denominationsDescending, final Map<BigDecimal, Integer> counts,
+                                                final BigDecimal requestedAmount) {
+        BigDecimal amount = requestedAmount.subtract(denominationsDescending.get(denominationsDescending.size() - 1));
+        while (amount.compareTo(BigDecimal.ZERO) > 0) {
+            if (dispense(denominationsDescending, counts, amount).compareTo(BigDecimal.ZERO) == 0) {
+                return amount;
+            }
+            amount = amount.subtract(BigDecimal.ONE);
+        }
+        return BigDecimal.ZERO;
+    }
+}
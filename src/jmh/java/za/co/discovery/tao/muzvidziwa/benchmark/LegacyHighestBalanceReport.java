@@ -0,0 +1,30 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+/**
+ * This class preserves the SQL of the highest-balance month-end report before each client's highest balance was picked
+ * out while streaming the client's accounts: every account is compared with its client's highest balance, found by a
+ * correlated {@code MAX(DISPLAY_BALANCE)} subquery per account.
+ */
+final class LegacyHighestBalanceReport {
+    static final String SQL = """
+            SELECT c.CLIENT_ID                  AS "Client Id",
+                   c.SURNAME                    AS "Client Surname",
+                   ca.CLIENT_ACCOUNT_NUMBER     AS "Client Account Number",
+                   act.DESCRIPTION              AS "Account Description",
+                   ROUND(ca.DISPLAY_BALANCE, 2) AS "Display Balance"
+            FROM CLIENT c
+                     JOIN
+                 CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
+                     JOIN
+                 ACCOUNT_TYPE act ON ca.ACCOUNT_TYPE_CODE = act.ACCOUNT_TYPE_CODE
+            WHERE c.CLIENT_ID BETWEEN :fromClientId AND :toClientId
+              AND ca.DISPLAY_BALANCE = (
+                SELECT MAX(ca2.DISPLAY_BALANCE)
+                FROM CLIENT_ACCOUNT ca2
+                WHERE ca2.CLIENT_ID = c.CLIENT_ID
+                )
+            ORDER BY c.CLIENT_ID""";
+
+    private LegacyHighestBalanceReport() {
+    }
+}
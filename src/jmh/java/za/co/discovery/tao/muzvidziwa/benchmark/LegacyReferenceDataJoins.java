@@ -0,0 +1,57 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+/**
+ * This class preserves the SQL of the client and client account lookups before the reference tables were kept in memory
+ * by the {@code ReferenceDataRegistry}: every lookup joined CLIENT_SUB_TYPE and CLIENT_TYPE to check the client is an
+ * individual or non-individual, and ACCOUNT_TYPE to check the account is transactional or to read its description.
+ */
+final class LegacyReferenceDataJoins {
+    static final String TRANSACTIONAL_BALANCES_SQL = """
+            select c.CLIENT_ID as clientId,
+                   c.TITLE as title,
+                   c.NAME as name,
+                   c.SURNAME as surname,
+                   ta.CLIENT_ACCOUNT_NUMBER as clientAccountNumber,
+                   ta.ACCOUNT_TYPE_CODE as accountTypeCode,
+                   ta.DESCRIPTION as accountTypeDescription,
+                   ta.CURRENCY_CODE as currencyCode,
+                   ta.DISPLAY_BALANCE as displayBalance,
+                   ccl.ACCOUNT_LIMIT as creditCardLimit
+            from CLIENT c
+            join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
+            join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE
+            left join (select ca.CLIENT_ACCOUNT_NUMBER, ca.CLIENT_ID, ca.ACCOUNT_TYPE_CODE, at.DESCRIPTION, ca.CURRENCY_CODE, ca.DISPLAY_BALANCE
+                       from CLIENT_ACCOUNT ca
+                       join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+                       where at.TRANSACTIONAL = true) ta on ta.CLIENT_ID = c.CLIENT_ID
+            left join CREDIT_CARD_LIMIT ccl on ccl.CLIENT_ACCOUNT_NUMBER = ta.CLIENT_ACCOUNT_NUMBER
+                and ta.ACCOUNT_TYPE_CODE = 'CCRD'
+            where c.CLIENT_ID = :clientId
+              and ct.CLIENT_TYPE_CODE IN ('I', 'N')
+            """;
+
+    static final String ACCOUNT_BY_NUMBER_SQL = """
+            select ca.*
+            from CLIENT_ACCOUNT ca
+            join CLIENT c on ca.CLIENT_ID = c.CLIENT_ID
+            join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+            join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
+            join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE
+            where c.CLIENT_ID = :clientId
+              and ca.CLIENT_ACCOUNT_NUMBER = :accountNumber
+              and ct.CLIENT_TYPE_CODE IN ('I', 'N')
+              and at.TRANSACTIONAL = true
+            """;
+
+    static final String CLIENT_SQL = """
+            select c.*
+            from CLIENT c
+                join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
+                join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE
+            where c.CLIENT_ID = :clientId
+                and ct.CLIENT_TYPE_CODE IN ('I', 'N')
+            """;
+
+    private LegacyReferenceDataJoins() {
+    }
+}
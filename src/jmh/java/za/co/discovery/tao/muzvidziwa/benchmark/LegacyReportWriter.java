@@ -0,0 +1,41 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * This class preserves the way {@code ScheduledService} wrote the month-end reports before the
+ * {@link za.co.discovery.tao.muzvidziwa.domain.service.ReportWriter} was introduced: the whole report is built in a
+ * StringBuilder, reading the result set metadata for every row, and written to the file in one go. The report's SQL is
+ * run over all the clients.
+ */
+final class LegacyReportWriter {
+    private static final Map<String, Object> ALL_CLIENTS = Map.of("fromClientId", Integer.MIN_VALUE, "toClientId", Integer.MAX_VALUE);
+
+    private LegacyReportWriter() {
+    }
+
+    static Path writeReport(final NamedParameterJdbcTemplate jdbcTemplate, final String sql, final MonthEndReport report, final Path reportFile) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(report.header).append(System.lineSeparator());
+
+        jdbcTemplate.query(sql, ALL_CLIENTS, (rs) -> {
+            int columnCount = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columnCount; i++) {
+                sb.append(rs.getString(i));
+                if (i < columnCount) sb.append(", ");
+            }
+            sb.append(System.lineSeparator());
+        });
+
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, sb.toString(), StandardCharsets.UTF_8);
+        return reportFile;
+    }
+}
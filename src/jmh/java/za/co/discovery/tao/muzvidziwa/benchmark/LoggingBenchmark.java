@@ -0,0 +1,151 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientSubType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
+import za.co.discovery.tao.muzvidziwa.domain.service.impl.BankServiceImpl;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BANK_SERVICE;
+
+/**
+ * Measures the logging cost with DEBUG off and INFO on, logged to an appender that formats every event and writes it
+ * nowhere:
+ * <ul>
+ *   <li>transactionalBalances - a full {@code getTransactionalClientAccountBalances} call for a client with 10 accounts,
+ *       3 of them incomplete and skipped with a debug line, read from a stubbed repository. Run it on the tree before
+ *       the change to {@code LoggerUtils} for the before numbers.</li>
+ *   <li>legacySkippingAccountLine - the "Skipping account" debug line formatted into a String before the level check,
+ *       as {@code LoggerUtils} did before.</li>
+ *   <li>skippingAccountLine - the same line through {@link LoggerUtils}, the level is checked first.</li>
+ * </ul>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String TRACE_ID = "benchmark";
+    private static final int CLIENT_ID = 1;
+    private static final int ACCOUNTS = 10;
+    private static final int INCOMPLETE_ACCOUNTS = 3;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggerUtils.class);
+
+    private BankServiceImpl bankService;
+    private AccountBalanceRow skippedAccount;
+
+    @Setup
+    public void setUp() {
+        final Logger rootLogger = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.detachAndStopAllAppenders();
+        final FormattingAppender appender = new FormattingAppender();
+        appender.setContext(rootLogger.getLoggerContext());
+        appender.start();
+        rootLogger.addAppender(appender);
+        rootLogger.setLevel(Level.INFO);
+
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode("ZAR");
+        currencyConversionRate.setConversionIndicator("*");
+        currencyConversionRate.setRate(BigDecimal.ONE);
+        final CurrencyConversionCache currencyConversionCache = new CurrencyConversionCache();
+        currencyConversionCache.replaceCurrencyConversionRates(Map.of("ZAR", currencyConversionRate), TRACE_ID);
+
+        final List<ClientAccountBalanceProjection> rows = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            // The incomplete accounts have no currency
+            rows.add(new AccountBalanceRow(CLIENT_ID, "Mr", "Benchmark", "Client", "MAL", String.valueOf(4_000_000_000L + i), "CHQ",
+                    i < INCOMPLETE_ACCOUNTS ? null : "ZAR", BigDecimal.valueOf(100_000L + i * 7_919L, 2), null));
+        }
+        skippedAccount = (AccountBalanceRow) rows.get(0);
+
+        // Only findClientAccountBalancesByClientId is called, a plain proxy keeps a mock's overhead out of the timings
+        final ClientAccountRepository clientAccountRepository = (ClientAccountRepository) Proxy.newProxyInstance(
+                ClientAccountRepository.class.getClassLoader(), new Class<?>[]{ClientAccountRepository.class}, (proxy, method, args) -> rows);
+        final ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(
+                List.of(createAccountType("CHQ", "Cheque Account")), List.of(createClientSubType("MAL", "I")), List.of(), List.of());
+        bankService = new BankServiceImpl(clientAccountRepository, null, null, null, null, null, null, null, referenceDataRegistry, null,
+                new ZarConverter(currencyConversionCache), null, new BankMetrics(new SimpleMeterRegistry(), null, currencyConversionCache, null));
+        ReflectionTestUtils.invokeSetterMethod(bankService, "overdraftLimit", new BigDecimal("10000"));
+    }
+
+    @Benchmark
+    public AtmResponse transactionalBalances() throws Exception {
+        return bankService.getTransactionalClientAccountBalances(CLIENT_ID);
+    }
+
+    @Benchmark
+    public void legacySkippingAccountLine() {
+        logger.debug(LegacyLoggerUtils.formatLogMessage(TRACE_ID, BANK_SERVICE, "Skipping account with null or incomplete data: {}", skippedAccount));
+    }
+
+    @Benchmark
+    public void skippingAccountLine() {
+        LoggerUtils.logDebug(TRACE_ID, BANK_SERVICE, "Skipping account with null or incomplete data: {}", skippedAccount);
+    }
+
+    private static AccountType createAccountType(final String accountTypeCode, final String description) {
+        final AccountType accountType = new AccountType();
+        accountType.setAccountTypeCode(accountTypeCode);
+        accountType.setDescription(description);
+        accountType.setTransactional(true);
+        return accountType;
+    }
+
+    private static ClientSubType createClientSubType(final String clientSubTypeCode, final String clientTypeCode) {
+        final ClientType clientType = new ClientType();
+        clientType.setClientTypeCode(clientTypeCode);
+        final ClientSubType clientSubType = new ClientSubType();
+        clientSubType.setClientSubTypeCode(clientSubTypeCode);
+        clientSubType.setClientType(clientType);
+        return clientSubType;
+    }
+
+    /**
+     * Formats every event as a console appender would, but writes it nowhere.
+     */
+    private static final class FormattingAppender extends AppenderBase<ILoggingEvent> {
+        private int length;
+
+        @Override
+        protected void append(final ILoggingEvent event) {
+            length += event.getFormattedMessage().length() + event.getMDCPropertyMap().size();
+        }
+    }
+}
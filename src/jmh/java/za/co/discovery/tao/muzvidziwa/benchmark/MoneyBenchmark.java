@@ -0,0 +1,141 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the balance and withdrawal arithmetic of a client with 50 accounts (CHQ, CCRD and SVGS in ZAR, CFCA in USD and
+ * AUD) before and after the amounts were held as {@link Money}.
+ * <ul>
+ *   <li>legacyBalances / moneyBalances - the balance, ZAR balance and account limit of each account, as
+ *       {@code prepareClientAccountDto} works them out.</li>
+ *   <li>legacyWithdrawals / moneyWithdrawals - the funds check, the smallest denomination check, the cents asked of the
+ *       dispensing engine and the balance after a R250 withdrawal from each ZAR account, as {@code postWithdrawal} and
+ *       {@code dispenseCash} work them out.</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare the allocations: ./mvnw -Pjmh test-compile exec:exec "-Djmh.includes=MoneyBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final int ACCOUNTS = 50;
+    private static final String OVERDRAFT_LIMIT = "10000";
+    private static final String[][] ACCOUNT_TYPES = {{"CHQ", "ZAR"}, {"CCRD", "ZAR"}, {"SVGS", "ZAR"}, {"CFCA", "USD"}, {"CFCA", "AUD"}};
+    private static final BigDecimal WITHDRAWAL_AMOUNT = new BigDecimal("250");
+    private static final BigDecimal SMALLEST_DENOMINATION = new BigDecimal("10.00");
+
+    private final String[] accountTypeCodes = new String[ACCOUNTS];
+    private final String[] currencyCodes = new String[ACCOUNTS];
+    private final BigDecimal[] displayBalances = new BigDecimal[ACCOUNTS];
+    private final BigDecimal[] creditCardLimits = new BigDecimal[ACCOUNTS];
+    private final ConversionRatesDto[] conversionRates = new ConversionRatesDto[ACCOUNTS];
+
+    private Money overdraftFacility;
+    private long smallestDenominationCents;
+
+    @Setup
+    public void setUp() {
+        final ConversionRatesDto usdRate = createConversionRatesDto("18.6167", ConversionIndicator.MULTIPLY);
+        final ConversionRatesDto audRate = createConversionRatesDto("0.1134", ConversionIndicator.DIVIDE);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountTypeCodes[i] = ACCOUNT_TYPES[i % ACCOUNT_TYPES.length][0];
+            currencyCodes[i] = ACCOUNT_TYPES[i % ACCOUNT_TYPES.length][1];
+            // Stored as CLIENT_ACCOUNT.DISPLAY_BALANCE, NUMERIC(18, 3)
+            displayBalances[i] = BigDecimal.valueOf(1_000_000L + i * 7_919L, 3);
+            creditCardLimits[i] = new BigDecimal("25000.000");
+            conversionRates[i] = "USD".equals(currencyCodes[i]) ? usdRate : audRate;
+        }
+        overdraftFacility = Money.of(new BigDecimal(OVERDRAFT_LIMIT), Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+        smallestDenominationCents = 1_000;
+    }
+
+    @Benchmark
+    public void legacyBalances(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            blackhole.consume(LegacyBalanceArithmetic.balances(accountTypeCodes[i], currencyCodes[i], displayBalances[i],
+                    creditCardLimits[i], OVERDRAFT_LIMIT, conversionRates[i]));
+        }
+    }
+
+    @Benchmark
+    public void moneyBalances(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            final Money displayBalance = Money.of(displayBalances[i], Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+            final BigDecimal balance = displayBalances[i].setScale(Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+            BigDecimal zarBalance = "ZAR".equalsIgnoreCase(currencyCodes[i])
+                    ? balance
+                    : conversionRates[i].toZar(displayBalance, Money.BALANCE_SCALE).toBigDecimal(Money.BALANCE_SCALE);
+
+            final BigDecimal accountLimit;
+            if ("CHQ".equalsIgnoreCase(accountTypeCodes[i])) {
+                accountLimit = overdraftFacility.add(displayBalance).toBigDecimal(Money.BALANCE_SCALE);
+            } else if ("CCRD".equalsIgnoreCase(accountTypeCodes[i])) {
+                final Money creditCardLimit = Money.of(creditCardLimits[i], displayBalance.scale(), RoundingMode.HALF_UP);
+                zarBalance = displayBalance.subtract(creditCardLimit).toBigDecimal(Money.BALANCE_SCALE);
+                accountLimit = creditCardLimits[i].setScale(Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+            } else {
+                accountLimit = balance;
+            }
+            blackhole.consume(new BigDecimal[]{balance, zarBalance, accountLimit});
+        }
+    }
+
+    @Benchmark
+    public void legacyWithdrawals(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            if ("ZAR".equals(currencyCodes[i])) {
+                blackhole.consume(LegacyBalanceArithmetic.withdraw(accountTypeCodes[i], displayBalances[i], WITHDRAWAL_AMOUNT,
+                        OVERDRAFT_LIMIT, SMALLEST_DENOMINATION));
+            }
+        }
+    }
+
+    @Benchmark
+    public void moneyWithdrawals(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            if ("ZAR".equals(currencyCodes[i])) {
+                blackhole.consume(withdraw(accountTypeCodes[i], displayBalances[i], WITHDRAWAL_AMOUNT));
+            }
+        }
+    }
+
+    private BigDecimal withdraw(final String accountTypeCode, final BigDecimal displayBalanceAmount, final BigDecimal withdrawalAmount) {
+        if (withdrawalAmount.signum() <= 0 || !Money.fits(withdrawalAmount, Money.BALANCE_SCALE)) {
+            return null;
+        }
+        final Money withdrawal = Money.of(withdrawalAmount, Money.BALANCE_SCALE, RoundingMode.UNNECESSARY);
+        final Money displayBalance = Money.of(displayBalanceAmount, Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+        final Money availableBalance = "CHQ".equalsIgnoreCase(accountTypeCode) ? overdraftFacility.add(displayBalance) : displayBalance;
+        final Money requestedAmount = withdrawal.rescale(2, RoundingMode.DOWN);
+        if (availableBalance.compareTo(withdrawal) < 0 || requestedAmount.compareTo(withdrawal) != 0
+                || requestedAmount.units() % smallestDenominationCents != 0) {
+            return null;
+        }
+        return displayBalance.subtract(withdrawal).toBigDecimal();
+    }
+
+    private static ConversionRatesDto createConversionRatesDto(final String rate, final ConversionIndicator conversionIndicator) {
+        final BigDecimal conversionRate = new BigDecimal(rate);
+        return new ConversionRatesDto(conversionRate, conversionIndicator, conversionRate.setScale(3, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,101 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.service.PartitionedReportExecutor;
+import za.co.discovery.tao.muzvidziwa.domain.service.ReportWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time to write each month-end report over 1, 2, 4 and 8 client ID ranges, with as many worker threads
+ * as ranges, against a generated bank of 500k client accounts (100k clients with a cheque, savings, credit card,
+ * personal loan and foreign currency account each). A single range is the report's SQL run once, as before the
+ * {@link PartitionedReportExecutor}. The speed-up is bounded by the number of cores available to the benchmark.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=PartitionedReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PartitionedReportBenchmark {
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "PLOAN", "CFCA");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "partitioned-report-benchmark");
+
+    @Param({"500000"})
+    private int accounts;
+
+    @Param({"1", "2", "4", "8"})
+    private int partitions;
+
+    @Param({"TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE", "CLIENT_AGGREGATE_FINANCIAL_POSITION"})
+    private MonthEndReport report;
+
+    private PartitionedReportExecutor partitionedReportExecutor;
+
+    @Setup
+    public void setUp() throws Exception {
+        // A connection per worker, H2 keeps the in-memory database open until the JVM exits
+        final String url = "jdbc:h2:mem:partitioned-reports-" + partitions + "-" + report.name() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .load()
+                .migrate();
+
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "sa");
+        try (Connection connection = dataSource.getConnection()) {
+            BankDataGenerator.generateClients(connection, accounts / ACCOUNT_TYPES.size(), ACCOUNT_TYPES);
+            BankDataGenerator.analyze(connection);
+        }
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, new DefaultResourceLoader(),
+                REPORT_DIRECTORY.toString(), 1000, false);
+        partitionedReportExecutor = new PartitionedReportExecutor(reportWriter, jdbcTemplate, partitions, partitions);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:partitioned-reports-" + partitions + "-" + report.name(), "sa", "sa"))
+                .execute("SHUTDOWN");
+        if (Files.exists(REPORT_DIRECTORY)) {
+            try (Stream<Path> paths = Files.walk(REPORT_DIRECTORY)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Path runReport() throws IOException {
+        return partitionedReportExecutor.runReport(report, "partitioned-report-benchmark");
+    }
+}
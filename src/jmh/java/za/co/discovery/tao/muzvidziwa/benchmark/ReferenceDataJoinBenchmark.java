@@ -0,0 +1,143 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import za.co.discovery.tao.muzvidziwa.benchmark.RepositoryQueryPlanBenchmark.NativeQuery;
+import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+import za.co.discovery.tao.muzvidziwa.repository.ClientRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the client and client account lookups against a generated data set of 1M client accounts (250k clients with a
+ * cheque, savings, credit card and foreign currency account each) on the schema with the lookup indexes, as the
+ * application runs them (the reference codes read off the rows, resolved by the {@code ReferenceDataRegistry}) against
+ * the SQL that joined the reference tables ({@link LegacyReferenceDataJoins}):
+ * <ul>
+ *   <li>transactionalBalances - the client's details and account balances. The query now returns the foreign currency
+ *       accounts too, the service drops them in memory.</li>
+ *   <li>accountByNumber - the account a withdrawal debits.</li>
+ *   <li>client - the client a withdrawal or a forex balance enquiry looks up.</li>
+ * </ul>
+ * The execution plan of each query is printed during set-up.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=ReferenceDataJoinBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferenceDataJoinBenchmark {
+    private static final int CLIENTS = 250_000;
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "CFCA");
+    private static final int KEYS = 4_096;
+
+    private Connection connection;
+    private NativeQuery transactionalBalances;
+    private NativeQuery legacyTransactionalBalances;
+    private NativeQuery accountByNumber;
+    private NativeQuery legacyAccountByNumber;
+    private NativeQuery client;
+    private NativeQuery legacyClient;
+
+    private final int[] clientIds = new int[KEYS];
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String url = "jdbc:h2:mem:reference-data-joins;DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, "sa", "sa");
+        BankDataGenerator.generateClients(connection, CLIENTS, ACCOUNT_TYPES);
+        BankDataGenerator.analyze(connection);
+
+        transactionalBalances = NativeQuery.of(ClientAccountRepository.class, "findClientAccountBalancesByClientId");
+        legacyTransactionalBalances = NativeQuery.of("Legacy transactional balances", LegacyReferenceDataJoins.TRANSACTIONAL_BALANCES_SQL);
+        accountByNumber = NativeQuery.of(ClientAccountRepository.class, "findClientAccountByClientIdAndAccountNumber");
+        legacyAccountByNumber = NativeQuery.of("Legacy account by number", LegacyReferenceDataJoins.ACCOUNT_BY_NUMBER_SQL);
+        client = NativeQuery.of(ClientRepository.class, "findByClientId");
+        legacyClient = NativeQuery.of("Legacy client", LegacyReferenceDataJoins.CLIENT_SQL);
+
+        final Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            clientIds[i] = BankDataGenerator.FIRST_CLIENT_ID + random.nextInt(CLIENTS);
+        }
+
+        System.out.println();
+        System.out.println("Execution plans:");
+        for (NativeQuery query : List.of(transactionalBalances, legacyTransactionalBalances, accountByNumber, legacyAccountByNumber,
+                client, legacyClient)) {
+            System.out.println("-- " + query.name);
+            System.out.println(query.explain(connection));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SHUTDOWN")) {
+            statement.execute();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int transactionalBalances() throws SQLException {
+        return transactionalBalances.count(connection, Map.of("clientId", nextClientId()));
+    }
+
+    @Benchmark
+    public int legacyTransactionalBalances() throws SQLException {
+        return legacyTransactionalBalances.count(connection, Map.of("clientId", nextClientId()));
+    }
+
+    @Benchmark
+    public int accountByNumber() throws SQLException {
+        final int clientId = nextClientId();
+        return accountByNumber.count(connection, Map.of("clientId", clientId, "accountNumber", BankDataGenerator.accountNumber(clientId, 0)));
+    }
+
+    @Benchmark
+    public int legacyAccountByNumber() throws SQLException {
+        final int clientId = nextClientId();
+        return legacyAccountByNumber.count(connection, Map.of("clientId", clientId, "accountNumber", BankDataGenerator.accountNumber(clientId, 0)));
+    }
+
+    @Benchmark
+    public int client() throws SQLException {
+        return client.count(connection, Map.of("clientId", nextClientId()));
+    }
+
+    @Benchmark
+    public int legacyClient() throws SQLException {
+        return legacyClient.count(connection, Map.of("clientId", nextClientId()));
+    }
+
+    private int nextClientId() {
+        return clientIds[next++ & (KEYS - 1)];
+    }
+}
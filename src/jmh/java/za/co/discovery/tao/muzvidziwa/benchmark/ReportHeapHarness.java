@@ -0,0 +1,178 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.service.ReportWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Measures the heap the month-end reports need, built in memory as before and streamed by the
+ * {@link ReportWriter}, against a generated bank of 5M client accounts (1M clients with a cheque, savings, credit card,
+ * personal loan and foreign currency account each).
+ * <p>
+ * The bank lives in an H2 file database under {@code target/report-heap-harness}, so the data itself does not take up
+ * heap, and H2 spills query results of more than 10k rows to disk, as a database server would keep them out of the
+ * application's heap (embedded H2 otherwise holds the whole result in the heap whatever the fetch size). While a report
+ * runs the heap is sampled every few milliseconds, the peak heap in use (garbage included) and the peak heap still live
+ * after a garbage collection are reported relative to the heap in use before the report.
+ * <p>
+ * Run with (the argument is the number of client accounts, 5000000 by default):
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec \
+ *     -Dbenchmark.main-class=za.co.discovery.tao.muzvidziwa.benchmark.ReportHeapHarness -Dbenchmark.args=5000000
+ * </pre>
+ */
+public final class ReportHeapHarness {
+    private static final int DEFAULT_ACCOUNTS = 5_000_000;
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "PLOAN", "CFCA");
+    private static final Path WORK_DIRECTORY = Path.of("target", "report-heap-harness");
+    private static final long MB = 1024 * 1024;
+
+    private ReportHeapHarness() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int accounts = args.length > 0 && args[0].matches("\\d+") ? Integer.parseInt(args[0]) : DEFAULT_ACCOUNTS;
+
+        deleteRecursively(WORK_DIRECTORY);
+        final String url = "jdbc:h2:file:" + WORK_DIRECTORY.toAbsolutePath().resolve("bank") + ";MAX_MEMORY_ROWS=10000";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .load()
+                .migrate();
+
+        final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "sa", "sa", true);
+        try {
+            System.out.printf("Generating %d client accounts...%n", accounts);
+            try (Connection connection = dataSource.getConnection()) {
+                BankDataGenerator.generateClients(connection, accounts / ACCOUNT_TYPES.size(), ACCOUNT_TYPES);
+                BankDataGenerator.analyze(connection);
+            }
+
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            final ResourceLoader resourceLoader = new DefaultResourceLoader();
+            final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader,
+                    WORK_DIRECTORY.resolve("reports").toString(), 1000, false);
+
+            final List<String> results = new ArrayList<>();
+            for (MonthEndReport report : MonthEndReport.values()) {
+                final String sql = readSql(resourceLoader, report);
+                results.add(measure(report, "in-memory", () -> LegacyReportWriter.writeReport(new NamedParameterJdbcTemplate(jdbcTemplate), sql, report,
+                        WORK_DIRECTORY.resolve("legacy-reports").resolve(report.fileNamePrefix + ".txt"))));
+                results.add(measure(report, "streamed", () -> reportWriter.writeReport(report, "report-heap-harness")));
+            }
+
+            System.out.println();
+            System.out.printf("%d client accounts, max heap %d MB%n", accounts, Runtime.getRuntime().maxMemory() / MB);
+            System.out.printf("%-36s %-10s %10s %12s %18s %12s%n", "Report", "Writer", "Time (s)", "Peak heap", "Peak live heap", "File");
+            results.forEach(System.out::println);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static String measure(final MonthEndReport report, final String writer, final ReportTask task) throws Exception {
+        System.gc();
+        final long baseline = heapUsed();
+        final HeapSampler heapSampler = new HeapSampler();
+        final Thread samplerThread = new Thread(heapSampler, "heap-sampler");
+        samplerThread.setDaemon(true);
+        samplerThread.start();
+
+        final long start = System.nanoTime();
+        final Path reportFile;
+        try {
+            reportFile = task.run();
+        } finally {
+            heapSampler.running.set(false);
+            samplerThread.join();
+        }
+        final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        return String.format("%-36s %-10s %10.1f %9d MB %15d MB %9d MB", report.name(), writer, seconds,
+                Math.max(heapSampler.peakUsed - baseline, 0) / MB,
+                Math.max(heapSampler.peakLive - baseline, 0) / MB,
+                Files.size(reportFile) / MB);
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static String readSql(final ResourceLoader resourceLoader, final MonthEndReport report) throws IOException {
+        try (InputStream inputStream = resourceLoader.getResource(report.sqlLocation).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void deleteRecursively(final Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReportTask {
+        Path run() throws Exception;
+    }
+
+    /**
+     * Tracks the peak heap in use and the peak heap left in use straight after a garbage collection (the live data).
+     */
+    private static final class HeapSampler implements Runnable {
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private volatile long peakUsed;
+        private volatile long peakLive;
+
+        @Override
+        public void run() {
+            final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+                    .toList();
+            while (running.get()) {
+                peakUsed = Math.max(peakUsed, heapUsed());
+
+                long live = 0;
+                for (MemoryPoolMXBean pool : heapPools) {
+                    final MemoryUsage collectionUsage = pool.getCollectionUsage();
+                    live += collectionUsage != null ? collectionUsage.getUsed() : 0;
+                }
+                peakLive = Math.max(peakLive, live);
+
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
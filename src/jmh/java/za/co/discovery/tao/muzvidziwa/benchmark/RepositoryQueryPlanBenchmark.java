@@ -0,0 +1,209 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.Query;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+import za.co.discovery.tao.muzvidziwa.repository.CreditCardLimitRepository;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the native repository queries against a generated data set of 1M client accounts (250k clients with a cheque,
+ * savings, credit card and foreign currency account each) and 10k ATMs, on the schema without (migration V2, primary keys
+ * and the indexes H2 adds for foreign keys only) and with the lookup indexes (migration V3).
+ * <p>
+ * The queries are read from the {@link Query} annotations of the repositories, so the benchmark always runs the SQL the
+ * application runs. The execution plan of each query is printed during set-up to show which index H2 picks.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=RepositoryQueryPlanBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryPlanBenchmark {
+    private static final int CLIENTS = 250_000;
+    private static final int ATMS = 10_000;
+    private static final List<String> ACCOUNT_TYPES = List.of("CHQ", "SVGS", "CCRD", "CFCA");
+    private static final int KEYS = 4_096;
+
+    @Param({"primary-keys", "lookup-indexes"})
+    private String schema;
+
+    private Connection connection;
+    private NativeQuery transactionalBalances;
+    private NativeQuery accountsByType;
+    private NativeQuery accountByNumber;
+    private NativeQuery atmAllocation;
+    private NativeQuery creditCardLimit;
+
+    private final int[] clientIds = new int[KEYS];
+    private final int[] atmIds = new int[KEYS];
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String url = "jdbc:h2:mem:query-plans-" + schema + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/sample-data")
+                .placeholders(BankDataGenerator.FLYWAY_PLACEHOLDERS)
+                .target("primary-keys".equals(schema) ? "2" : "latest")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, "sa", "sa");
+        BankDataGenerator.generateClients(connection, CLIENTS, ACCOUNT_TYPES);
+        BankDataGenerator.generateAtms(connection, ATMS);
+        BankDataGenerator.analyze(connection);
+
+        transactionalBalances = NativeQuery.of(ClientAccountRepository.class, "findClientAccountBalancesByClientId");
+        accountsByType = NativeQuery.of(ClientAccountRepository.class, "findClientAccountsByClientIdAndAccountType");
+        accountByNumber = NativeQuery.of(ClientAccountRepository.class, "findClientAccountByClientIdAndAccountNumber");
+        atmAllocation = NativeQuery.of(AtmAllocationRepository.class, "findAtmAllocationByAtmId");
+        creditCardLimit = NativeQuery.of(CreditCardLimitRepository.class, "findCreditCardLimitByClientAccountNumber");
+
+        final Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            clientIds[i] = BankDataGenerator.FIRST_CLIENT_ID + random.nextInt(CLIENTS);
+            atmIds[i] = BankDataGenerator.FIRST_ATM_ID + random.nextInt(ATMS);
+        }
+
+        System.out.println();
+        System.out.println("Execution plans on the " + schema + " schema:");
+        for (NativeQuery query : List.of(transactionalBalances, accountsByType, accountByNumber, atmAllocation, creditCardLimit)) {
+            System.out.println("-- " + query.name);
+            System.out.println(query.explain(connection));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SHUTDOWN")) {
+            statement.execute();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int transactionalBalances() throws SQLException {
+        return transactionalBalances.count(connection, Map.of("clientId", nextClientId()));
+    }
+
+    @Benchmark
+    public int forexAccounts() throws SQLException {
+        return accountsByType.count(connection, Map.of("clientId", nextClientId(), "accountType", "CFCA"));
+    }
+
+    @Benchmark
+    public int chequeAccountByNumber() throws SQLException {
+        final int clientId = nextClientId();
+        return accountByNumber.count(connection, Map.of("clientId", clientId, "accountNumber", BankDataGenerator.accountNumber(clientId, 0)));
+    }
+
+    @Benchmark
+    public int creditCardLimit() throws SQLException {
+        return creditCardLimit.count(connection, Map.of("accountNumber", BankDataGenerator.accountNumber(nextClientId(), 2)));
+    }
+
+    @Benchmark
+    public int atmAllocation() throws SQLException {
+        return atmAllocation.count(connection, Map.of("atmId", atmIds[next++ & (KEYS - 1)]));
+    }
+
+    private int nextClientId() {
+        return clientIds[next++ & (KEYS - 1)];
+    }
+
+    /**
+     * A native repository query with its named parameters turned into JDBC parameters.
+     */
+    static final class NativeQuery {
+        private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+        final String name;
+        private final String sql;
+        private final List<String> parameters;
+
+        private NativeQuery(final String name, final String sql, final List<String> parameters) {
+            this.name = name;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        static NativeQuery of(final Class<?> repository, final String methodName) {
+            final Method method = Arrays.stream(repository.getMethods())
+                    .filter(candidate -> candidate.getName().equals(methodName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(repository.getSimpleName() + " has no method " + methodName));
+            return of(repository.getSimpleName() + "." + methodName, method.getAnnotation(Query.class).value());
+        }
+
+        static NativeQuery of(final String name, final String namedParameterSql) {
+            final Matcher matcher = NAMED_PARAMETER.matcher(namedParameterSql);
+            final List<String> parameters = new ArrayList<>();
+            final StringBuilder sql = new StringBuilder();
+            while (matcher.find()) {
+                parameters.add(matcher.group(1));
+                matcher.appendReplacement(sql, "?");
+            }
+            matcher.appendTail(sql);
+            return new NativeQuery(name, sql.toString(), parameters);
+        }
+
+        int count(final Connection connection, final Map<String, Object> arguments) throws SQLException {
+            try (PreparedStatement statement = prepare(connection, sql, arguments);
+                 ResultSet resultSet = statement.executeQuery()) {
+                int rows = 0;
+                while (resultSet.next()) {
+                    rows++;
+                }
+                return rows;
+            }
+        }
+
+        String explain(final Connection connection) throws SQLException {
+            try (PreparedStatement statement = prepare(connection, "EXPLAIN " + sql, Map.of());
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+
+        private PreparedStatement prepare(final Connection connection, final String sql, final Map<String, Object> arguments) throws SQLException {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, arguments.get(parameters.get(i)));
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientSubType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
+import za.co.discovery.tao.muzvidziwa.domain.service.impl.BankServiceImpl;
+import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the share of the JSON serialization in the CPU of a transactional balances call, for a client with 10 accounts
+ * read from a stubbed repository, before and after the {@link AtmResponseWriter}:
+ * <ul>
+ *   <li>legacyEndpoint / endpoint - the {@code getTransactionalClientAccountBalances} call and its JSON, written through a
+ *       writer resolved per response as Spring MVC's Jackson converter does, vs the {@link AtmResponseWriter}.</li>
+ *   <li>service - the {@code getTransactionalClientAccountBalances} call alone, the endpoint less the serialization.</li>
+ *   <li>legacySerialization / viewWriterSerialization / directSerialization - the JSON of the Transactional view alone,
+ *       through a writer resolved per response, the view's pre-built writer, and the direct writer.</li>
+ *   <li>legacyWithdrawalSerialization / directWithdrawalSerialization - the same for the Withdrawal view of a R700 withdrawal.</li>
+ * </ul>
+ * The serialization share is (endpoint - service) / endpoint. The service is built without a Spring context.
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=ResponseSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final String TRACE_ID = "benchmark";
+    private static final int CLIENT_ID = 1;
+    private static final int ACCOUNTS = 10;
+
+    private BankServiceImpl bankService;
+    private ObjectMapper objectMapper;
+    private AtmResponseWriter viewWriter;
+    private AtmResponseWriter directWriter;
+    private AtmResponse transactionalResponse;
+    private AtmResponse withdrawalResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        // The service logs every call at INFO, the log is switched off so the logic is measured rather than the console
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode("ZAR");
+        currencyConversionRate.setConversionIndicator("*");
+        currencyConversionRate.setRate(BigDecimal.ONE);
+        final CurrencyConversionCache currencyConversionCache = new CurrencyConversionCache();
+        currencyConversionCache.replaceCurrencyConversionRates(Map.of("ZAR", currencyConversionRate), TRACE_ID);
+
+        final List<ClientAccountBalanceProjection> rows = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            rows.add(new AccountBalanceRow(CLIENT_ID, "Mr", "Benchmark", "Client", "MAL", String.valueOf(4_000_000_000L + i),
+                    i % 2 == 0 ? "CHQ" : "SVGS", "ZAR", BigDecimal.valueOf(100_000_000L + i * 7_919_123L, 3), null));
+        }
+
+        // Only findClientAccountBalancesByClientId is called, a plain proxy keeps a mock's overhead out of the timings
+        final ClientAccountRepository clientAccountRepository = (ClientAccountRepository) Proxy.newProxyInstance(
+                ClientAccountRepository.class.getClassLoader(), new Class<?>[]{ClientAccountRepository.class}, (proxy, method, args) -> rows);
+        final ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(
+                List.of(createAccountType("CHQ", "Cheque Account"), createAccountType("SVGS", "Savings Account")),
+                List.of(createClientSubType("MAL", "I")), List.of(), List.of());
+        bankService = new BankServiceImpl(clientAccountRepository, null, null, null, null, null, null, null, referenceDataRegistry, null,
+                new ZarConverter(currencyConversionCache), null, new BankMetrics(new SimpleMeterRegistry(), null, currencyConversionCache, null));
+        ReflectionTestUtils.invokeSetterMethod(bankService, "overdraftLimit", new BigDecimal("10000"));
+
+        // Configured the way Spring MVC configures the mapper behind the REST endpoints
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        viewWriter = new AtmResponseWriter(objectMapper, false);
+        directWriter = new AtmResponseWriter(objectMapper, true);
+
+        transactionalResponse = bankService.getTransactionalClientAccountBalances(CLIENT_ID);
+        if (transactionalResponse.accounts() == null || transactionalResponse.accounts().size() != ACCOUNTS) {
+            throw new IllegalStateException("Expected " + ACCOUNTS + " accounts: " + transactionalResponse);
+        }
+        withdrawalResponse = AtmResponse.builder()
+                .client(transactionalResponse.client())
+                .account(transactionalResponse.accounts().get(0))
+                .denomination(List.of(createDenominationDto(5L, "200.00", 3), createDenominationDto(3L, "100.00", 1)))
+                .result(transactionalResponse.result())
+                .build();
+
+        // The writers must agree, or the timings compare different JSON
+        for (Class<?> view : List.of(View.Transactional.class, View.Withdrawal.class)) {
+            final AtmResponse atmResponse = view == View.Transactional.class ? transactionalResponse : withdrawalResponse;
+            if (!Arrays.equals(objectMapper.writerWithView(view).writeValueAsBytes(atmResponse), directWriter.writeValueAsBytes(atmResponse, view))) {
+                throw new IllegalStateException("The direct writer's JSON differs from Jackson's for " + view.getSimpleName());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyEndpoint() throws Exception {
+        return objectMapper.writerWithView(View.Transactional.class)
+                .writeValueAsBytes(bankService.getTransactionalClientAccountBalances(CLIENT_ID));
+    }
+
+    @Benchmark
+    public byte[] endpoint() throws Exception {
+        return directWriter.writeValueAsBytes(bankService.getTransactionalClientAccountBalances(CLIENT_ID), View.Transactional.class);
+    }
+
+    @Benchmark
+    public AtmResponse service() throws Exception {
+        return bankService.getTransactionalClientAccountBalances(CLIENT_ID);
+    }
+
+    @Benchmark
+    public byte[] legacySerialization() throws Exception {
+        return objectMapper.writerWithView(View.Transactional.class).writeValueAsBytes(transactionalResponse);
+    }
+
+    @Benchmark
+    public byte[] viewWriterSerialization() throws Exception {
+        return viewWriter.writeValueAsBytes(transactionalResponse, View.Transactional.class);
+    }
+
+    @Benchmark
+    public byte[] directSerialization() throws Exception {
+        return directWriter.writeValueAsBytes(transactionalResponse, View.Transactional.class);
+    }
+
+    @Benchmark
+    public byte[] legacyWithdrawalSerialization() throws Exception {
+        return objectMapper.writerWithView(View.Withdrawal.class).writeValueAsBytes(withdrawalResponse);
+    }
+
+    @Benchmark
+    public byte[] directWithdrawalSerialization() throws Exception {
+        return directWriter.writeValueAsBytes(withdrawalResponse, View.Withdrawal.class);
+    }
+
+    private static AccountType createAccountType(final String accountTypeCode, final String description) {
+        final AccountType accountType = new AccountType();
+        accountType.setAccountTypeCode(accountTypeCode);
+        accountType.setDescription(description);
+        accountType.setTransactional(true);
+        return accountType;
+    }
+
+    private static ClientSubType createClientSubType(final String clientSubTypeCode, final String clientTypeCode) {
+        final ClientType clientType = new ClientType();
+        clientType.setClientTypeCode(clientTypeCode);
+        final ClientSubType clientSubType = new ClientSubType();
+        clientSubType.setClientSubTypeCode(clientSubTypeCode);
+        clientSubType.setClientType(clientType);
+        return clientSubType;
+    }
+
+    private static DenominationDto createDenominationDto(final Long denominationId, final String denominationValue, final Integer count) {
+        return new DenominationDto(denominationId, new BigDecimal(denominationValue), count);
+    }
+}
@@ -0,0 +1,203 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import za.co.discovery.tao.muzvidziwa.BankBalanceDispensingSystem;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load test of the three endpoints served on platform threads and then on virtual threads.
+ * <p>
+ * Each mode gets an application of its own (random port, own in-memory database, same JDBC pool size). A fixed number
+ * of clients then call the endpoints back to back (40% transactional balances, 40% forex balances, 20% R200 withdrawals)
+ * for a warm-up period followed by a measured period, and the throughput and latency percentiles of the measured
+ * period are reported. Virtual threads need a Java 21+ runtime, on an older runtime only platform threads are measured.
+ * <p>
+ * Run with (the argument is {@code <clients>[:<seconds measured>]}, 1000:20 by default):
+ * <pre>
+ * JAVA_HOME=/path/to/jdk-21 PATH=$JAVA_HOME/bin:$PATH ./mvnw -Pjmh test-compile exec:exec \
+ *     -Dbenchmark.main-class=za.co.discovery.tao.muzvidziwa.benchmark.ThreadingLoadHarness -Dbenchmark.args=1000:20
+ * </pre>
+ */
+public final class ThreadingLoadHarness {
+    private static final int DEFAULT_CLIENTS = 1000;
+    private static final int DEFAULT_MEASURED_SECONDS = 20;
+    private static final int WARM_UP_SECONDS = 10;
+
+    private ThreadingLoadHarness() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        int clients = DEFAULT_CLIENTS;
+        int measuredSeconds = DEFAULT_MEASURED_SECONDS;
+        if (args.length > 0 && args[0].matches("\\d+(:\\d+)?")) {
+            final String[] parts = args[0].split(":");
+            clients = Integer.parseInt(parts[0]);
+            if (parts.length > 1) {
+                measuredSeconds = Integer.parseInt(parts[1]);
+            }
+        }
+
+        final List<String> results = new ArrayList<>();
+        results.add(run(false, clients, measuredSeconds));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run(true, clients, measuredSeconds));
+        } else {
+            results.add(String.format("virtual   skipped, the runtime is Java %d", Runtime.version().feature()));
+        }
+
+        System.out.println();
+        System.out.printf("%d concurrent clients, %d s measured%n", clients, measuredSeconds);
+        System.out.printf("%-9s %12s %10s %10s %10s %10s%n", "Threads", "Requests/s", "p50 (ms)", "p99 (ms)", "Max (ms)", "Errors");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(final boolean virtualThreads, final int clients, final int measuredSeconds) throws Exception {
+        final String mode = virtualThreads ? "virtual" : "platform";
+        // Passed as command line arguments so they take precedence over application.yml
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankBalanceDispensingSystem.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test-" + mode,
+                        "--application-config.virtual-threads-enabled=" + virtualThreads,
+                        "--logging.level.root=WARN",
+                        "--logging.level.za.co.discovery.tao.muzvidziwa=WARN")) {
+            final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/discovery-atm";
+            final List<URI> reads = new ArrayList<>();
+            final List<URI> withdrawals = new ArrayList<>();
+            prepareRequests(context.getBean(JdbcTemplate.class), baseUrl, reads, withdrawals);
+
+            final HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            drive(httpClient, reads, withdrawals, clients, WARM_UP_SECONDS);
+            final long[][] latencies = drive(httpClient, reads, withdrawals, clients, measuredSeconds);
+
+            final long errors = latencies[1][0];
+            final long[] measured = latencies[0];
+            Arrays.sort(measured);
+            return String.format("%-9s %12.0f %10.2f %10.2f %10.2f %10d", mode,
+                    (double) measured.length / measuredSeconds,
+                    percentile(measured, 0.50), percentile(measured, 0.99),
+                    measured.length > 0 ? measured[measured.length - 1] / 1_000_000.0 : 0.0,
+                    errors);
+        }
+    }
+
+    /**
+     * Calls the endpoints from the given number of clients for the given period.
+     *
+     * @return {latencies in nanoseconds of the completed requests, {number of failed requests}}
+     */
+    private static long[][] drive(final HttpClient httpClient, final List<URI> reads, final List<URI> withdrawals,
+                                  final int clients, final int seconds) throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newFixedThreadPool(clients);
+        try {
+            final List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                final int client = c;
+                futures.add(executorService.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int completed = 0;
+                    long errors = 0;
+                    startLatch.await();
+                    for (int i = 0; running.get(); i++) {
+                        final HttpRequest request = (i % 5 == 4)
+                                ? HttpRequest.newBuilder(withdrawals.get((client + i) % withdrawals.size()))
+                                        .POST(HttpRequest.BodyPublishers.noBody()).build()
+                                : HttpRequest.newBuilder(reads.get((client + i) % reads.size())).GET().build();
+
+                        final long start = System.nanoTime();
+                        try {
+                            final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors++;
+                            continue;
+                        }
+                        if (completed == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, completed * 2);
+                        }
+                        latencies[completed++] = System.nanoTime() - start;
+                    }
+                    final long[] result = Arrays.copyOf(latencies, completed + 1);
+                    // The failed request count is carried in the last slot
+                    result[completed] = errors;
+                    return result;
+                }));
+            }
+
+            startLatch.countDown();
+            Thread.sleep(seconds * 1000L);
+            running.set(false);
+
+            final List<long[]> perClient = new ArrayList<>();
+            long errors = 0;
+            int total = 0;
+            for (Future<long[]> future : futures) {
+                final long[] result = future.get();
+                errors += result[result.length - 1];
+                total += result.length - 1;
+                perClient.add(result);
+            }
+
+            final long[] latencies = new long[total];
+            int offset = 0;
+            for (long[] result : perClient) {
+                System.arraycopy(result, 0, latencies, offset, result.length - 1);
+                offset += result.length - 1;
+            }
+            return new long[][]{latencies, {errors}};
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void prepareRequests(final JdbcTemplate jdbcTemplate, final String baseUrl,
+                                        final List<URI> reads, final List<URI> withdrawals) {
+        for (Integer clientId : jdbcTemplate.queryForList("select CLIENT_ID from CLIENT", Integer.class)) {
+            reads.add(URI.create(baseUrl + "/queryTransactionalBalances?clientId=" + clientId));
+            reads.add(URI.create(baseUrl + "/queryCcyBalances?clientId=" + clientId));
+        }
+
+        final List<Integer> atmIds = jdbcTemplate.queryForList("select ATM_ID from ATM", Integer.class);
+        final List<Map<String, Object>> chequeAccounts = jdbcTemplate.queryForList("""
+                select CLIENT_ID, CLIENT_ACCOUNT_NUMBER from CLIENT_ACCOUNT where ACCOUNT_TYPE_CODE = 'CHQ'
+                """);
+        for (int i = 0; i < chequeAccounts.size(); i++) {
+            withdrawals.add(URI.create(baseUrl + "/withdraw?clientId=" + chequeAccounts.get(i).get("CLIENT_ID")
+                    + "&atmId=" + atmIds.get(i % atmIds.size())
+                    + "&accountNumber=" + chequeAccounts.get(i).get("CLIENT_ACCOUNT_NUMBER")
+                    + "&requiredAmount=200"));
+        }
+    }
+
+    private static double percentile(final long[] sortedLatencies, final double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0.0;
+        }
+        final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,42 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares making a trace ID on 64 threads at once, as under a burst of ATM requests:
+ * <ul>
+ *   <li>uuid - {@code UUID.randomUUID().toString()}, as every request and scheduled run did before, all threads drawing
+ *       from the one shared {@code SecureRandom}.</li>
+ *   <li>traceContext - {@link TraceContext#newTraceId()}, a node prefix, the thread ID and a counter of the thread's own.</li>
+ * </ul>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=TraceIdBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class TraceIdBenchmark {
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String traceContext() {
+        return TraceContext.newTraceId();
+    }
+}
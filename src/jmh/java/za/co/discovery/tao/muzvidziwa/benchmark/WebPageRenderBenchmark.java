@@ -0,0 +1,89 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.discovery.tao.muzvidziwa.BankBalanceDispensingSystem;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of rendering the transactional balances page (Thymeleaf) for client 1 with the web pages calling
+ * the bank API in-process and, as before, over HTTP loopback ({@code remote}).
+ * <p>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=WebPageRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebPageRenderBenchmark {
+    @Param({"in-process", "remote"})
+    private String gatewayMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest pageRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        final int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        // Passed as command line arguments so they take precedence over application.yml
+        context = new SpringApplicationBuilder(BankBalanceDispensingSystem.class)
+                .run("--server.port=" + port,
+                        "--spring.datasource.url=jdbc:h2:mem:page-render-" + gatewayMode,
+                        "--application-config.web-gateway.mode=" + gatewayMode,
+                        "--logging.level.root=WARN",
+                        "--logging.level.za.co.discovery.tao.muzvidziwa=WARN");
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        pageRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/discovery-atm/transactionalBalances?clientId=1"))
+                .GET()
+                .build();
+
+        // The currency conversion rates are loaded shortly after start-up, until then the page has no accounts to show
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!renderPage().contains("4067342946")) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The transactional balances page did not render client 1's accounts");
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderTransactionalBalancesPage() throws Exception {
+        return renderPage();
+    }
+
+    private String renderPage() throws Exception {
+        return httpClient.send(pageRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
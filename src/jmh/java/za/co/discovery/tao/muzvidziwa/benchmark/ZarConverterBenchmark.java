@@ -0,0 +1,104 @@
+package za.co.discovery.tao.muzvidziwa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the currency conversion of a client with 50 CFCA accounts before and after the {@link ZarConverter}.
+ * <ul>
+ *   <li>legacyStringRates - six cache lookups and up to four String to BigDecimal parses per account.</li>
+ *   <li>zarConverter - a cache lookup for the display rate and one for the conversion per account, the rate is parsed
+ *       and normalized to a single multiplication when the cache is refreshed.</li>
+ *   <li>cacheLookups - the {@link CurrencyConversionCache} lookups alone, one per account.</li>
+ * </ul>
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.includes=ZarConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZarConverterBenchmark {
+    private static final String TRACE_ID = "benchmark";
+    private static final int ACCOUNTS = 50;
+
+    // A mix of multiplied and divided rates, taken from the sample data migration
+    private static final String[][] RATES = {
+            {"USD", "*", "18.6167"}, {"EUR", "*", "14.3169"}, {"GBP", "*", "16.3907"}, {"AUD", "/", "0.1134"},
+            {"AED", "/", "0.3196"}, {"CHF", "/", "0.0834"}, {"JPY", "/", "9.32"}, {"INR", "/", "5.6645"}
+    };
+
+    private final String[] currencyCodes = new String[ACCOUNTS];
+    private final BigDecimal[] displayBalances = new BigDecimal[ACCOUNTS];
+
+    private Map<String, String[]> legacyRates;
+    private CurrencyConversionCache currencyConversionCache;
+    private ZarConverter zarConverter;
+
+    @Setup
+    public void setUp() {
+        legacyRates = new HashMap<>();
+        final Map<String, CurrencyConversionRate> currencyConversionRates = new HashMap<>();
+        for (String[] rate : RATES) {
+            legacyRates.put(rate[0], LegacyCurrencyConversion.rate(rate[2], rate[1]));
+
+            final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+            currencyConversionRate.setCurrencyCode(rate[0]);
+            currencyConversionRate.setConversionIndicator(rate[1]);
+            currencyConversionRate.setRate(new BigDecimal(rate[2]));
+            currencyConversionRates.put(rate[0], currencyConversionRate);
+        }
+
+        currencyConversionCache = new CurrencyConversionCache();
+        currencyConversionCache.replaceCurrencyConversionRates(currencyConversionRates, TRACE_ID);
+        zarConverter = new ZarConverter(currencyConversionCache);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            currencyCodes[i] = RATES[i % RATES.length][0];
+            displayBalances[i] = BigDecimal.valueOf(1_000_000L + i * 7_919L, 2);
+        }
+    }
+
+    @Benchmark
+    public void legacyStringRates(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            blackhole.consume(LegacyCurrencyConversion.convert(legacyRates, currencyCodes[i], displayBalances[i]));
+        }
+    }
+
+    @Benchmark
+    public void zarConverter(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            blackhole.consume(zarConverter.displayRate(currencyCodes[i], TRACE_ID));
+            blackhole.consume(zarConverter.toZar(currencyCodes[i], Money.of(displayBalances[i], Money.BALANCE_SCALE, RoundingMode.HALF_UP),
+                    Money.BALANCE_SCALE, TRACE_ID));
+        }
+    }
+
+    @Benchmark
+    public void cacheLookups(final Blackhole blackhole) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            blackhole.consume(currencyConversionCache.getCurrencyConversionRate(currencyCodes[i], TRACE_ID));
+        }
+    }
+}
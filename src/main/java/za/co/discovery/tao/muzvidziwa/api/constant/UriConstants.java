@@ -4,4 +4,6 @@ public class UriConstants {
     public static final String GET_TRANSACTIONAL_ACCOUNT_BALANCE_URL = "/queryTransactionalBalances";
     public static final String GET_FOREX_ACCOUNT_BALANCE_URL = "/queryCcyBalances";
     public static final String POST_WITHDRAWAL_URL = "/withdraw";
+    public static final String GET_CLIENT_POSITION_URL = "/queryClientPosition";
+    public static final String POST_CLIENT_BALANCES_URL = "/queryBalances";
 }
@@ -9,12 +9,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
 
 public interface BankController {
 
@@ -331,4 +336,126 @@ public interface BankController {
                                           @RequestParam("accountNumber") final String accountNumber,
                                           @Parameter(description = "Required withdrawal amount", required = true)
                                           @RequestParam("requiredAmount") final BigDecimal requiredAmount);
+
+    @JsonView(View.Position.class)
+    @Operation(summary = "Get client financial position",
+            description = "Retrieves the loan balance, transactional balance and net position of a specific client.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the client's financial position",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AtmResponse.class),
+                            examples = {@ExampleObject(value = """
+                                    {
+                                      "client": {
+                                        "id": 12345,
+                                        "title": "Mr",
+                                        "name": "Tao",
+                                        "surname": "Muzvidziwa"
+                                      },
+                                      "position": {
+                                        "loanBalance": -150000.00,
+                                        "transactionalBalance": 12500.00,
+                                        "netPosition": -131250.00
+                                      },
+                                      "result": {
+                                        "success": true,
+                                        "statusCode": 200,
+                                        "statusReason": "Displaying client financial position"
+                                      }
+                                    }
+                                    """),
+                                    @ExampleObject(value = """
+                                            {
+                                              "client": {
+                                                "id": null,
+                                                "title": null,
+                                                "name": null,
+                                                "surname": null
+                                              },
+                                              "position": null,
+                                              "result": {
+                                                "success": false,
+                                                "statusCode": 400,
+                                                "statusReason": "No client with the provided ID found"
+                                              }
+                                            }
+                                            """)
+                            })),
+            @ApiResponse(responseCode = "400", description = "Bank service exception message",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BankServiceException.class),
+                            examples = @ExampleObject(value = """
+                                    "Bank service exception message"
+                                    """))),
+            @ApiResponse(responseCode = "500", description = "Unexpected server error message",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Exception.class),
+                            examples = @ExampleObject(value = """
+                                    "Unspecified error occurred"
+                                    """)))
+    })
+    ResponseEntity<Object> getClientPosition(@Parameter(description = "Client ID", required = true)
+                                             @RequestParam("clientId") final Integer clientId);
+
+    @Operation(summary = "Get the balances of many clients",
+            description = """
+                    Retrieves the transactional and/or forex balances of a list of clients in one request, i.e., for branch kiosks and
+                    contact centres. The response is streamed as a JSON array with an entry per client ID, in the order of the IDs,
+                    holding the response of each view requested as the single client endpoints return it.
+                    """)
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the balances, the result of each client is in its responses",
+                    content = @Content(mediaType = "application/json",
+                            examples = {@ExampleObject(value = """
+                                    [
+                                      {
+                                        "clientId": 12345,
+                                        "transactional": {
+                                          "client": {
+                                            "id": 12345,
+                                            "title": "Mr",
+                                            "name": "Tao",
+                                            "surname": "Muzvidziwa"
+                                          },
+                                          "accounts": [
+                                            {
+                                              "accountNumber": 1234567890,
+                                              "typeCode": "CHQ",
+                                              "accountTypeDescription": "Cheque Account",
+                                              "currencyCode": "ZAR",
+                                              "conversionRate": 1.000,
+                                              "balance": 5000.00,
+                                              "zarBalance": 5000.00,
+                                              "accountLimit": 15000.00
+                                            }
+                                          ],
+                                          "result": {
+                                            "success": true,
+                                            "statusCode": 200,
+                                            "statusReason": "Success"
+                                          }
+                                        }
+                                      },
+                                      {
+                                        "clientId": -1,
+                                        "transactional": {
+                                          "client": null,
+                                          "accounts": null,
+                                          "result": {
+                                            "success": false,
+                                            "statusCode": 400,
+                                            "statusReason": "Invalid client identifier (ID) provided"
+                                          }
+                                        }
+                                      }
+                                    ]
+                                    """)
+                            })),
+            @ApiResponse(responseCode = "400", description = "No client IDs or views, or more client IDs than a request may hold",
+                    content = @Content(mediaType = "text/plain",
+                            examples = @ExampleObject(value = """
+                                    "A balance enquiry may hold at most 1000 client IDs"
+                                    """)))
+    })
+    ResponseEntity<StreamingResponseBody> getClientBalances(@Parameter(description = "Balances to retrieve per client: TRANSACTIONAL and/or CURRENCY", required = true)
+                                                            @RequestParam("views") final Set<BalanceView> views,
+                                                            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Client IDs", required = true)
+                                                            @RequestBody final List<Integer> clientIds);
 }
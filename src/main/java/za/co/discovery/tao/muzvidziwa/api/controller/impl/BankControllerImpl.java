@@ -1,24 +1,39 @@
 package za.co.discovery.tao.muzvidziwa.api.controller.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import za.co.discovery.tao.muzvidziwa.api.controller.BankController;
 import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
 import za.co.discovery.tao.muzvidziwa.domain.service.BankService;
-import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
 import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.GET_CLIENT_POSITION_URL;
 import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.GET_FOREX_ACCOUNT_BALANCE_URL;
 import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.GET_TRANSACTIONAL_ACCOUNT_BALANCE_URL;
+import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.POST_CLIENT_BALANCES_URL;
 import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.POST_WITHDRAWAL_URL;
 import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BANK_CONTROLLER;
 
@@ -28,10 +43,17 @@ import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BANK_CONTRO
 @Tag(name = "Bank Balance and Dispensing System", description = "Handles client operations including transactional balances, forex balances, and withdrawals")
 public class BankControllerImpl implements BankController {
     private final BankService bankService;
+    private final BalanceResponseCache balanceResponseCache;
+    private final AtmResponseWriter atmResponseWriter;
+
+    // The client IDs a bulk balance enquiry may hold
+    @Value("${application-config.balance-enquiry.max-clients:1000}")
+    private int balanceEnquiryMaxClients;
 
     /**
      * This endpoint retrieves the transactional balance for a given client ID.
-     * The Client can view all transactional accounts with the available balances on each account
+     * The Client can view all transactional accounts with the available balances on each account.
+     * The response is served from the {@link BalanceResponseCache} until the client's balances change.
      *
      * @param clientId The ID of the client for whom the balance is being requested
      * @return ResponseEntity {@link AtmResponse} containing the balance information or an error message
@@ -39,12 +61,13 @@ public class BankControllerImpl implements BankController {
     @Override
     @GetMapping(GET_TRANSACTIONAL_ACCOUNT_BALANCE_URL)
     public ResponseEntity<Object> getTransactionalBalance(final Integer clientId) {
-        final String traceId = GeneralUtils.generateUniqueId();
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_CONTROLLER, "Received request to get transactional balance for client ID: {}", clientId);
 
         try {
-            final AtmResponse response = bankService.getTransactionalClientAccountBalances(traceId, clientId);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            final byte[] response = balanceResponseCache.getOrLoad(clientId, BalanceView.TRANSACTIONAL,
+                    () -> bankService.getTransactionalClientAccountBalances(clientId), traceId);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
         } catch (BankServiceException ex) {
             log.error("Error retrieving transactional balance for client ID {}: {}", clientId, ex.getMessage());
             return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -55,6 +78,7 @@ public class BankControllerImpl implements BankController {
 
     /**
      * Retrieves a list of forex accounts converted to ZAR balances for a specific client.
+     * The response is served from the {@link BalanceResponseCache} until the client's balances, or the rates, change.
      *
      * @param clientId The ID of the client for whom the forex account balances are being requested.
      * @return ResponseEntity containing {@link AtmResponse} with the forex balances or an error message.
@@ -62,12 +86,13 @@ public class BankControllerImpl implements BankController {
     @Override
     @GetMapping(GET_FOREX_ACCOUNT_BALANCE_URL)
     public ResponseEntity<Object> getForexAccountBalance(final Integer clientId) {
-        final String traceId = GeneralUtils.generateUniqueId();
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_CONTROLLER, "Received request to get forex account balance for client ID: {}", clientId);
 
         try {
-            final AtmResponse response = bankService.getForexAccountBalances(traceId, clientId);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            final byte[] response = balanceResponseCache.getOrLoad(clientId, BalanceView.CURRENCY,
+                    () -> bankService.getForexAccountBalances(clientId), traceId);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
         } catch (final BankServiceException ex) {
             log.error("Error retrieving forex account balance for client ID {}: {}", clientId, ex.getMessage());
             return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -78,6 +103,7 @@ public class BankControllerImpl implements BankController {
 
     /**
      * Performs a withdrawal operation for a client from a specific ATM.
+     * The response is written as the Withdrawal JSON view by the {@link AtmResponseWriter}.
      *
      * @param clientId       The ID of the client performing the withdrawal.
      * @param atmId          The ID of the ATM from which the withdrawal is being made.
@@ -88,12 +114,12 @@ public class BankControllerImpl implements BankController {
     @Override
     @PostMapping(POST_WITHDRAWAL_URL)
     public ResponseEntity<Object> postWithdrawal(final Integer clientId, final Integer atmId, final String accountNumber, final BigDecimal requiredAmount) {
-        final String traceId = GeneralUtils.generateUniqueId();
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_CONTROLLER, "Received request to perform a withdrawal for client ID: {}, account number: {}", clientId, accountNumber);
 
         try {
-            final AtmResponse response = bankService.postWithdrawal(traceId, clientId, atmId, accountNumber, requiredAmount);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            final AtmResponse response = bankService.postWithdrawal(clientId, atmId, accountNumber, requiredAmount);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(atmResponseWriter.writeValueAsBytes(response, View.Withdrawal.class));
         } catch (final BankServiceException ex) {
             log.error("Error performing withdrawal for client ID {}: {}", clientId, ex.getMessage());
             return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -102,4 +128,88 @@ public class BankControllerImpl implements BankController {
             return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Retrieves the loan balance, transactional balance and net position of a specific client.
+     * The response is written as the Position JSON view by the {@link AtmResponseWriter}.
+     *
+     * @param clientId The ID of the client for whom the position is being requested.
+     * @return ResponseEntity containing {@link AtmResponse} with the client's position or an error message.
+     */
+    @Override
+    @GetMapping(GET_CLIENT_POSITION_URL)
+    public ResponseEntity<Object> getClientPosition(final Integer clientId) {
+        final String traceId = TraceContext.currentTraceId();
+        LoggerUtils.logInfo(traceId, BANK_CONTROLLER, "Received request to get the financial position for client ID: {}", clientId);
+
+        try {
+            final AtmResponse response = bankService.getClientPosition(clientId);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(atmResponseWriter.writeValueAsBytes(response, View.Position.class));
+        } catch (final BankServiceException ex) {
+            log.error("Error retrieving the financial position for client ID {}: {}", clientId, ex.getMessage());
+            return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (final Exception ex) {
+            return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Retrieves the transactional and/or forex balances of many clients in one request.
+     * The clients' accounts are read a batch of clients per query, and the responses are streamed as a JSON array, an entry
+     * per client ID holding the response of each view, as the clients are read. The responses are not served from, or added
+     * to, the {@link BalanceResponseCache}. A response cut short by an error is left incomplete, so it cannot be read as a
+     * complete array.
+     *
+     * @param views     The balances to retrieve per client.
+     * @param clientIds The IDs of the clients, at most {@code application-config.balance-enquiry.max-clients}.
+     * @return ResponseEntity streaming the {@link AtmResponse}s of the clients, or an error message.
+     */
+    @Override
+    @PostMapping(POST_CLIENT_BALANCES_URL)
+    public ResponseEntity<StreamingResponseBody> getClientBalances(final Set<BalanceView> views, final List<Integer> clientIds) {
+        final String traceId = TraceContext.currentTraceId();
+        LoggerUtils.logInfo(traceId, BANK_CONTROLLER, "Received request to get the {} balances of {} clients", views, clientIds != null ? clientIds.size() : 0);
+
+        if (clientIds == null || clientIds.isEmpty() || views == null || views.isEmpty()) {
+            return badRequest("A balance enquiry must hold at least one client ID and view");
+        }
+        if (clientIds.size() > balanceEnquiryMaxClients) {
+            return badRequest("A balance enquiry may hold at most " + balanceEnquiryMaxClients + " client IDs");
+        }
+
+        // The body is written on an async request thread, which the request's trace ID is bound to again
+        final StreamingResponseBody responseBody = outputStream -> {
+            try (TraceContext.Scope ignored = TraceContext.open(traceId);
+                 JsonGenerator generator = atmResponseWriter.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bankService.getClientAccountBalances(clientIds, views, (clientId, responses) -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("clientId");
+                    if (clientId != null) {
+                        generator.writeNumber(clientId);
+                    } else {
+                        generator.writeNull();
+                    }
+                    for (Map.Entry<BalanceView, AtmResponse> response : responses.entrySet()) {
+                        generator.writeFieldName(response.getKey().fieldName);
+                        atmResponseWriter.writeValue(generator, response.getValue(), response.getKey().view);
+                    }
+                    generator.writeEndObject();
+                });
+                generator.writeEndArray();
+            } catch (final IOException ex) {
+                log.error("Error streaming the balances of {} clients: {}", clientIds.size(), ex.getMessage());
+                throw ex;
+            } catch (final Exception ex) {
+                log.error("Unexpected error retrieving the balances of {} clients: {}", clientIds.size(), ex.getMessage());
+                throw new IOException(ex.getMessage(), ex);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseBody);
+    }
+
+    private ResponseEntity<StreamingResponseBody> badRequest(final String message) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                .body(outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,29 @@
+package za.co.discovery.tao.muzvidziwa.api.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.io.IOException;
+
+/**
+ * Binds a trace ID to every request for as long as it is handled, the one the ATM terminal sent in the
+ * {@value TraceContext#TRACE_ID_HEADER} header or a new one, and returns it in the same response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain) throws ServletException, IOException {
+        try (TraceContext.Scope scope = TraceContext.open(request.getHeader(TraceContext.TRACE_ID_HEADER))) {
+            response.setHeader(TraceContext.TRACE_ID_HEADER, scope.traceId());
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package za.co.discovery.tao.muzvidziwa.domain.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.EXECUTION_MODE_CONFIG;
+
+/**
+ * Reports how the endpoints are served once the application has started.
+ * <p>
+ * With {@code application-config.virtual-threads-enabled} switched on, Spring Boot serves each request on its own virtual
+ * thread, so a burst of ATM traffic no longer needs a large platform thread pool. The JDBC pool
+ * ({@code application-config.db-pool-size}) is sized separately and still bounds the number of requests doing database
+ * work at once. Virtual threads need a Java 21+ runtime, on an older runtime the setting is ignored.
+ */
+@Configuration
+public class ExecutionModeConfig {
+    private static final int VIRTUAL_THREADS_MINIMUM_JAVA_VERSION = 21;
+
+    @Value("${application-config.virtual-threads-enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${application-config.db-pool-size:10}")
+    private int dbPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        final String traceId = TraceContext.newTraceId();
+        final int javaVersion = Runtime.version().feature();
+
+        if (virtualThreadsEnabled && javaVersion < VIRTUAL_THREADS_MINIMUM_JAVA_VERSION) {
+            LoggerUtils.logWarn(traceId, EXECUTION_MODE_CONFIG, "Virtual threads requested but the runtime is Java {}, serving requests on platform threads.", javaVersion);
+            return;
+        }
+        LoggerUtils.logInfo(traceId, EXECUTION_MODE_CONFIG, "Serving requests on {} threads with a JDBC pool of {} connections.",
+                virtualThreadsEnabled ? "virtual" : "platform", dbPoolSize);
+    }
+}
@@ -0,0 +1,33 @@
+package za.co.discovery.tao.muzvidziwa.domain.constant;
+
+/**
+ * The CURRENCY_CONVERSION_RATE.CONVERSION_INDICATOR, i.e., how a foreign currency amount is converted to ZAR using the rate.
+ */
+public enum ConversionIndicator {
+    MULTIPLY("*"),
+    DIVIDE("/");
+
+    public final String symbol;
+
+    ConversionIndicator(final String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Looks up the indicator for the given CONVERSION_INDICATOR column value.
+     *
+     * @param symbol the column value, i.e., "*" or "/"
+     * @return the matching {@link ConversionIndicator}, or null if the symbol is null or unknown
+     */
+    public static ConversionIndicator fromSymbol(final String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        for (ConversionIndicator conversionIndicator : values()) {
+            if (conversionIndicator.symbol.equals(symbol.trim())) {
+                return conversionIndicator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package za.co.discovery.tao.muzvidziwa.domain.constant;
+
+public enum MonthEndReport {
+    TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE("transactional balance",
+            "classpath:/sql/trans-account-highest-balance-report.sql",
+            "Client Id, Client Surname, Client Account Number, Account Description, Display Balance",
+            "transactional_account_balance_report"),
+    CLIENT_AGGREGATE_FINANCIAL_POSITION("client aggregate financial position",
+            "classpath:/sql/client-aggregate-financial-position-report.sql",
+            "Client, Loan Balance, Transactional Balance, Net Position",
+            "client_aggregate_financial_position_report");
+
+    public final String description;
+    public final String sqlLocation;
+    public final String header;
+    public final String fileNamePrefix;
+
+    MonthEndReport(final String description, final String sqlLocation, final String header, final String fileNamePrefix) {
+        this.description = description;
+        this.sqlLocation = sqlLocation;
+        this.header = header;
+        this.fileNamePrefix = fileNamePrefix;
+    }
+}
@@ -5,7 +5,12 @@ public enum Sources {
     BANK_CONTROLLER("Bank Controller"),
     BANK_REPOSITORY("Bank Repository"),
     SCHEDULED_SYSTEM_TASK("Scheduled Task"),
-    CURRENCY_CONVERSION_CACHE("Currency Conversion Cache");
+    CURRENCY_CONVERSION_CACHE("Currency Conversion Cache"),
+    ATM_CASSETTE_REGISTRY("ATM Cassette Registry"),
+    BALANCE_RESPONSE_CACHE("Balance Response Cache"),
+    REFERENCE_DATA_REGISTRY("Reference Data Registry"),
+    EXECUTION_MODE_CONFIG("Execution Mode Config"),
+    REPORT_WRITER("Report Writer");
 
     public final String source;
 
@@ -9,6 +9,7 @@ public enum StatusCodeReason {
     DISPLAY_TRANSACTIONAL_ACCOUNTS_SCR(200, "Displaying transactional accounts"),
     DISPLAY_FOREIGN_CURRENCY_ACCOUNT_SCR(200, "Displaying foreign currency accounts"),
     WITHDRAWAL_SUCCESSFUL_SCR(200, "Withdrawal successful"),
+    DISPLAY_CLIENT_POSITION_SCR(200, "Displaying client financial position"),
     INSUFFICIENT_FUNDS_SCR(400, "Insufficient funds"),
     ATM_NOT_FOUND_UNFUNDED_SCR(400, "ATM not registered or unfunded"),
     WITHDRAWAL_AMOUNT_NOT_AVAILABLE_SCR(400, "Amount not available, would you like to draw "),
@@ -0,0 +1,189 @@
+package za.co.discovery.tao.muzvidziwa.domain.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.StatusCodeReason;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassette;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of the bank service, scraped from {@code /actuator/prometheus} along with the latency histograms of the
+ * endpoints ({@code http.server.requests}) Spring Boot records:
+ * <ul>
+ *   <li>{@value #STAGE_TIMER} - a latency histogram per {@link Stage} of the requests.</li>
+ *   <li>{@value #OUTCOME_COUNTER} - the number of responses per {@link StatusCodeReason}.</li>
+ *   <li>{@value #CASSETTE_NOTES_GAUGE} - the notes left per ATM and denomination, for the ATMs whose cassette is loaded.</li>
+ *   <li>{@value #CACHE_AGE_GAUGE}, {@value #CACHE_HIT_RATIO_GAUGE}, {@value #CACHE_LOOKUPS_COUNTER} and
+ *       {@value #CACHE_SIZE_GAUGE} - the state of the {@link CurrencyConversionCache}.</li>
+ *   <li>{@value #BALANCE_CACHE_BYTES_GAUGE}, {@value #BALANCE_CACHE_EVICTIONS_COUNTER}, {@value #BALANCE_CACHE_HIT_RATIO_GAUGE},
+ *       {@value #BALANCE_CACHE_LOOKUPS_COUNTER} and {@value #BALANCE_CACHE_SIZE_GAUGE} - the state of the
+ *       {@link BalanceResponseCache}.</li>
+ * </ul>
+ * The timers and counters are registered up front, so recording one is a map lookup rather than a registry lookup.
+ */
+@Component
+public class BankMetrics {
+    public static final String STAGE_TIMER = "bank.service.stage";
+    public static final String OUTCOME_COUNTER = "bank.service.outcomes";
+    public static final String CASSETTE_NOTES_GAUGE = "atm.cassette.notes";
+    public static final String CACHE_AGE_GAUGE = "currency.conversion.cache.age";
+    public static final String CACHE_HIT_RATIO_GAUGE = "currency.conversion.cache.hit.ratio";
+    public static final String CACHE_LOOKUPS_COUNTER = "currency.conversion.cache.lookups";
+    public static final String CACHE_SIZE_GAUGE = "currency.conversion.cache.size";
+    public static final String BALANCE_CACHE_BYTES_GAUGE = "balance.response.cache.bytes";
+    public static final String BALANCE_CACHE_EVICTIONS_COUNTER = "balance.response.cache.evictions";
+    public static final String BALANCE_CACHE_HIT_RATIO_GAUGE = "balance.response.cache.hit.ratio";
+    public static final String BALANCE_CACHE_LOOKUPS_COUNTER = "balance.response.cache.lookups";
+    public static final String BALANCE_CACHE_SIZE_GAUGE = "balance.response.cache.size";
+
+    /**
+     * The stages of a request that go to the database or hold an ATM's cassette.
+     */
+    public enum Stage {
+        CLIENT_LOOKUP("client-lookup"),
+        ACCOUNT_LOOKUP("account-lookup"),
+        ATM_LOOKUP("atm-lookup"),
+        ATM_ALLOCATION_LOAD("atm-allocation-load"),
+        DISPENSE_CASH("dispense-cash"),
+        DB_WRITE("db-write");
+
+        public final String tag;
+
+        Stage(final String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AtmCassetteRegistry atmCassetteRegistry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<StatusCodeReason, Counter> outcomeCounters = new EnumMap<>(StatusCodeReason.class);
+    // The denominations each ATM has note gauges for, the cassette's own array so a reloaded cassette is spotted by reference
+    private final Map<Long, long[]> boundDenominations = new ConcurrentHashMap<>();
+
+    public BankMetrics(final MeterRegistry meterRegistry, final AtmCassetteRegistry atmCassetteRegistry,
+                       final CurrencyConversionCache currencyConversionCache, final BalanceResponseCache balanceResponseCache) {
+        this.meterRegistry = meterRegistry;
+        this.atmCassetteRegistry = atmCassetteRegistry;
+
+        for (final Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder(STAGE_TIMER)
+                    .description("Latency of a stage of the bank service requests")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (final StatusCodeReason codeReason : StatusCodeReason.values()) {
+            outcomeCounters.put(codeReason, Counter.builder(OUTCOME_COUNTER)
+                    .description("Responses of the bank service per status code reason")
+                    .tag("reason", codeReason.name())
+                    .tag("status", String.valueOf(codeReason.statusCode))
+                    .register(meterRegistry));
+        }
+
+        TimeGauge.builder(CACHE_AGE_GAUGE, currencyConversionCache, TimeUnit.MILLISECONDS, cache -> cache.getRefreshedAtMillis() == 0
+                        ? Double.NaN : System.currentTimeMillis() - cache.getRefreshedAtMillis())
+                .description("Time since the currency conversion rates were last refreshed")
+                .register(meterRegistry);
+        Gauge.builder(CACHE_HIT_RATIO_GAUGE, currencyConversionCache, cache -> hitRatio(cache.getHitCount(), cache.getMissCount()))
+                .description("Share of the currency conversion rate lookups that found a rate")
+                .register(meterRegistry);
+        FunctionCounter.builder(CACHE_LOOKUPS_COUNTER, currencyConversionCache, CurrencyConversionCache::getHitCount)
+                .description("Currency conversion rate lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(CACHE_LOOKUPS_COUNTER, currencyConversionCache, CurrencyConversionCache::getMissCount)
+                .description("Currency conversion rate lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(CACHE_SIZE_GAUGE, currencyConversionCache, CurrencyConversionCache::size)
+                .description("Number of currency conversion rates cached")
+                .register(meterRegistry);
+
+        Gauge.builder(BALANCE_CACHE_BYTES_GAUGE, balanceResponseCache, BalanceResponseCache::getBytes)
+                .description("Estimated heap the cached balance responses take")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        FunctionCounter.builder(BALANCE_CACHE_EVICTIONS_COUNTER, balanceResponseCache, BalanceResponseCache::getEvictionCount)
+                .description("Balance responses evicted, for a balance change, a rate change or to make room")
+                .register(meterRegistry);
+        Gauge.builder(BALANCE_CACHE_HIT_RATIO_GAUGE, balanceResponseCache,
+                        cache -> hitRatio(cache.getHitCount(), cache.getMissCount()))
+                .description("Share of the balance enquiries answered from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder(BALANCE_CACHE_LOOKUPS_COUNTER, balanceResponseCache, BalanceResponseCache::getHitCount)
+                .description("Balance response cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(BALANCE_CACHE_LOOKUPS_COUNTER, balanceResponseCache, BalanceResponseCache::getMissCount)
+                .description("Balance response cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(BALANCE_CACHE_SIZE_GAUGE, balanceResponseCache, BalanceResponseCache::size)
+                .description("Number of balance responses cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the time a stage took.
+     *
+     * @param stage      the stage
+     * @param startNanos the {@link System#nanoTime()} the stage started at
+     */
+    public void recordStage(final Stage stage, final long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a response.
+     *
+     * @param codeReason the status code reason of the response
+     */
+    public void countOutcome(final StatusCodeReason codeReason) {
+        outcomeCounters.get(codeReason).increment();
+    }
+
+    /**
+     * Registers the note gauges of the ATM's denominations, unless they already are. The gauges read the note counts from
+     * the {@link AtmCassetteRegistry}, and report NaN while the ATM's cassette is not loaded.
+     *
+     * @param atmCassette the cassette of the ATM
+     */
+    public void bindCassette(final AtmCassette atmCassette) {
+        final long[] denominationIds = atmCassette.getDenominationIds();
+        if (boundDenominations.get(atmCassette.getAtmId()) == denominationIds) {
+            return;
+        }
+
+        final long atmId = atmCassette.getAtmId();
+        final String atmTag = String.valueOf(atmId);
+        for (int i = 0; i < denominationIds.length; i++) {
+            final long denominationId = denominationIds[i];
+            // Registering an existing gauge again returns the existing one, so a reloaded cassette adds only new denominations
+            Gauge.builder(CASSETTE_NOTES_GAUGE, atmCassetteRegistry, registry -> registry.getNoteCount(atmId, denominationId))
+                    .description("Notes left in the ATM's cassette")
+                    .tag("atm", atmTag)
+                    .tag("denomination", atmCassette.getDenominationValues()[i].stripTrailingZeros().toPlainString())
+                    .register(meterRegistry);
+        }
+        boundDenominations.put(atmId, denominationIds);
+    }
+
+    private static double hitRatio(final long hits, final long misses) {
+        final long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
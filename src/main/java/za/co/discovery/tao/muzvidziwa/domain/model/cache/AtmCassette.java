@@ -0,0 +1,115 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.cache;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class represents the in-memory state of the note cassettes loaded in a single ATM.
+ * <p>
+ * The denominations are held in descending order of value as primitive arrays, i.e., index 0 is the largest note.
+ * The note counts may only be changed by the thread holding the cassette's lock, see {@link AtmCassetteRegistry#lockCassette(long, String)}.
+ */
+@Getter
+public class AtmCassette {
+    private final long atmId;
+    private final long[] denominationIds;
+    private final BigDecimal[] denominationValues;
+    private final long[] denominationCents;
+    // Changed in place by dispense, read through getLockedCounts by the lock holder or getCountsSnapshot by anyone else
+    @Getter(lombok.AccessLevel.NONE)
+    private final int[] counts;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Set once the cassette has been evicted from the registry, a thread that locked a retired cassette must look it up again
+    private volatile boolean retired;
+
+    AtmCassette(final long atmId, final long[] denominationIds, final BigDecimal[] denominationValues, final int[] counts) {
+        this.atmId = atmId;
+        this.denominationIds = denominationIds;
+        this.denominationValues = denominationValues;
+        this.counts = counts;
+        this.denominationCents = new long[denominationValues.length];
+        for (int i = 0; i < denominationValues.length; i++) {
+            this.denominationCents[i] = denominationValues[i].movePointRight(2).setScale(0, RoundingMode.DOWN).longValueExact();
+        }
+    }
+
+    /**
+     * @return the number of denominations loaded in the ATM
+     */
+    public int size() {
+        return denominationIds.length;
+    }
+
+    /**
+     * @return the smallest denomination loaded in the ATM
+     */
+    public BigDecimal getSmallestDenomination() {
+        return denominationValues[denominationValues.length - 1];
+    }
+
+    /**
+     * Returns the live note counts to plan a withdrawal against. Must only be called by the thread holding the lock, the
+     * counts change once it is released, and only changed through {@link #dispense(int[])}.
+     *
+     * @return the note counts per denomination, aligned to the cassette's denominations
+     * @throws IllegalStateException if the lock is not held
+     */
+    public int[] getLockedCounts() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Cassette for ATM " + atmId + " must be locked before reading its counts");
+        }
+        return counts;
+    }
+
+    /**
+     * @return a copy of the current note counts, safe to read without holding the lock
+     */
+    public int[] getCountsSnapshot() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+
+    /**
+     * Deducts dispensed notes from the cassettes. Must only be called by the thread holding the lock, after the
+     * dispensed notes have been written through to the database.
+     *
+     * @param noteCounts the number of notes dispensed per denomination, aligned to the cassette's denominations
+     * @throws IllegalStateException if the lock is not held, or more notes would be dispensed than are available
+     */
+    public void dispense(final int[] noteCounts) {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Cassette for ATM " + atmId + " must be locked before dispensing");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (noteCounts[i] > counts[i]) {
+                throw new IllegalStateException("Cassette for ATM " + atmId + " holds " + counts[i] + " notes of "
+                        + denominationValues[i] + ", cannot dispense " + noteCounts[i]);
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= noteCounts[i];
+        }
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    void retire() {
+        retired = true;
+    }
+}
@@ -0,0 +1,168 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry.DenominationEntry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
+import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.ATM_CASSETTE_REGISTRY;
+
+/**
+ * This class keeps the note counts of each ATM in memory, stored in a map of <AtmId, {@link AtmCassette}>.
+ * <p>
+ * An ATM's cassette is loaded from ATM_ALLOCATION on first use and is the source of truth for dispensing from then on,
+ * so withdrawals do not need a database round trip to read the note counts. Each cassette has its own lock: withdrawals
+ * at the same ATM are serialized, while withdrawals at different ATMs run in parallel.
+ * <p>
+ * Changes made to ATM_ALLOCATION outside the application (i.e., a cassette replenishment) must be followed by an
+ * {@link #evict(long, String)} so the cassette is reloaded on the next withdrawal.
+ */
+@Component
+@RequiredArgsConstructor
+public class AtmCassetteRegistry {
+    private final AtmAllocationRepository atmAllocationRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    private final Map<Long, AtmCassette> cassetteMap = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up (loading it from the database if needed) and locks the cassette of the given ATM.
+     * <p>
+     * The caller must release the lock through {@link AtmCassette#unlock()} in a finally block.
+     *
+     * @param atmId   the ID of the ATM
+     * @param traceId unique identifier for logging
+     * @return an Optional containing the locked {@link AtmCassette}, or empty if the ATM has no bank-notes allocated
+     */
+    public Optional<AtmCassette> lockCassette(final long atmId, final String traceId) {
+        while (true) {
+            AtmCassette cassette = cassetteMap.get(atmId);
+            if (cassette == null) {
+                final AtmCassette loadedCassette = loadCassette(atmId, traceId);
+                if (loadedCassette == null) {
+                    return Optional.empty();
+                }
+                final AtmCassette existingCassette = cassetteMap.putIfAbsent(atmId, loadedCassette);
+                cassette = existingCassette != null ? existingCassette : loadedCassette;
+            }
+
+            cassette.lock();
+            if (!cassette.isRetired()) {
+                return Optional.of(cassette);
+            }
+            // The cassette was evicted while this thread waited for the lock, look it up again
+            cassette.unlock();
+        }
+    }
+
+    /**
+     * Removes an ATM's cassette from the registry, it will be reloaded from the database on the next withdrawal.
+     * This must be called when the in-memory note counts can no longer be trusted, i.e., a failed write-through.
+     *
+     * @param atmId   the ID of the ATM
+     * @param traceId unique identifier for logging
+     */
+    public void evict(final long atmId, final String traceId) {
+        final AtmCassette cassette = cassetteMap.remove(atmId);
+        if (cassette != null) {
+            cassette.retire();
+            LoggerUtils.logInfo(traceId, ATM_CASSETTE_REGISTRY, "Cassette for ATM ID {} evicted.", atmId);
+        }
+    }
+
+    /**
+     * Reads the note count of a denomination without locking the cassette, i.e., for a metrics gauge, so it may be a
+     * withdrawal behind.
+     *
+     * @param atmId          the ID of the ATM
+     * @param denominationId the ID of the denomination
+     * @return the number of notes, or NaN if the ATM's cassette is not loaded or holds no such denomination
+     */
+    public double getNoteCount(final long atmId, final long denominationId) {
+        final AtmCassette cassette = cassetteMap.get(atmId);
+        if (cassette == null) {
+            return Double.NaN;
+        }
+        final long[] denominationIds = cassette.getDenominationIds();
+        for (int i = 0; i < denominationIds.length; i++) {
+            if (denominationIds[i] == denominationId) {
+                // Read without the lock, a withdrawal may be dispensing from the cassette
+                return cassette.getCountsSnapshot()[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    public void clearRegistry(final String traceId) {
+        for (Long atmId : List.copyOf(cassetteMap.keySet())) {
+            evict(atmId, traceId);
+        }
+        LoggerUtils.logInfo(traceId, ATM_CASSETTE_REGISTRY, "ATM cassette registry cleared.");
+    }
+
+    /**
+     * Loads an ATM's cassette from its ATM_ALLOCATION rows.
+     * <p>
+     * The ATM can only dispense bank-notes, so coin allocations are ignored, and allocations of the same denomination
+     * value are combined into a single cassette. The denominations are resolved by ID through the
+     * {@link ReferenceDataRegistry}, so the DENOMINATION rows are not loaded.
+     *
+     * @param atmId   the ID of the ATM
+     * @param traceId unique identifier for logging
+     * @return the {@link AtmCassette}, or null if the ATM has no bank-notes allocated
+     */
+    private AtmCassette loadCassette(final long atmId, final String traceId) {
+        final Optional<List<AtmAllocation>> atmAllocationList = atmAllocationRepository.findAtmAllocationByAtmId(atmId);
+        if (atmAllocationList.isEmpty() || atmAllocationList.get().isEmpty()) {
+            return null;
+        }
+
+        // Sorted by denomination value, largest first
+        final TreeMap<BigDecimal, long[]> denominationMap = new TreeMap<>((left, right) -> right.compareTo(left));
+        for (AtmAllocation atmAllocation : atmAllocationList.get()) {
+            // The denomination is a lazy reference, its ID is read off the proxy without loading the row
+            final DenominationEntry denominationEntry = atmAllocation.getDenomination() != null && atmAllocation.getDenomination().getDenominationId() != null
+                    ? referenceDataRegistry.getDenomination(atmAllocation.getDenomination().getDenominationId()) : null;
+            if (denominationEntry == null) {
+                LoggerUtils.logDebug(traceId, ATM_CASSETTE_REGISTRY, "ATM allocation ID {} has no denomination, or one not in the reference data.", atmAllocation.getAtmAllocationId());
+                continue;
+            }
+            if (denominationEntry.isCoin()) {
+                continue;
+            }
+
+            // An assumption has been made that if the count is null, it should be treated as zero
+            final int count = atmAllocation.getCount() != null ? atmAllocation.getCount() : 0;
+            final long[] denomination = denominationMap.computeIfAbsent(denominationEntry.denominationValue(),
+                    value -> new long[]{GeneralUtils.parseIntToLong(denominationEntry.denominationId()), 0});
+            denomination[1] += count;
+        }
+        if (denominationMap.isEmpty()) {
+            return null;
+        }
+
+        final long[] denominationIds = new long[denominationMap.size()];
+        final BigDecimal[] denominationValues = new BigDecimal[denominationMap.size()];
+        final int[] counts = new int[denominationMap.size()];
+        int i = 0;
+        for (Map.Entry<BigDecimal, long[]> entry : denominationMap.entrySet()) {
+            denominationValues[i] = entry.getKey();
+            denominationIds[i] = entry.getValue()[0];
+            counts[i] = (int) entry.getValue()[1];
+            i++;
+        }
+
+        LoggerUtils.logDebug(traceId, ATM_CASSETTE_REGISTRY, "Cassette for ATM ID {} loaded with {} denominations.", atmId, denominationIds.length);
+        return new AtmCassette(atmId, denominationIds, denominationValues, counts);
+    }
+}
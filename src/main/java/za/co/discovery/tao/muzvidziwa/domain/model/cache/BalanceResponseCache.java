@@ -0,0 +1,396 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BALANCE_RESPONSE_CACHE;
+
+/**
+ * This class caches the balance responses of each client, each held both as the response and as the JSON the endpoints
+ * return, stored in a map of <(ClientId, {@link BalanceView}), response and JSON bytes>, so the repeat balance enquiries
+ * of an ATM session are a memory read rather than the database queries and the mapping of every account. The REST
+ * endpoints read the JSON ({@link #getOrLoad}), the in-process web pages read the response ({@link #getOrLoadResponse}),
+ * so neither writes nor parses JSON on a hit.
+ * <p>
+ * The cache is bounded by the bytes it holds ({@code application-config.balance-cache.max-bytes}, 0 turns it off), the
+ * least recently read responses are evicted first. Only successful responses are cached.
+ * <p>
+ * The responses are held in stripes by client ID, each an access ordered map guarded by its own lock, so a stripe's
+ * least recently read response is its first. Making room compares the first response of every stripe rather than every
+ * response cached, and locks only the stripe it evicts from.
+ * <p>
+ * A client's responses must be evicted with {@link #evictClient(Integer, String)} whenever the client's balances change,
+ * i.e., a withdrawal. All the responses are evicted when the {@link CurrencyConversionCache}'s rates change. A response
+ * loaded while its client was evicted, or while the rates changed, is returned but not cached, so the cache never holds
+ * balances older than the last eviction.
+ * <p>
+ * A lookup, caching a loaded response and evicting a client lock the client's stripe only, so the lookups of the
+ * clients of other stripes do not wait on them.
+ */
+@Component
+public class BalanceResponseCache {
+    // An estimate of the heap an entry takes besides its response and JSON: the map entry, the key and the array header
+    public static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    /**
+     * The balance responses cached, each written through its JSON view. The field name is the response's name in the
+     * bulk balance enquiry's JSON.
+     */
+    public enum BalanceView {
+        TRANSACTIONAL(View.Transactional.class, "transactional"),
+        CURRENCY(View.Currency.class, "currency");
+
+        public final Class<?> view;
+        public final String fieldName;
+
+        BalanceView(final Class<?> view, final String fieldName) {
+            this.view = view;
+            this.fieldName = fieldName;
+        }
+    }
+
+    /**
+     * Loads a balance response on a cache miss, i.e., from the {@code BankService}.
+     */
+    @FunctionalInterface
+    public interface BalanceLoader {
+        AtmResponse load() throws Exception;
+    }
+
+    // A client's lookups, loads and evictions are serialised on the stripe its ID falls in
+    private static final int STRIPES = 64;
+
+    // Writes the JSON the REST endpoints return for the view, so the cached JSON is byte for byte what they would write
+    private final AtmResponseWriter atmResponseWriter;
+    private final CurrencyConversionCache currencyConversionCache;
+    private final long maxBytes;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    // The loads in flight per key, an eviction removes them so their responses are not cached
+    private final ConcurrentHashMap<Key, Object> loads = new ConcurrentHashMap<>();
+    // Ticks on every read, the stripes' first responses are compared by their last tick
+    private final AtomicLong readClock = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    // The version of the rates the responses were loaded with. Changed while all the stripes are locked
+    private volatile long ratesVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BalanceResponseCache(final AtmResponseWriter atmResponseWriter, final CurrencyConversionCache currencyConversionCache,
+                                @Value("${application-config.balance-cache.max-bytes:16777216}") final long maxBytes) {
+        this.atmResponseWriter = atmResponseWriter;
+        this.currencyConversionCache = currencyConversionCache;
+        this.maxBytes = maxBytes;
+        this.ratesVersion = currencyConversionCache.getSnapshotVersion();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * The estimated heap a cached response takes: its JSON, the response itself, taken to be about the size of its JSON,
+     * and the map entry.
+     *
+     * @param json the response's JSON
+     * @return the estimated heap in bytes
+     */
+    public static long entryBytes(final byte[] json) {
+        return 2L * json.length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Looks up the client's balance response as JSON, loading and caching it on a miss.
+     *
+     * @param clientId    the ID of the client
+     * @param balanceView the balance response
+     * @param loader      loads the response on a miss
+     * @param traceId     unique identifier for logging
+     * @return the response as JSON, written through the view's JSON view
+     */
+    public byte[] getOrLoad(final Integer clientId, final BalanceView balanceView, final BalanceLoader loader, final String traceId) throws Exception {
+        if (maxBytes <= 0 || clientId == null) {
+            return atmResponseWriter.writeValueAsBytes(loader.load(), balanceView.view);
+        }
+        return getOrLoadEntry(clientId, balanceView, loader, traceId).json;
+    }
+
+    /**
+     * Looks up the client's balance response, loading and caching it on a miss. The response is shared with the other
+     * lookups of the client, it must not be changed.
+     *
+     * @param clientId    the ID of the client
+     * @param balanceView the balance response
+     * @param loader      loads the response on a miss
+     * @param traceId     unique identifier for logging
+     * @return the response as loaded, with the fields of every view
+     */
+    public AtmResponse getOrLoadResponse(final Integer clientId, final BalanceView balanceView, final BalanceLoader loader, final String traceId) throws Exception {
+        if (maxBytes <= 0 || clientId == null) {
+            return loader.load();
+        }
+        return getOrLoadEntry(clientId, balanceView, loader, traceId).atmResponse;
+    }
+
+    /**
+     * Evicts the client's responses, and keeps the responses loading now from being cached.
+     *
+     * @param clientId the ID of the client
+     * @param traceId  unique identifier for logging
+     */
+    public void evictClient(final Integer clientId, final String traceId) {
+        if (clientId == null) {
+            return;
+        }
+
+        final Stripe stripe = stripe(clientId);
+        stripe.lock.lock();
+        try {
+            for (BalanceView balanceView : BalanceView.values()) {
+                final Key key = new Key(clientId, balanceView);
+                loads.remove(key);
+                final Entry entry = stripe.responses.remove(key);
+                if (entry != null) {
+                    bytes.addAndGet(-entryBytes(entry.json));
+                    evictions.increment();
+                }
+            }
+            stripe.updateEldestRead();
+        } finally {
+            stripe.lock.unlock();
+        }
+        LoggerUtils.logDebug(traceId, BALANCE_RESPONSE_CACHE, "Balance responses for client ID {} evicted.", clientId);
+    }
+
+    /**
+     * Evicts all the responses, and keeps the responses loading now from being cached.
+     *
+     * @param traceId unique identifier for logging
+     */
+    public void clearCache(final String traceId) {
+        lockAllStripes();
+        try {
+            evictAll();
+        } finally {
+            unlockAllStripes();
+        }
+        LoggerUtils.logInfo(traceId, BALANCE_RESPONSE_CACHE, "Balance response cache cleared.");
+    }
+
+    /**
+     * @return the number of responses cached
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.responses.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the estimated heap the cached responses take, in bytes
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return the number of lookups that found a cached response
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that loaded the response
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of responses evicted, for a balance change, a rate change or to make room
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Entry getOrLoadEntry(final int clientId, final BalanceView balanceView, final BalanceLoader loader, final String traceId) throws Exception {
+        evictAllIfRatesChanged(traceId);
+        final Key key = new Key(clientId, balanceView);
+        final Stripe stripe = stripe(clientId);
+        stripe.lock.lock();
+        try {
+            // Moves the response to the back of the stripe's read order
+            final Entry cachedEntry = stripe.responses.get(key);
+            if (cachedEntry != null) {
+                cachedEntry.lastRead = readClock.incrementAndGet();
+                stripe.updateEldestRead();
+                hits.increment();
+                return cachedEntry;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        misses.increment();
+        final Object load = new Object();
+        loads.put(key, load);
+
+        final Entry entry;
+        final boolean success;
+        try {
+            final AtmResponse atmResponse = loader.load();
+            entry = new Entry(atmResponse, atmResponseWriter.writeValueAsBytes(atmResponse, balanceView.view), readClock.incrementAndGet());
+            success = atmResponse != null && atmResponse.result() != null && atmResponse.result().success();
+        } catch (final Exception e) {
+            loads.remove(key, load);
+            throw e;
+        }
+
+        evictAllIfRatesChanged(traceId);
+        boolean cached = false;
+        stripe.lock.lock();
+        try {
+            // Not cached if the client was evicted (or another load of the key started) since this load started
+            if (loads.remove(key, load) && success && entryBytes(entry.json) <= maxBytes) {
+                final Entry previousEntry = stripe.responses.put(key, entry);
+                bytes.addAndGet(entryBytes(entry.json) - (previousEntry != null ? entryBytes(previousEntry.json) : 0));
+                stripe.updateEldestRead();
+                cached = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (cached) {
+            evictLeastRecentlyRead();
+        }
+        return entry;
+    }
+
+    private void evictLeastRecentlyRead() {
+        while (bytes.get() > maxBytes) {
+            Stripe eldestStripe = null;
+            long eldestRead = Long.MAX_VALUE;
+            for (Stripe stripe : stripes) {
+                final long stripeEldestRead = stripe.eldestRead;
+                if (stripeEldestRead < eldestRead) {
+                    eldestStripe = stripe;
+                    eldestRead = stripeEldestRead;
+                }
+            }
+            if (eldestStripe == null) {
+                return;
+            }
+
+            eldestStripe.lock.lock();
+            try {
+                // Another thread may have made room, or emptied the stripe, in the meantime
+                if (bytes.get() > maxBytes && !eldestStripe.responses.isEmpty()) {
+                    final Iterator<Entry> eldest = eldestStripe.responses.values().iterator();
+                    final Entry entry = eldest.next();
+                    eldest.remove();
+                    bytes.addAndGet(-entryBytes(entry.json));
+                    evictions.increment();
+                    eldestStripe.updateEldestRead();
+                }
+            } finally {
+                eldestStripe.lock.unlock();
+            }
+        }
+    }
+
+    private void evictAllIfRatesChanged(final String traceId) {
+        final long currentRatesVersion = currencyConversionCache.getSnapshotVersion();
+        if (currentRatesVersion == ratesVersion) {
+            return;
+        }
+
+        lockAllStripes();
+        try {
+            if (currentRatesVersion == ratesVersion) {
+                return;
+            }
+            ratesVersion = currentRatesVersion;
+            evictAll();
+        } finally {
+            unlockAllStripes();
+        }
+        LoggerUtils.logInfo(traceId, BALANCE_RESPONSE_CACHE, "Balance response cache cleared.");
+    }
+
+    // Called with all the stripes locked, so no response is cached meanwhile
+    private void evictAll() {
+        loads.clear();
+        for (Stripe stripe : stripes) {
+            for (Entry entry : stripe.responses.values()) {
+                bytes.addAndGet(-entryBytes(entry.json));
+                evictions.increment();
+            }
+            stripe.responses.clear();
+            stripe.updateEldestRead();
+        }
+    }
+
+    private Stripe stripe(final int clientId) {
+        return stripes[Math.floorMod(clientId, STRIPES)];
+    }
+
+    private void lockAllStripes() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.unlock();
+        }
+    }
+
+    private record Key(int clientId, BalanceView balanceView) {
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        // The stripe's responses in read order, the least recently read first. Guarded by the lock
+        private final LinkedHashMap<Key, Entry> responses = new LinkedHashMap<>(16, 0.75f, true);
+        // The last read of the first response, Long.MAX_VALUE if the stripe is empty, compared without the lock
+        private volatile long eldestRead = Long.MAX_VALUE;
+
+        // Called with the lock held, after every change to the read order
+        private void updateEldestRead() {
+            eldestRead = responses.isEmpty() ? Long.MAX_VALUE : responses.values().iterator().next().lastRead;
+        }
+    }
+
+    private static final class Entry {
+        private final AtmResponse atmResponse;
+        private final byte[] json;
+        // Written with the stripe's lock held
+        private long lastRead;
+
+        private Entry(final AtmResponse atmResponse, final byte[] json, final long lastRead) {
+            this.atmResponse = atmResponse;
+            this.json = json;
+            this.lastRead = lastRead;
+        }
+    }
+}
@@ -1,49 +1,115 @@
 package za.co.discovery.tao.muzvidziwa.domain.model.cache;
 
-import lombok.Data;
-import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
 import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
 
+import java.math.RoundingMode;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.CURRENCY_CONVERSION_CACHE;
 
 /**
  * This class represents the cache for currency conversion rates, stored in a map of <CurrencyCode, {@link ConversionRatesDto}>.
+ * <p>
+ * The map is an immutable snapshot: every change builds a new map off to the side and swaps it in atomically, so readers
+ * take no lock and always see either the previous or the next complete set of rates, never a partially refreshed one.
  * */
-
-@Data
-@NoArgsConstructor
 @Component
 public class CurrencyConversionCache {
-    private Map<String, ConversionRatesDto> currencyConversionRatesMap = new HashMap<>();
+    private final AtomicReference<Map<String, ConversionRatesDto>> currencyConversionRatesMap = new AtomicReference<>(Collections.emptyMap());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Counts the snapshots swapped in, so the caches of values derived from the rates can tell the rates changed
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    // When the rates were last replaced or added to, 0 until the first rates are cached
+    private volatile long refreshedAtMillis;
 
     /**
      * Retrieves the currency conversion rate for the specified currency code from the cache.
      * <p>
      * If the conversion rate is not found, a debug log is generated.
-     * If the cache map is not initialized, a debug log is also generated.
      *
      * @param currencyCode the currency code to look up
-     * @return the {@link ConversionRatesDto} for the given currency code, or {@code null} if not found or if the map is not initialized
+     * @return the {@link ConversionRatesDto} for the given currency code, or {@code null} if not found
      */
     public ConversionRatesDto getCurrencyConversionRate(final String currencyCode, final String traceId) {
-        if (currencyConversionRatesMap != null) {
-            final ConversionRatesDto currencyConversionRateDto = currencyConversionRatesMap.get(currencyCode);
+        final ConversionRatesDto currencyConversionRateDto = currencyConversionRatesMap.get().get(currencyCode);
+
+        if (currencyConversionRateDto == null) {
+            misses.increment();
+            LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rate for code {} not found in the cache.", currencyCode);
+        } else {
+            hits.increment();
+        }
+
+        return currencyConversionRateDto;
+    }
 
-            if (currencyConversionRateDto == null) {
-                LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rate for code {} not found in the cache.", currencyCode);
-            }
+    /**
+     * @return true if no rates have been cached yet
+     */
+    public boolean isEmpty() {
+        return currencyConversionRatesMap.get().isEmpty();
+    }
 
-            return currencyConversionRateDto;
+    /**
+     * @return the number of rates cached
+     */
+    public int size() {
+        return currencyConversionRatesMap.get().size();
+    }
+
+    /**
+     * @return the number of lookups that found a rate
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that found no rate
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the time the rates were last replaced or added to, in epoch milliseconds, 0 if no rates have been cached
+     */
+    public long getRefreshedAtMillis() {
+        return refreshedAtMillis;
+    }
+
+    /**
+     * @return the version of the rates, which changes every time the rates are replaced, added to or cleared
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion.get();
+    }
+
+    /**
+     * Replaces all the rates in the cache with the given rates in a single atomic swap.
+     *
+     * @param currencyConversionRates the CurrencyConversionRate entities keyed by currency code
+     */
+    public void replaceCurrencyConversionRates(final Map<String, CurrencyConversionRate> currencyConversionRates, final String traceId) {
+        final Map<String, ConversionRatesDto> snapshot = new HashMap<>();
+        for (Map.Entry<String, CurrencyConversionRate> entry : currencyConversionRates.entrySet()) {
+            snapshot.put(entry.getKey(), prepareConversionRateDto(entry.getValue()));
         }
 
-        LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates map is not initialized or empty.");
-        return null;
+        currencyConversionRatesMap.set(Collections.unmodifiableMap(snapshot));
+        snapshotVersion.incrementAndGet();
+        refreshedAtMillis = System.currentTimeMillis();
+        LoggerUtils.logInfo(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates cache replaced with {} rates.", snapshot.size());
     }
 
     /**
@@ -54,26 +120,28 @@ public class CurrencyConversionCache {
      * @param currencyConversionRate the CurrencyConversionRate entity to be added
      */
     public void addCurrencyConversionRate(final String currencyCode, final CurrencyConversionRate currencyConversionRate, final String traceId) {
-        if (currencyConversionRatesMap != null) {
-            var duplicateRate = currencyConversionRatesMap.put(currencyCode, prepareConversionRateDto(currencyConversionRate));
-
-            if (duplicateRate != null) {
-                LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rate for code {} updated.", currencyCode);
-                return;
-            }
-            LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Added currency conversion rate for code {} to the cache.", currencyCode);
-        } else {
-            LoggerUtils.logError(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates map is not initialized.");
+        final ConversionRatesDto conversionRatesDto = prepareConversionRateDto(currencyConversionRate);
+
+        final Map<String, ConversionRatesDto> previousSnapshot = currencyConversionRatesMap.getAndUpdate(currentSnapshot -> {
+            final Map<String, ConversionRatesDto> snapshot = new HashMap<>(currentSnapshot);
+            snapshot.put(currencyCode, conversionRatesDto);
+            return Collections.unmodifiableMap(snapshot);
+        });
+        snapshotVersion.incrementAndGet();
+        refreshedAtMillis = System.currentTimeMillis();
+
+        if (previousSnapshot.containsKey(currencyCode)) {
+            LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rate for code {} updated.", currencyCode);
+            return;
         }
+        LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Added currency conversion rate for code {} to the cache.", currencyCode);
     }
 
     public void clearCache(final String traceId) {
-        if (currencyConversionRatesMap != null) {
-            currencyConversionRatesMap.clear();
-            LoggerUtils.logInfo(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates cache cleared.");
-        } else {
-            LoggerUtils.logDebug(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates map is already empty.");
-        }
+        currencyConversionRatesMap.set(Collections.emptyMap());
+        snapshotVersion.incrementAndGet();
+        refreshedAtMillis = 0;
+        LoggerUtils.logInfo(traceId, CURRENCY_CONVERSION_CACHE, "Currency conversion rates cache cleared.");
     }
 
     /**
@@ -83,16 +151,12 @@ public class CurrencyConversionCache {
      * @return ConversionRatesDto containing the conversion rate and indicator
      */
     private ConversionRatesDto prepareConversionRateDto(final CurrencyConversionRate currencyConversionRate) {
-        final ConversionRatesDto conversionRatesDto = new ConversionRatesDto();
-
         if (currencyConversionRate == null) {
-            return conversionRatesDto;
+            return new ConversionRatesDto(null, null, null);
         }
 
-        // TODO Tao: Change this to BigDecimal instead of String
-        conversionRatesDto.setConversionRate(currencyConversionRate.getRate().toString());
-        conversionRatesDto.setConversionIndicator(currencyConversionRate.getConversionIndicator());
-
-        return conversionRatesDto;
+        return new ConversionRatesDto(currencyConversionRate.getRate(),
+                ConversionIndicator.fromSymbol(currencyConversionRate.getConversionIndicator()),
+                currencyConversionRate.getRate() != null ? currencyConversionRate.getRate().setScale(3, RoundingMode.HALF_UP) : null);
     }
 }
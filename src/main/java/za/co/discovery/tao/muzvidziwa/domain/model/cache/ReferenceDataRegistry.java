@@ -0,0 +1,206 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientSubType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Currency;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.REFERENCE_DATA_REGISTRY;
+
+/**
+ * This class keeps the reference tables (ACCOUNT_TYPE, CLIENT_SUB_TYPE with its CLIENT_TYPE, CURRENCY and DENOMINATION)
+ * in memory, loaded once at start-up into immutable maps keyed by the interned codes, or by the denomination ID.
+ * <p>
+ * The reference tables never change while the application runs, so the hot queries read the codes off the CLIENT,
+ * CLIENT_ACCOUNT and ATM_ALLOCATION rows instead of joining the reference tables, and the flags, descriptions and values
+ * of the codes are looked up here. A change to the reference tables needs a restart.
+ */
+@Component
+public class ReferenceDataRegistry {
+    // The client types the bank services, i.e., individuals and non-individuals
+    public static final Set<String> SERVICED_CLIENT_TYPE_CODES = Set.of("I", "N");
+
+    private static final String SELECT_ACCOUNT_TYPES = "select ACCOUNT_TYPE_CODE, DESCRIPTION, TRANSACTIONAL from ACCOUNT_TYPE";
+    private static final String SELECT_CLIENT_SUB_TYPES = "select CLIENT_SUB_TYPE_CODE, CLIENT_TYPE_CODE, DESCRIPTION from CLIENT_SUB_TYPE";
+    private static final String SELECT_CURRENCIES = "select CURRENCY_CODE, DECIMAL_PLACES, DESCRIPTION from CURRENCY";
+    private static final String SELECT_DENOMINATIONS = "select DENOMINATION_ID, DENOMINATION_VALUE, DENOMINATION_TYPE_CODE from DENOMINATION";
+
+    /**
+     * An ACCOUNT_TYPE row.
+     */
+    public record AccountTypeEntry(String accountTypeCode, String description, boolean transactional) {
+    }
+
+    /**
+     * A CURRENCY row.
+     */
+    public record CurrencyEntry(String currencyCode, int decimalPlaces, String description) {
+    }
+
+    /**
+     * A DENOMINATION row.
+     */
+    public record DenominationEntry(int denominationId, BigDecimal denominationValue, String denominationTypeCode) {
+        /**
+         * @return true if the denomination is a coin, the ATM only dispenses bank-notes
+         */
+        public boolean isCoin() {
+            return "C".equalsIgnoreCase(denominationTypeCode);
+        }
+    }
+
+    private final Map<String, AccountTypeEntry> accountTypeMap;
+    // <ClientSubTypeCode, ClientTypeCode>
+    private final Map<String, String> clientTypeCodeMap;
+    private final Map<String, CurrencyEntry> currencyMap;
+    private final Map<Integer, DenominationEntry> denominationMap;
+
+    @Autowired
+    public ReferenceDataRegistry(final JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate.query(SELECT_ACCOUNT_TYPES, (resultSet, rowNum) -> {
+                    final AccountType accountType = new AccountType();
+                    accountType.setAccountTypeCode(resultSet.getString(1));
+                    accountType.setDescription(resultSet.getString(2));
+                    accountType.setTransactional(resultSet.getBoolean(3));
+                    return accountType;
+                }),
+                jdbcTemplate.query(SELECT_CLIENT_SUB_TYPES, (resultSet, rowNum) -> {
+                    final ClientType clientType = new ClientType();
+                    clientType.setClientTypeCode(resultSet.getString(2));
+                    final ClientSubType clientSubType = new ClientSubType();
+                    clientSubType.setClientSubTypeCode(resultSet.getString(1));
+                    clientSubType.setClientType(clientType);
+                    clientSubType.setDescription(resultSet.getString(3));
+                    return clientSubType;
+                }),
+                jdbcTemplate.query(SELECT_CURRENCIES, (resultSet, rowNum) -> {
+                    final Currency currency = new Currency();
+                    currency.setCurrencyCode(resultSet.getString(1));
+                    currency.setDecimalPlaces(resultSet.getInt(2));
+                    currency.setDescription(resultSet.getString(3));
+                    return currency;
+                }),
+                jdbcTemplate.query(SELECT_DENOMINATIONS, (resultSet, rowNum) -> {
+                    final DenominationType denominationType = new DenominationType();
+                    denominationType.setDenominationTypeCode(resultSet.getString(3));
+                    final Denomination denomination = new Denomination();
+                    denomination.setDenominationId(resultSet.getInt(1));
+                    denomination.setDenominationValue(resultSet.getBigDecimal(2));
+                    denomination.setDenominationType(denominationType);
+                    return denomination;
+                }));
+    }
+
+    /**
+     * Builds the registry from the given reference rows, i.e., for tests and benchmarks without a database.
+     */
+    public ReferenceDataRegistry(final List<AccountType> accountTypes, final List<ClientSubType> clientSubTypes,
+                                 final List<Currency> currencies, final List<Denomination> denominations) {
+        final Map<String, AccountTypeEntry> accountTypeEntries = new HashMap<>();
+        for (AccountType accountType : accountTypes) {
+            accountTypeEntries.put(intern(accountType.getAccountTypeCode()), new AccountTypeEntry(intern(accountType.getAccountTypeCode()),
+                    accountType.getDescription(), Boolean.TRUE.equals(accountType.getTransactional())));
+        }
+
+        final Map<String, String> clientTypeCodes = new HashMap<>();
+        for (ClientSubType clientSubType : clientSubTypes) {
+            if (clientSubType.getClientType() != null && clientSubType.getClientType().getClientTypeCode() != null) {
+                clientTypeCodes.put(intern(clientSubType.getClientSubTypeCode()), intern(clientSubType.getClientType().getClientTypeCode()));
+            }
+        }
+
+        final Map<String, CurrencyEntry> currencyEntries = new HashMap<>();
+        for (Currency currency : currencies) {
+            currencyEntries.put(intern(currency.getCurrencyCode()), new CurrencyEntry(intern(currency.getCurrencyCode()),
+                    currency.getDecimalPlaces() != null ? currency.getDecimalPlaces() : 0, currency.getDescription()));
+        }
+
+        final Map<Integer, DenominationEntry> denominationEntries = new HashMap<>();
+        for (Denomination denomination : denominations) {
+            if (denomination.getDenominationId() == null || denomination.getDenominationValue() == null) {
+                continue;
+            }
+            final String denominationTypeCode = denomination.getDenominationType() != null
+                    ? intern(denomination.getDenominationType().getDenominationTypeCode()) : null;
+            denominationEntries.put(denomination.getDenominationId(), new DenominationEntry(denomination.getDenominationId(),
+                    denomination.getDenominationValue(), denominationTypeCode));
+        }
+
+        this.accountTypeMap = Map.copyOf(accountTypeEntries);
+        this.clientTypeCodeMap = Map.copyOf(clientTypeCodes);
+        this.currencyMap = Map.copyOf(currencyEntries);
+        this.denominationMap = Map.copyOf(denominationEntries);
+
+        LoggerUtils.logInfo(TraceContext.newTraceId(), REFERENCE_DATA_REGISTRY, "Reference data loaded: {} account types, {} client sub types, {} currencies and {} denominations.",
+                accountTypeMap.size(), clientTypeCodeMap.size(), currencyMap.size(), denominationMap.size());
+    }
+
+    /**
+     * @param accountTypeCode the code of the account type
+     * @return the {@link AccountTypeEntry}, or null if there is no such account type
+     */
+    public AccountTypeEntry getAccountType(final String accountTypeCode) {
+        return accountTypeCode != null ? accountTypeMap.get(accountTypeCode) : null;
+    }
+
+    /**
+     * @param accountTypeCode the code of the account type
+     * @return the description of the account type, or null if there is no such account type
+     */
+    public String getAccountTypeDescription(final String accountTypeCode) {
+        final AccountTypeEntry accountType = getAccountType(accountTypeCode);
+        return accountType != null ? accountType.description() : null;
+    }
+
+    /**
+     * @param accountTypeCode the code of the account type
+     * @return true if the account type is transactional, false if it is not or there is no such account type
+     */
+    public boolean isTransactionalAccountType(final String accountTypeCode) {
+        final AccountTypeEntry accountType = getAccountType(accountTypeCode);
+        return accountType != null && accountType.transactional();
+    }
+
+    /**
+     * @param clientSubTypeCode the code of the client's sub type
+     * @return true if the sub type belongs to a client type the bank services ({@link #SERVICED_CLIENT_TYPE_CODES}), false
+     * if it does not or there is no such sub type
+     */
+    public boolean isServicedClientSubType(final String clientSubTypeCode) {
+        final String clientTypeCode = clientSubTypeCode != null ? clientTypeCodeMap.get(clientSubTypeCode) : null;
+        return clientTypeCode != null && SERVICED_CLIENT_TYPE_CODES.contains(clientTypeCode);
+    }
+
+    /**
+     * @param currencyCode the code of the currency
+     * @return the {@link CurrencyEntry}, or null if there is no such currency
+     */
+    public CurrencyEntry getCurrency(final String currencyCode) {
+        return currencyCode != null ? currencyMap.get(currencyCode) : null;
+    }
+
+    /**
+     * @param denominationId the ID of the denomination
+     * @return the {@link DenominationEntry}, or null if there is no such denomination
+     */
+    public DenominationEntry getDenomination(final int denominationId) {
+        return denominationMap.get(denominationId);
+    }
+
+    private static String intern(final String code) {
+        return code != null ? code.intern() : null;
+    }
+}
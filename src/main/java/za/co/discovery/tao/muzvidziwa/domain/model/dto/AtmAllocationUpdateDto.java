@@ -7,5 +7,5 @@ import lombok.Data;
 @AllArgsConstructor
 public class AtmAllocationUpdateDto {
     private Long denominationId;
-    private Integer balanceCount;
+    private Integer dispensedCount;
 }
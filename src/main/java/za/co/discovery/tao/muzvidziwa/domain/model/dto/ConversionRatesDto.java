@@ -1,11 +1,83 @@
 package za.co.discovery.tao.muzvidziwa.domain.model.dto;
 
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
 
-@Data
-@NoArgsConstructor
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class represents a cached currency conversion rate. It is immutable, so a cache snapshot can be shared by any
+ * number of request threads without synchronization.
+ * <p>
+ * The {@code displayRate} is the rate as shown to clients (scale of 3), it is worked out once when the rate is cached.
+ * Conversions use the unrounded {@code conversionRate}, normalized when the rate is cached to the fraction the amount is
+ * multiplied by: 18.6167 multiplied is 186 167 / 10 000, 0.1134 divided is 10 000 / 1 134. A divided rate's reciprocal is
+ * seldom a finite decimal, the fraction keeps it exact so the amount is rounded once, as dividing by the rate would.
+ */
+@Value
 public class ConversionRatesDto {
-    private String conversionRate;
-    private String conversionIndicator;
+    BigDecimal conversionRate;
+    ConversionIndicator conversionIndicator;
+    BigDecimal displayRate;
+
+    // The multiplier as a fraction, null if the rate or the conversion indicator is not known
+    @Getter(AccessLevel.NONE)
+    BigDecimal numerator;
+    @Getter(AccessLevel.NONE)
+    BigDecimal denominator;
+    // The fraction in longs for Money amounts, the denominator is 0 if the rate does not fit a long
+    @Getter(AccessLevel.NONE)
+    long numeratorUnits;
+    @Getter(AccessLevel.NONE)
+    long denominatorUnits;
+
+    public ConversionRatesDto(final BigDecimal conversionRate, final ConversionIndicator conversionIndicator, final BigDecimal displayRate) {
+        this.conversionRate = conversionRate;
+        this.conversionIndicator = conversionIndicator;
+        this.displayRate = displayRate;
+
+        if (conversionRate == null || conversionIndicator == null) {
+            this.numerator = null;
+            this.denominator = null;
+            this.numeratorUnits = 0;
+            this.denominatorUnits = 0;
+            return;
+        }
+        this.numerator = conversionIndicator == ConversionIndicator.MULTIPLY ? conversionRate : BigDecimal.ONE;
+        this.denominator = conversionIndicator == ConversionIndicator.MULTIPLY ? BigDecimal.ONE : conversionRate;
+
+        final BigDecimal strippedRate = conversionRate.stripTrailingZeros();
+        final BigDecimal rate = strippedRate.scale() < 0 ? strippedRate.setScale(0) : strippedRate;
+        if (rate.precision() <= 18 && rate.scale() <= 18) {
+            final long rateUnits = rate.unscaledValue().longValueExact();
+            final long scaleUnits = BigDecimal.ONE.movePointRight(rate.scale()).longValueExact();
+            this.numeratorUnits = conversionIndicator == ConversionIndicator.MULTIPLY ? rateUnits : scaleUnits;
+            this.denominatorUnits = conversionIndicator == ConversionIndicator.MULTIPLY ? scaleUnits : rateUnits;
+        } else {
+            this.numeratorUnits = 0;
+            this.denominatorUnits = 0;
+        }
+    }
+
+    /**
+     * Converts a {@link Money} amount in this rate's currency to ZAR.
+     *
+     * @param amount   the amount in this rate's currency
+     * @param zarScale the scale of the ZAR amount
+     * @return the ZAR amount, rounded half up to the scale, or null if the amount, the rate or the conversion indicator is not known
+     * @throws ArithmeticException if the rate divides by zero
+     */
+    public Money toZar(final Money amount, final int zarScale) {
+        if (amount == null || numerator == null) {
+            return null;
+        }
+
+        if (denominatorUnits == 0) {
+            return Money.of(amount.toBigDecimal().multiply(numerator).divide(denominator, zarScale, RoundingMode.HALF_UP), zarScale, RoundingMode.UNNECESSARY);
+        }
+        return amount.multiply(numeratorUnits, denominatorUnits, zarScale);
+    }
 }
@@ -0,0 +1,28 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * This class represents the outcome of a single {@link za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine} run.
+ * <p>
+ * The {@code dispensableCents} is the largest amount (in cents) not exceeding the requested amount that the ATM can pay out,
+ * and {@code noteCounts} holds the number of notes per denomination (aligned to the denominations passed to the engine)
+ * that make up that amount.
+ */
+@Data
+@AllArgsConstructor
+public class DispensePlanDto {
+    private long dispensableCents;
+    private int[] noteCounts;
+
+    /**
+     * Establishes if the plan pays out the requested amount in full.
+     *
+     * @param requestedCents the requested amount in cents
+     * @return true if the dispensable amount is equal to the requested amount, false otherwise
+     */
+    public boolean isExact(final long requestedCents) {
+        return dispensableCents == requestedCents;
+    }
+}
@@ -0,0 +1,171 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class represents an amount of money as a whole number of minor units at a fixed scale, i.e., R10 250.50 at a scale
+ * of 3 is 10 250 500 units. Amounts are added, subtracted and compared as longs, an amount is only rounded where it enters
+ * ({@link #of(BigDecimal, int, RoundingMode)}), is converted ({@link #multiply(long, long, int)}) or is rescaled
+ * ({@link #rescale(int, RoundingMode)}), each with an explicit rounding.
+ * <p>
+ * The scale of an account's amounts is its currency's DECIMAL_PLACES, but no less than the {@link #BALANCE_SCALE} decimals
+ * the balances are stored (CLIENT_ACCOUNT.DISPLAY_BALANCE is NUMERIC(18, 3)) and shown with, so no stored balance is
+ * rounded, see {@link #balanceScale(int)}. Amounts of different scales are aligned to the larger scale, which is exact.
+ *
+ * @param units the amount in units of 10^-scale
+ * @param scale the number of decimals of a unit
+ */
+public record Money(long units, int scale) implements Comparable<Money> {
+    // The decimals the balances are stored and shown with
+    public static final int BALANCE_SCALE = 3;
+
+    // A long holds any 18 digit number
+    private static final int MAX_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    public Money {
+        if (scale < 0 || scale > MAX_DIGITS) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_DIGITS + ": " + scale);
+        }
+    }
+
+    /**
+     * @param decimalPlaces the DECIMAL_PLACES of the currency
+     * @return the scale the amounts of an account in the currency are held at
+     */
+    public static int balanceScale(final int decimalPlaces) {
+        return Math.max(decimalPlaces, BALANCE_SCALE);
+    }
+
+    /**
+     * Converts a {@link BigDecimal} amount, rounded to the scale.
+     *
+     * @param amount       the amount
+     * @param scale        the scale of the units
+     * @param roundingMode the rounding of the decimals beyond the scale, {@link RoundingMode#UNNECESSARY} if there must be none
+     * @return the amount in units
+     * @throws ArithmeticException if the amount needs rounding and the rounding is {@link RoundingMode#UNNECESSARY}, or it does
+     *                             not fit a long
+     */
+    public static Money of(final BigDecimal amount, final int scale, final RoundingMode roundingMode) {
+        final BigDecimal scaledAmount = amount.scale() > scale ? amount.setScale(scale, roundingMode) : amount;
+        return new Money(scaledAmount.scaleByPowerOfTen(scale).longValueExact(), scale);
+    }
+
+    /**
+     * @param amount the amount
+     * @param scale  the scale of the units
+     * @return true if the amount is a whole number of units at the scale, and fits a long
+     */
+    public static boolean fits(final BigDecimal amount, final int scale) {
+        final BigDecimal strippedAmount = amount.stripTrailingZeros();
+        return strippedAmount.scale() <= scale && strippedAmount.precision() - strippedAmount.scale() <= MAX_DIGITS - scale;
+    }
+
+    /**
+     * @return the amount as a {@link BigDecimal} with the scale of the units
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    /**
+     * @param displayScale the scale of the {@link BigDecimal}
+     * @return the amount as a {@link BigDecimal} with the given scale, rounded half up
+     */
+    public BigDecimal toBigDecimal(final int displayScale) {
+        return displayScale == scale ? BigDecimal.valueOf(units, scale) : BigDecimal.valueOf(units, scale).setScale(displayScale, RoundingMode.HALF_UP);
+    }
+
+    public Money add(final Money other) {
+        final int resultScale = Math.max(scale, other.scale);
+        return new Money(Math.addExact(unitsAt(resultScale), other.unitsAt(resultScale)), resultScale);
+    }
+
+    public Money subtract(final Money other) {
+        final int resultScale = Math.max(scale, other.scale);
+        return new Money(Math.subtractExact(unitsAt(resultScale), other.unitsAt(resultScale)), resultScale);
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * Compares the amounts, whatever their scales.
+     */
+    @Override
+    public int compareTo(final Money other) {
+        final int commonScale = Math.max(scale, other.scale);
+        return Long.compare(unitsAt(commonScale), other.unitsAt(commonScale));
+    }
+
+    /**
+     * @param newScale     the scale of the units
+     * @param roundingMode the rounding of the decimals beyond the new scale
+     * @return the amount at the new scale
+     * @throws ArithmeticException if the amount needs rounding and the rounding is {@link RoundingMode#UNNECESSARY}, or it does
+     *                             not fit a long
+     */
+    public Money rescale(final int newScale, final RoundingMode roundingMode) {
+        if (newScale >= scale) {
+            return newScale == scale ? this : new Money(unitsAt(newScale), newScale);
+        }
+        return switch (roundingMode) {
+            case DOWN -> new Money(units / POWERS_OF_TEN[scale - newScale], newScale);
+            case HALF_UP -> new Money(divideHalfUp(units, POWERS_OF_TEN[scale - newScale]), newScale);
+            default -> of(toBigDecimal(), newScale, roundingMode);
+        };
+    }
+
+    /**
+     * Multiplies the amount by a fraction, i.e., converts it to another currency at a rate, rounded half up. A rate of
+     * 18.6167 is 186 167 / 10 000, dividing by a rate of 0.1134 is multiplying by 10 000 / 1 134.
+     *
+     * @param numerator   the numerator of the fraction
+     * @param denominator the denominator of the fraction
+     * @param resultScale the scale of the result
+     * @return the product, rounded half up to the result scale
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public Money multiply(final long numerator, final long denominator, final int resultScale) {
+        // (units / 10^scale) * (numerator / denominator) at the result scale is units * numerator * 10^(resultScale - scale) / denominator
+        final int exponent = resultScale - scale;
+        if (denominator != 0 && Math.abs(exponent) <= MAX_DIGITS) {
+            try {
+                final long product = Math.multiplyExact(units, numerator);
+                return new Money(exponent >= 0
+                        ? divideHalfUp(Math.multiplyExact(product, POWERS_OF_TEN[exponent]), denominator)
+                        : divideHalfUp(product, Math.multiplyExact(denominator, POWERS_OF_TEN[-exponent])), resultScale);
+            } catch (final ArithmeticException e) {
+                // The product does not fit a long, only amounts of billions come this way
+            }
+        }
+        return of(toBigDecimal().multiply(BigDecimal.valueOf(numerator)).divide(BigDecimal.valueOf(denominator), resultScale, RoundingMode.HALF_UP),
+                resultScale, RoundingMode.UNNECESSARY);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private long unitsAt(final int higherScale) {
+        return higherScale == scale ? units : Math.multiplyExact(units, POWERS_OF_TEN[higherScale - scale]);
+    }
+
+    private static long divideHalfUp(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        final long remainder = Math.abs(dividend % divisor);
+        // The remainder is at least half the divisor, without doubling it
+        if (remainder != 0 && remainder >= Math.abs(divisor) - remainder) {
+            return (dividend ^ divisor) < 0 ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+}
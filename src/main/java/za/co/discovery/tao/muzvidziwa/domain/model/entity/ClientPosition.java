@@ -0,0 +1,35 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * A client's loan balance, transactional balance and net position, maintained by the
+ * {@link za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository} as the client's balances change.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "CLIENT_POSITION")
+public class ClientPosition {
+    @Id
+    @Column(name = "CLIENT_ID", nullable = false)
+    private Integer clientId;
+
+    @Column(name = "LOAN_BALANCE", nullable = false, precision = 18, scale = 3)
+    private BigDecimal loanBalance;
+
+    @Column(name = "TRANSACTIONAL_BALANCE", nullable = false, precision = 18, scale = 3)
+    private BigDecimal transactionalBalance;
+
+    @Column(name = "NET_POSITION", nullable = false, precision = 50, scale = 31)
+    private BigDecimal netPosition;
+}
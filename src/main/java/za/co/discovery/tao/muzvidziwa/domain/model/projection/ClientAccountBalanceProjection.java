@@ -0,0 +1,35 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * This interface represents a single row of a client's account balances, read in one query together with the client's
+ * details and (for credit card accounts) the credit card limit. The client's type and the account type's flag and
+ * description are not read, they are resolved from the codes through the {@code ReferenceDataRegistry}.
+ * <p>
+ * A client without accounts is represented by a single row of which only the client's details are populated.
+ */
+public interface ClientAccountBalanceProjection {
+    Integer getClientId();
+
+    String getTitle();
+
+    String getName();
+
+    String getSurname();
+
+    String getClientSubTypeCode();
+
+    String getClientAccountNumber();
+
+    String getAccountTypeCode();
+
+    String getCurrencyCode();
+
+    BigDecimal getDisplayBalance();
+
+    /**
+     * @return the limit on the CREDIT_CARD_LIMIT table, only populated for credit card (CCRD) accounts
+     */
+    BigDecimal getCreditCardLimit();
+}
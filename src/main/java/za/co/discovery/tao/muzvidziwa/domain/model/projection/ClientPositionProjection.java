@@ -0,0 +1,24 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * This interface represents a client's details together with the client's financial position, read in one query.
+ */
+public interface ClientPositionProjection {
+    Integer getClientId();
+
+    String getTitle();
+
+    String getName();
+
+    String getSurname();
+
+    String getClientSubTypeCode();
+
+    BigDecimal getLoanBalance();
+
+    BigDecimal getTransactionalBalance();
+
+    BigDecimal getNetPosition();
+}
@@ -1,32 +1,37 @@
 package za.co.discovery.tao.muzvidziwa.domain.model.response;
 
 import com.fasterxml.jackson.annotation.JsonView;
-import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Builder;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientPositionDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
 
 import java.util.List;
 
-@Data
-@EqualsAndHashCode
-public class AtmResponse {
-    @JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class})
-    private ClientDto client;
+/**
+ * The response of the ATM endpoints, the JSON views pick the fields each endpoint returns. The lists are handed over
+ * unmodifiable, so a response can be shared, e.g. by the balance response cache, without copying it.
+ */
+@Builder
+public record AtmResponse(
+        @JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class, View.Position.class})
+        ClientDto client,
 
-    @JsonView({View.Transactional.class, View.Currency.class})
-    private List<AccountDto> accounts;
+        @JsonView({View.Transactional.class, View.Currency.class})
+        List<AccountDto> accounts,
 
-    @JsonView({View.Withdrawal.class})
-    private AccountDto account;
+        @JsonView({View.Withdrawal.class})
+        AccountDto account,
 
-    @JsonView({View.Withdrawal.class})
-    private List<DenominationDto> denomination;
+        @JsonView({View.Withdrawal.class})
+        List<DenominationDto> denomination,
 
-    @JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class})
-    private ResultDto result;
+        @JsonView({View.Position.class})
+        ClientPositionDto position,
+
+        @JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class, View.Position.class})
+        ResultDto result) {
 }
@@ -2,22 +2,23 @@ package za.co.discovery.tao.muzvidziwa.domain.model.response.dto;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.Data;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
 
-@Data
-@JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class})
+@JsonView({View.Transactional.class, View.Currency.class, View.Withdrawal.class, View.Position.class})
 @Schema(description = "Client information")
-public class ClientDto {
-    @Schema(description = "Client ID", example = "12")
-    private Long id;
+public record ClientDto(
+        @Schema(description = "Client ID", example = "12")
+        Long id,
 
-    @Schema(description = "Title", example = "Mr")
-    private String title;
+        @Schema(description = "Title", example = "Mr")
+        String title,
 
-    @Schema(description = "First/Given name", example = "Tao")
-    private String name;
+        @Schema(description = "First/Given name", example = "Tao")
+        String name,
 
-    @Schema(description = "Last/Surname", example = "Muzvidziwa")
-    private String surname;
+        @Schema(description = "Last/Surname", example = "Muzvidziwa")
+        String surname) {
+
+    // The client of a response to a client that was not found, all of its fields are null
+    public static final ClientDto EMPTY = new ClientDto(null, null, null, null);
 }
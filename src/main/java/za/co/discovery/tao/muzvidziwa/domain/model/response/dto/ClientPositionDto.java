@@ -0,0 +1,20 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.response.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import io.swagger.v3.oas.annotations.media.Schema;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+
+import java.math.BigDecimal;
+
+@JsonView(View.Position.class)
+@Schema(description = "Client financial position")
+public record ClientPositionDto(
+        @Schema(description = "Sum of the personal and home loan balances", example = "-150000.00")
+        BigDecimal loanBalance,
+
+        @Schema(description = "Sum of the transactional balances, including the cheque overdraft facility and less the credit card limits", example = "12500.00")
+        BigDecimal transactionalBalance,
+
+        @Schema(description = "Loan, transactional and foreign currency balances in ZAR", example = "-131250.00")
+        BigDecimal netPosition) {
+}
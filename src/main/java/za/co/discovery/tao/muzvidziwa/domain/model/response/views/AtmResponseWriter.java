@@ -0,0 +1,308 @@
+package za.co.discovery.tao.muzvidziwa.domain.model.response.views;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class writes an {@link AtmResponse} as the JSON of a {@link View}, the JSON the REST endpoints return. The writer
+ * of each view is built once from the application's {@link ObjectMapper}, rather than resolved per response.
+ * <p>
+ * The {@link View.Transactional}, {@link View.Currency} and {@link View.Withdrawal} views, the hot endpoints, are written
+ * field by field straight to the generator instead of through the bean serializers ({@code application-config.json.direct-writer},
+ * on by default). The fields written, and their order, must follow the {@code @JsonView} annotations and the field order
+ * of the response classes, the JSON is byte for byte what the view's writer writes. The direct writer is not used if the
+ * mapper leaves null fields out or sorts the fields, as it always writes every field in declaration order.
+ */
+@Component
+public class AtmResponseWriter {
+    // The field names, quoted and encoded once as the bean serializers hold them
+    private static final SerializedString CLIENT = new SerializedString("client");
+    private static final SerializedString ACCOUNTS = new SerializedString("accounts");
+    private static final SerializedString ACCOUNT = new SerializedString("account");
+    private static final SerializedString DENOMINATION = new SerializedString("denomination");
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString SURNAME = new SerializedString("surname");
+    private static final SerializedString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+    private static final SerializedString TYPE_CODE = new SerializedString("typeCode");
+    private static final SerializedString ACCOUNT_TYPE_DESCRIPTION = new SerializedString("accountTypeDescription");
+    private static final SerializedString CURRENCY_CODE = new SerializedString("currencyCode");
+    private static final SerializedString CONVERSION_RATE = new SerializedString("conversionRate");
+    private static final SerializedString BALANCE = new SerializedString("balance");
+    private static final SerializedString CCY_BALANCE = new SerializedString("ccyBalance");
+    private static final SerializedString ZAR_BALANCE = new SerializedString("zarBalance");
+    private static final SerializedString ACCOUNT_LIMIT = new SerializedString("accountLimit");
+    private static final SerializedString DENOMINATION_ID = new SerializedString("denominationId");
+    private static final SerializedString DENOMINATION_VALUE = new SerializedString("denominationValue");
+    private static final SerializedString COUNT = new SerializedString("count");
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializedString STATUS_REASON = new SerializedString("statusReason");
+
+    private final JsonFactory jsonFactory;
+    private final Map<Class<?>, ObjectWriter> viewWriters;
+    private final boolean directWriter;
+
+    @Autowired
+    public AtmResponseWriter(final ObjectMapper objectMapper, @Value("${application-config.json.direct-writer:true}") final boolean directWriter) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.viewWriters = Map.of(
+                View.Transactional.class, objectMapper.writerWithView(View.Transactional.class),
+                View.Currency.class, objectMapper.writerWithView(View.Currency.class),
+                View.Withdrawal.class, objectMapper.writerWithView(View.Withdrawal.class),
+                View.Position.class, objectMapper.writerWithView(View.Position.class));
+
+        final JsonInclude.Include inclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        this.directWriter = directWriter
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS)
+                && !objectMapper.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY);
+    }
+
+    /**
+     * @return true if the hot views are written straight to the generator
+     */
+    public boolean isDirectWriter() {
+        return directWriter;
+    }
+
+    /**
+     * @param atmResponse the response
+     * @param view        the {@link View} to write, i.e., {@code View.Transactional.class}
+     * @return the response as JSON
+     */
+    public byte[] writeValueAsBytes(final AtmResponse atmResponse, final Class<?> view) throws IOException {
+        if (!directWriter || view == View.Position.class) {
+            return viewWriter(view).writeValueAsBytes(atmResponse);
+        }
+
+        // Written to a recycled buffer, as the view's writer writes its bytes
+        final BufferRecycler bufferRecycler = jsonFactory._getBufferRecycler();
+        try (ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder(bufferRecycler)) {
+            writeValue(byteArrayBuilder, atmResponse, view);
+            return byteArrayBuilder.getClearAndRelease();
+        } finally {
+            bufferRecycler.releaseToPool();
+        }
+    }
+
+    /**
+     * Writes the response as JSON to the stream, the stream is left open.
+     *
+     * @param outputStream the stream
+     * @param atmResponse  the response
+     * @param view         the {@link View} to write, i.e., {@code View.Transactional.class}
+     */
+    public void writeValue(final OutputStream outputStream, final AtmResponse atmResponse, final Class<?> view) throws IOException {
+        final ObjectWriter viewWriter = viewWriter(view);
+        if (!directWriter || view == View.Position.class) {
+            viewWriter.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(outputStream, atmResponse);
+            return;
+        }
+
+        // The generator is set up by the view's writer, so it writes numbers and indents as the view's writer would
+        try (JsonGenerator generator = viewWriter.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeAtmResponse(generator, atmResponse, view);
+        }
+    }
+
+    /**
+     * Creates a generator for a document of many responses, i.e., the bulk balance enquiry, set up as the views' writers set
+     * up theirs. The stream is left open when the generator is closed, and so is the document, so a document cut short by
+     * an error is not closed into valid JSON.
+     *
+     * @param outputStream the stream
+     * @return the generator, written to with {@link #writeValue(JsonGenerator, AtmResponse, Class)}
+     */
+    public JsonGenerator createGenerator(final OutputStream outputStream) throws IOException {
+        final JsonGenerator generator = viewWriter(View.Transactional.class).createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        return generator;
+    }
+
+    /**
+     * Writes the response as the JSON of the view at the generator's position, i.e., as the value of a field.
+     *
+     * @param generator   the generator, from {@link #createGenerator(OutputStream)}
+     * @param atmResponse the response
+     * @param view        the {@link View} to write, i.e., {@code View.Transactional.class}
+     */
+    public void writeValue(final JsonGenerator generator, final AtmResponse atmResponse, final Class<?> view) throws IOException {
+        if (!directWriter || view == View.Position.class) {
+            viewWriter(view).writeValue(generator, atmResponse);
+            return;
+        }
+        writeAtmResponse(generator, atmResponse, view);
+    }
+
+    private ObjectWriter viewWriter(final Class<?> view) {
+        final ObjectWriter viewWriter = viewWriters.get(view);
+        if (viewWriter == null) {
+            throw new IllegalArgumentException("No JSON view " + view);
+        }
+        return viewWriter;
+    }
+
+    private static void writeAtmResponse(final JsonGenerator generator, final AtmResponse atmResponse, final Class<?> view) throws IOException {
+        if (atmResponse == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeFieldName(CLIENT);
+        writeClient(generator, atmResponse.client());
+        if (view == View.Withdrawal.class) {
+            generator.writeFieldName(ACCOUNT);
+            writeAccount(generator, atmResponse.account(), view);
+            generator.writeFieldName(DENOMINATION);
+            writeDenominations(generator, atmResponse.denomination());
+        } else {
+            generator.writeFieldName(ACCOUNTS);
+            writeAccounts(generator, atmResponse.accounts(), view);
+        }
+        generator.writeFieldName(RESULT);
+        writeResult(generator, atmResponse.result());
+        generator.writeEndObject();
+    }
+
+    private static void writeClient(final JsonGenerator generator, final ClientDto clientDto) throws IOException {
+        if (clientDto == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        writeNumberField(generator, ID, clientDto.id());
+        writeStringField(generator, TITLE, clientDto.title());
+        writeStringField(generator, NAME, clientDto.name());
+        writeStringField(generator, SURNAME, clientDto.surname());
+        generator.writeEndObject();
+    }
+
+    private static void writeAccounts(final JsonGenerator generator, final List<AccountDto> accountDtos, final Class<?> view) throws IOException {
+        if (accountDtos == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartArray();
+        for (AccountDto accountDto : accountDtos) {
+            writeAccount(generator, accountDto, view);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeAccount(final JsonGenerator generator, final AccountDto accountDto, final Class<?> view) throws IOException {
+        if (accountDto == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        writeNumberField(generator, ACCOUNT_NUMBER, accountDto.accountNumber());
+        writeStringField(generator, TYPE_CODE, accountDto.typeCode());
+        writeStringField(generator, ACCOUNT_TYPE_DESCRIPTION, accountDto.accountTypeDescription());
+        writeStringField(generator, CURRENCY_CODE, accountDto.currencyCode());
+        writeNumberField(generator, CONVERSION_RATE, accountDto.conversionRate());
+        // The balance is in the Transactional and Withdrawal views, the ccyBalance in the Currency view only
+        if (view == View.Currency.class) {
+            writeNumberField(generator, CCY_BALANCE, accountDto.ccyBalance());
+        } else {
+            writeNumberField(generator, BALANCE, accountDto.balance());
+        }
+        writeNumberField(generator, ZAR_BALANCE, accountDto.zarBalance());
+        writeNumberField(generator, ACCOUNT_LIMIT, accountDto.accountLimit());
+        generator.writeEndObject();
+    }
+
+    private static void writeDenominations(final JsonGenerator generator, final List<DenominationDto> denominationDtos) throws IOException {
+        if (denominationDtos == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartArray();
+        for (DenominationDto denominationDto : denominationDtos) {
+            if (denominationDto == null) {
+                generator.writeNull();
+                continue;
+            }
+            generator.writeStartObject();
+            writeNumberField(generator, DENOMINATION_ID, denominationDto.denominationId());
+            writeNumberField(generator, DENOMINATION_VALUE, denominationDto.denominationValue());
+            if (denominationDto.count() != null) {
+                generator.writeFieldName(COUNT);
+                generator.writeNumber(denominationDto.count().intValue());
+            } else {
+                generator.writeFieldName(COUNT);
+                generator.writeNull();
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeResult(final JsonGenerator generator, final ResultDto resultDto) throws IOException {
+        if (resultDto == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeFieldName(SUCCESS);
+        generator.writeBoolean(resultDto.success());
+        generator.writeFieldName(STATUS_CODE);
+        generator.writeNumber(resultDto.statusCode());
+        writeStringField(generator, STATUS_REASON, resultDto.statusReason());
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(final JsonGenerator generator, final SerializedString fieldName, final String value) throws IOException {
+        generator.writeFieldName(fieldName);
+        generator.writeString(value);
+    }
+
+    private static void writeNumberField(final JsonGenerator generator, final SerializedString fieldName, final Long value) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (value != null) {
+            generator.writeNumber(value.longValue());
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static void writeNumberField(final JsonGenerator generator, final SerializedString fieldName, final BigDecimal value) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
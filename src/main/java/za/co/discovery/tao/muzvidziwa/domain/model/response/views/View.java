@@ -11,4 +11,5 @@ public class View {
     public interface Transactional {}
     public interface Currency {}
     public interface Withdrawal {}
+    public interface Position {}
 }
\ No newline at end of file
@@ -1,36 +1,69 @@
 package za.co.discovery.tao.muzvidziwa.domain.service;
 
 import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * The ATM's banking operations. The requests are logged under the trace ID bound to the calling thread, see
+ * {@link TraceContext}.
+ */
 public interface BankService {
 
+    /**
+     * Receives the balance responses of a client of a bulk balance enquiry, i.e., to write them to the response stream.
+     */
+    @FunctionalInterface
+    interface ClientBalancesConsumer {
+        /**
+         * @param clientId  the client ID as requested
+         * @param responses the client's response per {@link BalanceView} requested, in the order of the views
+         */
+        void accept(final Integer clientId, final Map<BalanceView, AtmResponse> responses) throws IOException;
+    }
+
     /**
      * Retrieves the transactional account(s) balances for a specific client.
      *
-     * @param traceId  a unique identifier for tracing the request
      * @param clientId the ID of the client whose transactional balances are to be retrieved
      * @return an {@link AtmResponse} containing the client's transactional account balances
      * @throws Exception if an error occurs while retrieving the balances
      */
-    AtmResponse getTransactionalClientAccountBalances(final String traceId, final Integer clientId) throws Exception;
+    AtmResponse getTransactionalClientAccountBalances(final Integer clientId) throws Exception;
 
     /**
      * Retrieves the foreign exchange (forex) account balances, with converted ZAR balances for a specific client.
      *
-     * @param traceId  a unique identifier for tracing the request
      * @param clientId the ID of the client whose forex account balances are to be retrieved
      * @return an {@link AtmResponse} containing the client's forex account balances
      * @throws Exception if an error occurs while retrieving the balances
      */
-    AtmResponse getForexAccountBalances(final String traceId, final Integer clientId) throws Exception;
+    AtmResponse getForexAccountBalances(final Integer clientId) throws Exception;
+
+    /**
+     * Retrieves the transactional and/or forex account balances of many clients, the responses of
+     * {@link #getTransactionalClientAccountBalances(Integer)} and {@link #getForexAccountBalances(Integer)}
+     * for each client. The accounts are read for a batch of clients per query rather than per client, and the responses are
+     * handed to the consumer a client at a time, in the order of the client IDs, as each batch is read.
+     *
+     * @param clientIds the IDs of the clients whose balances are to be retrieved
+     * @param views     the balances to retrieve for each client
+     * @param consumer  receives the responses of each client
+     * @throws Exception if an error occurs while retrieving the balances, or the consumer fails
+     */
+    void getClientAccountBalances(final List<Integer> clientIds, final Set<BalanceView> views,
+                                  final ClientBalancesConsumer consumer) throws Exception;
 
     /**
      * Processes a withdrawal request for a specific client and account at a given ATM.
      *
-     * @param traceId       a unique identifier for tracing the request
      * @param clientId      the ID of the client making the withdrawal
      * @param atmId         the ID of the ATM where the withdrawal is made
      * @param accountNumber the account number from which the withdrawal is to be made
@@ -38,5 +71,14 @@ public interface BankService {
      * @return an {@link AtmResponse} containing the result of the withdrawal operation
      * @throws Exception if an error occurs during the withdrawal process
      */
-    AtmResponse postWithdrawal(final String traceId, final Integer clientId, final Integer atmId, final String accountNumber, final BigDecimal amount) throws Exception;
+    AtmResponse postWithdrawal(final Integer clientId, final Integer atmId, final String accountNumber, final BigDecimal amount) throws Exception;
+
+    /**
+     * Retrieves the loan balance, transactional balance and net position of a specific client.
+     *
+     * @param clientId the ID of the client whose position is to be retrieved
+     * @return an {@link AtmResponse} containing the client's financial position
+     * @throws Exception if an error occurs while retrieving the position
+     */
+    AtmResponse getClientPosition(final Integer clientId) throws Exception;
 }
@@ -0,0 +1,157 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.service.report.ReportAggregator;
+import za.co.discovery.tao.muzvidziwa.domain.service.report.ReportClient;
+import za.co.discovery.tao.muzvidziwa.domain.service.report.ReportLookups;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.REPORT_WRITER;
+
+/**
+ * Writes all the month-end reports from a single scan of the clients and their accounts.
+ * <p>
+ * The account types are loaded into memory first, then the clients are streamed in client ID order with their accounts
+ * and positions ({@code classpath:/sql/month-end-client-accounts.sql}), and each client is fed to every registered
+ * {@link ReportAggregator}, each writing its own report file. The database reads the accounts once however many reports
+ * there are.
+ */
+@Component
+public class CombinedReportExecutor {
+    private static final String CLIENT_ACCOUNTS_SQL_LOCATION = "classpath:/sql/month-end-client-accounts.sql";
+
+    private final ReportWriter reportWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate scanJdbcTemplate;
+    private final List<ReportAggregator> reportAggregators;
+
+    public CombinedReportExecutor(final ReportWriter reportWriter,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final List<ReportAggregator> reportAggregators,
+                                  @Value("${application-config.reports.fetch-size:1000}") final int fetchSize) {
+        this.reportWriter = reportWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        // A template of its own, so the fetch size only applies to the scan
+        this.scanJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.scanJdbcTemplate.setFetchSize(fetchSize);
+        this.reportAggregators = List.copyOf(reportAggregators);
+    }
+
+    /**
+     * Writes every registered report to a new report file.
+     *
+     * @return the paths of the report files, in the order of the aggregators
+     * @throws IOException if the SQL could not be read or a report could not be written, no report file is left behind
+     */
+    public List<Path> runReports(final String traceId) throws IOException {
+        final String sql = reportWriter.readSql(CLIENT_ACCOUNTS_SQL_LOCATION);
+        final ReportLookups lookups = loadLookups();
+        LoggerUtils.logDebug(traceId, REPORT_WRITER, "Running {} reports from a single scan of the client accounts.", reportAggregators.size());
+
+        final List<ReportWriter.ReportFile> reportFiles = new ArrayList<>();
+        try {
+            for (ReportAggregator reportAggregator : reportAggregators) {
+                reportFiles.add(reportWriter.openReport(reportAggregator.report()));
+            }
+
+            final ClientAccountsReader clientAccountsReader = new ClientAccountsReader(lookups, reportFiles);
+            try {
+                scanJdbcTemplate.query(sql, clientAccountsReader);
+                clientAccountsReader.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            final List<Path> reportPaths = new ArrayList<>();
+            for (int i = 0; i < reportFiles.size(); i++) {
+                reportPaths.add(reportFiles.get(i).complete(clientAccountsReader.rowCounts[i], traceId));
+            }
+            return reportPaths;
+        } finally {
+            for (ReportWriter.ReportFile reportFile : reportFiles) {
+                reportFile.close();
+            }
+        }
+    }
+
+    private ReportLookups loadLookups() {
+        final Map<String, ReportLookups.AccountType> accountTypes = new HashMap<>();
+        jdbcTemplate.query("SELECT ACCOUNT_TYPE_CODE, DESCRIPTION, TRANSACTIONAL FROM ACCOUNT_TYPE", (RowCallbackHandler) rs ->
+                accountTypes.put(rs.getString(1), new ReportLookups.AccountType(rs.getString(2), rs.getBoolean(3))));
+
+        return new ReportLookups(accountTypes);
+    }
+
+    /**
+     * Collects each client's accounts as the rows stream past, and feeds the client to the aggregators once the next
+     * client's rows start. The rows must be sorted by client ID.
+     */
+    private final class ClientAccountsReader implements RowCallbackHandler {
+        private final ReportLookups lookups;
+        private final List<ReportWriter.ReportFile> reportFiles;
+        private final long[] rowCounts;
+        private int clientId;
+        private String title;
+        private String name;
+        private String surname;
+        private List<ReportClient.Account> accounts;
+        private ReportClient.Position position;
+
+        private ClientAccountsReader(final ReportLookups lookups, final List<ReportWriter.ReportFile> reportFiles) {
+            this.lookups = lookups;
+            this.reportFiles = reportFiles;
+            this.rowCounts = new long[reportFiles.size()];
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final int rowClientId = rs.getInt(1);
+            if (accounts == null || rowClientId != clientId) {
+                finish();
+                clientId = rowClientId;
+                title = rs.getString(2);
+                name = rs.getString(3);
+                surname = rs.getString(4);
+                accounts = new ArrayList<>();
+                final BigDecimal netPosition = rs.getBigDecimal(11);
+                position = netPosition == null ? null : new ReportClient.Position(rs.getBigDecimal(9), rs.getBigDecimal(10), netPosition);
+            }
+
+            final String accountNumber = rs.getString(5);
+            // A client without accounts has a single row without an account
+            if (accountNumber != null) {
+                accounts.add(new ReportClient.Account(accountNumber, rs.getString(6), rs.getString(7), rs.getBigDecimal(8)));
+            }
+        }
+
+        private void finish() {
+            if (accounts == null) {
+                return;
+            }
+
+            final ReportClient client = new ReportClient(clientId, title, name, surname, accounts, position);
+            try {
+                for (int i = 0; i < reportAggregators.size(); i++) {
+                    rowCounts[i] += reportAggregators.get(i).writeClient(client, lookups, reportFiles.get(i).writer());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            accounts = null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+
+import java.util.Arrays;
+
+/**
+ * This class determines how an ATM can pay out a requested amount given the notes it currently holds.
+ * <p>
+ * It works on integer cents and solves the bounded coin change problem with a dynamic program that is aware of the
+ * number of notes available per denomination. A single run yields both the largest amount not exceeding the requested
+ * amount that can be dispensed, and the exact note combination for that amount, using the fewest notes possible.
+ * Where more than one combination uses the fewest notes, the combination with the most high value notes is preferred,
+ * in keeping with the greedy behaviour clients are used to.
+ * <p>
+ * Unlike a greedy pass, combinations such as R60 from 3 x R20 when an R50 is loaded are found.
+ */
+@Component
+public class DispensingEngine {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Plans the notes to dispense for the requested amount.
+     *
+     * @param denominationCents the value of each denomination in cents, in any order
+     * @param availableCounts   the number of notes available for each denomination, aligned to {@code denominationCents}
+     * @param requestedCents    the requested amount in cents
+     * @return a {@link DispensePlanDto} with the largest dispensable amount not exceeding the requested amount, and the
+     * number of notes per denomination (aligned to {@code denominationCents}) that make up that amount
+     */
+    public DispensePlanDto plan(final long[] denominationCents, final int[] availableCounts, final long requestedCents) {
+        final int denominationCount = denominationCents.length;
+        final int[] noteCounts = new int[denominationCount];
+
+        // Only denominations with a value and notes loaded take part in the plan, sorted by value in ascending order
+        Integer[] order = new Integer[denominationCount];
+        int active = 0;
+        long unit = 0;
+        long atmTotalCents = 0;
+        for (int i = 0; i < denominationCount; i++) {
+            if (denominationCents[i] > 0 && availableCounts[i] > 0) {
+                order[active++] = i;
+                unit = gcd(unit, denominationCents[i]);
+                atmTotalCents += denominationCents[i] * availableCounts[i];
+            }
+        }
+        if (active == 0 || requestedCents <= 0) {
+            return new DispensePlanDto(0, noteCounts);
+        }
+        order = Arrays.copyOf(order, active);
+        Arrays.sort(order, (left, right) -> Long.compare(denominationCents[left], denominationCents[right]));
+
+        /* Every dispensable amount is a multiple of the greatest common divisor of the loaded denominations, so the
+         *  program works in those units, i.e., R10 units for the standard R10 - R200 notes, to keep the tables small.
+         *  Nothing above the cash held in the ATM can be dispensed, so the target is capped at the ATM total. */
+        final int target = (int) (Math.min(requestedCents, atmTotalCents) / unit);
+
+        int[] minNotes = new int[target + 1];
+        int[] nextMinNotes = new int[target + 1];
+        Arrays.fill(minNotes, UNREACHABLE);
+        minNotes[0] = 0;
+
+        // taken[i][amount] is the number of notes of order[i] used in the best combination for amount
+        final int[][] taken = new int[active][];
+        final int[] window = new int[target + 1];
+
+        for (int i = 0; i < active; i++) {
+            final int value = (int) (denominationCents[order[i]] / unit);
+            final int available = availableCounts[order[i]];
+            final int[] takenForDenomination = new int[target + 1];
+
+            /* Amounts that share a remainder modulo the note value can only reach one another, and within such a
+             *  residue class the best predecessor is found with a monotonic queue over the last `available` positions,
+             *  keeping the whole step linear in the target. */
+            for (int residue = 0; residue < value && residue <= target; residue++) {
+                int head = 0;
+                int tail = 0;
+                for (int step = 0, amount = residue; amount <= target; step++, amount += value) {
+                    if (minNotes[amount] != UNREACHABLE) {
+                        final int key = minNotes[amount] - step;
+                        // Ties keep the earlier step, which means more notes of the current (larger) denomination
+                        while (tail > head && key(minNotes, window[tail - 1], residue, value) > key) {
+                            tail--;
+                        }
+                        window[tail++] = step;
+                    }
+                    while (tail > head && window[head] < step - available) {
+                        head++;
+                    }
+
+                    if (tail > head) {
+                        nextMinNotes[amount] = key(minNotes, window[head], residue, value) + step;
+                        takenForDenomination[amount] = step - window[head];
+                    } else {
+                        nextMinNotes[amount] = UNREACHABLE;
+                    }
+                }
+            }
+
+            taken[i] = takenForDenomination;
+            final int[] swap = minNotes;
+            minNotes = nextMinNotes;
+            nextMinNotes = swap;
+        }
+
+        int dispensable = target;
+        while (dispensable > 0 && minNotes[dispensable] == UNREACHABLE) {
+            dispensable--;
+        }
+
+        // Walk back from the largest denomination to recover the notes that make up the dispensable amount
+        int remaining = dispensable;
+        for (int i = active - 1; i >= 0; i--) {
+            final int notes = taken[i][remaining];
+            noteCounts[order[i]] = notes;
+            remaining -= notes * (int) (denominationCents[order[i]] / unit);
+        }
+
+        return new DispensePlanDto(dispensable * unit, noteCounts);
+    }
+
+    private static int key(final int[] minNotes, final int step, final int residue, final int value) {
+        return minNotes[residue + step * value] - step;
+    }
+
+    private static long gcd(final long left, final long right) {
+        return right == 0 ? left : gcd(right, left % right);
+    }
+}
@@ -0,0 +1,143 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.REPORT_WRITER;
+
+/**
+ * Runs the month-end reports in parallel over ranges of client IDs.
+ * <p>
+ * The client ID space is split into {@code application-config.reports.partitions} equal ranges. The report's SQL runs
+ * once per range on a pool of {@code application-config.reports.threads} workers, each streaming its rows to a part
+ * file of its own. The parts are then appended to the report in client ID order as they complete. Every worker holds a
+ * JDBC connection while it runs, so the number of threads should stay below the JDBC pool size.
+ */
+@Component
+public class PartitionedReportExecutor {
+    private final ReportWriter reportWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitions;
+    private final int threads;
+
+    public PartitionedReportExecutor(final ReportWriter reportWriter,
+                                     final JdbcTemplate jdbcTemplate,
+                                     @Value("${application-config.reports.partitions:4}") final int partitions,
+                                     @Value("${application-config.reports.threads:4}") final int threads) {
+        this.reportWriter = reportWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+        this.threads = threads;
+    }
+
+    /**
+     * Writes the report to a new report file, the rows in the same order as a single run of the report's SQL.
+     *
+     * @param report the report to write
+     * @return the path of the report file
+     * @throws IOException if the SQL could not be read or the report could not be written, no report file is left behind
+     */
+    public Path runReport(final MonthEndReport report, final String traceId) throws IOException {
+        final List<ClientIdRange> clientIdRanges = splitClientIds();
+        if (clientIdRanges.size() <= 1) {
+            return reportWriter.writeReport(report, traceId);
+        }
+
+        final String sql = reportWriter.readSql(report);
+        LoggerUtils.logDebug(traceId, REPORT_WRITER, "Running the {} report over {} client ID ranges on {} threads.",
+                report.description, clientIdRanges.size(), Math.min(threads, clientIdRanges.size()));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, clientIdRanges.size())));
+        final List<Path> partFiles = new ArrayList<>();
+        try {
+            final List<Future<Long>> partRowCounts = new ArrayList<>();
+            for (ClientIdRange clientIdRange : clientIdRanges) {
+                final Path partFile = reportWriter.createTempFile(report.fileNamePrefix + ".part.");
+                partFiles.add(partFile);
+                partRowCounts.add(executorService.submit(TraceContext.wrap(() -> {
+                    try (Writer writer = Files.newBufferedWriter(partFile, StandardCharsets.UTF_8)) {
+                        return reportWriter.writeRows(report, sql, clientIdRange.fromClientId(), clientIdRange.toClientId(), writer);
+                    }
+                })));
+            }
+
+            // The ranges are in ascending order and each part is sorted by client ID, appending them in turn keeps the order
+            return reportWriter.writeReport(report, writer -> {
+                long rowCount = 0;
+                for (int i = 0; i < partFiles.size(); i++) {
+                    rowCount += await(partRowCounts.get(i));
+                    try (Reader reader = Files.newBufferedReader(partFiles.get(i), StandardCharsets.UTF_8)) {
+                        reader.transferTo(writer);
+                    }
+                }
+                return rowCount;
+            }, traceId);
+        } finally {
+            executorService.shutdownNow();
+            for (Path partFile : partFiles) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+    }
+
+    /**
+     * Splits the IDs from the lowest to the highest client ID into at most {@code partitions} ranges of equal width.
+     *
+     * @return the ranges in ascending order, empty if there are no clients
+     */
+    private List<ClientIdRange> splitClientIds() {
+        final long[] bounds = jdbcTemplate.query("SELECT MIN(CLIENT_ID), MAX(CLIENT_ID) FROM CLIENT", rs -> {
+            rs.next();
+            final long lowestClientId = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{lowestClientId, rs.getLong(2)};
+        });
+        if (bounds == null) {
+            return List.of();
+        }
+
+        final long width = Math.max(1, (bounds[1] - bounds[0] + partitions) / Math.max(1, partitions));
+        final List<ClientIdRange> clientIdRanges = new ArrayList<>();
+        for (long fromClientId = bounds[0]; fromClientId <= bounds[1]; fromClientId += width) {
+            clientIdRanges.add(new ClientIdRange(fromClientId, Math.min(fromClientId + width - 1, bounds[1])));
+        }
+        return clientIdRanges;
+    }
+
+    private static long await(final Future<Long> partRowCount) throws IOException {
+        try {
+            return partRowCount.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a report partition");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Report partition failed", e.getCause());
+        }
+    }
+
+    private record ClientIdRange(long fromClientId, long toClientId) {
+    }
+}
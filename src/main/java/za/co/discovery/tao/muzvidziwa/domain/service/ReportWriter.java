@@ -0,0 +1,349 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.REPORT_WRITER;
+
+/**
+ * Writes the month-end reports.
+ * <p>
+ * The rows are streamed from a forward-only, read-only cursor (the JDBC default) that fetches
+ * {@code application-config.reports.fetch-size} rows at a time and are written straight to a buffered (and, with
+ * {@code application-config.reports.gzip}, gzip compressed) file, so the memory a report needs does not grow with the
+ * number of accounts. The report is written to a temporary file in {@code application-config.reports.directory} and only
+ * renamed to its final name once it is complete, a report file is therefore never seen half written.
+ * <p>
+ * The highest-balance report's SQL returns every account of each client, sorted by client. Only each client's accounts
+ * with the highest balance are written, worked out as the rows stream past, so the report is a single pass over the
+ * accounts instead of a correlated {@code MAX(DISPLAY_BALANCE)} subquery per account.
+ */
+@Component
+public class ReportWriter {
+    private static final DateTimeFormatter FILE_NAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ResourceLoader resourceLoader;
+    private final Path reportDirectory;
+    private final boolean gzip;
+
+    public ReportWriter(final JdbcTemplate jdbcTemplate,
+                        final ResourceLoader resourceLoader,
+                        @Value("${application-config.reports.directory:src/main/resources/report}") final String reportDirectory,
+                        @Value("${application-config.reports.fetch-size:1000}") final int fetchSize,
+                        @Value("${application-config.reports.gzip:false}") final boolean gzip) {
+        // A template of its own, so the fetch size only applies to the reports
+        final JdbcTemplate reportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        reportJdbcTemplate.setFetchSize(fetchSize);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(reportJdbcTemplate);
+        this.resourceLoader = resourceLoader;
+        this.reportDirectory = Path.of(reportDirectory);
+        this.gzip = gzip;
+    }
+
+    /**
+     * Runs the report's SQL over all the clients and writes its header and rows (the columns separated by ", ") to a new
+     * report file.
+     *
+     * @param report the report to write
+     * @return the path of the report file
+     * @throws IOException if the SQL could not be read or the report could not be written, no report file is left behind
+     */
+    public Path writeReport(final MonthEndReport report, final String traceId) throws IOException {
+        final String sql = readSql(report);
+        return writeReport(report, writer -> writeRows(report, sql, Integer.MIN_VALUE, Integer.MAX_VALUE, writer), traceId);
+    }
+
+    /**
+     * Writes the report's header followed by the given rows to a new report file.
+     *
+     * @param report the report to write
+     * @param rows   writes the rows of the report and returns the number of rows written
+     * @return the path of the report file
+     * @throws IOException if the report could not be written, no report file is left behind
+     */
+    public Path writeReport(final MonthEndReport report, final ReportRows rows, final String traceId) throws IOException {
+        try (ReportFile reportFile = openReport(report)) {
+            return reportFile.complete(rows.write(reportFile.writer()), traceId);
+        }
+    }
+
+    /**
+     * Opens a new report file and writes the report's header, for the caller to write the rows. The report file only
+     * appears once it is {@link ReportFile#complete completed}, closing it before then deletes what was written.
+     *
+     * @param report the report to write
+     * @return the open report file
+     */
+    public ReportFile openReport(final MonthEndReport report) throws IOException {
+        final String fileName = report.fileNamePrefix + "_" + LocalDateTime.now().format(FILE_NAME_TIMESTAMP) + (gzip ? ".txt.gz" : ".txt");
+        // Created next to the report file, so the rename stays on the same file system and can be atomic
+        final Path tempFile = createTempFile(fileName + ".");
+
+        final ReportFile reportFile = new ReportFile(reportDirectory.resolve(fileName), tempFile);
+        try {
+            reportFile.writer = openWriter(tempFile);
+            reportFile.writer.write(report.header);
+            reportFile.writer.write(System.lineSeparator());
+        } catch (IOException | RuntimeException e) {
+            reportFile.close();
+            throw e;
+        }
+        return reportFile;
+    }
+
+    /**
+     * Streams the rows of the clients with IDs from {@code fromClientId} up to and including {@code toClientId} to the
+     * writer, the columns separated by ", ".
+     *
+     * @param report the report the rows belong to
+     * @param sql    the report's SQL, restricted to a client ID range by the {@code :fromClientId} and {@code :toClientId}
+     *               parameters
+     * @return the number of rows written
+     */
+    public long writeRows(final MonthEndReport report, final String sql, final long fromClientId, final long toClientId, final Writer writer) throws IOException {
+        final ReportRowWriter reportRowWriter = switch (report) {
+            case TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE -> new HighestBalanceRowWriter(writer);
+            case CLIENT_AGGREGATE_FINANCIAL_POSITION -> new ReportRowWriter(writer);
+        };
+        try {
+            namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource()
+                    .addValue("fromClientId", fromClientId)
+                    .addValue("toClientId", toClientId), reportRowWriter);
+            reportRowWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return reportRowWriter.rowCount;
+    }
+
+    public String readSql(final MonthEndReport report) throws IOException {
+        return readSql(report.sqlLocation);
+    }
+
+    public String readSql(final String sqlLocation) throws IOException {
+        final Resource resource = resourceLoader.getResource(sqlLocation);
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Creates an empty temporary file in the report directory, creating the directory if needed.
+     */
+    public Path createTempFile(final String prefix) throws IOException {
+        Files.createDirectories(reportDirectory);
+        return Files.createTempFile(reportDirectory, prefix, ".tmp");
+    }
+
+    private Writer openWriter(final Path file) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(file);
+        if (gzip) {
+            outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Writes the rows of a report.
+     */
+    @FunctionalInterface
+    public interface ReportRows {
+        /**
+         * @return the number of rows written
+         */
+        long write(Writer writer) throws IOException;
+    }
+
+    /**
+     * A report being written to a temporary file.
+     */
+    public static final class ReportFile implements Closeable {
+        private final Path reportFile;
+        private final Path tempFile;
+        private Writer writer;
+        private boolean completed;
+
+        private ReportFile(final Path reportFile, final Path tempFile) {
+            this.reportFile = reportFile;
+            this.tempFile = tempFile;
+        }
+
+        /**
+         * @return the writer of the report's rows, the header has already been written
+         */
+        public Writer writer() {
+            return writer;
+        }
+
+        /**
+         * Closes the writer and renames the temporary file to the report file.
+         *
+         * @param rowCount the number of rows written, for the log
+         * @return the path of the report file
+         */
+        public Path complete(final long rowCount, final String traceId) throws IOException {
+            writer.close();
+            Files.move(tempFile, reportFile, StandardCopyOption.ATOMIC_MOVE);
+            completed = true;
+
+            LoggerUtils.logInfo(traceId, REPORT_WRITER, "Report of {} rows written to: {}", () -> rowCount, reportFile::toAbsolutePath);
+            return reportFile;
+        }
+
+        /**
+         * Deletes the temporary file, unless the report was completed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (completed) {
+                return;
+            }
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    /**
+     * Writes each row as it is read, the columns separated by ", ".
+     */
+    private static class ReportRowWriter implements RowCallbackHandler {
+        private final Writer writer;
+        private int columnCount = -1;
+        private long rowCount;
+
+        private ReportRowWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final int count = columnCount(rs);
+            try {
+                for (int i = 1; i <= count; i++) {
+                    writer.write(String.valueOf(rs.getString(i)));
+                    if (i < count) {
+                        writer.write(", ");
+                    }
+                }
+                writer.write(System.lineSeparator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rowCount++;
+        }
+
+        /**
+         * Called once all the rows have been read.
+         */
+        void finish() {
+        }
+
+        final int columnCount(final ResultSet rs) throws SQLException {
+            if (columnCount < 0) {
+                columnCount = rs.getMetaData().getColumnCount();
+            }
+            return columnCount;
+        }
+
+        final String[] readColumns(final ResultSet rs, final int count) throws SQLException {
+            final String[] columns = new String[count];
+            for (int i = 1; i <= count; i++) {
+                columns[i - 1] = rs.getString(i);
+            }
+            return columns;
+        }
+
+        final void writeRow(final String[] columns) {
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    writer.write(String.valueOf(columns[i]));
+                    if (i < columns.length - 1) {
+                        writer.write(", ");
+                    }
+                }
+                writer.write(System.lineSeparator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rowCount++;
+        }
+    }
+
+    /**
+     * Writes the accounts with the highest balance of each client, ties included in the order they are read. The rows
+     * must be sorted by client ID (the first column), the last column is the unrounded balance the accounts are ranked
+     * by and is not written. Only the current client's accounts with the highest balance so far are held.
+     */
+    private static final class HighestBalanceRowWriter extends ReportRowWriter {
+        private final List<String[]> highestBalanceRows = new ArrayList<>();
+        private String clientId;
+        private BigDecimal highestBalance;
+
+        private HighestBalanceRowWriter(final Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final int rankedBalanceColumn = columnCount(rs);
+            final String rowClientId = rs.getString(1);
+            if (!rowClientId.equals(clientId)) {
+                finish();
+                clientId = rowClientId;
+            }
+
+            final BigDecimal balance = rs.getBigDecimal(rankedBalanceColumn);
+            final int comparison = highestBalance == null ? 1 : balance.compareTo(highestBalance);
+            if (comparison > 0) {
+                highestBalance = balance;
+                highestBalanceRows.clear();
+            }
+            if (comparison >= 0) {
+                highestBalanceRows.add(readColumns(rs, rankedBalanceColumn - 1));
+            }
+        }
+
+        @Override
+        void finish() {
+            highestBalanceRows.forEach(this::writeRow);
+            highestBalanceRows.clear();
+            highestBalance = null;
+        }
+    }
+}
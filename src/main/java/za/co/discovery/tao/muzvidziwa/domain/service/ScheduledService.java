@@ -1,25 +1,24 @@
 package za.co.discovery.tao.muzvidziwa.domain.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
 import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
-import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
 import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
 import za.co.discovery.tao.muzvidziwa.repository.CurrencyConversionRepository;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.SCHEDULED_SYSTEM_TASK;
@@ -29,23 +28,35 @@ import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.SCHEDULED_S
 public class ScheduledService {
     private final CurrencyConversionRepository currencyConversionRepository;
     private final CurrencyConversionCache currencyConversionCache;
-    private final JdbcTemplate jdbcTemplate;
-    private final ResourceLoader resourceLoader;
+    private final PartitionedReportExecutor partitionedReportExecutor;
+    private final CombinedReportExecutor combinedReportExecutor;
+    private final ClientPositionRepository clientPositionRepository;
+
+    @Value("${application-config.reports.single-scan:true}")
+    private boolean singleScan;
+    @Value("${application-config.overdraft-limit}")
+    private BigDecimal overdraftLimit;
 
     @Scheduled(cron = "0 0 * * * ?")
     // Pull currency conversion rate on start-up, then every hour.
     @Scheduled(initialDelay = 1000)
     public void findAndUpdateCurrencyConversionRates() {
-        final String traceId = GeneralUtils.generateUniqueId();
+        try (TraceContext.Scope scope = TraceContext.open(null)) {
+            updateCurrencyConversionRates(scope.traceId());
+        }
+    }
 
+    private void updateCurrencyConversionRates(final String traceId) {
         LoggerUtils.logInfo(traceId, SCHEDULED_SYSTEM_TASK, "Updating currency conversion rates.");
 
         Optional<List<CurrencyConversionRate>> currencyConversionRates = currencyConversionRepository.findAllCurrencyConversionRates();
         if (currencyConversionRates.isEmpty() || currencyConversionRates.get().isEmpty()) {
-            LoggerUtils.logDebug(GeneralUtils.generateUniqueId(), SCHEDULED_SYSTEM_TASK, "No currency conversion rates found.");
+            LoggerUtils.logDebug(traceId, SCHEDULED_SYSTEM_TASK, "No currency conversion rates found.");
             return;
         }
 
+        // Built off to the side and swapped in whole, requests keep reading the previous rates until the swap
+        final Map<String, CurrencyConversionRate> refreshedCurrencyConversionRates = new HashMap<>();
         for (CurrencyConversionRate currencyConversionRate : currencyConversionRates.get()) {
             if (currencyConversionRate != null
                     && currencyConversionRate.getCurrencyCode() != null
@@ -53,82 +64,93 @@ public class ScheduledService {
                     && currencyConversionRate.getConversionIndicator() != null
                     && currencyConversionRate.getRate() != null) {
                 final String currencyCode = currencyConversionRate.getCurrencyCode().toUpperCase();
-                currencyConversionCache.addCurrencyConversionRate(currencyCode, currencyConversionRate, traceId);
+                refreshedCurrencyConversionRates.put(currencyCode, currencyConversionRate);
             } else {
                 LoggerUtils.logError(traceId, SCHEDULED_SYSTEM_TASK, "Invalid currency conversion rate found: {}", currencyConversionRate);
             }
         }
+
+        if (refreshedCurrencyConversionRates.isEmpty()) {
+            LoggerUtils.logError(traceId, SCHEDULED_SYSTEM_TASK, "No valid currency conversion rates found, keeping the cached rates.");
+            return;
+        }
+
+        final List<String> changedCurrencyCodes = findChangedCurrencyCodes(refreshedCurrencyConversionRates, traceId);
+        currencyConversionCache.replaceCurrencyConversionRates(refreshedCurrencyConversionRates, traceId);
+        recalculateClientPositions(changedCurrencyCodes, traceId);
     }
 
-    @Scheduled(cron = "0 0 0 L * ?")
-    public void runTransactionalAccountBalanceReportingScript() {
-        try {
-            Resource resource = resourceLoader.getResource("classpath:/sql/trans-account-highest-balance-report.sql");
-            String sql;
-            try (InputStream inputStream = resource.getInputStream()) {
-                sql = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    /**
+     * Finds the currencies whose conversion rate differs from the cached rate. Nothing has changed on the first refresh
+     * after start-up, when the cache is still empty, the client positions were worked out with the rates on the table.
+     */
+    private List<String> findChangedCurrencyCodes(final Map<String, CurrencyConversionRate> refreshedCurrencyConversionRates, final String traceId) {
+        final List<String> changedCurrencyCodes = new ArrayList<>();
+        if (currencyConversionCache.isEmpty()) {
+            return changedCurrencyCodes;
+        }
+
+        for (Map.Entry<String, CurrencyConversionRate> entry : refreshedCurrencyConversionRates.entrySet()) {
+            final ConversionRatesDto cachedRate = currencyConversionCache.getCurrencyConversionRate(entry.getKey(), traceId);
+            final CurrencyConversionRate refreshedRate = entry.getValue();
+            if (cachedRate == null
+                    || cachedRate.getConversionRate() == null
+                    || cachedRate.getConversionRate().compareTo(refreshedRate.getRate()) != 0
+                    || cachedRate.getConversionIndicator() != ConversionIndicator.fromSymbol(refreshedRate.getConversionIndicator())) {
+                changedCurrencyCodes.add(entry.getKey());
             }
+        }
+        return changedCurrencyCodes;
+    }
 
-            StringBuilder sb = new StringBuilder();
-            // Add header line
-            sb.append("Client Id, Client Surname, Client Account Number, Account Description, Display Balance")
-                    .append(System.lineSeparator());
-
-            jdbcTemplate.query(sql, (rs) -> {
-                int columnCount = rs.getMetaData().getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    sb.append(rs.getString(i));
-                    if (i < columnCount) sb.append(", ");
-                }
-                sb.append(System.lineSeparator());
-            });
-
-            Path reportDir = Path.of("src/main/resources/report");
-            Files.createDirectories(reportDir);
-            Path tempFile = reportDir.resolve("transactional_account_balance_report_"
-                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
-                    + ".txt");
-            Files.writeString(tempFile, sb.toString(), StandardCharsets.UTF_8);
-            LoggerUtils.logInfo(GeneralUtils.generateUniqueId(), SCHEDULED_SYSTEM_TASK, "Report written to: " + tempFile.toAbsolutePath());
-        } catch (Exception e) {
-            LoggerUtils.logError(GeneralUtils.generateUniqueId(), SCHEDULED_SYSTEM_TASK, "Error executing transactional balance script: {}", e.getMessage());
-            throw new RuntimeException("Failed to execute transactional balance script", e);
+    /**
+     * Works out the positions of the clients holding foreign currency accounts in the currencies whose rate changed, a
+     * currency at a time. A failure is logged and left for the next change, the rates are refreshed regardless.
+     */
+    private void recalculateClientPositions(final List<String> changedCurrencyCodes, final String traceId) {
+        for (String currencyCode : changedCurrencyCodes) {
+            try {
+                final int clientPositions = clientPositionRepository.recalculateClientPositionsByCurrencyCode(currencyCode, overdraftLimit);
+                LoggerUtils.logInfo(traceId, SCHEDULED_SYSTEM_TASK, "Conversion rate for {} changed, {} client positions recalculated.", currencyCode, clientPositions);
+            } catch (Exception e) {
+                LoggerUtils.logError(traceId, SCHEDULED_SYSTEM_TASK, "Error recalculating the client positions for {}: {}", currencyCode, e.getMessage());
+            }
         }
     }
 
+    /**
+     * Writes the month-end reports, all of them from a single scan of the client accounts unless
+     * {@code application-config.reports.single-scan} is off, in which case each report's SQL runs on its own.
+     */
     @Scheduled(cron = "0 0 0 L * ?")
-    public void runClientAggregateFinancialPositionReportingScript() {
-        try {
-            Resource resource = resourceLoader.getResource("classpath:/sql/client-aggregate-financial-position-report.sql");
-            String sql;
-            try (InputStream inputStream = resource.getInputStream()) {
-                sql = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    public void runMonthEndReports() {
+        if (!singleScan) {
+            for (MonthEndReport report : MonthEndReport.values()) {
+                runReport(report);
             }
+            return;
+        }
 
-            StringBuilder sb = new StringBuilder();
-            // Add header line
-            sb.append("Client, Loan Balance, Transactional Balance, Net Position")
-                    .append(System.lineSeparator());
-
-            jdbcTemplate.query(sql, (rs) -> {
-                int columnCount = rs.getMetaData().getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    sb.append(rs.getString(i));
-                    if (i < columnCount) sb.append(", ");
-                }
-                sb.append(System.lineSeparator());
-            });
-
-            Path reportDir = Path.of("src/main/resources/report");
-            Files.createDirectories(reportDir);
-            Path tempFile = reportDir.resolve("client_aggregate_financial_position_report_"
-                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
-                    + ".txt");
-            Files.writeString(tempFile, sb.toString(), StandardCharsets.UTF_8);
-            LoggerUtils.logInfo(GeneralUtils.generateUniqueId(), SCHEDULED_SYSTEM_TASK, "Report written to: " + tempFile.toAbsolutePath());
+        final TraceContext.Scope scope = TraceContext.open(null);
+        try {
+            combinedReportExecutor.runReports(scope.traceId());
+        } catch (Exception e) {
+            LoggerUtils.logError(scope.traceId(), SCHEDULED_SYSTEM_TASK, "Error executing month-end reports: {}", e.getMessage());
+            throw new RuntimeException("Failed to execute month-end reports", e);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private void runReport(final MonthEndReport report) {
+        final TraceContext.Scope scope = TraceContext.open(null);
+        try {
+            partitionedReportExecutor.runReport(report, scope.traceId());
         } catch (Exception e) {
-            LoggerUtils.logError(GeneralUtils.generateUniqueId(), SCHEDULED_SYSTEM_TASK, "Error executing transactional balance script: {}", e.getMessage());
-            throw new RuntimeException("Failed to execute transactional balance script", e);
+            LoggerUtils.logError(scope.traceId(), SCHEDULED_SYSTEM_TASK, "Error executing {} script: {}", report.description, e.getMessage());
+            throw new RuntimeException("Failed to execute " + report.description + " script", e);
+        } finally {
+            scope.close();
         }
     }
 }
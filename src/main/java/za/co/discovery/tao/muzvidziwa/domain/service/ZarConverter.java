@@ -0,0 +1,48 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * This class converts foreign currency amounts to ZAR using the rates held in the {@link CurrencyConversionCache}.
+ * <p>
+ * The rates are parsed and normalized when the cache is refreshed, a multiplied and a divided rate are both held as the
+ * fraction the amount is multiplied by, so a conversion is a single map lookup followed by a single multiplication, see
+ * {@link ConversionRatesDto}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ZarConverter {
+    private final CurrencyConversionCache currencyConversionCache;
+
+    /**
+     * Looks up the rate of a currency as shown to clients.
+     *
+     * @param currencyCode the currency code
+     * @param traceId      unique identifier for logging
+     * @return the rate rounded to a scale of 3, or null if the currency has no cached rate
+     */
+    public BigDecimal displayRate(final String currencyCode, final String traceId) {
+        final ConversionRatesDto conversionRatesDto = currencyConversionCache.getCurrencyConversionRate(currencyCode, traceId);
+        return conversionRatesDto != null ? conversionRatesDto.getDisplayRate() : null;
+    }
+
+    /**
+     * Converts an amount in a currency to ZAR at the currency's unrounded rate.
+     *
+     * @param currencyCode the currency code of the amount
+     * @param amount       the amount in the currency
+     * @param zarScale     the scale of the ZAR amount
+     * @param traceId      unique identifier for logging
+     * @return the ZAR amount, rounded half up to the scale, or null if the currency has no cached rate or the amount is not known
+     */
+    public Money toZar(final String currencyCode, final Money amount, final int zarScale, final String traceId) {
+        final ConversionRatesDto conversionRatesDto = currencyConversionCache.getCurrencyConversionRate(currencyCode, traceId);
+        return conversionRatesDto != null ? conversionRatesDto.toZar(amount, zarScale) : null;
+    }
+}
@@ -4,38 +4,57 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import za.co.discovery.tao.muzvidziwa.domain.constant.StatusCodeReason;
 import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
-import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassette;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
-import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmStateDto;
-import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Client;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientAccount;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientPositionProjection;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientPositionDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
 import za.co.discovery.tao.muzvidziwa.domain.service.BankService;
+import za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine;
+import za.co.discovery.tao.muzvidziwa.domain.service.ZarConverter;
 import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
 import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
 import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
 import za.co.discovery.tao.muzvidziwa.repository.AtmRepository;
 import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
 import za.co.discovery.tao.muzvidziwa.repository.ClientRepository;
 import za.co.discovery.tao.muzvidziwa.repository.CreditCardLimitRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BANK_SERVICE;
+import static za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics.Stage;
 
 @Slf4j
 @Service
@@ -46,226 +65,545 @@ public class BankServiceImpl implements BankService {
     private final AtmAllocationRepository atmAllocationRepository;
     private final ClientRepository clientRepository;
     private final CreditCardLimitRepository creditCardLimitRepository;
+    private final ClientPositionRepository clientPositionRepository;
+
+    private final AtmCassetteRegistry atmCassetteRegistry;
+    private final BalanceResponseCache balanceResponseCache;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final DispensingEngine dispensingEngine;
+    private final ZarConverter zarConverter;
+    private final TransactionTemplate transactionTemplate;
+    private final BankMetrics bankMetrics;
+
+    /* The insertion sort this replaced put an account before the accounts with an equal balance already sorted, so the
+     *  last of the equal accounts comes first */
+    private static final Comparator<SortableAccountDto> BALANCE_DESCENDING = (account1, account2) -> {
+        final int order = account2.balance().compareTo(account1.balance());
+        return order != 0 ? order : Integer.compare(account2.position(), account1.position());
+    };
+    // The insertion sort this replaced put an account after the accounts with an equal ZAR balance, the sort is stable
+    private static final Comparator<SortableAccountDto> ZAR_BALANCE_ASCENDING = (account1, account2) -> account1.balance().compareTo(account2.balance());
+
+    // The currency the ATMs dispense, and the withdrawal amounts and overdraft limit are in
+    private static final String ZAR = "ZAR";
+    // The cassettes hold the denominations in cents
+    private static final int CENTS_SCALE = 2;
+
+    // The overdraft facility of cheque accounts, as configured and as Money at the ZAR balance scale
+    private BigDecimal overdraftLimit;
+    private Money overdraftFacility;
+
+    // The clients a bulk balance enquiry reads per query
+    @Value("${application-config.balance-enquiry.batch-size:500}")
+    private int balanceEnquiryBatchSize = 500;
 
-    private final CurrencyConversionCache currencyConversionCache;
-
+    /**
+     * Sets the overdraft facility of cheque accounts, parsed once rather than on every call.
+     *
+     * @param overdraftLimit the overdraft limit in ZAR
+     */
     @Value("${application-config.overdraft-limit}")
-    private String overdraftLimit;
+    void setOverdraftLimit(final BigDecimal overdraftLimit) {
+        this.overdraftLimit = overdraftLimit;
+        this.overdraftFacility = Money.of(overdraftLimit, balanceScale(ZAR), RoundingMode.HALF_UP);
+    }
 
     @Override
-    public AtmResponse getTransactionalClientAccountBalances(final String traceId, final Integer clientId) throws Exception {
+    public AtmResponse getTransactionalClientAccountBalances(final Integer clientId) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_SERVICE, "Retrieving transactional balances for client ID: {}", clientId);
 
-        final AtmResponse atmResponse = new AtmResponse();
         if (!GeneralUtils.isPositiveInteger(clientId)) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "Invalid client ID: {}", clientId);
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR))
+                    .build();
         }
 
         /* It was determined that it is possible for a CLIENT to have no transactional (also any) CLIENT_ACCOUNTS associated
-        *  with their profile necessitating the need to pull the CLIENT's details separately. */
-        final Optional<Client> clientDetails = clientRepository.findByClientId(clientId);
-        if (clientDetails.isEmpty()) {
-            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
-            // It was determined that the system should return a NO_ACCOUNT_TO_DISPLAY_SCR status code reason
-            // It was determined that the accounts should be set to an empty list to avoid NPEs in downstream systems, and follow the principle of least surprise
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
-        }
-        atmResponse.setClient(prepareClientDto(clientDetails.get()));
-
-        final Optional<List<ClientAccount>> clientAccountList = clientAccountRepository.findTransactionalClientAccountsByClientId(clientId.longValue());
-
-        if (clientAccountList.isEmpty() || clientAccountList.get().isEmpty()) {
-            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No accounts found for client ID: {}", clientId);
-            // It was determined that the system should return a NO_ACCOUNT_TO_DISPLAY_SCR status code reason
-            // It was determined that the accounts should be set to an empty list to avoid NPEs in downstream systems, and follow the principle of least surprise
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
-        }
-
-        // It was determined that the accounts should be sorted by balance in descending order
-        final List<AccountDto> sortedAccounts = sortClientAccountsByBalanceDescending(clientAccountList.get(), traceId);
-        if (sortedAccounts.isEmpty()) {
-            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No valid transactional accounts found for client ID: {}", clientId);
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
-        }
-        atmResponse.setAccounts(sortedAccounts);
-        atmResponse.setResult(prepareResultDto(true, StatusCodeReason.DISPLAY_TRANSACTIONAL_ACCOUNTS_SCR));
-
-        return atmResponse;
+        *  with their profile. The CLIENT's details and balances are read in a single query, which returns a row with only the
+        *  CLIENT's details when there are no accounts, and no rows when there is no such CLIENT. The CLIENT's type and the
+        *  transactional accounts are resolved from the codes through the reference data registry. */
+        final long accountLookupStart = System.nanoTime();
+        final List<ClientAccountBalanceProjection> clientAccountBalanceList = clientAccountRepository.findClientAccountBalancesByClientId(clientId.longValue());
+        bankMetrics.recordStage(Stage.ACCOUNT_LOOKUP, accountLookupStart);
+
+        return prepareTransactionalBalancesResponse(clientId, clientAccountBalanceList, traceId);
     }
 
     @Override
-    public AtmResponse getForexAccountBalances(final String traceId, final Integer clientId) throws Exception {
+    public AtmResponse getForexAccountBalances(final Integer clientId) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_SERVICE, "Retrieving forex balances for client ID: {}", clientId);
 
-        final AtmResponse atmResponse = new AtmResponse();
         if (!GeneralUtils.isPositiveInteger(clientId)) {
             LoggerUtils.logError(traceId, BANK_SERVICE, "Invalid client ID: {}", clientId);
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR))
+                    .build();
         }
 
+        final long clientLookupStart = System.nanoTime();
         final Optional<Client> clientDetails = clientRepository.findByClientId(clientId);
-        if (clientDetails.isEmpty()) {
+        bankMetrics.recordStage(Stage.CLIENT_LOOKUP, clientLookupStart);
+        if (clientDetails.isEmpty() || !isServicedClient(clientDetails.get())) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
-        atmResponse.setClient(prepareClientDto(clientDetails.get()));
+        final ClientDto clientDto = prepareClientDto(clientDetails.get());
 
+        final long accountLookupStart = System.nanoTime();
         final Optional<List<ClientAccount>> clientAccountList = clientAccountRepository.findClientAccountsByClientIdAndAccountType(clientId.longValue(), "CFCA");
+        bankMetrics.recordStage(Stage.ACCOUNT_LOOKUP, accountLookupStart);
 
         if (clientAccountList.isEmpty() || clientAccountList.get().isEmpty()) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No accounts found for client ID: {}", clientId);
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
 
-        final List<AccountDto> sortedAccounts = sortClientAccountsByZarBalanceAscending(clientAccountList.get(), traceId);
+        final List<AccountDto> sortedAccounts = sortClientAccountsByZarBalanceAscending(prepareClientAccountBalances(clientAccountList.get()), traceId);
         if (sortedAccounts.isEmpty()) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No valid CFC accounts found for client ID: {}", clientId);
-            atmResponse.setAccounts(List.of());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
 
-        atmResponse.setAccounts(sortedAccounts);
-        atmResponse.setResult(prepareResultDto(true, StatusCodeReason.DISPLAY_FOREIGN_CURRENCY_ACCOUNT_SCR));
+        return AtmResponse.builder()
+                .client(clientDto)
+                .accounts(sortedAccounts)
+                .result(prepareResultDto(true, StatusCodeReason.DISPLAY_FOREIGN_CURRENCY_ACCOUNT_SCR))
+                .build();
+    }
+
+    @Override
+    public void getClientAccountBalances(final List<Integer> clientIds, final Set<BalanceView> views,
+                                         final ClientBalancesConsumer consumer) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
+        LoggerUtils.logInfo(traceId, BANK_SERVICE, "Retrieving the {} balances of {} clients", views, clientIds.size());
+
+        /* The clients are read a batch at a time, a query per batch rather than per client, so neither the IN list nor the
+         *  rows held in memory grow with the number of clients requested */
+        for (int batchStart = 0; batchStart < clientIds.size(); batchStart += balanceEnquiryBatchSize) {
+            final List<Integer> batchClientIds = clientIds.subList(batchStart, Math.min(batchStart + balanceEnquiryBatchSize, clientIds.size()));
+
+            final Set<Integer> validClientIds = new HashSet<>();
+            for (Integer clientId : batchClientIds) {
+                if (GeneralUtils.isPositiveInteger(clientId)) {
+                    validClientIds.add(clientId);
+                }
+            }
+
+            // The rows of each client, in the order they were read, as the single client query returns them
+            final Map<Integer, List<ClientAccountBalanceProjection>> clientAccountBalances = new HashMap<>();
+            if (!validClientIds.isEmpty()) {
+                final long accountLookupStart = System.nanoTime();
+                final List<ClientAccountBalanceProjection> clientAccountBalanceList = clientAccountRepository.findClientAccountBalancesByClientIds(validClientIds);
+                bankMetrics.recordStage(Stage.ACCOUNT_LOOKUP, accountLookupStart);
+                for (ClientAccountBalanceProjection clientAccountBalance : clientAccountBalanceList) {
+                    clientAccountBalances.computeIfAbsent(clientAccountBalance.getClientId(), key -> new ArrayList<>()).add(clientAccountBalance);
+                }
+            }
 
-        return atmResponse;
+            for (Integer clientId : batchClientIds) {
+                final Map<BalanceView, AtmResponse> responses = new EnumMap<>(BalanceView.class);
+                for (BalanceView view : views) {
+                    if (!GeneralUtils.isPositiveInteger(clientId)) {
+                        LoggerUtils.logDebug(traceId, BANK_SERVICE, "Invalid client ID: {}", clientId);
+                        responses.put(view, AtmResponse.builder()
+                                .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR))
+                                .build());
+                    } else if (view == BalanceView.TRANSACTIONAL) {
+                        responses.put(view, prepareTransactionalBalancesResponse(clientId, clientAccountBalances.get(clientId), traceId));
+                    } else {
+                        responses.put(view, prepareForexBalancesResponse(clientId, clientAccountBalances.get(clientId), traceId));
+                    }
+                }
+                consumer.accept(clientId, responses);
+            }
+        }
     }
 
     @Override
-    public AtmResponse postWithdrawal(final String traceId, final Integer clientId, Integer atmId, final String accountNumber, final BigDecimal withdrawalAmount) throws Exception {
+    public AtmResponse postWithdrawal(final Integer clientId, Integer atmId, final String accountNumber, final BigDecimal withdrawalAmount) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
         LoggerUtils.logInfo(traceId, BANK_SERVICE, "Processing withdrawal for client ID: {}, account number: {}, amount: {}", clientId, accountNumber, withdrawalAmount);
 
-        final AtmResponse atmResponse = new AtmResponse();
         if (!GeneralUtils.isPositiveInteger(clientId)) {
             LoggerUtils.logError(traceId, BANK_SERVICE, "Invalid client ID: {}", clientId);
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR))
+                    .build();
         }
         if (accountNumber == null || accountNumber.isBlank()) {
             LoggerUtils.logError(traceId, BANK_SERVICE, "Invalid account number: {}", accountNumber);
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_ACCOUTN_NUMBER_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_ACCOUTN_NUMBER_SCR))
+                    .build();
         }
-        if (!GeneralUtils.isPositiveBigDecimal(withdrawalAmount)) {
+        // The amount is held as Money from here on, an amount with more decimals than a ZAR balance holds is not a valid amount
+        if (!GeneralUtils.isPositiveBigDecimal(withdrawalAmount) || !Money.fits(withdrawalAmount, balanceScale(ZAR))) {
             LoggerUtils.logError(traceId, BANK_SERVICE, "Invalid withdrawal amount: {}", withdrawalAmount);
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INVALID_WITHDRAWAL_AMOUNT_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_WITHDRAWAL_AMOUNT_SCR))
+                    .build();
         }
+        final Money withdrawal = Money.of(withdrawalAmount, balanceScale(ZAR), RoundingMode.UNNECESSARY);
 
         /* Establish if the ATM exist higher in the logic to stop executing the remainder of the logic since the withdrawal
         *  will not be possible without an ATM identified*/
-        if (!atmRepository.atmExistsByAtmId(atmId.longValue())) {
+        final long atmLookupStart = System.nanoTime();
+        final boolean atmExists = atmRepository.atmExistsByAtmId(atmId.longValue());
+        bankMetrics.recordStage(Stage.ATM_LOOKUP, atmLookupStart);
+        if (!atmExists) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No ATM found with ID: {}", atmId);
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.ATM_NOT_FOUND_UNFUNDED_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .result(prepareResultDto(false, StatusCodeReason.ATM_NOT_FOUND_UNFUNDED_SCR))
+                    .build();
         }
 
+        final long clientLookupStart = System.nanoTime();
         final Optional<Client> clientDetails = clientRepository.findByClientId(clientId);
-        if (clientDetails.isEmpty()) {
+        bankMetrics.recordStage(Stage.CLIENT_LOOKUP, clientLookupStart);
+        if (clientDetails.isEmpty() || !isServicedClient(clientDetails.get())) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
-            atmResponse.setClient(new ClientDto());
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
-        atmResponse.setClient(prepareClientDto(clientDetails.get()));
+        final ClientDto clientDto = prepareClientDto(clientDetails.get());
 
+        final long accountLookupStart = System.nanoTime();
         final Optional<ClientAccount> clientAccountOptional = clientAccountRepository.findClientAccountByClientIdAndAccountNumber(clientId.longValue(), accountNumber);
-        if (clientAccountOptional.isEmpty()) {
+        bankMetrics.recordStage(Stage.ACCOUNT_LOOKUP, accountLookupStart);
+        // Only transactional accounts can be withdrawn from
+        if (clientAccountOptional.isEmpty() || clientAccountOptional.get().getAccountType() == null
+                || !referenceDataRegistry.isTransactionalAccountType(clientAccountOptional.get().getAccountType().getAccountTypeCode())) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No account found for client ID: {}, account number: {}", clientId, accountNumber);
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
 
         ClientAccount clientAccount = clientAccountOptional.get();
 
+        boolean hasOverdraftFacility = false;
+        final Money displayBalance;
         // TODO Tao: Remember that CHQ accounts have an overdraft facility of R10 000.00, therefore using the displayBalance is not correct but should instead use the accountLimit
         if (clientAccount.getDisplayBalance() != null) {
             /* Establish if the client's accoutn is cheque account, if it is, add the overdraft limit to the display balance before checking if the
             *  requested withdrawal amount is available */
-            BigDecimal availableBalance;
             if (clientAccount.getAccountType() != null && clientAccount.getAccountType().getAccountTypeCode().equalsIgnoreCase("CHQ")) {
-                availableBalance = GeneralUtils.parseBigDecimal(overdraftLimit).add(clientAccount.getDisplayBalance());
-            } else {
-                availableBalance = clientAccount.getDisplayBalance();
+                hasOverdraftFacility = true;
             }
-            if (availableBalance.compareTo(withdrawalAmount) < 0) {
+            /* This is only an early exit that saves planning the notes, the guarded debit below is the authoritative funds check
+             *  as the balance may have changed by the time the withdrawal is written */
+            displayBalance = Money.of(clientAccount.getDisplayBalance(), balanceScale(clientAccount.getCurrency() != null
+                    ? clientAccount.getCurrency().getCurrencyCode() : null), RoundingMode.HALF_UP);
+            final Money availableBalance = hasOverdraftFacility ? overdraftFacility.add(displayBalance) : displayBalance;
+            if (availableBalance.compareTo(withdrawal) < 0) {
                 LoggerUtils.logDebug(traceId, BANK_SERVICE, "Insufficient funds for account number: {}, balance: {}, requested amount: {}", accountNumber, clientAccount.getDisplayBalance(), withdrawalAmount);
-                atmResponse.setAccount(sortClientAccountsByBalanceDescending(List.of(clientAccount), traceId).get(0));
-                atmResponse.setResult(prepareResultDto(false, StatusCodeReason.INSUFFICIENT_FUNDS_SCR));
-                return atmResponse;
+                return AtmResponse.builder()
+                        .client(clientDto)
+                        .account(sortClientAccountsByBalanceDescending(List.of(new ClientAccountEntityBalance(clientAccount)), traceId).get(0))
+                        .result(prepareResultDto(false, StatusCodeReason.INSUFFICIENT_FUNDS_SCR))
+                        .build();
             }
         } else {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "Account number: {} has no display balance.", accountNumber);
-            atmResponse.setAccount(new AccountDto());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .account(AccountDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
         }
 
         // Withdrawal logic
-        final Optional<List<AtmAllocation>> atmAllocationList = atmAllocationRepository.findAtmAllocationByAtmId(atmId.longValue());
-
-        if (atmAllocationList.isEmpty() || atmAllocationList.get().isEmpty()) {
+        // Includes waiting for the withdrawals in progress at the same ATM, and loading the cassette from ATM_ALLOCATION on first use
+        final long atmAllocationLoadStart = System.nanoTime();
+        final Optional<AtmCassette> atmCassetteOptional = atmCassetteRegistry.lockCassette(atmId.longValue(), traceId);
+        bankMetrics.recordStage(Stage.ATM_ALLOCATION_LOAD, atmAllocationLoadStart);
+        if (atmCassetteOptional.isEmpty()) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No ATM_ID {} is not registered or has no allocation.", atmId);
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.ATM_NOT_FOUND_UNFUNDED_SCR));
-            return atmResponse;
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .result(prepareResultDto(false, StatusCodeReason.ATM_NOT_FOUND_UNFUNDED_SCR))
+                    .build();
         }
 
-        final AtmStateDto atmStateDto = prepareDenominationMap(atmAllocationList.get(), traceId);
-        List<DenominationDto> dispensedDenominations;
+        /* The cassette stays locked until the dispensed notes have been written through to the database and deducted in memory,
+         *  so concurrent withdrawals at the same ATM can never plan against the same notes */
+        final AtmCassette atmCassette = atmCassetteOptional.get();
+        bankMetrics.bindCassette(atmCassette);
+        final List<DenominationDto> dispensedDenominations = new ArrayList<>();
         try {
-            dispensedDenominations = dispenseCash(atmStateDto, withdrawalAmount, traceId);
-        } catch (final BankServiceException bSE) {
-            atmResponse.setAccount(sortClientAccountsByBalanceDescending(List.of(clientAccount), traceId).get(0));
-            atmResponse.setDenomination(List.of());
-            atmResponse.setResult(prepareResultDto(false, 400, bSE.getMessage()));
-            return atmResponse;
-        }
+            final DispensePlanDto dispensePlan;
+            final long dispenseCashStart = System.nanoTime();
+            try {
+                dispensePlan = dispenseCash(atmCassette, withdrawal, traceId);
+            } catch (final BankServiceException bSE) {
+                // The reason carries the amount that can be drawn instead, so it is counted by its status code reason
+                bankMetrics.countOutcome(StatusCodeReason.WITHDRAWAL_AMOUNT_NOT_AVAILABLE_SCR);
+                return AtmResponse.builder()
+                        .client(clientDto)
+                        .account(sortClientAccountsByBalanceDescending(List.of(new ClientAccountEntityBalance(clientAccount)), traceId).get(0))
+                        .denomination(List.of())
+                        .result(prepareResultDto(false, 400, bSE.getMessage()))
+                        .build();
+            } finally {
+                bankMetrics.recordStage(Stage.DISPENSE_CASH, dispenseCashStart);
+            }
 
-        try {
-            atmAllocationRepository.updateDenominationCounts(atmId.longValue(), atmStateDto.getAtmAllocationUpdateList());
-            clientAccountRepository.updateClientAccountByAccountNumber(clientId, accountNumber, clientAccount.getDisplayBalance().subtract(withdrawalAmount));
-        } catch (final java.lang.Exception e) {
-            LoggerUtils.logError(traceId, BANK_SERVICE, "Error updating ATM allocation or client account: {}", e.getMessage());
-            atmResponse.setResult(prepareResultDto(false, StatusCodeReason.GENERAL_ERROR_SCR));
-            return atmResponse;
+            final List<AtmAllocationUpdateDto> atmAllocationUpdateList = new ArrayList<>();
+            for (int i = 0; i < atmCassette.size(); i++) {
+                final int notesToDispense = dispensePlan.getNoteCounts()[i];
+                if (notesToDispense > 0) {
+                    atmAllocationUpdateList.add(new AtmAllocationUpdateDto(atmCassette.getDenominationIds()[i], notesToDispense));
+
+                    dispensedDenominations.add(new DenominationDto(atmCassette.getDenominationIds()[i], atmCassette.getDenominationValues()[i],
+                            notesToDispense));
+                }
+            }
+
+            /* The balance debit, with the client's position, and the ATM allocation update commit, or roll back, together. The debit only applies if the
+             *  balance (and overdraft facility) still covers the amount, so whether it returns the balance it left is the funds check */
+            final BigDecimal debitOverdraftFacility = hasOverdraftFacility ? overdraftLimit : BigDecimal.ZERO;
+            final Optional<BigDecimal> balanceAfterDebit;
+            final long dbWriteStart = System.nanoTime();
+            try {
+                balanceAfterDebit = transactionTemplate.execute(status -> {
+                    final Optional<BigDecimal> debitedBalance = clientAccountRepository.debitClientAccountByAccountNumber(clientId, accountNumber,
+                            withdrawalAmount, debitOverdraftFacility);
+                    if (debitedBalance.isPresent()) {
+                        atmAllocationRepository.updateDenominationCounts(atmId.longValue(), atmAllocationUpdateList);
+                    }
+                    return debitedBalance;
+                });
+            } catch (final java.lang.Exception e) {
+                LoggerUtils.logError(traceId, BANK_SERVICE, "Error updating ATM allocation or client account: {}", e.getMessage());
+                // The database may no longer match the cassette, or the cached balances, they will be reloaded on the next use
+                atmCassetteRegistry.evict(atmId.longValue(), traceId);
+                balanceResponseCache.evictClient(clientId, traceId);
+                return AtmResponse.builder()
+                        .client(clientDto)
+                        .result(prepareResultDto(false, StatusCodeReason.GENERAL_ERROR_SCR))
+                        .build();
+            } finally {
+                bankMetrics.recordStage(Stage.DB_WRITE, dbWriteStart);
+            }
+
+            if (balanceAfterDebit.isEmpty()) {
+                LoggerUtils.logDebug(traceId, BANK_SERVICE, "Insufficient funds for account number: {} at debit, requested amount: {}", accountNumber, withdrawalAmount);
+                /* The balance read before the debit covered the amount, a concurrent withdrawal has since drawn on the account, so the
+                 *  balance shown is read again rather than the one that passed the early check */
+                clientAccount.setDisplayBalance(clientAccountRepository.findDisplayBalanceByClientIdAndAccountNumber(clientId, accountNumber)
+                        .orElse(clientAccount.getDisplayBalance()));
+                return AtmResponse.builder()
+                        .client(clientDto)
+                        .account(sortClientAccountsByBalanceDescending(List.of(new ClientAccountEntityBalance(clientAccount)), traceId).get(0))
+                        .result(prepareResultDto(false, StatusCodeReason.INSUFFICIENT_FUNDS_SCR))
+                        .build();
+            }
+            // The client's cached balance responses no longer hold, the debit is committed
+            balanceResponseCache.evictClient(clientId, traceId);
+            /* The remaining balance is the one the debit returned from the debited row, the balance read before the debit can
+             *  not be used as other withdrawals on the same account may have been debited in between */
+            clientAccount.setDisplayBalance(balanceAfterDebit.get());
+
+            atmCassette.dispense(dispensePlan.getNoteCounts());
+        } finally {
+            atmCassette.unlock();
         }
 
         /* It was determined that a withdrawal is successful if:
-            1 . the ATM_ALLOCATION for the ATM was updated successfully, the system can proceed to update the CLIENT's displayBalance.
-            2.  the CLIENT_ACCOUNT balance for the CLIENT was updated successfully, there is therefor
-                no reason to query the CLIENT_ACCOUNT table again to fetch the displayBalance but rather to update it in memory
-                for `some` performance gains.
+            1 . the CLIENT_ACCOUNT balance for the CLIENT was debited successfully, i.e., the funds were available.
+            2.  the ATM_ALLOCATION for the ATM was updated successfully in the same transaction.
             therefor the system can proceed to prepare and the response payload to the ATM terminal */
-        clientAccount.setDisplayBalance(clientAccount.getDisplayBalance().subtract(withdrawalAmount));
+        return AtmResponse.builder()
+                .client(clientDto)
+                .account(sortClientAccountsByBalanceDescending(List.of(new ClientAccountEntityBalance(clientAccount)), traceId).get(0))
+                .denomination(Collections.unmodifiableList(dispensedDenominations))
+                .result(prepareResultDto(true, StatusCodeReason.WITHDRAWAL_SUCCESSFUL_SCR))
+                .build();
+    }
+
+    @Override
+    public AtmResponse getClientPosition(final Integer clientId) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
+        LoggerUtils.logInfo(traceId, BANK_SERVICE, "Retrieving the financial position for client ID: {}", clientId);
+
+        if (!GeneralUtils.isPositiveInteger(clientId)) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "Invalid client ID: {}", clientId);
+            return AtmResponse.builder()
+                    .result(prepareResultDto(false, StatusCodeReason.INVALID_CLIENT_IDENTIFIER_SCR))
+                    .build();
+        }
+
+        // The position is kept up to date as the client's balances change, so it is read as is rather than summed here
+        final long clientLookupStart = System.nanoTime();
+        final Optional<ClientPositionProjection> clientPosition = clientPositionRepository.findClientPositionByClientId(clientId);
+        bankMetrics.recordStage(Stage.CLIENT_LOOKUP, clientLookupStart);
+        if (clientPosition.isEmpty() || !referenceDataRegistry.isServicedClientSubType(clientPosition.get().getClientSubTypeCode())) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .result(prepareResultDto(false, StatusCodeReason.NO_CLIENT_WITH_ID_SCR))
+                    .build();
+        }
+
+        final ClientDto clientDto = prepareClientDto(clientPosition.get());
+        return AtmResponse.builder()
+                .client(clientDto)
+                .position(prepareClientPositionDto(clientPosition.get()))
+                .result(prepareResultDto(true, StatusCodeReason.DISPLAY_CLIENT_POSITION_SCR))
+                .build();
+    }
+
+    /**
+     * This method prepares the transactional balances response of a client from the client's rows of the single query balance
+     * read, the client's details and the transactional accounts sorted by balance in descending order.
+     *
+     * @param clientId                 The ID of the client
+     * @param clientAccountBalanceList The client's {@link ClientAccountBalanceProjection} rows, empty or null if the client was not found
+     * @param traceId                  Unique identifier for logging
+     * @return An {@link AtmResponse} containing the client's transactional account balances
+     */
+    private AtmResponse prepareTransactionalBalancesResponse(final Integer clientId, final List<ClientAccountBalanceProjection> clientAccountBalanceList,
+                                                             final String traceId) {
+        if (clientAccountBalanceList == null || clientAccountBalanceList.isEmpty()
+                || !referenceDataRegistry.isServicedClientSubType(clientAccountBalanceList.get(0).getClientSubTypeCode())) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
+            // It was determined that the system should return a NO_ACCOUNT_TO_DISPLAY_SCR status code reason
+            // It was determined that the accounts should be set to an empty list to avoid NPEs in downstream systems, and follow the principle of least surprise
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
+        final ClientDto clientDto = prepareClientDto(clientAccountBalanceList.get(0));
+
+        final List<ClientAccountBalanceProjection> clientAccountList = new ArrayList<>();
+        for (ClientAccountBalanceProjection clientAccountBalance : clientAccountBalanceList) {
+            if (clientAccountBalance.getClientAccountNumber() != null
+                    && referenceDataRegistry.isTransactionalAccountType(clientAccountBalance.getAccountTypeCode())) {
+                clientAccountList.add(clientAccountBalance);
+            }
+        }
+
+        if (clientAccountList.isEmpty()) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No accounts found for client ID: {}", clientId);
+            // It was determined that the system should return a NO_ACCOUNT_TO_DISPLAY_SCR status code reason
+            // It was determined that the accounts should be set to an empty list to avoid NPEs in downstream systems, and follow the principle of least surprise
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
+
+        // It was determined that the accounts should be sorted by balance in descending order
+        final List<AccountDto> sortedAccounts = sortClientAccountsByBalanceDescending(clientAccountList, traceId);
+        if (sortedAccounts.isEmpty()) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No valid transactional accounts found for client ID: {}", clientId);
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
+        return AtmResponse.builder()
+                .client(clientDto)
+                .accounts(sortedAccounts)
+                .result(prepareResultDto(true, StatusCodeReason.DISPLAY_TRANSACTIONAL_ACCOUNTS_SCR))
+                .build();
+    }
+
+    /**
+     * This method prepares the forex balances response of a client from the client's rows of the single query balance read,
+     * the client's details and the foreign currency (CFCA) accounts sorted by ZAR balance in ascending order.
+     *
+     * @param clientId                 The ID of the client
+     * @param clientAccountBalanceList The client's {@link ClientAccountBalanceProjection} rows, empty or null if the client was not found
+     * @param traceId                  Unique identifier for logging
+     * @return An {@link AtmResponse} containing the client's forex account balances
+     */
+    private AtmResponse prepareForexBalancesResponse(final Integer clientId, final List<ClientAccountBalanceProjection> clientAccountBalanceList,
+                                                     final String traceId) {
+        if (clientAccountBalanceList == null || clientAccountBalanceList.isEmpty()
+                || !referenceDataRegistry.isServicedClientSubType(clientAccountBalanceList.get(0).getClientSubTypeCode())) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client found with ID: {}", clientId);
+            return AtmResponse.builder()
+                    .client(ClientDto.EMPTY)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
+        final ClientDto clientDto = prepareClientDto(clientAccountBalanceList.get(0));
+
+        final List<ClientAccountBalanceProjection> clientAccountList = new ArrayList<>();
+        for (ClientAccountBalanceProjection clientAccountBalance : clientAccountBalanceList) {
+            if (clientAccountBalance.getClientAccountNumber() != null && "CFCA".equals(clientAccountBalance.getAccountTypeCode())) {
+                clientAccountList.add(clientAccountBalance);
+            }
+        }
+
+        if (clientAccountList.isEmpty()) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No accounts found for client ID: {}", clientId);
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
 
-        atmResponse.setAccount(sortClientAccountsByBalanceDescending(List.of(clientAccount), traceId).get(0));
-        atmResponse.setDenomination(dispensedDenominations);
-        atmResponse.setResult(prepareResultDto(true, StatusCodeReason.WITHDRAWAL_SUCCESSFUL_SCR));
+        final List<AccountDto> sortedAccounts = sortClientAccountsByZarBalanceAscending(clientAccountList, traceId);
+        if (sortedAccounts.isEmpty()) {
+            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No valid CFC accounts found for client ID: {}", clientId);
+            return AtmResponse.builder()
+                    .client(clientDto)
+                    .accounts(List.of())
+                    .result(prepareResultDto(false, StatusCodeReason.NO_ACCOUNT_TO_DSPLAY_SCR))
+                    .build();
+        }
 
-        return atmResponse;
+        return AtmResponse.builder()
+                .client(clientDto)
+                .accounts(sortedAccounts)
+                .result(prepareResultDto(true, StatusCodeReason.DISPLAY_FOREIGN_CURRENCY_ACCOUNT_SCR))
+                .build();
+    }
+
+    /**
+     * This method establishes if the client is of a type the bank services, resolved from the client's sub type through the
+     * {@link ReferenceDataRegistry}.
+     *
+     * @param client The {@link Client} to check
+     * @return true if the client is serviced
+     */
+    private boolean isServicedClient(final Client client) {
+        // The sub type is a lazy reference, its code is read off the proxy without loading the row
+        return client.getClientSubType() != null && referenceDataRegistry.isServicedClientSubType(client.getClientSubType().getClientSubTypeCode());
     }
 
     /**
@@ -276,190 +614,206 @@ public class BankServiceImpl implements BankService {
      * @return A {@link ClientDto} containing the client's personal details
      */
     private ClientDto prepareClientDto(final Client client) {
-        ClientDto clientDto = new ClientDto();
-        if (client != null) {
-            clientDto = new ClientDto();
-
-            clientDto.setId(client.getClientId() != null ? GeneralUtils.parseIntToLong(client.getClientId()) : null);
-            clientDto.setTitle(client.getTitle() != null ? client.getTitle() : null);
-            clientDto.setName(client.getName() != null ? client.getName() : null);
-            clientDto.setSurname(client.getSurname() != null ? client.getSurname() : null);
+        if (client == null) {
+            return ClientDto.EMPTY;
         }
 
-        return clientDto;
+        return new ClientDto(client.getClientId() != null ? GeneralUtils.parseIntToLong(client.getClientId()) : null,
+                client.getTitle(), client.getName(), client.getSurname());
+    }
+
+    /**
+     * This method prepares a {@link ClientDto} from the client's details on a {@link ClientAccountBalanceProjection} row.
+     *
+     * @param clientAccountBalance The {@link ClientAccountBalanceProjection} row containing the client's personal information
+     * @return A {@link ClientDto} containing the client's personal details
+     */
+    private ClientDto prepareClientDto(final ClientAccountBalanceProjection clientAccountBalance) {
+        return new ClientDto(clientAccountBalance.getClientId() != null ? GeneralUtils.parseIntToLong(clientAccountBalance.getClientId()) : null,
+                clientAccountBalance.getTitle(), clientAccountBalance.getName(), clientAccountBalance.getSurname());
+    }
+
+    /**
+     * This method prepares a {@link ClientDto} from the client's details on a {@link ClientPositionProjection}.
+     *
+     * @param clientPosition The {@link ClientPositionProjection} containing the client's personal information
+     * @return A {@link ClientDto} containing the client's personal details
+     */
+    private ClientDto prepareClientDto(final ClientPositionProjection clientPosition) {
+        return new ClientDto(clientPosition.getClientId() != null ? GeneralUtils.parseIntToLong(clientPosition.getClientId()) : null,
+                clientPosition.getTitle(), clientPosition.getName(), clientPosition.getSurname());
     }
 
     /**
-     * This method prepares an {@link AccountDto} from a {@link ClientAccount} object.
+     * This method prepares a {@link ClientPositionDto} from a {@link ClientPositionProjection}, rounding the amounts half up
+     * to 2 decimals as the month-end report does.
+     *
+     * @param clientPosition The {@link ClientPositionProjection} containing the client's position
+     * @return A {@link ClientPositionDto} containing the client's loan balance, transactional balance and net position
+     */
+    private ClientPositionDto prepareClientPositionDto(final ClientPositionProjection clientPosition) {
+        return new ClientPositionDto(clientPosition.getLoanBalance().setScale(2, RoundingMode.HALF_UP),
+                clientPosition.getTransactionalBalance().setScale(2, RoundingMode.HALF_UP),
+                clientPosition.getNetPosition().setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * This method prepares an {@link AccountDto} from a {@link ClientAccountBalanceProjection} row.
      * It extracts relevant information such as account number, type, currency, balance, and conversion rate.
      *
-     * @param clientAccount The {@link ClientAccount} object to be converted
+     * @param clientAccount The {@link ClientAccountBalanceProjection} row to be converted
      * @param traceId Unique identifier for logging
      * @return An {@link AccountDto} containing the account details
      */
-    private AccountDto prepareClientAccountDto(final ClientAccount clientAccount, final String traceId) {
-        AccountDto clientAccountDto = new AccountDto();
-        if (clientAccount != null) {
-            // It was determined that should the data for an account not be complete or be inconsistent, the system will
-            // treat this account as invalid and return a null object
-            if (clientAccount.getClientAccountNumber() == null
-                    || clientAccount.getClientAccountNumber().isBlank()
-                    || GeneralUtils.parseStringToLong(clientAccount.getClientAccountNumber()) == null) {
-                return null;
-            }
-            clientAccountDto.setAccountNumber(GeneralUtils.parseStringToLong(clientAccount.getClientAccountNumber()));
+    private AccountDto prepareClientAccountDto(final ClientAccountBalanceProjection clientAccount, final String traceId) {
+        if (clientAccount == null) {
+            return AccountDto.EMPTY;
+        }
 
-            if (clientAccount.getAccountType() == null || clientAccount.getAccountType().getAccountTypeCode() == null) {
-                return null;
-            }
-            clientAccountDto.setTypeCode(clientAccount.getAccountType().getAccountTypeCode());
+        // It was determined that should the data for an account not be complete or be inconsistent, the system will
+        // treat this account as invalid and return a null object
+        if (clientAccount.getClientAccountNumber() == null
+                || clientAccount.getClientAccountNumber().isBlank()
+                || GeneralUtils.parseStringToLong(clientAccount.getClientAccountNumber()) == null) {
+            return null;
+        }
+        final Long accountNumber = GeneralUtils.parseStringToLong(clientAccount.getClientAccountNumber());
 
-            if (clientAccount.getAccountType().getDescription() == null) {
-                return null;
-            }
-            clientAccountDto.setAccountTypeDescription(clientAccount.getAccountType().getDescription());
+        if (clientAccount.getAccountTypeCode() == null) {
+            return null;
+        }
 
-            if (clientAccount.getCurrency() == null || clientAccount.getCurrency().getCurrencyCode() == null) {
-                return null;
-            }
-            clientAccountDto.setCurrencyCode(clientAccount.getCurrency().getCurrencyCode());
+        final String accountTypeDescription = referenceDataRegistry.getAccountTypeDescription(clientAccount.getAccountTypeCode());
+        if (accountTypeDescription == null) {
+            return null;
+        }
 
-            // TODO Tao: You will need to remove the call to parse BigDecimal when the ConversionRateDto.conversionRate is changed to BigDecimal
-            if (currencyConversionCache.getCurrencyConversionRate(clientAccount.getCurrency().getCurrencyCode(), traceId) == null
-                    || currencyConversionCache.getCurrencyConversionRate(clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionRate() == null
-                    || GeneralUtils.parseBigDecimal(
-                            currencyConversionCache.getCurrencyConversionRate(clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionRate()) == null) {
-                return null;
-            }
-            clientAccountDto.setConversionRate(
-                    GeneralUtils.parseBigDecimal(
-                            currencyConversionCache.getCurrencyConversionRate(clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionRate()).setScale(3, RoundingMode.HALF_UP));
-
-            /* It has been determined that the ZAR balance is:
-             *  1. for ZAR balances, is going to be the same as the display balance,
-             *  2. for forex balances, is going to be a product (by CONVERSION_INDICATOR) of the going CURRENCY_CONVERSION_RATE rate
-             *     of the currency in question */
-            if (clientAccount.getDisplayBalance() == null) {
-                return null;
-            }
-            if (clientAccount.getCurrency().getCurrencyCode().equalsIgnoreCase("ZAR")) {
-                clientAccountDto.setBalance(clientAccount.getDisplayBalance().setScale(3, RoundingMode.HALF_UP));
-                clientAccountDto.setZarBalance(clientAccount.getDisplayBalance().setScale(3, RoundingMode.HALF_UP));
-            } else {
-                clientAccountDto.setCcyBalance(clientAccount.getDisplayBalance().setScale(3, RoundingMode.HALF_UP));
-                BigDecimal convertedZarBalance = null;
-                switch (currencyConversionCache.getCurrencyConversionRate(clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionIndicator()) {
-                    case ("/") -> convertedZarBalance = clientAccount.getDisplayBalance()
-                            .divide(
-                                    GeneralUtils.parseBigDecimal(
-                                            currencyConversionCache.getCurrencyConversionRate(
-                                                    clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionRate()),
-                                    3, RoundingMode.HALF_UP);
-                    case ("*") -> convertedZarBalance = clientAccount.getDisplayBalance()
-                            .multiply(
-                                    GeneralUtils.parseBigDecimal(
-                                            currencyConversionCache.getCurrencyConversionRate(
-                                                    clientAccount.getCurrency().getCurrencyCode(), traceId).getConversionRate()));
-                }
+        if (clientAccount.getCurrencyCode() == null) {
+            return null;
+        }
 
-                clientAccountDto.setZarBalance(convertedZarBalance != null ? convertedZarBalance.setScale(3, RoundingMode.HALF_UP) : null);
-            }
+        final BigDecimal displayRate = zarConverter.displayRate(clientAccount.getCurrencyCode(), traceId);
+        if (displayRate == null) {
+            return null;
+        }
+
+        /* It has been determined that the ZAR balance is:
+         *  1. for ZAR balances, is going to be the same as the display balance,
+         *  2. for forex balances, is going to be a product (by CONVERSION_INDICATOR) of the going CURRENCY_CONVERSION_RATE rate
+         *     of the currency in question */
+        if (clientAccount.getDisplayBalance() == null) {
+            return null;
+        }
+        /* The balance is read at the scale it is stored with, so it is only rounded if its currency has fewer decimals. The
+         *  stored balance is shown as is, setting its scale returns the same instance, the Money is for the arithmetic below */
+        final Money displayBalance = Money.of(clientAccount.getDisplayBalance(), balanceScale(clientAccount.getCurrencyCode()), RoundingMode.HALF_UP);
+        final BigDecimal displayBalanceAmount = clientAccount.getDisplayBalance().setScale(Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+        BigDecimal balance = null;
+        BigDecimal ccyBalance = null;
+        BigDecimal zarBalance;
+        if (clientAccount.getCurrencyCode().equalsIgnoreCase(ZAR)) {
+            balance = displayBalanceAmount;
+            zarBalance = displayBalanceAmount;
+        } else {
+            ccyBalance = displayBalanceAmount;
+            final Money zarAmount = zarConverter.toZar(clientAccount.getCurrencyCode(), displayBalance, balanceScale(ZAR), traceId);
+            zarBalance = zarAmount != null ? zarAmount.toBigDecimal(Money.BALANCE_SCALE) : null;
+        }
 
-            // It has been determined that all cheque accounts have an overdraft facility of R10 000.00
-            // An assumption has been made that the overdraft limit is only applicable to ZAR accounts
-            if (clientAccount.getAccountType() == null || clientAccount.getAccountType().getAccountTypeCode() == null) {
+        // It has been determined that all cheque accounts have an overdraft facility of R10 000.00
+        // An assumption has been made that the overdraft limit is only applicable to ZAR accounts
+        if (clientAccount.getAccountTypeCode() == null) {
+            return null;
+        }
+        final BigDecimal accountLimit;
+        if (clientAccount.getAccountTypeCode().equalsIgnoreCase("CHQ")
+                && clientAccount.getCurrencyCode().equalsIgnoreCase(ZAR)) {
+            // The accountLimit is the sum of the display balance and the overdraft facility
+            // i.e., if the display balance is R-500.00, the account limit is R10 000.00 + (- R500.00) = R9 500.00
+            accountLimit = overdraftFacility.add(displayBalance).toBigDecimal(Money.BALANCE_SCALE);
+        } else if (clientAccount.getAccountTypeCode().equalsIgnoreCase("CCRD")
+                && clientAccount.getCurrencyCode().equalsIgnoreCase(ZAR)) {
+            // For credit card accounts (CCRD), the account limit is pulled from the CREDIT_CARD_LIMIT table and set to the account limit field
+            final BigDecimal creditCardLimit = clientAccount.getCreditCardLimit();
+            if (creditCardLimit == null) {
+                LoggerUtils.logDebug(traceId, BANK_SERVICE, "No credit card limit found for account number: {}", clientAccount.getClientAccountNumber());
                 return null;
             }
-            if (clientAccount.getAccountType().getAccountTypeCode().equalsIgnoreCase("CHQ")
-                    && clientAccount.getCurrency().getCurrencyCode().equalsIgnoreCase("ZAR")) {
-                // The accountLimit is the sum of the display balance and the overdraft facility
-                // i.e., if the display balance is R-500.00, the account limit is R10 000.00 + (- R500.00) = R9 500.00
-                final BigDecimal accountLimit = GeneralUtils.parseBigDecimal(overdraftLimit)
-                        .add(clientAccount.getDisplayBalance() != null ? clientAccount.getDisplayBalance() : BigDecimal.ZERO);
-
-                clientAccountDto.setAccountLimit(accountLimit.setScale(3, RoundingMode.HALF_UP));
-            } else if (clientAccount.getAccountType().getAccountTypeCode().equalsIgnoreCase("CCRD")
-                    && clientAccount.getCurrency().getCurrencyCode().equalsIgnoreCase("ZAR")) {
-                // For credit card accounts (CCRD), the account limit is pulled from the CREDIT_CARD_LIMIT table and set to the account limit field
-                final Optional<BigDecimal> creditCardLimit = creditCardLimitRepository.findCreditCardLimitByClientAccountNumber(clientAccount.getClientAccountNumber());
-                if (creditCardLimit.isEmpty()) {
-                    LoggerUtils.logDebug(traceId, BANK_SERVICE, "No credit card limit found for account number: {}", clientAccount.getClientAccountNumber());
-                    return null;
-                }
 
-                // It has been assumed that the zarBalance would depict the amount the client has used off of their credit card limit
-                clientAccountDto.setZarBalance(clientAccount.getDisplayBalance().subtract(creditCardLimit.get()).setScale(3, RoundingMode.HALF_UP));
-                clientAccountDto.setAccountLimit(creditCardLimit.get().setScale(3, RoundingMode.HALF_UP));
-            } else if (clientAccount.getAccountType().getAccountTypeCode().equalsIgnoreCase("CFCA")) {
-                // For forex accounts (CFCA) accounts, the account limit is set to the ccyBalance
-                clientAccountDto.setAccountLimit(clientAccountDto.getCcyBalance().setScale(3, RoundingMode.HALF_UP));
-            } else {
-                // For loan and savings accounts, the account limit is set to the display balance
-                clientAccountDto.setAccountLimit(clientAccountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-            }
+            // It has been assumed that the zarBalance would depict the amount the client has used off of their credit card limit
+            final Money creditCardLimitAmount = Money.of(creditCardLimit, displayBalance.scale(), RoundingMode.HALF_UP);
+            zarBalance = displayBalance.subtract(creditCardLimitAmount).toBigDecimal(Money.BALANCE_SCALE);
+            accountLimit = creditCardLimit.setScale(Money.BALANCE_SCALE, RoundingMode.HALF_UP);
+        } else if (clientAccount.getAccountTypeCode().equalsIgnoreCase("CFCA")) {
+            // For forex accounts (CFCA) accounts, the account limit is set to the ccyBalance
+            accountLimit = ccyBalance;
+        } else {
+            // For loan and savings accounts, the account limit is set to the display balance
+            accountLimit = balance;
         }
 
-        return clientAccountDto;
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode(clientAccount.getAccountTypeCode())
+                .accountTypeDescription(accountTypeDescription)
+                .currencyCode(clientAccount.getCurrencyCode())
+                .conversionRate(displayRate)
+                .balance(balance)
+                .ccyBalance(ccyBalance)
+                .zarBalance(zarBalance)
+                .accountLimit(accountLimit)
+                .build();
     }
 
     /**
      * This method sorts the client accounts by balance in descending order.
-     * If the balance is null, it is treated as zero for sorting purposes.
+     * If the balance is null, it is treated as zero for sorting purposes. Accounts with equal balances are listed last
+     * account first.
      *
-     * @param clientAccountList List of {@link ClientAccount} objects to be sorted
+     * @param clientAccountList List of {@link ClientAccountBalanceProjection} objects to be sorted
      * @param traceId Unique identifier for logging
      * @return List of {@link AccountDto} sorted by balance in descending order
      */
-    private List<AccountDto> sortClientAccountsByBalanceDescending(final List<ClientAccount> clientAccountList, final String traceId) {
-        if (clientAccountList == null || clientAccountList.isEmpty()) {
-            LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client accounts to sort.");
-            return List.of();
-        }
-
-        final List<AccountDto> sortedAccountDtoList = new ArrayList<>();
-        for (ClientAccount clientAccount : clientAccountList) {
-            final AccountDto accountDto = prepareClientAccountDto(clientAccount, traceId);
-
-            if (accountDto == null) {
-                LoggerUtils.logDebug(traceId, BANK_SERVICE, "Skipping account with null or incomplete data: {}", clientAccount);
-                continue;
-            }
-
-            // Find the correct position to insert based on balance (descending)
-            // An assumption was made that if the balance is null, it should be treated as zero
-            int insertIndex = 0;
-            while (insertIndex < sortedAccountDtoList.size()) {
-                BigDecimal currentBalance = sortedAccountDtoList.get(insertIndex).getBalance();
-                BigDecimal newBalance = accountDto.getBalance() != null ? accountDto.getBalance() : BigDecimal.ZERO;
-                BigDecimal compareBalance = currentBalance != null ? currentBalance : BigDecimal.ZERO;
-
-                if (newBalance.compareTo(compareBalance) >= 0) {
-                    break;
-                }
-                insertIndex++;
-            }
-            sortedAccountDtoList.add(insertIndex, accountDto);
-        }
-
-        return sortedAccountDtoList;
+    private List<AccountDto> sortClientAccountsByBalanceDescending(final List<? extends ClientAccountBalanceProjection> clientAccountList, final String traceId) {
+        return prepareSortedClientAccountDtos(clientAccountList, AccountDto::balance, BALANCE_DESCENDING, traceId);
     }
 
     /**
      * This method sorts the client accounts by ZAR balance in ascending order.
-     * If the ZAR balance is null, it is treated as zero for sorting purposes.
+     * If the ZAR balance is null, it is treated as zero for sorting purposes. Accounts with equal ZAR balances keep their
+     * order.
      *
-     * @param clientAccountList List of {@link ClientAccount} objects to be sorted
+     * @param clientAccountList List of {@link ClientAccountBalanceProjection} objects to be sorted
      * @param traceId           Unique identifier for logging
      * @return List of {@link AccountDto} sorted by ZAR balance in ascending order
      */
-    private List<AccountDto> sortClientAccountsByZarBalanceAscending(final List<ClientAccount> clientAccountList, final String traceId) {
+    private List<AccountDto> sortClientAccountsByZarBalanceAscending(final List<? extends ClientAccountBalanceProjection> clientAccountList, final String traceId) {
+        return prepareSortedClientAccountDtos(clientAccountList, AccountDto::zarBalance, ZAR_BALANCE_ASCENDING, traceId);
+    }
+
+    /**
+     * This method prepares an {@link AccountDto} for each valid client account, skipping the incomplete ones, and sorts them.
+     * <p>
+     * The sort key is read once per account, a null key is treated as zero, and the accounts are sorted with the stable
+     * O(n log n) {@link List#sort(Comparator)}, so clients with hundreds of accounts are not sorted by insertion. The
+     * orders match the insertion sorts this replaced, ties included.
+     *
+     * @param clientAccountList List of {@link ClientAccountBalanceProjection} objects to be sorted
+     * @param sortKey           The balance of an {@link AccountDto} to sort by
+     * @param order             The order of the accounts
+     * @param traceId           Unique identifier for logging
+     * @return List of {@link AccountDto} in the given order
+     */
+    private List<AccountDto> prepareSortedClientAccountDtos(final List<? extends ClientAccountBalanceProjection> clientAccountList,
+                                                            final Function<AccountDto, BigDecimal> sortKey,
+                                                            final Comparator<SortableAccountDto> order, final String traceId) {
         if (clientAccountList == null || clientAccountList.isEmpty()) {
             LoggerUtils.logDebug(traceId, BANK_SERVICE, "No client accounts to sort.");
             return List.of();
         }
 
-        final List<AccountDto> sortedAccountDtoList = new ArrayList<>();
-        for (ClientAccount clientAccount : clientAccountList) {
+        final List<SortableAccountDto> sortableAccountDtoList = new ArrayList<>(clientAccountList.size());
+        for (ClientAccountBalanceProjection clientAccount : clientAccountList) {
             final AccountDto accountDto = prepareClientAccountDto(clientAccount, traceId);
 
             if (accountDto == null) {
@@ -467,216 +821,181 @@ public class BankServiceImpl implements BankService {
                 continue;
             }
 
-            // Find the correct position to insert based on zarBalance (ascending)
             // An assumption was made that if the balance is null, it should be treated as zero
-            int insertIndex = 0;
-            while (insertIndex < sortedAccountDtoList.size()) {
-                BigDecimal currentZarBalance = sortedAccountDtoList.get(insertIndex).getZarBalance();
-                BigDecimal newZarBalance = accountDto.getZarBalance() != null ? accountDto.getZarBalance() : BigDecimal.ZERO;
-                BigDecimal compareZarBalance = currentZarBalance != null ? currentZarBalance : BigDecimal.ZERO;
-
-                if (newZarBalance.compareTo(compareZarBalance) < 0) {
-                    break;
-                }
-                insertIndex++;
-            }
-            sortedAccountDtoList.add(insertIndex, accountDto);
+            final BigDecimal balance = sortKey.apply(accountDto);
+            sortableAccountDtoList.add(new SortableAccountDto(accountDto, balance != null ? balance : BigDecimal.ZERO, sortableAccountDtoList.size()));
         }
+        sortableAccountDtoList.sort(order);
 
-        return sortedAccountDtoList;
+        final List<AccountDto> sortedAccountDtoList = new ArrayList<>(sortableAccountDtoList.size());
+        for (SortableAccountDto sortableAccountDto : sortableAccountDtoList) {
+            sortedAccountDtoList.add(sortableAccountDto.accountDto());
+        }
+
+        return Collections.unmodifiableList(sortedAccountDtoList);
     }
 
     private ResultDto prepareResultDto(final boolean success, final StatusCodeReason codeReason) {
-        ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(success);
-        resultDto.setStatusCode(codeReason.statusCode);
-        resultDto.setStatusReason(codeReason.statusReason);
+        bankMetrics.countOutcome(codeReason);
 
-        return resultDto;
+        return new ResultDto(success, codeReason.statusCode, codeReason.statusReason);
     }
 
     private ResultDto prepareResultDto(final boolean success, final int statusCode, final String statusReason) {
-        ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(success);
-        resultDto.setStatusCode(statusCode);
-        resultDto.setStatusReason(statusReason);
-
-        return resultDto;
-    }
-
-    private AtmStateDto prepareDenominationMap(final List<AtmAllocation> atmAllocationList, final String traceId) {
-        final AtmStateDto atmStateDto = new AtmStateDto();
-
-        BigDecimal atmTotalAmount = BigDecimal.ZERO;
-        final Map<BigDecimal, DenominationDto> denominationMap = new HashMap<>();
-
-        for (AtmAllocation atmAllocation : atmAllocationList) {
-            if (atmAllocation.getDenomination() != null
-                    && atmAllocation.getDenomination().getDenominationValue() != null
-                    && atmAllocation.getDenomination().getDenominationId() != null) {
-
-                final long denominationId = GeneralUtils.parseIntToLong(atmAllocation.getDenomination().getDenominationId());
-
-                /* The ATM can only dispense bank-notes, so Denominations that are not bank-notes (e.g., coins) are ignored
-                 *       even if they are in the ATM_ALLOCATION list <*/
-                if (atmAllocation.getDenomination().getDenominationType() != null
-                        && atmAllocation.getDenomination().getDenominationType().getDenominationTypeCode() != null
-                        && atmAllocation.getDenomination().getDenominationType().getDenominationTypeCode().equalsIgnoreCase("C")) {
-                    continue;
-                }
-
-                final BigDecimal denomination = atmAllocation.getDenomination().getDenominationValue();
-
-                // An assumption has been made that if the count is null, it should be treated as zero
-                final int count = atmAllocation.getCount() != null ? atmAllocation.getCount() : 0;
-
-                if (denominationMap.containsKey(denomination)) {
-                    // In the event that the denomination already exists, increment the count
-                    // In keeping with the previous assumption, if the count is null, it should be treated as zero
-                    final DenominationDto existingDenomination = denominationMap.get(denomination);
-                    final int existingCount = existingDenomination.getCount() != null ? existingDenomination.getCount() : 0;
-                    existingDenomination.setCount(existingCount + count);
-
-                    denominationMap.put(denomination, existingDenomination);
-                    atmTotalAmount = atmTotalAmount.add(denomination.multiply(BigDecimal.valueOf(existingDenomination.getCount())));
-                } else {
-                    final DenominationDto newDenomination = new DenominationDto();
-                    newDenomination.setDenominationId(denominationId);
-                    newDenomination.setDenominationValue(denomination);
-                    newDenomination.setCount(count);
-
-                    denominationMap.put(denomination, newDenomination);
-                    atmTotalAmount = atmTotalAmount.add(denomination.multiply(BigDecimal.valueOf(count)));
-                }
-            } else {
-                LoggerUtils.logDebug(traceId, BANK_SERVICE, "ATM allocation with null denomination found: {}", atmAllocation);
-            }
-        }
-
-        atmStateDto.setDenominationMap(denominationMap);
-        atmStateDto.setDenominationList(new ArrayList<>(denominationMap.keySet()));
-        atmStateDto.setTotalAmount(atmTotalAmount);
-
-        return atmStateDto;
+        return new ResultDto(success, statusCode, statusReason);
     }
 
     /**
-     * Dispenses cash from the ATM based on the requested withdrawal amount and available denominations.
+     * Plans the notes to dispense from the ATM based on the requested withdrawal amount and available denominations.
      *
      * <ul>
      *   <li>1. Validates if the withdrawal amount is a multiple of the smallest denomination available in the ATM.
      *       If not, throws an exception indicating the minimum multiple that can be dispensed.</li>
-     *   <li>2. Checks if the ATM has sufficient funds to fulfill the withdrawal. If not, finds and suggests the next
-     *       possible lower amount that can be dispensed with the available denominations, and throws an exception with this suggestion.</li>
-     *   <li>3. Uses a greedy algorithm to determine the most efficient way to dispense the requested amount using the available denominations and their counts. Further reading <a href="https://www.tutorialspoint.com/data_structures_algorithms/greedy_algorithms.htm">Tutorials Point: Greedy Algorithms</a></li>
-     *   <li>4. Updates the {@link AtmStateDto}'s denomination map by deducting the number of bills or coins dispensed, and reflecting the number remaining.</li>
-     *   <li>5. Prepares and returns a list of {@link DenominationDto} objects representing the denominations and counts dispensed.</li>
+     *   <li>2. Uses the {@link DispensingEngine} to plan the notes to dispense in a single pass. The engine is aware of the
+     *       number of notes available per denomination, and finds combinations a greedy pass would miss (i.e., R60 from 3 x R20
+     *       when an R50 is loaded).</li>
+     *   <li>3. If the requested amount cannot be dispensed in full, the largest lower amount the ATM can dispense (from the same
+     *       plan) is suggested in the exception message.</li>
      * </ul>
+     * The cassette is not changed, the caller deducts the planned notes once they have been written through to the database.
      *
-     * @param atmStateDto      The current state of the ATM {@link AtmStateDto}, including available denominations and their counts.
+     * @param atmCassette      The locked {@link AtmCassette} of the ATM, including available denominations and their counts.
      * @param withdrawalAmount The amount to withdraw.
      * @param traceId          Unique identifier for logging and tracing.
-     * @return List of {@link DenominationDto} representing the denominations and counts dispensed.
+     * @return {@link DispensePlanDto} with the number of notes to dispense, aligned to the cassette's denominations.
      * @throws BankServiceException if the withdrawal cannot be fulfilled due to denomination constraints or insufficient funds.
      */
-    private List<DenominationDto> dispenseCash(AtmStateDto atmStateDto, final BigDecimal withdrawalAmount, final String traceId) throws BankServiceException {
-        List<BigDecimal> denominationList = new ArrayList<>(atmStateDto.getDenominationList());
-        denominationList.sort(Comparator.naturalOrder());
-        BigDecimal smallestDenomination = denominationList.get(0);
+    private DispensePlanDto dispenseCash(final AtmCassette atmCassette, final Money withdrawalAmount, final String traceId) throws BankServiceException {
+        final long[] denominationCents = atmCassette.getDenominationCents();
+        final Money requestedAmount = withdrawalAmount.rescale(CENTS_SCALE, RoundingMode.DOWN);
+        final long requestedCents = requestedAmount.units();
 
-        /* 1. Check if withdrawal amount is a multiple of the smallest denomination.
+        /* 1. Check if withdrawal amount is a multiple of the smallest denomination, a fraction of a cent never is.
          *  i.e., the withdrawal amount is 15 and the smallest denomination is 10, then notify the client that the ATM
          *  will only be able to service their withdrawal in multiples of 10 */
-        if (withdrawalAmount.remainder(smallestDenomination).compareTo(BigDecimal.ZERO) != 0) {
+        if (requestedAmount.compareTo(withdrawalAmount) != 0 || requestedCents % denominationCents[denominationCents.length - 1] != 0) {
+            final BigDecimal smallestDenomination = atmCassette.getSmallestDenomination();
             LoggerUtils.logError(traceId, BANK_SERVICE, "Withdrawal amount {} is not a multiple of the smallest denomination {}", withdrawalAmount, smallestDenomination);
             throw new BankServiceException(
                     "ATM can only dispense cash in multiples of " + smallestDenomination.setScale(2, RoundingMode.HALF_UP)
             );
         }
 
-        // 2. Perform a blanket check to see if the ATM has enough funds to dispense the requested amount
-        if (atmStateDto.getTotalAmount().compareTo(withdrawalAmount) < 0) {
-            // 2.1 If the ATM does not have enough funds, establish the next possible lower amount that can be dispensed by the ATM
-            BigDecimal possibleAmount = findNextDispensableAmount(atmStateDto, withdrawalAmount);
+        // 2. Plan the notes to dispense, the cassette's denominations are held largest first, the caller holds the cassette's lock
+        final DispensePlanDto dispensePlan = dispensingEngine.plan(atmCassette.getDenominationCents(), atmCassette.getLockedCounts(), requestedCents);
+
+        /* 3. In the event that the required amount could not be dispensed because the ATM does not have enough funds, or the
+             correct denominations to satisfy the requested withdrawal amount, it was determined that the system should offer the
+             next possible lower amount that can be dispensed in full considering the available denominations. */
+        if (!dispensePlan.isExact(requestedCents)) {
+            final BigDecimal possibleAmount = BigDecimal.valueOf(dispensePlan.getDispensableCents(), 2);
+            if (possibleAmount.compareTo(BigDecimal.ZERO) <= 0) {
+                LoggerUtils.logError(traceId, BANK_SERVICE, "ATM cannot dispense the requested amount {} with available denominations.", withdrawalAmount);
+                throw new BankServiceException("ATM cannot dispense the requested amount");
+            }
             throw new BankServiceException(
                     "Amount not available, would you like to draw " + possibleAmount.setScale(2, RoundingMode.HALF_UP) + "?"
             );
         }
 
-        // 3. Greedy algorithm to dispense cash
-        Map<BigDecimal, DenominationDto> denominationMap = atmStateDto.getDenominationMap();
-        denominationList.sort(Comparator.reverseOrder());
-        BigDecimal remaining = withdrawalAmount;
-        List<DenominationDto> dispensedList = new ArrayList<>();
+        return dispensePlan;
+    }
 
-        for (BigDecimal denomination : denominationList) {
-            DenominationDto denominationDto = denominationMap.get(denomination);
-            int available = denominationDto.getCount() != null ? denominationDto.getCount() : 0;
-            int toDispense = remaining.divideToIntegralValue(denomination).intValue();
-            int notesToDispense = Math.min(toDispense, available);
+    /**
+     * Looks up the scale the amounts of an account in the currency are held at as {@link Money}, from the currency's
+     * DECIMAL_PLACES in the {@link ReferenceDataRegistry}.
+     *
+     * @param currencyCode the currency code
+     * @return the scale, {@link Money#BALANCE_SCALE} if the currency is not known
+     */
+    private int balanceScale(final String currencyCode) {
+        final ReferenceDataRegistry.CurrencyEntry currency = referenceDataRegistry.getCurrency(currencyCode);
+        return Money.balanceScale(currency != null ? currency.decimalPlaces() : 0);
+    }
 
-            if (notesToDispense > 0) {
-                // 4. Update ATMStateDto's map to indicate the number of notes remaining after dispensing cash
-                atmStateDto.addAtmAllocationUpdate(new AtmAllocationUpdateDto(denominationDto.getDenominationId(), (available - notesToDispense)));
+    /**
+     * Wraps {@link ClientAccount} entities so they can be mapped and sorted like the rows of the single query balance read.
+     *
+     * @param clientAccountList List of {@link ClientAccount} entities
+     * @return List of {@link ClientAccountBalanceProjection} backed by the entities
+     */
+    private List<ClientAccountBalanceProjection> prepareClientAccountBalances(final List<ClientAccount> clientAccountList) {
+        final List<ClientAccountBalanceProjection> clientAccountBalanceList = new ArrayList<>(clientAccountList.size());
+        for (ClientAccount clientAccount : clientAccountList) {
+            clientAccountBalanceList.add(new ClientAccountEntityBalance(clientAccount));
+        }
+        return clientAccountBalanceList;
+    }
 
-                // 4.1 Prepare a list of dispensed denominations
-                DenominationDto dispensed = new DenominationDto();
-                dispensed.setDenominationId(denominationDto.getDenominationId());
-                dispensed.setDenominationValue(denomination);
-                dispensed.setCount(notesToDispense);
-                dispensedList.add(dispensed);
+    /**
+     * This class adapts a {@link ClientAccount} entity to a {@link ClientAccountBalanceProjection}. The credit card limit is
+     * only looked up when it is asked for, i.e., for credit card accounts.
+     */
+    @RequiredArgsConstructor
+    private class ClientAccountEntityBalance implements ClientAccountBalanceProjection {
+        private final ClientAccount clientAccount;
 
-                remaining = remaining.subtract(denomination.multiply(BigDecimal.valueOf(notesToDispense)));
-            }
+        @Override
+        public Integer getClientId() {
+            return clientAccount.getClient() != null ? clientAccount.getClient().getClientId() : null;
         }
 
-        /* 5. In the event that the required amount could not be dispensed because the ATM does not have the correct denominations to
-             satisfy the requested withdrawal amount, it was determined that the system should offer the next possible
-             lower amount that can be dispensed in full considering the available denominations. */
-        if (remaining.compareTo(BigDecimal.ZERO) > 0) {
-            // Find the next possible lower amount that can be dispensed
-            BigDecimal possibleAmount = findNextDispensableAmount(atmStateDto, withdrawalAmount);
-            if (possibleAmount.compareTo(BigDecimal.ZERO) <= 0) {
-                LoggerUtils.logError(traceId, BANK_SERVICE, "ATM cannot dispense the requested amount {} with available denominations.", withdrawalAmount);
-                throw new BankServiceException("ATM cannot dispense the requested amount");
-            }
-            throw new BankServiceException(
-                    "Amount not available, would you like to draw " + possibleAmount.setScale(2, RoundingMode.HALF_UP) + "?"
-            );
+        @Override
+        public String getTitle() {
+            return clientAccount.getClient() != null ? clientAccount.getClient().getTitle() : null;
         }
 
-        return dispensedList;
+        @Override
+        public String getName() {
+            return clientAccount.getClient() != null ? clientAccount.getClient().getName() : null;
+        }
+
+        @Override
+        public String getSurname() {
+            return clientAccount.getClient() != null ? clientAccount.getClient().getSurname() : null;
+        }
+
+        @Override
+        public String getClientSubTypeCode() {
+            // The sub type is a lazy reference, its code is read off the proxy without loading the row
+            return clientAccount.getClient() != null && clientAccount.getClient().getClientSubType() != null
+                    ? clientAccount.getClient().getClientSubType().getClientSubTypeCode() : null;
+        }
+
+        @Override
+        public String getClientAccountNumber() {
+            return clientAccount.getClientAccountNumber();
+        }
+
+        @Override
+        public String getAccountTypeCode() {
+            return clientAccount.getAccountType() != null ? clientAccount.getAccountType().getAccountTypeCode() : null;
+        }
+
+        @Override
+        public String getCurrencyCode() {
+            return clientAccount.getCurrency() != null ? clientAccount.getCurrency().getCurrencyCode() : null;
+        }
+
+        @Override
+        public BigDecimal getDisplayBalance() {
+            return clientAccount.getDisplayBalance();
+        }
+
+        @Override
+        public BigDecimal getCreditCardLimit() {
+            return creditCardLimitRepository.findCreditCardLimitByClientAccountNumber(clientAccount.getClientAccountNumber()).orElse(null);
+        }
+
+        @Override
+        public String toString() {
+            return clientAccount.toString();
+        }
     }
 
     /**
-     * Finds the next possible lower amount that can be dispensed from the ATM, taking into consideration the available denominations and their respective counts.
-     *
-     * @param atmStateDto               The current state of the ATM {@link AtmStateDto}, including available denominations and their counts.
-     * @param requestedWithdrawalAmount The amount requested for withdrawal.
-     * @return BigDecimal amount of the next possible lower amount that can be dispensed from the ATM.
+     * An {@link AccountDto} with the balance it is sorted by, read once, and its position in the accounts as read.
      */
-    private BigDecimal findNextDispensableAmount(AtmStateDto atmStateDto, BigDecimal requestedWithdrawalAmount) {
-        List<BigDecimal> denominationList = new ArrayList<>(atmStateDto.getDenominationList());
-        denominationList.sort(Comparator.reverseOrder());
-        Map<BigDecimal, DenominationDto> denominationMap = atmStateDto.getDenominationMap();
-
-        // USe the smallest denomination in the ATM to start the search for the next possible lower amount
-        BigDecimal amount = requestedWithdrawalAmount.subtract(denominationList.get(denominationList.size() - 1));
-        while (amount.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal remaining = amount;
-            boolean possible = true;
-            for (BigDecimal denom : denominationList) {
-                DenominationDto denomDto = denominationMap.get(denom);
-                int available = denomDto.getCount() != null ? denomDto.getCount() : 0;
-                int toDispense = remaining.divideToIntegralValue(denom).intValue();
-                int notesToDispense = Math.min(toDispense, available);
-                remaining = remaining.subtract(denom.multiply(BigDecimal.valueOf(notesToDispense)));
-            }
-            if (remaining.compareTo(BigDecimal.ZERO) == 0) {
-                return amount;
-            }
-            amount = amount.subtract(BigDecimal.ONE);
-        }
-        return BigDecimal.ZERO;
+    private record SortableAccountDto(AccountDto accountDto, BigDecimal balance, int position) {
     }
 }
@@ -0,0 +1,45 @@
+package za.co.discovery.tao.muzvidziwa.domain.service.report;
+
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes each client's loan balance, transactional balance and net position, one row per client.
+ * <p>
+ * The positions are kept up to date on CLIENT_POSITION as the balances change, the report only rounds them half up to 2
+ * decimals. A client without a position yet is written with zeros, as the SQL report writes it, so every client is listed.
+ */
+@Component
+public class FinancialPositionReportAggregator implements ReportAggregator {
+    private static final ReportClient.Position NO_POSITION = new ReportClient.Position(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    @Override
+    public MonthEndReport report() {
+        return MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION;
+    }
+
+    @Override
+    public long writeClient(final ReportClient client, final ReportLookups lookups, final Writer writer) throws IOException {
+        final ReportClient.Position position = client.position() != null ? client.position() : NO_POSITION;
+
+        ReportAggregator.writeRow(writer,
+                // CONCAT_WS(' ', TITLE, NAME, SURNAME) leaves out the NULLs
+                Stream.of(client.title(), client.name(), client.surname()).filter(Objects::nonNull).collect(Collectors.joining(" ")),
+                round(position.loanBalance()),
+                round(position.transactionalBalance()),
+                round(position.netPosition()));
+        return 1;
+    }
+
+    private static String round(final BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,54 @@
+package za.co.discovery.tao.muzvidziwa.domain.service.report;
+
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes each client's accounts with the highest display balance, ties in the order the accounts were inserted, the
+ * order the month-end scan feeds them in and the SQL report lists them in. Accounts without a balance are left out, a
+ * client without accounts has no rows.
+ */
+@Component
+public class HighestBalanceReportAggregator implements ReportAggregator {
+
+    @Override
+    public MonthEndReport report() {
+        return MonthEndReport.TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE;
+    }
+
+    @Override
+    public long writeClient(final ReportClient client, final ReportLookups lookups, final Writer writer) throws IOException {
+        BigDecimal highestBalance = null;
+        for (ReportClient.Account account : client.accounts()) {
+            if (account.displayBalance() != null && (highestBalance == null || account.displayBalance().compareTo(highestBalance) > 0)) {
+                highestBalance = account.displayBalance();
+            }
+        }
+        if (highestBalance == null) {
+            return 0;
+        }
+
+        long rowCount = 0;
+        for (ReportClient.Account account : client.accounts()) {
+            final ReportLookups.AccountType accountType = lookups.accountTypes().get(account.accountTypeCode());
+            if (account.displayBalance() == null || accountType == null || account.displayBalance().compareTo(highestBalance) != 0) {
+                continue;
+            }
+
+            ReportAggregator.writeRow(writer,
+                    String.valueOf(client.clientId()),
+                    client.surname(),
+                    account.accountNumber(),
+                    accountType.description(),
+                    // ROUND(DISPLAY_BALANCE, 2)
+                    account.displayBalance().setScale(2, RoundingMode.HALF_UP).toPlainString());
+            rowCount++;
+        }
+        return rowCount;
+    }
+}
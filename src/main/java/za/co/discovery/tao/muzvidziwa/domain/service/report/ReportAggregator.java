@@ -0,0 +1,41 @@
+package za.co.discovery.tao.muzvidziwa.domain.service.report;
+
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Builds a month-end report from the single scan of the clients and their accounts made by the
+ * {@link za.co.discovery.tao.muzvidziwa.domain.service.CombinedReportExecutor}. Every aggregator that is a Spring bean is
+ * fed each client in turn, so a new report only needs a {@link MonthEndReport} and an aggregator, not a scan of its own.
+ */
+public interface ReportAggregator {
+    /**
+     * @return the report this aggregator writes, its header and file name
+     */
+    MonthEndReport report();
+
+    /**
+     * Writes the report's rows for a client, the clients are fed in client ID order.
+     *
+     * @param client  the client, all of its accounts, in the order they were inserted, and its position
+     * @param lookups the account types as at the start of the scan
+     * @param writer  the writer of the report's rows
+     * @return the number of rows written
+     */
+    long writeClient(ReportClient client, ReportLookups lookups, Writer writer) throws IOException;
+
+    /**
+     * Writes a row of a report, the columns separated by ", " as the SQL reports write them.
+     */
+    static void writeRow(final Writer writer, final String... columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            writer.write(String.valueOf(columns[i]));
+            if (i < columns.length - 1) {
+                writer.write(", ");
+            }
+        }
+        writer.write(System.lineSeparator());
+    }
+}
@@ -0,0 +1,20 @@
+package za.co.discovery.tao.muzvidziwa.domain.service.report;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A client, its accounts and its position as read by the month-end scan, a client without accounts has an empty list
+ * and a client without a position a {@code null} position.
+ */
+public record ReportClient(int clientId, String title, String name, String surname, List<Account> accounts, Position position) {
+
+    public record Account(String accountNumber, String accountTypeCode, String currencyCode, BigDecimal displayBalance) {
+    }
+
+    /**
+     * The client's CLIENT_POSITION, unrounded.
+     */
+    public record Position(BigDecimal loanBalance, BigDecimal transactionalBalance, BigDecimal netPosition) {
+    }
+}
@@ -0,0 +1,14 @@
+package za.co.discovery.tao.muzvidziwa.domain.service.report;
+
+import java.util.Map;
+
+/**
+ * The reference data the month-end reports used to join to every account, loaded once before the scan.
+ *
+ * @param accountTypes the account types by account type code
+ */
+public record ReportLookups(Map<String, AccountType> accountTypes) {
+
+    public record AccountType(String description, boolean transactional) {
+    }
+}
@@ -58,6 +58,6 @@ public final class GeneralUtils {
     }
 
     public static String generateUniqueId() {
-        return java.util.UUID.randomUUID().toString();
+        return TraceContext.newTraceId();
     }
 }
@@ -1,49 +1,246 @@
 package za.co.discovery.tao.muzvidziwa.domain.util;
 
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
 import za.co.discovery.tao.muzvidziwa.domain.constant.Sources;
 
+import java.util.function.Supplier;
+
+/**
+ * The logging facade of the system. Every method checks the log level first, so a disabled level costs a single check:
+ * the message is passed to SLF4J as a parameterized message and only formatted by the appender, and the trace ID and
+ * source are put in the MDC (as {@value #TRACE_ID_KEY} and {@value #SOURCE_KEY}) for the log pattern to print, only
+ * while the message is logged. A null trace ID logs the one bound to the thread by the {@link TraceContext}, if any.
+ * <p>
+ * The fixed arity methods pass their arguments straight on to SLF4J's fixed arity methods, so the common one and two
+ * argument messages build no varargs array. Arguments that are expensive to work out can be passed as a {@link Supplier},
+ * any argument that is one is only called when the level is enabled (the {@code Supplier} methods take lambdas, which
+ * cannot be passed as an {@code Object}). A varargs array is only copied when it holds a {@code Supplier}.
+ */
 @Slf4j
 public final class LoggerUtils {
+    public static final String TRACE_ID_KEY = "traceId";
+    public static final String SOURCE_KEY = "source";
+
+    private static final String NO_TRACE_ID = "No trace ID";
+    private static final String NO_SOURCE = "No source";
+    private static final String NO_MESSAGE = "No message provided";
+
+    private LoggerUtils() {
+    }
+
+    public static void logInfo(final String traceId, final Sources source, final String message) {
+        if (log.isInfoEnabled()) {
+            log(Level.INFO, traceId, source, message, 0, null, null, null);
+        }
+    }
+
+    public static void logInfo(final String traceId, final Sources source, final String message, final Object arg) {
+        if (log.isInfoEnabled()) {
+            log(Level.INFO, traceId, source, message, 1, arg, null, null);
+        }
+    }
+
+    public static void logInfo(final String traceId, final Sources source, final String message, final Object arg1, final Object arg2) {
+        if (log.isInfoEnabled()) {
+            log(Level.INFO, traceId, source, message, 2, arg1, arg2, null);
+        }
+    }
+
     public static void logInfo(final String traceId, final Sources source, final String message, final Object... args) {
-        log.info(formatLogMessage(traceId, source, message, args));
+        if (log.isInfoEnabled()) {
+            log(Level.INFO, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logInfo(final String traceId, final Sources source, final String message, final Supplier<?>... args) {
+        if (log.isInfoEnabled()) {
+            log(Level.INFO, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logWarn(final String traceId, final Sources source, final String message) {
+        if (log.isWarnEnabled()) {
+            log(Level.WARN, traceId, source, message, 0, null, null, null);
+        }
+    }
+
+    public static void logWarn(final String traceId, final Sources source, final String message, final Object arg) {
+        if (log.isWarnEnabled()) {
+            log(Level.WARN, traceId, source, message, 1, arg, null, null);
+        }
+    }
+
+    public static void logWarn(final String traceId, final Sources source, final String message, final Object arg1, final Object arg2) {
+        if (log.isWarnEnabled()) {
+            log(Level.WARN, traceId, source, message, 2, arg1, arg2, null);
+        }
+    }
+
+    public static void logWarn(final String traceId, final Sources source, final String message, final Object... args) {
+        if (log.isWarnEnabled()) {
+            log(Level.WARN, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logWarn(final String traceId, final Sources source, final String message, final Supplier<?>... args) {
+        if (log.isWarnEnabled()) {
+            log(Level.WARN, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logError(final String traceId, final Sources source, final String message) {
+        if (log.isErrorEnabled()) {
+            log(Level.ERROR, traceId, source, message, 0, null, null, null);
+        }
+    }
+
+    public static void logError(final String traceId, final Sources source, final String message, final Object arg) {
+        if (log.isErrorEnabled()) {
+            log(Level.ERROR, traceId, source, message, 1, arg, null, null);
+        }
+    }
+
+    public static void logError(final String traceId, final Sources source, final String message, final Object arg1, final Object arg2) {
+        if (log.isErrorEnabled()) {
+            log(Level.ERROR, traceId, source, message, 2, arg1, arg2, null);
+        }
     }
 
     public static void logError(final String traceId, final Sources source, final String message, final Object... args) {
-        log.error(formatLogMessage(traceId, source, message, args));
+        if (log.isErrorEnabled()) {
+            log(Level.ERROR, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logError(final String traceId, final Sources source, final String message, final Supplier<?>... args) {
+        if (log.isErrorEnabled()) {
+            log(Level.ERROR, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logDebug(final String traceId, final Sources source, final String message) {
+        if (log.isDebugEnabled()) {
+            log(Level.DEBUG, traceId, source, message, 0, null, null, null);
+        }
+    }
+
+    public static void logDebug(final String traceId, final Sources source, final String message, final Object arg) {
+        if (log.isDebugEnabled()) {
+            log(Level.DEBUG, traceId, source, message, 1, arg, null, null);
+        }
+    }
+
+    public static void logDebug(final String traceId, final Sources source, final String message, final Object arg1, final Object arg2) {
+        if (log.isDebugEnabled()) {
+            log(Level.DEBUG, traceId, source, message, 2, arg1, arg2, null);
+        }
     }
 
     public static void logDebug(final String traceId, final Sources source, final String message, final Object... args) {
-        log.debug(formatLogMessage(traceId, source, message, args));
-    }
-
-    private static String formatLogMessage(final String traceId, final Sources source, final String message, final Object... args) {
-        final StringBuilder logMessage = new StringBuilder();
-        String formattedMessage = message != null ? message : "No message provided";
-
-        if (args != null && args.length > 0 && message != null) {
-            int argIndex = 0;
-            StringBuilder sb = new StringBuilder();
-            int start = 0;
-            int idx;
-            while ((idx = message.indexOf("{}", start)) != -1) {
-                sb.append(message, start, idx);
-                if (argIndex < args.length) {
-                    sb.append(args[argIndex] != null ? args[argIndex].toString() : "NULL");
-                } else {
-                    sb.append("NULL");
-                }
-                argIndex++;
-                start = idx + 2;
+        if (log.isDebugEnabled()) {
+            log(Level.DEBUG, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    public static void logDebug(final String traceId, final Sources source, final String message, final Supplier<?>... args) {
+        if (log.isDebugEnabled()) {
+            log(Level.DEBUG, traceId, source, message, -1, null, null, args);
+        }
+    }
+
+    /**
+     * @param argCount the number of arguments, 0 to 2 for arg1 and arg2, or -1 for the args array
+     */
+    private static void log(final Level level, final String traceId, final Sources source, final String message,
+                            final int argCount, final Object arg1, final Object arg2, final Object[] args) {
+        // The caller's MDC values, if any, are put back once the message is logged
+        final String previousTraceId = MDC.get(TRACE_ID_KEY);
+        final String previousSource = MDC.get(SOURCE_KEY);
+        final String boundTraceId = traceId != null ? traceId : TraceContext.boundTraceId();
+        MDC.put(TRACE_ID_KEY, boundTraceId != null ? boundTraceId : NO_TRACE_ID);
+        MDC.put(SOURCE_KEY, source != null ? source.source : NO_SOURCE);
+        try {
+            final String logMessage = message != null ? message : NO_MESSAGE;
+            switch (argCount) {
+                case 0 -> write(level, logMessage);
+                case 1 -> write(level, logMessage, resolve(arg1));
+                case 2 -> write(level, logMessage, resolve(arg1), resolve(arg2));
+                default -> write(level, logMessage, resolve(args));
             }
-            sb.append(message.substring(start));
-            formattedMessage = sb.toString();
+        } finally {
+            restore(TRACE_ID_KEY, previousTraceId);
+            restore(SOURCE_KEY, previousSource);
         }
+    }
 
-        logMessage.append(traceId != null ? traceId + " - " : "No trace ID - ")
-                .append(source != null ? source.source + " - " : "No source - ")
-                .append(formattedMessage);
+    private static void write(final Level level, final String message) {
+        switch (level) {
+            case ERROR -> log.error(message);
+            case INFO -> log.info(message);
+            case WARN -> log.warn(message);
+            default -> log.debug(message);
+        }
+    }
+
+    private static void write(final Level level, final String message, final Object arg) {
+        switch (level) {
+            case ERROR -> log.error(message, arg);
+            case INFO -> log.info(message, arg);
+            case WARN -> log.warn(message, arg);
+            default -> log.debug(message, arg);
+        }
+    }
+
+    private static void write(final Level level, final String message, final Object arg1, final Object arg2) {
+        switch (level) {
+            case ERROR -> log.error(message, arg1, arg2);
+            case INFO -> log.info(message, arg1, arg2);
+            case WARN -> log.warn(message, arg1, arg2);
+            default -> log.debug(message, arg1, arg2);
+        }
+    }
+
+    private static void write(final Level level, final String message, final Object[] args) {
+        switch (level) {
+            case ERROR -> log.error(message, args);
+            case INFO -> log.info(message, args);
+            case WARN -> log.warn(message, args);
+            default -> log.debug(message, args);
+        }
+    }
+
+    private static Object resolve(final Object arg) {
+        return arg instanceof Supplier<?> supplier ? supplier.get() : arg;
+    }
+
+    /**
+     * @return the arguments, or a copy of them holding the values of their {@code Supplier}s if they hold any
+     */
+    private static Object[] resolve(final Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] resolvedArgs = args;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Supplier<?> supplier) {
+                if (resolvedArgs == args) {
+                    // A Supplier<?>[] cannot hold the values, so the copy is an Object[]
+                    resolvedArgs = new Object[args.length];
+                    System.arraycopy(args, 0, resolvedArgs, 0, args.length);
+                }
+                resolvedArgs[i] = supplier.get();
+            }
+        }
+        return resolvedArgs;
+    }
 
-        return logMessage.toString();
+    private static void restore(final String key, final String previousValue) {
+        if (previousValue != null) {
+            MDC.put(key, previousValue);
+        } else {
+            MDC.remove(key);
+        }
     }
 }
@@ -0,0 +1,129 @@
+package za.co.discovery.tao.muzvidziwa.domain.util;
+
+import org.slf4j.MDC;
+
+import java.security.SecureRandom;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the trace ID of the work the current thread is doing, so it need not be passed along by hand.
+ * <p>
+ * A trace ID is made up of a node prefix drawn once per JVM, the ID of the thread that made it and a counter of that
+ * thread's own, e.g., {@code 5f3ac91e-2b-17}. Making one touches no shared state, unlike {@code UUID.randomUUID()} whose
+ * shared {@code SecureRandom} serializes the threads making IDs at the same time.
+ * <p>
+ * {@link #open(String)} binds a trace ID to the current thread, and the log MDC, until the returned {@link Scope} is
+ * closed. Tasks handed to another thread carry the trace ID along when wrapped with {@link #wrap(Callable)} or
+ * {@link #wrap(Runnable)}.
+ */
+public final class TraceContext {
+    /**
+     * The header ATM terminals (and the web pages calling the REST API remotely) send their trace ID in.
+     */
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    // Trace IDs taken from a header end up in the logs, anything other than a short plain token is replaced
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+    private static final String NODE_PREFIX = String.format("%08x", new SecureRandom().nextInt());
+    private static final ThreadLocal<long[]> COUNTER = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<String> CURRENT_TRACE_ID = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * @return a new trace ID, unique to this JVM and unlikely to repeat on any other node
+     */
+    @SuppressWarnings("deprecation") // Thread.threadId() is only available from Java 19
+    public static String newTraceId() {
+        final long[] counter = COUNTER.get();
+        return NODE_PREFIX + '-' + Long.toHexString(Thread.currentThread().getId()) + '-' + Long.toHexString(counter[0]++);
+    }
+
+    /**
+     * @return the trace ID bound to the current thread, or a new one if there is none
+     */
+    public static String currentTraceId() {
+        final String traceId = CURRENT_TRACE_ID.get();
+        return traceId != null ? traceId : newTraceId();
+    }
+
+    /**
+     * @return the trace ID bound to the current thread, or null if there is none
+     */
+    public static String boundTraceId() {
+        return CURRENT_TRACE_ID.get();
+    }
+
+    /**
+     * Binds a trace ID to the current thread until the returned scope is closed, when the previous one, if any, is bound
+     * again.
+     *
+     * @param traceId the trace ID to bind, i.e., one received from an ATM terminal; a new one is made if it is null, blank
+     *                or not a plain token of at most 64 letters, digits, '.', '_', ':' or '-'
+     * @return the scope, to be closed in a finally block or try-with-resources
+     */
+    public static Scope open(final String traceId) {
+        final String previousTraceId = CURRENT_TRACE_ID.get();
+        final String boundTraceId = traceId != null && VALID_TRACE_ID.matcher(traceId).matches() ? traceId : newTraceId();
+        bind(boundTraceId);
+        return new Scope(boundTraceId, previousTraceId);
+    }
+
+    /**
+     * @return the task, running with the trace ID bound to the current thread when it was wrapped
+     */
+    public static <T> Callable<T> wrap(final Callable<T> task) {
+        final String traceId = currentTraceId();
+        return () -> {
+            try (Scope ignored = open(traceId)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * @return the task, running with the trace ID bound to the current thread when it was wrapped
+     */
+    public static Runnable wrap(final Runnable task) {
+        final String traceId = currentTraceId();
+        return () -> {
+            try (Scope ignored = open(traceId)) {
+                task.run();
+            }
+        };
+    }
+
+    private static void bind(final String traceId) {
+        if (traceId != null) {
+            CURRENT_TRACE_ID.set(traceId);
+            MDC.put(LoggerUtils.TRACE_ID_KEY, traceId);
+        } else {
+            CURRENT_TRACE_ID.remove();
+            MDC.remove(LoggerUtils.TRACE_ID_KEY);
+        }
+    }
+
+    /**
+     * A trace ID bound to the current thread, closing it binds the previous one again.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String traceId;
+        private final String previousTraceId;
+
+        private Scope(final String traceId, final String previousTraceId) {
+            this.traceId = traceId;
+            this.previousTraceId = previousTraceId;
+        }
+
+        public String traceId() {
+            return traceId;
+        }
+
+        @Override
+        public void close() {
+            bind(previousTraceId);
+        }
+    }
+}
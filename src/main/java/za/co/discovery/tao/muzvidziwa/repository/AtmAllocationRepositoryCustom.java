@@ -1,13 +1,20 @@
 package za.co.discovery.tao.muzvidziwa.repository;
 
 import jakarta.transaction.Transactional;
-import org.springframework.data.jpa.repository.Modifying;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
 
 import java.util.List;
 
 public interface AtmAllocationRepositoryCustom {
 
+    /**
+     * This method deducts dispensed notes from an ATM's allocation, i.e., COUNT = COUNT - dispensedCount.
+     *
+     * @param atmId   the ID of the ATM the notes were dispensed from
+     * @param updates the number of notes dispensed per denomination
+     * @throws IllegalStateException if the ATM does not hold enough notes of a denomination, no counts are updated (the
+     *                               repository proxy translates it into an InvalidDataAccessApiUsageException)
+     */
     @Transactional
     void updateDenominationCounts(long atmId, List<AtmAllocationUpdateDto> updates);
-}
\ No newline at end of file
+}
@@ -3,14 +3,22 @@ package za.co.discovery.tao.muzvidziwa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
-import org.springframework.data.jpa.repository.Modifying;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 
 @Repository
 public class AtmAllocationRepositoryImpl implements AtmAllocationRepositoryCustom {
+    /* The dispensed notes are deducted from the current count rather than overwriting it with an absolute value,
+     *  the guard on the count makes sure a row is never taken below zero */
+    private static final String UPDATE_DENOMINATION_COUNT = """
+            UPDATE ATM_ALLOCATION aa
+            SET aa.COUNT = aa.COUNT - ?
+            WHERE aa.ATM_ID = ? AND aa.DENOMINATION_ID = ? AND aa.COUNT >= ?
+            """;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -18,18 +26,32 @@ public class AtmAllocationRepositoryImpl implements AtmAllocationRepositoryCusto
     @Transactional
     @Override
     public void updateDenominationCounts(long atmId, List<AtmAllocationUpdateDto> updates) {
-        for (AtmAllocationUpdateDto update : updates) {
-            entityManager.createNativeQuery(
-                            "UPDATE ATM_ALLOCATION aa " +
-                                    "SET aa.COUNT = :count " +
-                                    "WHERE aa.ATM_ID = :atmId AND aa.DENOMINATION_ID = :denominationId"
-                    )
-                    .setParameter("count", update.getBalanceCount())
-                    .setParameter("atmId", atmId)
-                    .setParameter("denominationId", update.getDenominationId())
-                    .executeUpdate();
-            entityManager.flush();
+        if (updates.isEmpty()) {
+            return;
         }
 
+        // Pending entity changes are written once, ahead of the batch, so the batch sees the same state a query would
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_DENOMINATION_COUNT)) {
+                for (AtmAllocationUpdateDto update : updates) {
+                    statement.setInt(1, update.getDispensedCount());
+                    statement.setLong(2, atmId);
+                    statement.setLong(3, update.getDenominationId());
+                    statement.setInt(4, update.getDispensedCount());
+                    statement.addBatch();
+                }
+
+                // All the denominations of the ATM are updated in a single round trip, a row the guard rejected rolls
+                // back the whole batch with the transaction
+                final int[] updatedRows = statement.executeBatch();
+                for (int i = 0; i < updatedRows.length; i++) {
+                    if (updatedRows[i] == 0) {
+                        throw new IllegalStateException("ATM ID " + atmId + " does not hold " + updates.get(i).getDispensedCount()
+                                + " notes of denomination ID " + updates.get(i).getDenominationId());
+                    }
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
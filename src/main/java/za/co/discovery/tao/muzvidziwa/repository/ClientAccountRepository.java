@@ -1,19 +1,19 @@
 package za.co.discovery.tao.muzvidziwa.repository;
 
-import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientAccount;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientAccountRepository extends JpaRepository<ClientAccount, Long> {
+public interface ClientAccountRepository extends JpaRepository<ClientAccount, Long>, ClientAccountRepositoryCustom {
     /**
      * This method retrieves all client accounts for a given client ID that are transactional.
      *
@@ -31,62 +31,108 @@ public interface ClientAccountRepository extends JpaRepository<ClientAccount, Lo
     Optional<List<ClientAccount>> findTransactionalClientAccountsByClientId(@Param("clientId") final long clientId);
 
     /**
-     * This method retrieves all client accounts for a given client ID and account type.
+     * This method retrieves a client's details and account balances in a single query, including the credit card limit of
+     * credit card accounts.
+     * <p>
+     * The reference tables are not joined: the client's sub type and the account type codes are returned as read, so the
+     * caller resolves the client type, the transactional flag and the description of each account type through the
+     * {@code ReferenceDataRegistry}.
+     *
+     * @param clientId the ID of the client for whom to retrieve the balances
+     * @return a list of {@link ClientAccountBalanceProjection} rows, one per account, a single row without account details if
+     * the client has no accounts, or empty if the client was not found
+     * */
+    @Query(value = """
+            select c.CLIENT_ID as clientId,
+                   c.TITLE as title,
+                   c.NAME as name,
+                   c.SURNAME as surname,
+                   c.CLIENT_SUB_TYPE_CODE as clientSubTypeCode,
+                   ca.CLIENT_ACCOUNT_NUMBER as clientAccountNumber,
+                   ca.ACCOUNT_TYPE_CODE as accountTypeCode,
+                   ca.CURRENCY_CODE as currencyCode,
+                   ca.DISPLAY_BALANCE as displayBalance,
+                   ccl.ACCOUNT_LIMIT as creditCardLimit
+            from CLIENT c
+            left join CLIENT_ACCOUNT ca on ca.CLIENT_ID = c.CLIENT_ID
+            left join CREDIT_CARD_LIMIT ccl on ccl.CLIENT_ACCOUNT_NUMBER = ca.CLIENT_ACCOUNT_NUMBER
+                and ca.ACCOUNT_TYPE_CODE = 'CCRD'
+            where c.CLIENT_ID = :clientId
+            """, nativeQuery = true)
+    List<ClientAccountBalanceProjection> findClientAccountBalancesByClientId(@Param("clientId") final long clientId);
+
+    /**
+     * This method retrieves the details and account balances of many clients in a single query, the rows of
+     * {@link #findClientAccountBalancesByClientId(long)} for each of the clients.
+     *
+     * @param clientIds the IDs of the clients for whom to retrieve the balances, as many as the bulk balance enquiry reads per query
+     * @return a list of {@link ClientAccountBalanceProjection} rows, one per account, a single row without account details for a
+     * client that has no accounts, and no rows for a client that was not found
+     * */
+    @Query(value = """
+            select c.CLIENT_ID as clientId,
+                   c.TITLE as title,
+                   c.NAME as name,
+                   c.SURNAME as surname,
+                   c.CLIENT_SUB_TYPE_CODE as clientSubTypeCode,
+                   ca.CLIENT_ACCOUNT_NUMBER as clientAccountNumber,
+                   ca.ACCOUNT_TYPE_CODE as accountTypeCode,
+                   ca.CURRENCY_CODE as currencyCode,
+                   ca.DISPLAY_BALANCE as displayBalance,
+                   ccl.ACCOUNT_LIMIT as creditCardLimit
+            from CLIENT c
+            left join CLIENT_ACCOUNT ca on ca.CLIENT_ID = c.CLIENT_ID
+            left join CREDIT_CARD_LIMIT ccl on ccl.CLIENT_ACCOUNT_NUMBER = ca.CLIENT_ACCOUNT_NUMBER
+                and ca.ACCOUNT_TYPE_CODE = 'CCRD'
+            where c.CLIENT_ID in (:clientIds)
+            """, nativeQuery = true)
+    List<ClientAccountBalanceProjection> findClientAccountBalancesByClientIds(@Param("clientIds") final Collection<Integer> clientIds);
+
+    /**
+     * This method retrieves all client accounts for a given client ID and account type. The client's type is not checked,
+     * the caller looks the client up first.
      *
      * @param clientId the ID of the client for whom to retrieve accounts
      * @param accountType the type of account to filter by
      * @return an Optional containing a list of ClientAccount entities if found, or empty if none exist
      * */
     @Query(value = """
-            select ca.* 
+            select ca.*
             from CLIENT_ACCOUNT ca
-            join CLIENT c on ca.CLIENT_ID = c.CLIENT_ID
-            join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
-            join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
-            join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE
-            where c.CLIENT_ID = :clientId
-              and at.ACCOUNT_TYPE_CODE = :accountType
-              and ct.CLIENT_TYPE_CODE IN ('I', 'N')
+            where ca.CLIENT_ID = :clientId
+              and ca.ACCOUNT_TYPE_CODE = :accountType
             """, nativeQuery = true)
     Optional<List<ClientAccount>> findClientAccountsByClientIdAndAccountType(@Param("clientId") final long clientId, @Param("accountType") final String accountType);
 
     /**
-     * This method retrieves a transactional client account for a given client ID and account number.
+     * This method retrieves a client account for a given client ID and account number. Neither the client's type nor
+     * whether the account is transactional is checked, the caller resolves both through the {@code ReferenceDataRegistry}.
      *
      * @param clientId the ID of the client for whom to retrieve account
      * @param accountNumber the account number to retrieve
      * @return an Optional containing a single ClientAccount entity if found, or empty if ond does not exist
      * */
     @Query(value = """
-            select ca.* 
+            select ca.*
             from CLIENT_ACCOUNT ca
-            join CLIENT c on ca.CLIENT_ID = c.CLIENT_ID
-            join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
-            join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
-            join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE                                 
-            where c.CLIENT_ID = :clientId
+            where ca.CLIENT_ID = :clientId
               and ca.CLIENT_ACCOUNT_NUMBER = :accountNumber
-              and ct.CLIENT_TYPE_CODE IN ('I', 'N')
-              and at.TRANSACTIONAL = true
             """, nativeQuery = true)
     Optional<ClientAccount> findClientAccountByClientIdAndAccountNumber(@Param("clientId") final long clientId, @Param("accountNumber") final String accountNumber);
 
     /**
-     * This method updates the display balance of a client account identified by its account number.
+     * This method retrieves the current display balance of a client account, e.g., to show the balance a guarded debit
+     * found insufficient rather than the balance read before it.
      *
-     * @param clientAccountNumber the account number of the client account to update
-     * @param displayBalance the new display balance to set
-     * @return the number of rows affected by the update operation, which should be 1 if the update was successful
-     */
-    @Transactional
-    @Modifying
+     * @param clientId the ID of the client who owns the account
+     * @param accountNumber the account number of the account
+     * @return an Optional containing the display balance, or empty if the account does not exist
+     * */
     @Query(value = """
-            update CLIENT_ACCOUNT ca
-            set ca.DISPLAY_BALANCE = :displayBalance
-            where ca.CLIENT_ACCOUNT_NUMBER = :clientAccountNumber
-                and ca.CLIENT_ID = :clientId
+            select ca.DISPLAY_BALANCE
+            from CLIENT_ACCOUNT ca
+            where ca.CLIENT_ID = :clientId
+              and ca.CLIENT_ACCOUNT_NUMBER = :accountNumber
             """, nativeQuery = true)
-    void updateClientAccountByAccountNumber(@Param("clientId") final long clientId,
-                                           @Param("clientAccountNumber") final String clientAccountNumber,
-                                           @Param("displayBalance") final BigDecimal displayBalance);
+    Optional<BigDecimal> findDisplayBalanceByClientIdAndAccountNumber(@Param("clientId") final long clientId, @Param("accountNumber") final String accountNumber);
 }
@@ -0,0 +1,25 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import jakarta.transaction.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface ClientAccountRepositoryCustom {
+
+    /**
+     * This method debits the display balance of a client account identified by its account number, provided the display
+     * balance and overdraft facility cover the amount. The funds check and the debit are a single statement, so concurrent
+     * withdrawals on the same account can not overdraw it. The client's position is moved by the amount debited in the
+     * same transaction. The balance after the debit is read from the debited row, so it is the balance this debit left
+     * even when other withdrawals on the account run at the same time.
+     *
+     * @param clientId            the ID of the client who owns the account
+     * @param clientAccountNumber the account number of the client account to debit
+     * @param amount              the amount to debit
+     * @param overdraftLimit      the overdraft facility of the account, zero if it has none
+     * @return the display balance after the debit, or empty if the account was not found or has insufficient funds
+     */
+    @Transactional
+    Optional<BigDecimal> debitClientAccountByAccountNumber(long clientId, String clientAccountNumber, BigDecimal amount, BigDecimal overdraftLimit);
+}
@@ -0,0 +1,60 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class ClientAccountRepositoryImpl implements ClientAccountRepositoryCustom {
+    // The balance the debit left is read from the updated row, not from a separate select a concurrent debit could get in before
+    private static final String DEBIT_DISPLAY_BALANCE = """
+            select DISPLAY_BALANCE
+            from final table (
+                update CLIENT_ACCOUNT ca
+                set ca.DISPLAY_BALANCE = ca.DISPLAY_BALANCE - :amount
+                where ca.CLIENT_ACCOUNT_NUMBER = :clientAccountNumber
+                    and ca.CLIENT_ID = :clientId
+                    and ca.DISPLAY_BALANCE + :overdraftLimit >= :amount
+            )
+            """;
+
+    private final ClientPositionRepository clientPositionRepository;
+    // The cheque accounts' overdraft limit the positions are summed with, the limit withdrawals are checked against
+    private final BigDecimal overdraftLimit;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ClientAccountRepositoryImpl(final ClientPositionRepository clientPositionRepository,
+                                       @Value("${application-config.overdraft-limit}") final BigDecimal overdraftLimit) {
+        this.clientPositionRepository = clientPositionRepository;
+        this.overdraftLimit = overdraftLimit;
+    }
+
+    @Transactional
+    @Override
+    public Optional<BigDecimal> debitClientAccountByAccountNumber(final long clientId, final String clientAccountNumber, final BigDecimal amount, final BigDecimal overdraftLimit) {
+        final List<?> debitedBalances = entityManager.createNativeQuery(DEBIT_DISPLAY_BALANCE, BigDecimal.class)
+                .setParameter("amount", amount)
+                .setParameter("clientAccountNumber", clientAccountNumber)
+                .setParameter("clientId", clientId)
+                .setParameter("overdraftLimit", overdraftLimit)
+                .getResultList();
+        if (debitedBalances.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // A client without a position yet has it summed from the client's accounts, which already include the debit
+        if (clientPositionRepository.applyTransactionalBalanceChange(clientId, clientAccountNumber, amount.negate()) == 0
+                && !clientPositionRepository.existsById((int) clientId)) {
+            clientPositionRepository.recalculateClientPositions((int) clientId, (int) clientId, this.overdraftLimit);
+        }
+        return Optional.of((BigDecimal) debitedBalances.get(0));
+    }
+}
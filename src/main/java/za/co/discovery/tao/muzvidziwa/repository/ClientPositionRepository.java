@@ -0,0 +1,123 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientPosition;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientPositionProjection;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+@Repository
+public interface ClientPositionRepository extends JpaRepository<ClientPosition, Integer>, ClientPositionRepositoryCustom {
+    /* Sums the positions of the selected clients from all their accounts, the same sums the month-end report made before
+     *  the positions were kept, with the configured overdraft limit in place of the report's fixed one: the statements
+     *  below add the client filter and close the subquery */
+    String RECALCULATE_CLIENT_POSITIONS = """
+            merge into CLIENT_POSITION key (CLIENT_ID)
+            select p.CLIENT_ID,
+                   p.LOAN_BALANCE,
+                   p.TRANSACTIONAL_BALANCE,
+                   p.LOAN_BALANCE + p.FOREIGN_CURRENCY_BALANCE + p.TRANSACTIONAL_BALANCE
+            from (select c.CLIENT_ID,
+                         coalesce(sum(case
+                                          when ca.ACCOUNT_TYPE_CODE in ('PLOAN', 'HLOAN') then ca.DISPLAY_BALANCE
+                                          else 0
+                                      end), 0) as LOAN_BALANCE,
+                         coalesce(sum(case
+                                          when at.TRANSACTIONAL = true and ca.ACCOUNT_TYPE_CODE = 'CHQ' then ca.DISPLAY_BALANCE + :overdraftLimit
+                                          when at.TRANSACTIONAL = true and ca.ACCOUNT_TYPE_CODE = 'SVGS' then ca.DISPLAY_BALANCE
+                                          when at.TRANSACTIONAL = true and ca.ACCOUNT_TYPE_CODE = 'CCRD' then ca.DISPLAY_BALANCE - coalesce(ccl.ACCOUNT_LIMIT, 0)
+                                          else 0
+                                      end), 0) as TRANSACTIONAL_BALANCE,
+                         coalesce(sum(case
+                                          when ca.ACCOUNT_TYPE_CODE = 'CFCA' then case
+                                              when ccr.CONVERSION_INDICATOR = '*' then ca.DISPLAY_BALANCE * ccr.RATE
+                                              when ccr.CONVERSION_INDICATOR = '/' then ca.DISPLAY_BALANCE / ccr.RATE
+                                              else ca.DISPLAY_BALANCE
+                                          end
+                                          else 0
+                                      end), 0) as FOREIGN_CURRENCY_BALANCE
+                  from CLIENT c
+                  left join CLIENT_ACCOUNT ca on ca.CLIENT_ID = c.CLIENT_ID
+                  left join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+                  left join CURRENCY_CONVERSION_RATE ccr on ca.CURRENCY_CODE = ccr.CURRENCY_CODE
+                  left join CREDIT_CARD_LIMIT ccl on ca.CLIENT_ACCOUNT_NUMBER = ccl.CLIENT_ACCOUNT_NUMBER
+            """;
+    String GROUP_BY_CLIENT = """
+                  group by c.CLIENT_ID) p
+            """;
+
+    /**
+     * This method retrieves a client's details and financial position in a single query. The client's type is not checked,
+     * the caller resolves it from the client's sub type through the {@code ReferenceDataRegistry}.
+     *
+     * @param clientId the ID of the client whose position to retrieve
+     * @return an Optional containing the client's position, or empty if the client was not found
+     */
+    @Query(value = """
+            select c.CLIENT_ID as clientId,
+                   c.TITLE as title,
+                   c.NAME as name,
+                   c.SURNAME as surname,
+                   c.CLIENT_SUB_TYPE_CODE as clientSubTypeCode,
+                   cp.LOAN_BALANCE as loanBalance,
+                   cp.TRANSACTIONAL_BALANCE as transactionalBalance,
+                   cp.NET_POSITION as netPosition
+            from CLIENT c
+            join CLIENT_POSITION cp on cp.CLIENT_ID = c.CLIENT_ID
+            where c.CLIENT_ID = :clientId
+            """, nativeQuery = true)
+    Optional<ClientPositionProjection> findClientPositionByClientId(@Param("clientId") final int clientId);
+
+    /**
+     * This method works out the positions of a range of clients from all their accounts, creating the positions of
+     * clients that have none.
+     *
+     * @param fromClientId   the first client ID of the range
+     * @param toClientId     the last client ID of the range
+     * @param overdraftLimit the overdraft limit of cheque accounts, {@code application-config.overdraft-limit}
+     * @return the number of positions written
+     */
+    @Transactional
+    @Modifying
+    @Query(value = RECALCULATE_CLIENT_POSITIONS + """
+                  where c.CLIENT_ID between :fromClientId and :toClientId
+            """ + GROUP_BY_CLIENT, nativeQuery = true)
+    int recalculateClientPositions(@Param("fromClientId") final int fromClientId, @Param("toClientId") final int toClientId,
+                                   @Param("overdraftLimit") final BigDecimal overdraftLimit);
+
+    /**
+     * This method moves a client's transactional balance and net position by the change in the balance of one of the
+     * client's accounts. Only cheque, savings and credit card accounts count towards the transactional balance, the
+     * position is left as is for any other account.
+     *
+     * @param clientId            the ID of the client who owns the account
+     * @param clientAccountNumber the account number of the account whose balance changed
+     * @param amount              the change in the balance, negative for a debit
+     * @return the number of positions updated, 0 if the account does not count towards the transactional balance or the
+     * client has no position
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update CLIENT_POSITION cp
+            set cp.TRANSACTIONAL_BALANCE = cp.TRANSACTIONAL_BALANCE + :amount,
+                cp.NET_POSITION = cp.NET_POSITION + :amount
+            where cp.CLIENT_ID = :clientId
+              and exists (select 1
+                          from CLIENT_ACCOUNT ca
+                          join ACCOUNT_TYPE at on ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+                          where ca.CLIENT_ACCOUNT_NUMBER = :clientAccountNumber
+                            and ca.CLIENT_ID = :clientId
+                            and at.TRANSACTIONAL = true
+                            and ca.ACCOUNT_TYPE_CODE in ('CHQ', 'SVGS', 'CCRD'))
+            """, nativeQuery = true)
+    int applyTransactionalBalanceChange(@Param("clientId") final long clientId,
+                                        @Param("clientAccountNumber") final String clientAccountNumber,
+                                        @Param("amount") final BigDecimal amount);
+}
@@ -0,0 +1,21 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import jakarta.transaction.Transactional;
+
+import java.math.BigDecimal;
+
+public interface ClientPositionRepositoryCustom {
+
+    /**
+     * This method works out the positions of the clients holding a foreign currency account in the given currency,
+     * after the currency's conversion rate changed. The positions are locked before the accounts are summed, so a debit
+     * that moves one of the positions either lands before the accounts are read or waits for the new totals and moves
+     * them, it is never overwritten.
+     *
+     * @param currencyCode   the currency code of the conversion rate that changed
+     * @param overdraftLimit the overdraft limit of cheque accounts, {@code application-config.overdraft-limit}
+     * @return the number of positions written
+     */
+    @Transactional
+    int recalculateClientPositionsByCurrencyCode(String currencyCode, BigDecimal overdraftLimit);
+}
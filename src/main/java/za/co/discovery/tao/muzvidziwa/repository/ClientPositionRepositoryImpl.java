@@ -0,0 +1,49 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public class ClientPositionRepositoryImpl implements ClientPositionRepositoryCustom {
+    private static final String CLIENTS_HOLDING_CURRENCY = """
+            select fca.CLIENT_ID
+            from CLIENT_ACCOUNT fca
+            where fca.ACCOUNT_TYPE_CODE = 'CFCA'
+              and fca.CURRENCY_CODE = :currencyCode
+            """;
+    /* A debit moves the position after debiting the account, in the same transaction: holding the position locks while
+     *  the accounts are summed keeps a debit from committing between the sums being read and the totals being written.
+     *  The rows are locked in client order, so two recalculations can not deadlock on each other */
+    private static final String LOCK_CLIENT_POSITIONS = """
+            select cp.CLIENT_ID
+            from CLIENT_POSITION cp
+            where cp.CLIENT_ID in (""" + CLIENTS_HOLDING_CURRENCY + """
+            )
+            order by cp.CLIENT_ID
+            for update
+            """;
+    private static final String RECALCULATE_CLIENT_POSITIONS_BY_CURRENCY_CODE = ClientPositionRepository.RECALCULATE_CLIENT_POSITIONS + """
+                  where c.CLIENT_ID in (""" + CLIENTS_HOLDING_CURRENCY + """
+                  )
+            """ + ClientPositionRepository.GROUP_BY_CLIENT;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    @Override
+    public int recalculateClientPositionsByCurrencyCode(final String currencyCode, final BigDecimal overdraftLimit) {
+        entityManager.createNativeQuery(LOCK_CLIENT_POSITIONS)
+                .setParameter("currencyCode", currencyCode)
+                .getResultList();
+
+        return entityManager.createNativeQuery(RECALCULATE_CLIENT_POSITIONS_BY_CURRENCY_CODE)
+                .setParameter("currencyCode", currencyCode)
+                .setParameter("overdraftLimit", overdraftLimit)
+                .executeUpdate();
+    }
+}
@@ -11,18 +11,16 @@ import java.util.Optional;
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     /**
-     * Finds a client by their client ID.
+     * Finds a client by their client ID. The client's type is not checked, the caller resolves it from the client's sub
+     * type through the {@code ReferenceDataRegistry}.
      *
      * @param clientId the client ID to search for
      * @return an Optional containing the Client if found, or empty if not found
      */
     @Query(value = """
-            select c.* 
-            from CLIENT c 
-                join CLIENT_SUB_TYPE cst on c.CLIENT_SUB_TYPE_CODE = cst.CLIENT_SUB_TYPE_CODE
-                join CLIENT_TYPE ct on cst.CLIENT_TYPE_CODE = ct.CLIENT_TYPE_CODE
-            where c.CLIENT_ID  = :clientId 
-                        and ct.CLIENT_TYPE_CODE IN ('I', 'N')
+            select c.*
+            from CLIENT c
+            where c.CLIENT_ID = :clientId
             """, nativeQuery = true)
     Optional<Client> findByClientId(@Param("clientId") int clientId);
 }
@@ -7,14 +7,16 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.client.RestTemplate;
+import za.co.discovery.tao.muzvidziwa.domain.constant.StatusCodeReason;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Atm;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
 import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
 import za.co.discovery.tao.muzvidziwa.repository.AtmRepository;
+import za.co.discovery.tao.muzvidziwa.web.gateway.BankGateway;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,24 +24,20 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AtmWebController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final BankGateway bankGateway;
     private final AtmRepository atmRepository;
 
     @GetMapping("/transactionalBalances")
     public String showBalances(@RequestParam(value = "clientId", required = false) Integer clientId, Model model) {
         if (clientId != null) {
             try {
-                String apiUrl = "http://localhost:8080/discovery-atm/queryTransactionalBalances?clientId=" + clientId;
-                AtmResponse response = restTemplate.getForObject(apiUrl, AtmResponse.class);
-                if (response != null && response.getAccounts() != null && !response.getAccounts().isEmpty()) {
-                    model.addAttribute("client", response.getClient());
-                    model.addAttribute("accounts", response.getAccounts());
+                AtmResponse response = bankGateway.getTransactionalBalances(clientId);
+                if (response != null && response.accounts() != null && !response.accounts().isEmpty()) {
+                    model.addAttribute("client", response.client());
+                    model.addAttribute("accounts", response.accounts());
                 } else {
-                    final ClientDto clientDto = new ClientDto();
-                    clientDto.setId(GeneralUtils.parseIntToLong(clientId));
-
-                    final ResultDto resultDto = new ResultDto();
-                    resultDto.setStatusReason("No accounts to display");
+                    final ClientDto clientDto = new ClientDto(GeneralUtils.parseIntToLong(clientId), null, null, null);
+                    final ResultDto resultDto = new ResultDto(false, 0, "No accounts to display");
 
                     model.addAttribute("client", clientDto);
                     model.addAttribute("accounts", "no-data");
@@ -56,17 +54,13 @@ public class AtmWebController {
     public String showForexBalances(@RequestParam(value = "clientId", required = false) Integer clientId, Model model) {
         if (clientId != null) {
             try {
-                String apiUrl = "http://localhost:8080/discovery-atm/queryCcyBalances?clientId=" + clientId;
-                AtmResponse response = restTemplate.getForObject(apiUrl, AtmResponse.class);
-                if (response != null && response.getAccounts() != null && !response.getAccounts().isEmpty()) {
-                    model.addAttribute("client", response.getClient());
-                    model.addAttribute("accounts", response.getAccounts());
+                AtmResponse response = bankGateway.getForexBalances(clientId);
+                if (response != null && response.accounts() != null && !response.accounts().isEmpty()) {
+                    model.addAttribute("client", response.client());
+                    model.addAttribute("accounts", response.accounts());
                 } else {
-                    final ClientDto clientDto = new ClientDto();
-                    clientDto.setId(GeneralUtils.parseIntToLong(clientId));
-
-                    final ResultDto resultDto = new ResultDto();
-                    resultDto.setStatusReason("No accounts to display");
+                    final ClientDto clientDto = new ClientDto(GeneralUtils.parseIntToLong(clientId), null, null, null);
+                    final ResultDto resultDto = new ResultDto(false, 0, "No accounts to display");
 
                     model.addAttribute("client", clientDto);
                     model.addAttribute("accounts", "no-data");
@@ -83,11 +77,10 @@ public class AtmWebController {
     public String showClientLandingPage(@RequestParam(value = "clientId", required = false) Integer clientId, Model model) {
         if (clientId != null) {
             try {
-                String apiUrl = "http://localhost:8080/discovery-atm/queryTransactionalBalances?clientId=" + clientId;
-                AtmResponse response = restTemplate.getForObject(apiUrl, AtmResponse.class);
-                if (response != null && response.getAccounts() != null && !response.getAccounts().isEmpty()) {
-                    model.addAttribute("client", response.getClient());
-                    model.addAttribute("accounts", response.getAccounts());
+                AtmResponse response = bankGateway.getTransactionalBalances(clientId);
+                if (response != null && response.accounts() != null && !response.accounts().isEmpty()) {
+                    model.addAttribute("client", response.client());
+                    model.addAttribute("accounts", response.accounts());
                 } else {
                     model.addAttribute("accounts", null);
                 }
@@ -102,11 +95,10 @@ public class AtmWebController {
     public String showWithdrawalAccountPage(@RequestParam(value = "clientId", required = false) Integer clientId, Model model) {
         if (clientId != null) {
             try {
-                String apiUrl = "http://localhost:8080/discovery-atm/queryTransactionalBalances?clientId=" + clientId;
-                AtmResponse response = restTemplate.getForObject(apiUrl, AtmResponse.class);
-                if (response != null && response.getAccounts() != null && !response.getAccounts().isEmpty()) {
-                    model.addAttribute("client", response.getClient());
-                    model.addAttribute("accounts", response.getAccounts());
+                AtmResponse response = bankGateway.getTransactionalBalances(clientId);
+                if (response != null && response.accounts() != null && !response.accounts().isEmpty()) {
+                    model.addAttribute("client", response.client());
+                    model.addAttribute("accounts", response.accounts());
                 } else {
                     model.addAttribute("accounts", null);
                 }
@@ -150,15 +142,15 @@ public class AtmWebController {
                                     Model model) {
         // This method processes the withdrawal request and returns the result to the user.
         try {
-            String apiUrl = "http://localhost:8080/discovery-atm/withdraw?clientId=" + clientId +
-                    "&atmId=" + atmId +
-                    "&accountNumber=" + accountNumber +
-                    "&requiredAmount=" + requiredAmount;
-            AtmResponse response = restTemplate.postForObject(apiUrl, null, AtmResponse.class);
-            if (response != null && response.getResult() != null) {
-                model.addAttribute("client", response.getClient());
-                model.addAttribute("account", response.getAccount());
-                model.addAttribute("result", response.getResult());
+            final BigDecimal withdrawalAmount = GeneralUtils.parseBigDecimal(requiredAmount);
+            if (withdrawalAmount == null) {
+                throw new IllegalArgumentException(StatusCodeReason.INVALID_WITHDRAWAL_AMOUNT_SCR.statusReason);
+            }
+            AtmResponse response = bankGateway.postWithdrawal(clientId, atmId, accountNumber, withdrawalAmount);
+            if (response != null && response.result() != null) {
+                model.addAttribute("client", response.client());
+                model.addAttribute("account", response.account());
+                model.addAttribute("result", response.result());
             } else {
                 model.addAttribute("result", null);
             }
@@ -1,13 +1,42 @@
 package za.co.discovery.tao.muzvidziwa.web.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
+    /**
+     * The {@link RestTemplate} used to call the bank REST API remotely. The JDK {@link HttpClient} keeps a pool of
+     * keep-alive connections, so calls do not open a new connection each time.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(final RestTemplateBuilder restTemplateBuilder,
+                                     @Value("${application-config.web-gateway.base-url}") final String baseUrl) {
+        final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        final JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(30));
+
+        // The paths start with a '/', a trailing '/' on the base URL would double it up
+        return restTemplateBuilder
+                .rootUri(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl)
+                .requestFactory(() -> requestFactory)
+                // The page request's trace ID carries on into the API request
+                .additionalInterceptors((request, body, execution) -> {
+                    request.getHeaders().set(TraceContext.TRACE_ID_HEADER, TraceContext.currentTraceId());
+                    return execution.execute(request, body);
+                })
+                .build();
     }
 }
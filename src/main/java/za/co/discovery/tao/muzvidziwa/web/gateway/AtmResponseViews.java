@@ -0,0 +1,78 @@
+package za.co.discovery.tao.muzvidziwa.web.gateway;
+
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class builds the {@link AtmResponse} of a JSON view ({@link za.co.discovery.tao.muzvidziwa.domain.model.response.views.View})
+ * from a full response, i.e., the response a REST client would read back, without writing and parsing the JSON. The
+ * responses are immutable, so the client, the result and the denominations are shared with the full response, only the
+ * accounts are built again without the balance the view leaves out.
+ * <p>
+ * The fields kept per view must follow the {@code @JsonView} annotations on the response classes.
+ */
+final class AtmResponseViews {
+
+    private AtmResponseViews() {
+    }
+
+    static AtmResponse toTransactionalView(final AtmResponse atmResponse) {
+        return toBalanceView(atmResponse, false);
+    }
+
+    static AtmResponse toCurrencyView(final AtmResponse atmResponse) {
+        return toBalanceView(atmResponse, true);
+    }
+
+    static AtmResponse toWithdrawalView(final AtmResponse atmResponse) {
+        return AtmResponse.builder()
+                .client(atmResponse.client())
+                .account(toAccountView(atmResponse.account(), false))
+                .denomination(atmResponse.denomination())
+                .result(atmResponse.result())
+                .build();
+    }
+
+    private static AtmResponse toBalanceView(final AtmResponse atmResponse, final boolean currencyView) {
+        if (atmResponse == null) {
+            return null;
+        }
+
+        List<AccountDto> viewAccountDtos = null;
+        if (atmResponse.accounts() != null) {
+            final List<AccountDto> accountDtos = new ArrayList<>(atmResponse.accounts().size());
+            for (AccountDto accountDto : atmResponse.accounts()) {
+                accountDtos.add(toAccountView(accountDto, currencyView));
+            }
+            viewAccountDtos = Collections.unmodifiableList(accountDtos);
+        }
+        return AtmResponse.builder()
+                .client(atmResponse.client())
+                .accounts(viewAccountDtos)
+                .result(atmResponse.result())
+                .build();
+    }
+
+    private static AccountDto toAccountView(final AccountDto accountDto, final boolean currencyView) {
+        if (accountDto == null) {
+            return null;
+        }
+
+        // balance is only in the Transactional and Withdrawal views, ccyBalance only in the Currency view
+        return AccountDto.builder()
+                .accountNumber(accountDto.accountNumber())
+                .typeCode(accountDto.typeCode())
+                .accountTypeDescription(accountDto.accountTypeDescription())
+                .currencyCode(accountDto.currencyCode())
+                .conversionRate(accountDto.conversionRate())
+                .balance(currencyView ? null : accountDto.balance())
+                .ccyBalance(currencyView ? accountDto.ccyBalance() : null)
+                .zarBalance(accountDto.zarBalance())
+                .accountLimit(accountDto.accountLimit())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package za.co.discovery.tao.muzvidziwa.web.gateway;
+
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * This interface is how the ATM web pages reach the bank API.
+ * <p>
+ * Each method returns the {@link AtmResponse} exactly as a client of the matching REST endpoint would see it, i.e., only
+ * the fields of the endpoint's JSON view are populated. A request the API rejects (HTTP 400 or 500) surfaces as an exception.
+ * <p>
+ * The implementation is chosen with {@code application-config.web-gateway.mode}: {@code in-process} (the default) calls
+ * the {@link za.co.discovery.tao.muzvidziwa.domain.service.BankService} directly, {@code remote} calls the REST API over HTTP.
+ */
+public interface BankGateway {
+    AtmResponse getTransactionalBalances(Integer clientId) throws Exception;
+
+    AtmResponse getForexBalances(Integer clientId) throws Exception;
+
+    AtmResponse postWithdrawal(Integer clientId, Integer atmId, String accountNumber, BigDecimal requiredAmount) throws Exception;
+}
@@ -0,0 +1,49 @@
+package za.co.discovery.tao.muzvidziwa.web.gateway;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.service.BankService;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.math.BigDecimal;
+
+/**
+ * This class calls the {@link BankService} directly, so a page view costs no HTTP round trip or second request thread.
+ * The balances are read from the {@link BalanceResponseCache} the REST API serves them from, so the repeat balance pages
+ * of a session cost no database queries. The cache holds the responses themselves besides their JSON, so no JSON is
+ * written or parsed here, each response is copied trimmed to the endpoint's JSON view. The pages see what the REST API
+ * returns.
+ */
+@Component
+@ConditionalOnProperty(name = "application-config.web-gateway.mode", havingValue = "in-process", matchIfMissing = true)
+public class InProcessBankGateway implements BankGateway {
+    private final BankService bankService;
+    private final BalanceResponseCache balanceResponseCache;
+
+    public InProcessBankGateway(final BankService bankService, final BalanceResponseCache balanceResponseCache) {
+        this.bankService = bankService;
+        this.balanceResponseCache = balanceResponseCache;
+    }
+
+    @Override
+    public AtmResponse getTransactionalBalances(final Integer clientId) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
+        return AtmResponseViews.toTransactionalView(balanceResponseCache.getOrLoadResponse(clientId, BalanceView.TRANSACTIONAL,
+                () -> bankService.getTransactionalClientAccountBalances(clientId), traceId));
+    }
+
+    @Override
+    public AtmResponse getForexBalances(final Integer clientId) throws Exception {
+        final String traceId = TraceContext.currentTraceId();
+        return AtmResponseViews.toCurrencyView(balanceResponseCache.getOrLoadResponse(clientId, BalanceView.CURRENCY,
+                () -> bankService.getForexAccountBalances(clientId), traceId));
+    }
+
+    @Override
+    public AtmResponse postWithdrawal(final Integer clientId, final Integer atmId, final String accountNumber, final BigDecimal requiredAmount) throws Exception {
+        return AtmResponseViews.toWithdrawalView(bankService.postWithdrawal(clientId, atmId, accountNumber, requiredAmount));
+    }
+}
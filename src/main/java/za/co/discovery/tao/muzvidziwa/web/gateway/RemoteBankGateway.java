@@ -0,0 +1,41 @@
+package za.co.discovery.tao.muzvidziwa.web.gateway;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+
+import java.math.BigDecimal;
+
+import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.GET_FOREX_ACCOUNT_BALANCE_URL;
+import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.GET_TRANSACTIONAL_ACCOUNT_BALANCE_URL;
+import static za.co.discovery.tao.muzvidziwa.api.constant.UriConstants.POST_WITHDRAWAL_URL;
+
+/**
+ * This class calls the bank REST API over HTTP, i.e., for when the web pages and the API are deployed separately.
+ * The {@link RestTemplate} (see {@link za.co.discovery.tao.muzvidziwa.web.config.RestTemplateConfig}) reuses pooled
+ * connections and resolves the paths against {@code application-config.web-gateway.base-url}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application-config.web-gateway.mode", havingValue = "remote")
+public class RemoteBankGateway implements BankGateway {
+    private final RestTemplate restTemplate;
+
+    @Override
+    public AtmResponse getTransactionalBalances(final Integer clientId) {
+        return restTemplate.getForObject(GET_TRANSACTIONAL_ACCOUNT_BALANCE_URL + "?clientId={clientId}", AtmResponse.class, clientId);
+    }
+
+    @Override
+    public AtmResponse getForexBalances(final Integer clientId) {
+        return restTemplate.getForObject(GET_FOREX_ACCOUNT_BALANCE_URL + "?clientId={clientId}", AtmResponse.class, clientId);
+    }
+
+    @Override
+    public AtmResponse postWithdrawal(final Integer clientId, final Integer atmId, final String accountNumber, final BigDecimal requiredAmount) {
+        return restTemplate.postForObject(POST_WITHDRAWAL_URL + "?clientId={clientId}&atmId={atmId}&accountNumber={accountNumber}&requiredAmount={requiredAmount}",
+                null, AtmResponse.class, clientId, atmId, accountNumber, requiredAmount);
+    }
+}
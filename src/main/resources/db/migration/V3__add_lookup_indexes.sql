@@ -0,0 +1,27 @@
+/***************************************************************************************
+ *  CLIENT ACCOUNT                                                                     *
+ *  Every balance and account lookup starts from the client and narrows on the account *
+ *  type. H2 backs the CLIENT_ID foreign key with an index of its own, databases that  *
+ *  do not index foreign keys rely on this one. Lookups by account number are served   *
+ *  by the primary key, the balance is left out as it changes on every withdrawal.     *
+ ***************************************************************************************/
+
+CREATE INDEX IX_CLIENT_ACCOUNT_CLIENT_ACCOUNT_TYPE
+    ON CLIENT_ACCOUNT (CLIENT_ID, ACCOUNT_TYPE_CODE);
+
+/***************************************************************************************
+ *  CLIENT SUB TYPE                                                                    *
+ *  Resolves the sub types of the active client types without reading the table        *
+ ***************************************************************************************/
+
+CREATE INDEX IX_CLIENT_SUB_TYPE_CLIENT_TYPE
+    ON CLIENT_SUB_TYPE (CLIENT_TYPE_CODE, CLIENT_SUB_TYPE_CODE);
+
+/***************************************************************************************
+ *  ATM ALLOCATION                                                                     *
+ *  An ATM holds a single allocation per denomination. The unique key serves the       *
+ *  allocation lookup by ATM and keys the denomination count updates on a withdrawal.  *
+ ***************************************************************************************/
+
+ALTER TABLE ATM_ALLOCATION
+    ADD CONSTRAINT UK_ATM_ALLOCATION_ATM_DENOMINATION UNIQUE (ATM_ID, DENOMINATION_ID);
@@ -0,0 +1,61 @@
+/***************************************************************************************
+ *  CLIENT POSITION                                                                    *
+ *  Each client's loan balance, transactional balance and net position, kept up to     *
+ *  date with every balance change instead of being summed over all the accounts at    *
+ *  month end. A cheque account counts its balance plus the overdraft limit, which     *
+ *  Flyway fills in from application-config.overdraft-limit, a credit card account     *
+ *  its balance less its limit, and foreign currency accounts are converted to ZAR     *
+ *  for the net position only. The amounts are not rounded, the net position keeps     *
+ *  the scale of the conversions so rounding it gives the same cents as summing the    *
+ *  accounts would.                                                                    *
+ ***************************************************************************************/
+
+CREATE TABLE CLIENT_POSITION
+(
+    CLIENT_ID             INTEGER         NOT NULL PRIMARY KEY REFERENCES CLIENT (CLIENT_ID),
+    LOAN_BALANCE          DECIMAL(18, 3)  NOT NULL,
+    TRANSACTIONAL_BALANCE DECIMAL(18, 3)  NOT NULL,
+    NET_POSITION          DECIMAL(50, 31) NOT NULL
+);
+
+INSERT INTO CLIENT_POSITION (CLIENT_ID, LOAN_BALANCE, TRANSACTIONAL_BALANCE, NET_POSITION)
+SELECT p.CLIENT_ID,
+       p.LOAN_BALANCE,
+       p.TRANSACTIONAL_BALANCE,
+       p.LOAN_BALANCE + p.FOREIGN_CURRENCY_BALANCE + p.TRANSACTIONAL_BALANCE
+FROM (SELECT c.CLIENT_ID,
+             COALESCE(SUM(
+                              CASE
+                                  WHEN ca.ACCOUNT_TYPE_CODE IN ('PLOAN', 'HLOAN')
+                                      THEN ca.DISPLAY_BALANCE
+                                  ELSE 0
+                                  END
+                      ), 0) AS LOAN_BALANCE,
+             COALESCE(SUM(
+                              CASE
+                                  WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CHQ'
+                                      THEN ca.DISPLAY_BALANCE + ${overdraftLimit}
+                                  WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'SVGS'
+                                      THEN ca.DISPLAY_BALANCE
+                                  WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CCRD'
+                                      THEN ca.DISPLAY_BALANCE - COALESCE(ccl.ACCOUNT_LIMIT, 0)
+                                  ELSE 0
+                                  END
+                      ), 0) AS TRANSACTIONAL_BALANCE,
+             COALESCE(SUM(
+                              CASE
+                                  WHEN ca.ACCOUNT_TYPE_CODE = 'CFCA'
+                                      THEN CASE
+                                               WHEN ccr.CONVERSION_INDICATOR = '*' THEN ca.DISPLAY_BALANCE * ccr.RATE
+                                               WHEN ccr.CONVERSION_INDICATOR = '/' THEN ca.DISPLAY_BALANCE / ccr.RATE
+                                               ELSE ca.DISPLAY_BALANCE
+                                      END
+                                  ELSE 0
+                                  END
+                      ), 0) AS FOREIGN_CURRENCY_BALANCE
+      FROM CLIENT c
+               LEFT JOIN CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
+               LEFT JOIN ACCOUNT_TYPE at ON ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+               LEFT JOIN CURRENCY_CONVERSION_RATE ccr ON ca.CURRENCY_CODE = ccr.CURRENCY_CODE
+               LEFT JOIN CREDIT_CARD_LIMIT ccl ON ca.CLIENT_ACCOUNT_NUMBER = ccl.CLIENT_ACCOUNT_NUMBER
+      GROUP BY c.CLIENT_ID) p;
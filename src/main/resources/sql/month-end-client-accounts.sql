@@ -0,0 +1,18 @@
+SELECT c.CLIENT_ID,
+       c.TITLE,
+       c.NAME,
+       c.SURNAME,
+       ca.CLIENT_ACCOUNT_NUMBER,
+       ca.ACCOUNT_TYPE_CODE,
+       ca.CURRENCY_CODE,
+       ca.DISPLAY_BALANCE,
+       cp.LOAN_BALANCE,
+       cp.TRANSACTIONAL_BALANCE,
+       cp.NET_POSITION
+FROM CLIENT c
+         LEFT JOIN
+     CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
+         LEFT JOIN
+     CLIENT_POSITION cp ON cp.CLIENT_ID = c.CLIENT_ID
+-- Each client's accounts follow in the order they were inserted, the order the highest balance report lists ties in
+ORDER BY c.CLIENT_ID, ca._ROWID_
\ No newline at end of file
@@ -2,15 +2,15 @@ SELECT c.CLIENT_ID                  AS "Client Id",
        c.SURNAME                    AS "Client Surname",
        ca.CLIENT_ACCOUNT_NUMBER     AS "Client Account Number",
        act.DESCRIPTION              AS "Account Description",
-       ROUND(ca.DISPLAY_BALANCE, 2) AS "Display Balance"
+       ROUND(ca.DISPLAY_BALANCE, 2) AS "Display Balance",
+       ca.DISPLAY_BALANCE           AS "Ranked Balance"
 FROM CLIENT c
          JOIN
      CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
          JOIN
      ACCOUNT_TYPE act ON ca.ACCOUNT_TYPE_CODE = act.ACCOUNT_TYPE_CODE
-WHERE ca.DISPLAY_BALANCE = (
-    SELECT MAX(ca2.DISPLAY_BALANCE)
-    FROM CLIENT_ACCOUNT ca2
-    WHERE ca2.CLIENT_ID = c.CLIENT_ID
-    )
-ORDER BY c.CLIENT_ID
\ No newline at end of file
+WHERE c.CLIENT_ID BETWEEN :fromClientId AND :toClientId
+  AND ca.DISPLAY_BALANCE IS NOT NULL
+-- Each client's accounts follow in the order they were inserted (the CLIENT_ID index's tie order), so tied highest
+-- balances are reported in the order the legacy report listed them in
+ORDER BY c.CLIENT_ID, ca._ROWID_
\ No newline at end of file
@@ -1,29 +1,57 @@
 package za.co.discovery.tao.muzvidziwa.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import za.co.discovery.tao.muzvidziwa.api.controller.BankController;
 import za.co.discovery.tao.muzvidziwa.api.controller.impl.BankControllerImpl;
 import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientPositionDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
 import za.co.discovery.tao.muzvidziwa.domain.service.BankService;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({BankControllerImpl.class, BankController.class})
+@Import({AtmResponseWriter.class, BalanceResponseCache.class, CurrencyConversionCache.class})
 public class BankControllerTests {
 
     @Autowired
@@ -35,13 +63,22 @@ public class BankControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BalanceResponseCache balanceResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        // The mocked responses differ per test, so no cached response may carry over from a previous test
+        balanceResponseCache.clearCache("test-trace");
+    }
+
     @DisplayName("""
             GET /queryTransactionalBalances - Receives AtmResponse
             """)
     @Test
     void testQueryTransactionalBalances__givenSUccessScenario_shouldReturnOkResponse() throws java.lang.Exception {
-        AtmResponse response = new AtmResponse();
-        Mockito.when(bankService.getTransactionalClientAccountBalances(anyString(), eq(1)))
+        AtmResponse response = AtmResponse.builder().build();
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
                 .thenReturn(response);
 
         mockMvc.perform(get("/queryTransactionalBalances")
@@ -49,12 +86,48 @@ public class BankControllerTests {
                 .andExpect(status().isOk());
     }
 
+    @DisplayName("""
+            GET /queryTransactionalBalances - Passes the terminal's trace ID on and returns it
+            """)
+    @Test
+    void testQueryTransactionalBalances_givenTraceIdHeader_shouldUseAndReturnTheTraceId() throws Exception {
+        final List<String> serviceTraceIds = new ArrayList<>();
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
+                .thenAnswer(invocation -> {
+                    serviceTraceIds.add(TraceContext.boundTraceId());
+                    return AtmResponse.builder().build();
+                });
+
+        mockMvc.perform(get("/queryTransactionalBalances")
+                        .header(TraceContext.TRACE_ID_HEADER, "atm-42.0001")
+                        .param("clientId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TraceContext.TRACE_ID_HEADER, "atm-42.0001"));
+
+        Assertions.assertEquals(List.of("atm-42.0001"), serviceTraceIds);
+    }
+
+    @DisplayName("""
+            GET /queryTransactionalBalances - Replaces an invalid trace ID with a new one
+            """)
+    @Test
+    void testQueryTransactionalBalances_givenInvalidTraceIdHeader_shouldReturnNewTraceId() throws Exception {
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
+                .thenReturn(AtmResponse.builder().build());
+
+        mockMvc.perform(get("/queryTransactionalBalances")
+                        .header(TraceContext.TRACE_ID_HEADER, "atm 42\nforged log line")
+                        .param("clientId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TraceContext.TRACE_ID_HEADER, matchesPattern("[0-9a-f]{8}-[0-9a-f]+-[0-9a-f]+")));
+    }
+
     @DisplayName("""
             test 'GET /queryTransactionalBalances' - Receives BankServiceException
             """)
     @Test
     void testQueryTransactionalBalances_givenBankServiceException_shouldReturnBadRequestErrorResponse() throws Exception {
-        Mockito.when(bankService.getTransactionalClientAccountBalances(anyString(), eq(1)))
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
                 .thenThrow(new BankServiceException("Service level exception"));
 
         mockMvc.perform(get("/queryTransactionalBalances")
@@ -68,7 +141,7 @@ public class BankControllerTests {
             """)
     @Test
     void testQueryTransactionalBalances_givenUnspecifiedException_shouldReturnInternalServerErrorResponse() throws Exception {
-        Mockito.when(bankService.getTransactionalClientAccountBalances(anyString(), eq(1)))
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
                 .thenThrow(new Exception("Unspecified error"));
 
         mockMvc.perform(get("/queryTransactionalBalances")
@@ -77,13 +150,56 @@ public class BankControllerTests {
                 .andExpect(content().string("Unspecified error"));
     }
 
+    @DisplayName("""
+            GET /queryTransactionalBalances - Serves the repeat requests of a client from the cache, as the Transactional JSON view
+            """)
+    @Test
+    void testQueryTransactionalBalances_givenRepeatRequests_shouldLoadOnceAndReturnTheTransactionalJsonView() throws Exception {
+        AtmResponse response = createBalanceResponse();
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
+                .thenReturn(response);
+        String expectedJson = objectMapper.writerWithView(View.Transactional.class).writeValueAsString(response);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/queryTransactionalBalances")
+                            .param("clientId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/json"))
+                    .andExpect(content().string(expectedJson))
+                    .andExpect(jsonPath("$.accounts[0].ccyBalance").doesNotExist());
+        }
+
+        Mockito.verify(bankService, Mockito.times(1)).getTransactionalClientAccountBalances(eq(1));
+    }
+
+    @DisplayName("""
+            GET /queryCcyBalances - Serves the repeat requests of a client from the cache, as the Currency JSON view
+            """)
+    @Test
+    void testQueryCcyBalances_givenRepeatRequests_shouldLoadOnceAndReturnTheCurrencyJsonView() throws Exception {
+        AtmResponse response = createBalanceResponse();
+        Mockito.when(bankService.getForexAccountBalances(eq(2)))
+                .thenReturn(response);
+        String expectedJson = objectMapper.writerWithView(View.Currency.class).writeValueAsString(response);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/queryCcyBalances")
+                            .param("clientId", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(expectedJson))
+                    .andExpect(jsonPath("$.accounts[0].balance").doesNotExist());
+        }
+
+        Mockito.verify(bankService, Mockito.times(1)).getForexAccountBalances(eq(2));
+    }
+
     @DisplayName("""
             GET /queryCcyBalances - Receives AtmResponse
             """)
     @Test
     void testQueryCcyBalances_givenSuccessScenario_shouldReturnOkResponse() throws Exception {
-        AtmResponse response = new AtmResponse();
-        Mockito.when(bankService.getForexAccountBalances(anyString(), eq(2)))
+        AtmResponse response = AtmResponse.builder().build();
+        Mockito.when(bankService.getForexAccountBalances(eq(2)))
                 .thenReturn(response);
 
         mockMvc.perform(get("/queryCcyBalances")
@@ -96,7 +212,7 @@ public class BankControllerTests {
             """)
     @Test
     void testQueryCcyBalances_givenBankServiceException_shouldReturnBadRequestResponse() throws Exception {
-        Mockito.when(bankService.getForexAccountBalances(anyString(), eq(2)))
+        Mockito.when(bankService.getForexAccountBalances(eq(2)))
                 .thenThrow(new BankServiceException("Service level exception"));
 
         mockMvc.perform(get("/queryCcyBalances")
@@ -110,7 +226,7 @@ public class BankControllerTests {
             """)
     @Test
     void testQueryCcyBalances_givenUnspecifiedException_shouldReturnInternalServerErrorResponse() throws Exception {
-        Mockito.when(bankService.getForexAccountBalances(anyString(), eq(2)))
+        Mockito.when(bankService.getForexAccountBalances(eq(2)))
                 .thenThrow(new Exception("Unspecified error"));
 
         mockMvc.perform(get("/queryCcyBalances")
@@ -124,8 +240,8 @@ public class BankControllerTests {
             """)
     @Test
     void testPostWithdrawal_givenSuccessScenario_shouldReturnOkResponse() throws Exception {
-        AtmResponse response = new AtmResponse();
-        Mockito.when(bankService.postWithdrawal(anyString(), eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
+        AtmResponse response = AtmResponse.builder().build();
+        Mockito.when(bankService.postWithdrawal(eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
                 .thenReturn(response);
 
         mockMvc.perform(post("/withdraw")
@@ -136,12 +252,42 @@ public class BankControllerTests {
                 .andExpect(status().isOk());
     }
 
+    @DisplayName("""
+            test 'POST /withdrawal' - Returns the Withdrawal JSON view
+            """)
+    @Test
+    void testPostWithdrawal_givenSuccessScenario_shouldReturnTheWithdrawalJsonView() throws Exception {
+        AtmResponse balanceResponse = createBalanceResponse();
+        DenominationDto denomination = new DenominationDto(5L, new BigDecimal("200.00"), 2);
+        AtmResponse response = AtmResponse.builder()
+                .client(balanceResponse.client())
+                .accounts(balanceResponse.accounts())
+                .account(balanceResponse.accounts().get(0))
+                .denomination(List.of(denomination))
+                .result(balanceResponse.result())
+                .build();
+        Mockito.when(bankService.postWithdrawal(eq(1), eq(10), eq("123456"), eq(new BigDecimal("400"))))
+                .thenReturn(response);
+        String expectedJson = objectMapper.writerWithView(View.Withdrawal.class).writeValueAsString(response);
+
+        mockMvc.perform(post("/withdraw")
+                        .param("clientId", "1")
+                        .param("atmId", "10")
+                        .param("accountNumber", "123456")
+                        .param("requiredAmount", "400"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(content().string(expectedJson))
+                .andExpect(jsonPath("$.accounts").doesNotExist())
+                .andExpect(jsonPath("$.account.ccyBalance").doesNotExist());
+    }
+
     @DisplayName("""
             test 'POST /withdrawal' - Receives BankServiceException
             """)
     @Test
     void testPostWithdrawal_givenBankServiceException_shouldReturnBadRequestResponse() throws java.lang.Exception {
-        Mockito.when(bankService.postWithdrawal(anyString(), eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
+        Mockito.when(bankService.postWithdrawal(eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
                 .thenThrow(new BankServiceException("Service level exception"));
 
         mockMvc.perform(post("/withdraw")
@@ -158,7 +304,7 @@ public class BankControllerTests {
             """)
     @Test
     void testPostWithdrawal_givenUnspecifiedException_shouldReturnInternalServerResponse() throws java.lang.Exception {
-        Mockito.when(bankService.postWithdrawal(anyString(), eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
+        Mockito.when(bankService.postWithdrawal(eq(1), eq(10), eq("123456"), eq(new BigDecimal("500"))))
                 .thenThrow(new Exception("Unspecified error"));
 
         mockMvc.perform(post("/withdraw")
@@ -169,4 +315,146 @@ public class BankControllerTests {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string("Unspecified error"));
     }
-}
\ No newline at end of file
+
+    @DisplayName("""
+            GET /queryClientPosition - Receives AtmResponse with the position view
+            """)
+    @Test
+    void testQueryClientPosition_givenSuccessScenario_shouldReturnOkResponseWithPosition() throws Exception {
+        ClientPositionDto position = new ClientPositionDto(new BigDecimal("-1500.00"), new BigDecimal("12500.00"), new BigDecimal("11000.00"));
+        AtmResponse response = AtmResponse.builder()
+                .position(position)
+                .accounts(List.of())
+                .build();
+        Mockito.when(bankService.getClientPosition(eq(3)))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/queryClientPosition")
+                        .param("clientId", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position.netPosition").value(11000.00))
+                .andExpect(jsonPath("$.accounts").doesNotExist());
+    }
+
+    @DisplayName("""
+            test 'GET /queryClientPosition' - Receives BankServiceException
+            """)
+    @Test
+    void testQueryClientPosition_givenBankServiceException_shouldReturnBadRequestResponse() throws Exception {
+        Mockito.when(bankService.getClientPosition(eq(3)))
+                .thenThrow(new BankServiceException("Service level exception"));
+
+        mockMvc.perform(get("/queryClientPosition")
+                        .param("clientId", "3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Service level exception"));
+    }
+
+    @DisplayName("""
+            test 'GET /queryClientPosition' - Receives Exception
+            """)
+    @Test
+    void testQueryClientPosition_givenUnspecifiedException_shouldReturnInternalServerErrorResponse() throws Exception {
+        Mockito.when(bankService.getClientPosition(eq(3)))
+                .thenThrow(new Exception("Unspecified error"));
+
+        mockMvc.perform(get("/queryClientPosition")
+                        .param("clientId", "3"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("Unspecified error"));
+    }
+
+    @DisplayName("""
+            test 'POST /queryBalances' - Streams the responses of each client as a JSON array
+            """)
+    @Test
+    void testQueryBalances_givenClientIdsAndViews_shouldStreamTheResponsesOfEachClient() throws Exception {
+        final AtmResponse response = createBalanceResponse();
+        final AtmResponse invalidClientResponse = AtmResponse.builder()
+                .result(new ResultDto(false, 0, null))
+                .build();
+        final List<String> serviceTraceIds = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            serviceTraceIds.add(TraceContext.boundTraceId());
+            final BankService.ClientBalancesConsumer consumer = invocation.getArgument(2);
+            consumer.accept(1, new EnumMap<>(Map.of(BalanceView.TRANSACTIONAL, response, BalanceView.CURRENCY, response)));
+            consumer.accept(null, new EnumMap<>(Map.of(BalanceView.TRANSACTIONAL, invalidClientResponse, BalanceView.CURRENCY, invalidClientResponse)));
+            return null;
+        }).when(bankService).getClientAccountBalances(eq(Arrays.asList(1, null)), eq(EnumSet.allOf(BalanceView.class)), any());
+
+        final MvcResult mvcResult = mockMvc.perform(post("/queryBalances")
+                        .header(TraceContext.TRACE_ID_HEADER, "atm-42.0002")
+                        .param("views", "TRANSACTIONAL,CURRENCY")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, null]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[{\"clientId\":1"
+                        + ",\"transactional\":" + objectMapper.writerWithView(View.Transactional.class).writeValueAsString(response)
+                        + ",\"currency\":" + objectMapper.writerWithView(View.Currency.class).writeValueAsString(response) + "}"
+                        + ",{\"clientId\":null"
+                        + ",\"transactional\":" + objectMapper.writerWithView(View.Transactional.class).writeValueAsString(invalidClientResponse)
+                        + ",\"currency\":" + objectMapper.writerWithView(View.Currency.class).writeValueAsString(invalidClientResponse) + "}]"));
+
+        // The body is written on another thread, under the trace ID of the request
+        Assertions.assertEquals(List.of("atm-42.0002"), serviceTraceIds);
+    }
+
+    @DisplayName("""
+            test 'POST /queryBalances' - Rejects a request without client IDs, or with more client IDs than a request may hold
+            """)
+    @Test
+    void testQueryBalances_givenNoOrTooManyClientIds_shouldReturnBadRequestResponse() throws Exception {
+        final MvcResult noClientsResult = mockMvc.perform(post("/queryBalances")
+                        .param("views", "TRANSACTIONAL")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(noClientsResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A balance enquiry must hold at least one client ID and view"));
+
+        final List<Integer> clientIds = new ArrayList<>();
+        for (int clientId = 1; clientId <= 1001; clientId++) {
+            clientIds.add(clientId);
+        }
+        final MvcResult tooManyClientsResult = mockMvc.perform(post("/queryBalances")
+                        .param("views", "TRANSACTIONAL")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(clientIds)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(tooManyClientsResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A balance enquiry may hold at most 1000 client IDs"));
+
+        Mockito.verify(bankService, Mockito.never()).getClientAccountBalances(any(), any(), any());
+    }
+
+    private AtmResponse createBalanceResponse() {
+        ClientDto client = new ClientDto(1L, "Ms", "Marylou", "Melcher");
+
+        AccountDto account = AccountDto.builder()
+                .accountNumber(4067342946L)
+                .typeCode("CHQ")
+                .accountTypeDescription("Cheque Account")
+                .currencyCode("ZAR")
+                .conversionRate(new BigDecimal("1.000"))
+                .balance(new BigDecimal("13603.550"))
+                .ccyBalance(new BigDecimal("13603.550"))
+                .zarBalance(new BigDecimal("13603.550"))
+                .accountLimit(new BigDecimal("23603.550"))
+                .build();
+
+        ResultDto result = new ResultDto(true, 200, "Display accounts");
+
+        return AtmResponse.builder()
+                .client(client)
+                .accounts(List.of(account))
+                .result(result)
+                .build();
+    }
+}
@@ -0,0 +1,235 @@
+package za.co.discovery.tao.muzvidziwa.domain.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassette;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+import za.co.discovery.tao.muzvidziwa.domain.service.DispensingEngine;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class AtmCassetteRegistryTests {
+    private static final String TRACE_ID = "test-trace";
+    private static final long ATM_ID = 3;
+
+    // Indexed by denomination ID, the R10 (ID 1) and the R5 coin (ID 10) are not loaded
+    private static final int[] INITIAL_COUNTS = {0, 0, 50, 50, 50, 50, 0, 0, 0, 0, 40};
+
+    private final AtmAllocationRepository atmAllocationRepository = Mockito.mock(AtmAllocationRepository.class);
+    private final DispensingEngine dispensingEngine = new DispensingEngine();
+
+    private AtmCassetteRegistry atmCassetteRegistry;
+    private AtomicIntegerArray databaseCounts;
+    private AtomicInteger rejectedDatabaseUpdates;
+
+    @BeforeEach
+    public void setUp() {
+        final List<AtmAllocation> atmAllocations = List.of(
+                createAtmAllocation(2, "20.00", "N"),
+                createAtmAllocation(3, "50.00", "N"),
+                createAtmAllocation(4, "100.00", "N"),
+                createAtmAllocation(5, "200.00", "N"),
+                createAtmAllocation(10, "5.00", "C"));
+        // The denominations are resolved through the reference data, as they are loaded from DENOMINATION
+        final ReferenceDataRegistry referenceDataRegistry = new ReferenceDataRegistry(List.of(), List.of(), List.of(),
+                atmAllocations.stream().map(AtmAllocation::getDenomination).toList());
+
+        atmCassetteRegistry = new AtmCassetteRegistry(atmAllocationRepository, referenceDataRegistry);
+        databaseCounts = new AtomicIntegerArray(INITIAL_COUNTS);
+        rejectedDatabaseUpdates = new AtomicInteger();
+
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(ATM_ID)).thenReturn(Optional.of(atmAllocations));
+
+        // Behaves like the guarded delta update, i.e., COUNT = COUNT - :count WHERE COUNT >= :count
+        Mockito.doAnswer(invocation -> {
+            final List<AtmAllocationUpdateDto> updates = invocation.getArgument(1);
+            for (AtmAllocationUpdateDto update : updates) {
+                final int denominationId = update.getDenominationId().intValue();
+                final int remaining = databaseCounts.addAndGet(denominationId, -update.getDispensedCount());
+                if (remaining < 0) {
+                    rejectedDatabaseUpdates.incrementAndGet();
+                    throw new IllegalStateException("Denomination ID " + denominationId + " taken below zero");
+                }
+            }
+            return null;
+        }).when(atmAllocationRepository).updateDenominationCounts(Mockito.eq(ATM_ID), Mockito.anyList());
+    }
+
+    @DisplayName("""
+            test 'LOCK CASSETTE' given an ATM with notes and coins allocated should load the notes only, largest first
+            """)
+    @Test
+    public void lockCassette_givenNotesAndCoinsAllocated_shouldLoadNotesLargestFirst() {
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        try {
+            Assertions.assertArrayEquals(new long[]{5, 4, 3, 2}, atmCassette.getDenominationIds());
+            Assertions.assertArrayEquals(new long[]{20000, 10000, 5000, 2000}, atmCassette.getDenominationCents());
+            Assertions.assertArrayEquals(new int[]{50, 50, 50, 50}, atmCassette.getLockedCounts());
+            Assertions.assertEquals(new BigDecimal("20.00"), atmCassette.getSmallestDenomination());
+        } finally {
+            atmCassette.unlock();
+        }
+    }
+
+    @DisplayName("""
+            test 'LOCK CASSETTE' given an ATM without an allocation should return an empty Optional
+            """)
+    @Test
+    public void lockCassette_givenAtmWithoutAllocation_shouldReturnEmpty() {
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(7)).thenReturn(Optional.of(List.of()));
+
+        Assertions.assertTrue(atmCassetteRegistry.lockCassette(7, TRACE_ID).isEmpty());
+    }
+
+    @DisplayName("""
+            test 'EVICT' given a loaded cassette should reload it from the database on the next lock
+            """)
+    @Test
+    public void evict_givenLoadedCassette_shouldReloadOnNextLock() {
+        atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow().unlock();
+        atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow().unlock();
+        Mockito.verify(atmAllocationRepository, Mockito.times(1)).findAtmAllocationByAtmId(ATM_ID);
+
+        atmCassetteRegistry.evict(ATM_ID, TRACE_ID);
+        atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow().unlock();
+        Mockito.verify(atmAllocationRepository, Mockito.times(2)).findAtmAllocationByAtmId(ATM_ID);
+    }
+
+    @DisplayName("""
+            test 'DISPENSE' given a cassette that is not locked by the current thread should refuse to dispense
+            """)
+    @Test
+    public void dispense_givenCassetteNotLocked_shouldThrowIllegalStateException() {
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        atmCassette.unlock();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> atmCassette.dispense(new int[]{1, 0, 0, 0}));
+    }
+
+    @DisplayName("""
+            test 'GET LOCKED COUNTS' given a cassette that is not locked by the current thread should refuse the live counts
+            """)
+    @Test
+    public void getLockedCounts_givenCassetteNotLocked_shouldThrowIllegalStateException() {
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        atmCassette.unlock();
+
+        Assertions.assertThrows(IllegalStateException.class, atmCassette::getLockedCounts);
+        Assertions.assertArrayEquals(new int[]{50, 50, 50, 50}, atmCassette.getCountsSnapshot());
+        Assertions.assertEquals(50, atmCassetteRegistry.getNoteCount(ATM_ID, 5));
+    }
+
+    @DisplayName("""
+            test 'LOCK CASSETTE' given many concurrent withdrawals at the same ATM should never dispense the same note twice
+            """)
+    @Test
+    public void lockCassette_givenConcurrentWithdrawals_shouldNeverDoubleDispense() throws Exception {
+        final int threads = 16;
+        final int withdrawalsPerThread = 250;
+        final AtomicIntegerArray dispensedCounts = new AtomicIntegerArray(INITIAL_COUNTS.length);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        // Load the cassette up front, none of the withdrawals may read the note counts from the database
+        atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow().unlock();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+                    for (int w = 0; w < withdrawalsPerThread; w++) {
+                        // R20 to R2 000 in multiples of R10, so some requests cannot be made up and are declined
+                        final long requestedCents = ThreadLocalRandom.current().nextLong(2, 201) * 1000;
+                        withdraw(requestedCents, dispensedCounts);
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assertions.assertEquals(0, rejectedDatabaseUpdates.get());
+        Mockito.verify(atmAllocationRepository, Mockito.times(1)).findAtmAllocationByAtmId(ATM_ID);
+
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        try {
+            for (int i = 0; i < atmCassette.size(); i++) {
+                final int denominationId = (int) atmCassette.getDenominationIds()[i];
+                final int remaining = atmCassette.getLockedCounts()[i];
+
+                Assertions.assertTrue(remaining >= 0);
+                Assertions.assertEquals(INITIAL_COUNTS[denominationId], remaining + dispensedCounts.get(denominationId));
+                Assertions.assertEquals(databaseCounts.get(denominationId), remaining);
+            }
+        } finally {
+            atmCassette.unlock();
+        }
+    }
+
+    private void withdraw(final long requestedCents, final AtomicIntegerArray dispensedCounts) {
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        try {
+            final DispensePlanDto dispensePlan = dispensingEngine.plan(atmCassette.getDenominationCents(), atmCassette.getLockedCounts(), requestedCents);
+            if (!dispensePlan.isExact(requestedCents)) {
+                return;
+            }
+
+            final List<AtmAllocationUpdateDto> updates = new ArrayList<>();
+            for (int i = 0; i < atmCassette.size(); i++) {
+                if (dispensePlan.getNoteCounts()[i] > 0) {
+                    updates.add(new AtmAllocationUpdateDto(atmCassette.getDenominationIds()[i], dispensePlan.getNoteCounts()[i]));
+                }
+            }
+            atmAllocationRepository.updateDenominationCounts(ATM_ID, updates);
+            atmCassette.dispense(dispensePlan.getNoteCounts());
+
+            for (AtmAllocationUpdateDto update : updates) {
+                dispensedCounts.addAndGet(update.getDenominationId().intValue(), update.getDispensedCount());
+            }
+        } finally {
+            atmCassette.unlock();
+        }
+    }
+
+    private AtmAllocation createAtmAllocation(final int denominationId, final String denominationValue, final String denominationTypeCode) {
+        final DenominationType denominationType = new DenominationType();
+        denominationType.setDenominationTypeCode(denominationTypeCode);
+
+        final Denomination denomination = new Denomination();
+        denomination.setDenominationId(denominationId);
+        denomination.setDenominationValue(new BigDecimal(denominationValue));
+        denomination.setDenominationType(denominationType);
+
+        final AtmAllocation atmAllocation = new AtmAllocation();
+        atmAllocation.setAtmAllocationId(denominationId);
+        atmAllocation.setDenomination(denomination);
+        atmAllocation.setCount(INITIAL_COUNTS[denominationId]);
+        return atmAllocation;
+    }
+}
@@ -0,0 +1,305 @@
+package za.co.discovery.tao.muzvidziwa.domain.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BalanceResponseCacheTests {
+    private static final String TRACE_ID = "test-trace";
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    // Configured the way Spring MVC configures the mapper behind the REST endpoints
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CurrencyConversionCache currencyConversionCache;
+    private BalanceResponseCache balanceResponseCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        currencyConversionCache = new CurrencyConversionCache();
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), currencyConversionCache, MAX_BYTES);
+        loads = new AtomicInteger();
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given repeat lookups should load once and return the JSON the endpoint's view writes
+            """)
+    @Test
+    public void getOrLoad_givenRepeatLookups_shouldLoadOnceAndReturnTheViewJson() throws Exception {
+        final byte[] transactionalJson = getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        final byte[] repeatTransactionalJson = getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        final byte[] currencyJson = getOrLoad(1, BalanceView.CURRENCY, true);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertSame(transactionalJson, repeatTransactionalJson);
+        Assertions.assertArrayEquals(objectMapper.writerWithView(View.Transactional.class).writeValueAsBytes(createAtmResponse(1, true)), transactionalJson);
+        Assertions.assertArrayEquals(objectMapper.writerWithView(View.Currency.class).writeValueAsBytes(createAtmResponse(1, true)), currencyJson);
+        Assertions.assertEquals(1, balanceResponseCache.getHitCount());
+        Assertions.assertEquals(2, balanceResponseCache.getMissCount());
+        Assertions.assertEquals(2, balanceResponseCache.size());
+        Assertions.assertTrue(balanceResponseCache.getBytes() > transactionalJson.length + currencyJson.length);
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given an unsuccessful response should return it without caching it
+            """)
+    @Test
+    public void getOrLoad_givenUnsuccessfulResponse_shouldNotCacheIt() throws Exception {
+        getOrLoad(1, BalanceView.TRANSACTIONAL, false);
+        getOrLoad(1, BalanceView.TRANSACTIONAL, false);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(0, balanceResponseCache.size());
+        Assertions.assertEquals(0, balanceResponseCache.getBytes());
+    }
+
+    @DisplayName("""
+            test 'EVICT CLIENT' should evict both views of the client only
+            """)
+    @Test
+    public void evictClient_shouldEvictBothViewsOfTheClientOnly() throws Exception {
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(1, BalanceView.CURRENCY, true);
+        final byte[] otherClientJson = getOrLoad(2, BalanceView.TRANSACTIONAL, true);
+
+        balanceResponseCache.evictClient(1, TRACE_ID);
+
+        Assertions.assertEquals(1, balanceResponseCache.size());
+        Assertions.assertEquals(BalanceResponseCache.entryBytes(otherClientJson), balanceResponseCache.getBytes());
+        Assertions.assertEquals(2, balanceResponseCache.getEvictionCount());
+        getOrLoad(2, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(3, loads.get());
+        getOrLoad(1, BalanceView.CURRENCY, true);
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given the client is evicted while the response loads should return it without caching it
+            """)
+    @Test
+    public void getOrLoad_givenClientEvictedWhileLoading_shouldNotCacheTheResponse() throws Exception {
+        // i.e., a withdrawal commits after the balances were read
+        balanceResponseCache.getOrLoad(1, BalanceView.TRANSACTIONAL, () -> {
+            final AtmResponse atmResponse = createAtmResponse(1, true);
+            balanceResponseCache.evictClient(1, TRACE_ID);
+            return atmResponse;
+        }, TRACE_ID);
+
+        Assertions.assertEquals(0, balanceResponseCache.size());
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given the conversion rates change should evict all the responses, and not cache the ones loading
+            """)
+    @Test
+    public void getOrLoad_givenConversionRatesChanged_shouldEvictAllResponses() throws Exception {
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(2, BalanceView.CURRENCY, true);
+
+        currencyConversionCache.addCurrencyConversionRate("USD", createUsdCurrencyConversionRate(), TRACE_ID);
+        getOrLoad(2, BalanceView.CURRENCY, true);
+
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertEquals(1, balanceResponseCache.size());
+
+        balanceResponseCache.getOrLoad(1, BalanceView.TRANSACTIONAL, () -> {
+            currencyConversionCache.clearCache(TRACE_ID);
+            return createAtmResponse(1, true);
+        }, TRACE_ID);
+
+        Assertions.assertEquals(0, balanceResponseCache.size());
+        Assertions.assertEquals(0, balanceResponseCache.getBytes());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given more responses than the bytes bound should evict the least recently read ones
+            """)
+    @Test
+    public void getOrLoad_givenMoreBytesThanTheBound_shouldEvictTheLeastRecentlyRead() throws Exception {
+        final long entryBytes = BalanceResponseCache.entryBytes(getOrLoad(1, BalanceView.TRANSACTIONAL, true));
+        // Room for 3 responses of the same size
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), currencyConversionCache, entryBytes * 3L + entryBytes / 2);
+        loads.set(0);
+
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(2, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(3, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(4, BalanceView.TRANSACTIONAL, true);
+
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(3, balanceResponseCache.size());
+        Assertions.assertEquals(entryBytes * 3L, balanceResponseCache.getBytes());
+        Assertions.assertEquals(1, balanceResponseCache.getEvictionCount());
+        // Client 2 was the least recently read
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(3, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(4, loads.get());
+        getOrLoad(2, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given responses of clients in the same stripe should evict by the order they were read in
+            """)
+    @Test
+    public void getOrLoad_givenClientsInTheSameStripe_shouldEvictTheLeastRecentlyRead() throws Exception {
+        final long entryBytes = BalanceResponseCache.entryBytes(getOrLoad(10, BalanceView.TRANSACTIONAL, true));
+        // Room for 3 responses of the same size, clients 10 and 74 share a stripe
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), currencyConversionCache, entryBytes * 3L + entryBytes / 2);
+        loads.set(0);
+
+        getOrLoad(10, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(74, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(11, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(10, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(12, BalanceView.TRANSACTIONAL, true);
+
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(3, balanceResponseCache.size());
+        Assertions.assertEquals(1, balanceResponseCache.getEvictionCount());
+        // Client 74 was the least recently read, behind client 10 in its own stripe
+        getOrLoad(10, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(11, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(12, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(4, loads.get());
+        getOrLoad(74, BalanceView.TRANSACTIONAL, true);
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD RESPONSE' should share the cached entry with the JSON lookups, and return the response as loaded
+            """)
+    @Test
+    public void getOrLoadResponse_shouldShareTheEntryWithTheJsonLookups() throws Exception {
+        final AtmResponse atmResponse = balanceResponseCache.getOrLoadResponse(1, BalanceView.TRANSACTIONAL, () -> {
+            loads.incrementAndGet();
+            return createAtmResponse(1, true);
+        }, TRACE_ID);
+        final byte[] json = getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        final AtmResponse repeatAtmResponse = balanceResponseCache.getOrLoadResponse(1, BalanceView.TRANSACTIONAL, () -> {
+            loads.incrementAndGet();
+            return createAtmResponse(1, true);
+        }, TRACE_ID);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(createAtmResponse(1, true), atmResponse);
+        Assertions.assertSame(atmResponse, repeatAtmResponse);
+        Assertions.assertArrayEquals(objectMapper.writerWithView(View.Transactional.class).writeValueAsBytes(createAtmResponse(1, true)), json);
+        Assertions.assertEquals(2, balanceResponseCache.getHitCount());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given concurrent lookups and evictions of many clients should keep the bytes bound and the bytes held in step
+            """)
+    @Test
+    public void getOrLoad_givenConcurrentLookupsAndEvictions_shouldKeepTheBytesInStep() throws Exception {
+        final long entryBytes = BalanceResponseCache.entryBytes(getOrLoad(10, BalanceView.TRANSACTIONAL, true));
+        // Room for 20 of the 50 clients' responses, clients 10 to 59 whose responses have the same size
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), currencyConversionCache, entryBytes * 20);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        final int clientId = 10 + (i * 7 + thread) % 50;
+                        if (i % 10 == thread) {
+                            balanceResponseCache.evictClient(clientId, TRACE_ID);
+                        } else {
+                            getOrLoad(clientId, BalanceView.TRANSACTIONAL, true);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // The clients' responses have the same size, so the bytes held are those of the responses cached
+        Assertions.assertTrue(balanceResponseCache.size() <= 20);
+        Assertions.assertEquals(entryBytes * balanceResponseCache.size(), balanceResponseCache.getBytes());
+    }
+
+    @DisplayName("""
+            test 'GET OR LOAD' given the cache is turned off should load every lookup
+            """)
+    @Test
+    public void getOrLoad_givenZeroMaxBytes_shouldLoadEveryLookup() throws Exception {
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), currencyConversionCache, 0);
+
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+        getOrLoad(1, BalanceView.TRANSACTIONAL, true);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(0, balanceResponseCache.size());
+    }
+
+    private byte[] getOrLoad(final int clientId, final BalanceView balanceView, final boolean success) throws Exception {
+        return balanceResponseCache.getOrLoad(clientId, balanceView, () -> {
+            loads.incrementAndGet();
+            return createAtmResponse(clientId, success);
+        }, TRACE_ID);
+    }
+
+    private AtmResponse createAtmResponse(final int clientId, final boolean success) {
+        final ClientDto clientDto = new ClientDto((long) clientId, "Ms", "Marylou", "Melcher");
+
+        final AccountDto accountDto = AccountDto.builder()
+                .accountNumber(4067342946L)
+                .typeCode("CFCA")
+                .accountTypeDescription("Customer Foreign Currency Account")
+                .currencyCode("USD")
+                .conversionRate(new BigDecimal("18.617"))
+                .balance(new BigDecimal("1000.000"))
+                .ccyBalance(new BigDecimal("1000.000"))
+                .zarBalance(new BigDecimal("18616.700"))
+                .build();
+
+        final ResultDto resultDto = new ResultDto(success, success ? 200 : 400, success ? "Display accounts" : "No accounts to display");
+
+        return AtmResponse.builder()
+                .client(clientDto)
+                .accounts(success ? List.of(accountDto) : List.of())
+                .result(resultDto)
+                .build();
+    }
+
+    private CurrencyConversionRate createUsdCurrencyConversionRate() {
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode("USD");
+        currencyConversionRate.setConversionIndicator("*");
+        currencyConversionRate.setRate(new BigDecimal("18.6167"));
+        return currencyConversionRate;
+    }
+}
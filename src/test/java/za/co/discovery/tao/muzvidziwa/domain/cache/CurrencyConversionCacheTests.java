@@ -5,11 +5,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
 import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,8 +52,8 @@ class CurrencyConversionCacheTests {
 
         final ConversionRatesDto actualCRDto = cache.getCurrencyConversionRate(CURRENCY_CODE, TRACE_ID);
         assertNotNull(actualCRDto);
-        assertEquals("18.5", actualCRDto.getConversionRate());
-        assertEquals("*", actualCRDto.getConversionIndicator());
+        assertEquals(new BigDecimal("18.5"), actualCRDto.getConversionRate());
+        assertEquals(ConversionIndicator.MULTIPLY, actualCRDto.getConversionIndicator());
     }
 
     @DisplayName("""
@@ -74,8 +84,8 @@ class CurrencyConversionCacheTests {
 
         final ConversionRatesDto actualCRDto = cache.getCurrencyConversionRate(CURRENCY_CODE, TRACE_ID);
         assertNotNull(actualCRDto);
-        assertEquals("19.0", actualCRDto.getConversionRate());
-        assertEquals("/", actualCRDto.getConversionIndicator());
+        assertEquals(new BigDecimal("19.0"), actualCRDto.getConversionRate());
+        assertEquals(ConversionIndicator.DIVIDE, actualCRDto.getConversionIndicator());
     }
 
     @DisplayName("""
@@ -131,6 +141,84 @@ class CurrencyConversionCacheTests {
         // Should be retrievable with null key
         ConversionRatesDto actualCRDto = cache.getCurrencyConversionRate(null, TRACE_ID);
         assertNotNull(actualCRDto);
-        assertEquals("10", actualCRDto.getConversionRate());
+        assertEquals(new BigDecimal("10"), actualCRDto.getConversionRate());
     }
-}
\ No newline at end of file
+
+    @DisplayName("""
+            test 'Replace Currency Conversion Rates' should replace all entries in the cache, dropping the rates no longer supplied
+            """)
+    @Test
+    void replaceCurrencyConversionRates_givenNewRates_shouldReplaceAllEntries() {
+        cache.addCurrencyConversionRate(OTHER_CURRENCY_CODE, createCurrencyConversionRate(OTHER_CURRENCY_CODE, "20.1", "*"), TRACE_ID);
+
+        cache.replaceCurrencyConversionRates(Map.of(CURRENCY_CODE, createCurrencyConversionRate(CURRENCY_CODE, "18.5", "/")), TRACE_ID);
+
+        assertNull(cache.getCurrencyConversionRate(OTHER_CURRENCY_CODE, TRACE_ID));
+        final ConversionRatesDto actualCRDto = cache.getCurrencyConversionRate(CURRENCY_CODE, TRACE_ID);
+        assertNotNull(actualCRDto);
+        assertEquals(new BigDecimal("18.5"), actualCRDto.getConversionRate());
+        assertEquals(ConversionIndicator.DIVIDE, actualCRDto.getConversionIndicator());
+    }
+
+    @DisplayName("""
+            test 'Replace Currency Conversion Rates' while rates are being read should never expose a partially replaced set of rates
+            """)
+    @Test
+    void replaceCurrencyConversionRates_givenConcurrentReaders_shouldNeverExposeTornSnapshot() throws Exception {
+        final List<String> currencyCodes = List.of("USD", "EUR", "GBP", "AED", "TND", "JPY", "CHF", "AUD");
+        final int readers = 8;
+        final int refreshes = 2_000;
+        // A cache of its own, the application context's scheduled refresh must not swap in the database rates mid-test
+        final CurrencyConversionCache cache = new CurrencyConversionCache();
+        cache.replaceCurrencyConversionRates(createRates(currencyCodes, 0), TRACE_ID);
+
+        final AtomicBoolean refreshing = new AtomicBoolean(true);
+        final AtomicInteger tornReads = new AtomicInteger();
+        final ExecutorService executorService = Executors.newFixedThreadPool(readers);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                futures.add(executorService.submit(() -> {
+                    while (refreshing.get()) {
+                        // Each refresh gives every currency the same rate, so a torn view shows up as a missing rate or
+                        // as rates from different refreshes, read in ascending refresh order
+                        final ConversionRatesDto first = cache.getCurrencyConversionRate(currencyCodes.get(0), TRACE_ID);
+                        final ConversionRatesDto last = cache.getCurrencyConversionRate(currencyCodes.get(currencyCodes.size() - 1), TRACE_ID);
+                        if (first == null || last == null || last.getConversionRate().compareTo(first.getConversionRate()) < 0) {
+                            tornReads.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+
+            for (int refresh = 1; refresh <= refreshes; refresh++) {
+                cache.replaceCurrencyConversionRates(createRates(currencyCodes, refresh), TRACE_ID);
+            }
+            refreshing.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(0, tornReads.get());
+        assertEquals(BigDecimal.valueOf(refreshes), cache.getCurrencyConversionRate(currencyCodes.get(0), TRACE_ID).getConversionRate());
+    }
+
+    private Map<String, CurrencyConversionRate> createRates(final List<String> currencyCodes, final int rate) {
+        final Map<String, CurrencyConversionRate> rates = new HashMap<>();
+        for (String currencyCode : currencyCodes) {
+            rates.put(currencyCode, createCurrencyConversionRate(currencyCode, String.valueOf(rate), "*"));
+        }
+        return rates;
+    }
+
+    private CurrencyConversionRate createCurrencyConversionRate(final String currencyCode, final String rate, final String conversionIndicator) {
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode(currencyCode);
+        currencyConversionRate.setRate(new BigDecimal(rate));
+        currencyConversionRate.setConversionIndicator(conversionIndicator);
+        return currencyConversionRate;
+    }
+}
@@ -0,0 +1,108 @@
+package za.co.discovery.tao.muzvidziwa.domain.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry.CurrencyEntry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry.DenominationEntry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientSubType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientType;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Currency;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class ReferenceDataRegistryTests {
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        referenceDataRegistry = new ReferenceDataRegistry(
+                List.of(createAccountType("CHQ", "Cheque Account", true), createAccountType("CFCA", "Customer Foreign Currency Account", false)),
+                List.of(createClientSubType("MAL", "I"), createClientSubType("SME", "N"), createClientSubType("X", "X")),
+                List.of(createCurrency("ZAR", 2), createCurrency("JPY", 0)),
+                List.of(createDenomination(5, "200.00", "N"), createDenomination(10, "5.00", "C")));
+    }
+
+    @DisplayName("""
+            test 'ACCOUNT TYPE' given a code should resolve its description and transactional flag, and unknown codes to none
+            """)
+    @Test
+    public void accountType_givenCode_shouldResolveTheDescriptionAndTransactionalFlag() {
+        Assertions.assertEquals("Cheque Account", referenceDataRegistry.getAccountTypeDescription("CHQ"));
+        Assertions.assertTrue(referenceDataRegistry.isTransactionalAccountType("CHQ"));
+        Assertions.assertEquals("Customer Foreign Currency Account", referenceDataRegistry.getAccountTypeDescription("CFCA"));
+        Assertions.assertFalse(referenceDataRegistry.isTransactionalAccountType("CFCA"));
+
+        Assertions.assertNull(referenceDataRegistry.getAccountType("NEW"));
+        Assertions.assertNull(referenceDataRegistry.getAccountTypeDescription(null));
+        Assertions.assertFalse(referenceDataRegistry.isTransactionalAccountType("NEW"));
+    }
+
+    @DisplayName("""
+            test 'CLIENT SUB TYPE' given a code should service the individual and non-individual sub types only
+            """)
+    @Test
+    public void isServicedClientSubType_givenCode_shouldServiceIndividualsAndNonIndividualsOnly() {
+        Assertions.assertTrue(referenceDataRegistry.isServicedClientSubType("MAL"));
+        Assertions.assertTrue(referenceDataRegistry.isServicedClientSubType("SME"));
+        Assertions.assertFalse(referenceDataRegistry.isServicedClientSubType("X"));
+        Assertions.assertFalse(referenceDataRegistry.isServicedClientSubType("COR"));
+        Assertions.assertFalse(referenceDataRegistry.isServicedClientSubType(null));
+    }
+
+    @DisplayName("""
+            test 'CURRENCY AND DENOMINATION' given a code or ID should resolve the row, and unknown ones to none
+            """)
+    @Test
+    public void currencyAndDenomination_givenCodeOrId_shouldResolveTheRow() {
+        Assertions.assertEquals(new CurrencyEntry("JPY", 0, "JPY"), referenceDataRegistry.getCurrency("JPY"));
+        Assertions.assertNull(referenceDataRegistry.getCurrency("EUR"));
+
+        final DenominationEntry note = referenceDataRegistry.getDenomination(5);
+        Assertions.assertEquals(new BigDecimal("200.00"), note.denominationValue());
+        Assertions.assertFalse(note.isCoin());
+        Assertions.assertTrue(referenceDataRegistry.getDenomination(10).isCoin());
+        Assertions.assertNull(referenceDataRegistry.getDenomination(1));
+    }
+
+    private AccountType createAccountType(final String accountTypeCode, final String description, final boolean transactional) {
+        final AccountType accountType = new AccountType();
+        accountType.setAccountTypeCode(accountTypeCode);
+        accountType.setDescription(description);
+        accountType.setTransactional(transactional);
+        return accountType;
+    }
+
+    private ClientSubType createClientSubType(final String clientSubTypeCode, final String clientTypeCode) {
+        final ClientType clientType = new ClientType();
+        clientType.setClientTypeCode(clientTypeCode);
+        final ClientSubType clientSubType = new ClientSubType();
+        clientSubType.setClientSubTypeCode(clientSubTypeCode);
+        clientSubType.setClientType(clientType);
+        return clientSubType;
+    }
+
+    private Currency createCurrency(final String currencyCode, final int decimalPlaces) {
+        final Currency currency = new Currency();
+        currency.setCurrencyCode(currencyCode);
+        currency.setDecimalPlaces(decimalPlaces);
+        currency.setDescription(currencyCode);
+        return currency;
+    }
+
+    private Denomination createDenomination(final int denominationId, final String denominationValue, final String denominationTypeCode) {
+        final DenominationType denominationType = new DenominationType();
+        denominationType.setDenominationTypeCode(denominationTypeCode);
+        final Denomination denomination = new Denomination();
+        denomination.setDenominationId(denominationId);
+        denomination.setDenominationValue(new BigDecimal(denominationValue));
+        denomination.setDenominationType(denominationType);
+        return denomination;
+    }
+}
@@ -0,0 +1,125 @@
+package za.co.discovery.tao.muzvidziwa.domain.dto;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.discovery.tao.muzvidziwa.domain.constant.ConversionIndicator;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+public class MoneyTests {
+
+    @DisplayName("""
+            test 'OF' given an amount should hold it in units of the scale, and reject amounts that need rounding or overflow
+            """)
+    @Test
+    public void of_givenAmount_shouldHoldItInUnitsOfTheScale() {
+        Assertions.assertEquals(new Money(10_250_500L, 3), Money.of(new BigDecimal("10250.5"), 3, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(new Money(-1_000L, 3), Money.of(new BigDecimal("-1.000"), 3, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(new Money(1_235L, 3), Money.of(new BigDecimal("1.2345"), 3, RoundingMode.HALF_UP));
+        Assertions.assertEquals(new BigDecimal("10250.500"), Money.of(new BigDecimal("10250.5"), 3, RoundingMode.UNNECESSARY).toBigDecimal());
+
+        Assertions.assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.2345"), 3, RoundingMode.UNNECESSARY));
+        Assertions.assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+16"), 3, RoundingMode.UNNECESSARY));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Money(1, 19));
+    }
+
+    @DisplayName("""
+            test 'FITS' given an amount should accept whole units of the scale that fit a long only
+            """)
+    @Test
+    public void fits_givenAmount_shouldAcceptWholeUnitsThatFitALong() {
+        Assertions.assertTrue(Money.fits(new BigDecimal("500"), 3));
+        Assertions.assertTrue(Money.fits(new BigDecimal("500.1230000"), 3));
+        Assertions.assertTrue(Money.fits(new BigDecimal("1E+2"), 3));
+        Assertions.assertTrue(Money.fits(new BigDecimal("999999999999999.999"), 3));
+
+        Assertions.assertFalse(Money.fits(new BigDecimal("500.0001"), 3));
+        Assertions.assertFalse(Money.fits(new BigDecimal("1000000000000000"), 3));
+    }
+
+    @DisplayName("""
+            test 'ADD, SUBTRACT AND COMPARE' given amounts of different scales should align them to the larger scale
+            """)
+    @Test
+    public void addSubtractAndCompare_givenDifferentScales_shouldAlignToTheLargerScale() {
+        final Money zar = Money.of(new BigDecimal("100.50"), 3, RoundingMode.UNNECESSARY);
+        final Money clf = Money.of(new BigDecimal("0.0001"), 4, RoundingMode.UNNECESSARY);
+
+        Assertions.assertEquals(new Money(1_005_001L, 4), zar.add(clf));
+        Assertions.assertEquals(new Money(1_004_999L, 4), zar.subtract(clf));
+        Assertions.assertTrue(zar.compareTo(clf) > 0);
+        Assertions.assertEquals(0, new Money(1_000L, 3).compareTo(new Money(10_000L, 4)));
+        Assertions.assertEquals(-1, clf.subtract(zar).signum());
+
+        Assertions.assertThrows(ArithmeticException.class, () -> new Money(Long.MAX_VALUE, 3).add(new Money(1L, 3)));
+    }
+
+    @DisplayName("""
+            test 'RESCALE' given a smaller scale should round the dropped decimals as asked
+            """)
+    @Test
+    public void rescale_givenSmallerScale_shouldRoundAsAsked() {
+        Assertions.assertEquals(new Money(50_012L, 2), new Money(500_125L, 3).rescale(2, RoundingMode.DOWN));
+        Assertions.assertEquals(new Money(50_013L, 2), new Money(500_125L, 3).rescale(2, RoundingMode.HALF_UP));
+        Assertions.assertEquals(new Money(-50_013L, 2), new Money(-500_125L, 3).rescale(2, RoundingMode.HALF_UP));
+        Assertions.assertEquals(new Money(50_012L, 2), new Money(500_125L, 3).rescale(2, RoundingMode.HALF_EVEN));
+        Assertions.assertEquals(new Money(5_001_250L, 4), new Money(500_125L, 3).rescale(4, RoundingMode.UNNECESSARY));
+        Assertions.assertThrows(ArithmeticException.class, () -> new Money(500_125L, 3).rescale(2, RoundingMode.UNNECESSARY));
+    }
+
+    @DisplayName("""
+            test 'TO ZAR' given amounts and rates should convert to the same ZAR amounts as multiplying or dividing by the rate
+            """)
+    @Test
+    public void toZar_givenAmountsAndRates_shouldMatchTheBigDecimalConversion() {
+        final List<ConversionRatesDto> conversionRates = List.of(
+                createConversionRatesDto("18.6167", ConversionIndicator.MULTIPLY),
+                createConversionRatesDto("0.1134", ConversionIndicator.DIVIDE),
+                createConversionRatesDto("0.11340000", ConversionIndicator.DIVIDE),
+                createConversionRatesDto("1E+2", ConversionIndicator.MULTIPLY),
+                createConversionRatesDto("1234.12345678", ConversionIndicator.MULTIPLY),
+                createConversionRatesDto("0.00012345", ConversionIndicator.DIVIDE));
+
+        final Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            // Balances from fractions of a cent to billions, either side of zero
+            final BigDecimal amount = BigDecimal.valueOf(random.nextLong() % (long) Math.pow(10, 1 + random.nextInt(15)), 3);
+            final Money money = Money.of(amount, 3, RoundingMode.UNNECESSARY);
+            for (ConversionRatesDto conversionRatesDto : conversionRates) {
+                Assertions.assertEquals(toZar(amount, conversionRatesDto), conversionRatesDto.toZar(money, 3).toBigDecimal(),
+                        () -> amount + " at " + conversionRatesDto.getConversionIndicator() + " " + conversionRatesDto.getConversionRate());
+            }
+        }
+    }
+
+    @DisplayName("""
+            test 'TO ZAR' given a rate too precise for a long should convert through BigDecimal
+            """)
+    @Test
+    public void toZar_givenRateTooPreciseForALong_shouldConvertThroughBigDecimal() {
+        final ConversionRatesDto conversionRatesDto = createConversionRatesDto("18.61670000000000000001", ConversionIndicator.MULTIPLY);
+        final BigDecimal amount = new BigDecimal("35938.710");
+
+        Assertions.assertEquals(new BigDecimal("669060.182"), conversionRatesDto.toZar(Money.of(amount, 3, RoundingMode.UNNECESSARY), 3).toBigDecimal());
+        Assertions.assertNull(createConversionRatesDto("18.6167", null).toZar(Money.of(amount, 3, RoundingMode.UNNECESSARY), 3));
+    }
+
+    // The conversion before the rates were normalized, multiplying or dividing by the rate and rounding to a scale of 3
+    private BigDecimal toZar(final BigDecimal amount, final ConversionRatesDto conversionRatesDto) {
+        return switch (conversionRatesDto.getConversionIndicator()) {
+            case DIVIDE -> amount.divide(conversionRatesDto.getConversionRate(), 3, RoundingMode.HALF_UP);
+            case MULTIPLY -> amount.multiply(conversionRatesDto.getConversionRate()).setScale(3, RoundingMode.HALF_UP);
+        };
+    }
+
+    private ConversionRatesDto createConversionRatesDto(final String rate, final ConversionIndicator conversionIndicator) {
+        final BigDecimal conversionRate = new BigDecimal(rate);
+        return new ConversionRatesDto(conversionRate, conversionIndicator, conversionRate.setScale(3, RoundingMode.HALF_UP));
+    }
+}
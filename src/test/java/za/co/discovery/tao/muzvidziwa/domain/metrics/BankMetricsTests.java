@@ -0,0 +1,151 @@
+package za.co.discovery.tao.muzvidziwa.domain.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.discovery.tao.muzvidziwa.domain.constant.StatusCodeReason;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassette;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.ReferenceDataRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public class BankMetricsTests {
+    private static final String TRACE_ID = "test-trace";
+    private static final long ATM_ID = 3;
+
+    private final AtmAllocationRepository atmAllocationRepository = Mockito.mock(AtmAllocationRepository.class);
+
+    private MeterRegistry meterRegistry;
+    private AtmCassetteRegistry atmCassetteRegistry;
+    private CurrencyConversionCache currencyConversionCache;
+    private BalanceResponseCache balanceResponseCache;
+    private BankMetrics bankMetrics;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        final List<AtmAllocation> atmAllocations = List.of(
+                createAtmAllocation(3, "50.00", 20),
+                createAtmAllocation(5, "200.00", 10));
+        atmCassetteRegistry = new AtmCassetteRegistry(atmAllocationRepository, new ReferenceDataRegistry(List.of(), List.of(), List.of(),
+                atmAllocations.stream().map(AtmAllocation::getDenomination).toList()));
+        currencyConversionCache = new CurrencyConversionCache();
+        balanceResponseCache = new BalanceResponseCache(new AtmResponseWriter(Jackson2ObjectMapperBuilder.json().build(), true), currencyConversionCache, 1024 * 1024);
+        bankMetrics = new BankMetrics(meterRegistry, atmCassetteRegistry, currencyConversionCache, balanceResponseCache);
+
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(ATM_ID)).thenReturn(Optional.of(atmAllocations));
+    }
+
+    @Test
+    public void recordStageAndCountOutcome_shouldRecordOnTheTagsOfTheStageAndReason() {
+        bankMetrics.recordStage(BankMetrics.Stage.DB_WRITE, System.nanoTime());
+        bankMetrics.countOutcome(StatusCodeReason.INSUFFICIENT_FUNDS_SCR);
+        bankMetrics.countOutcome(StatusCodeReason.INSUFFICIENT_FUNDS_SCR);
+
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.STAGE_TIMER).tag("stage", "db-write").timer().count());
+        Assertions.assertEquals(0, meterRegistry.get(BankMetrics.STAGE_TIMER).tag("stage", "client-lookup").timer().count());
+        Assertions.assertEquals(2, meterRegistry.get(BankMetrics.OUTCOME_COUNTER)
+                .tags("reason", "INSUFFICIENT_FUNDS_SCR", "status", "400").counter().count());
+    }
+
+    @Test
+    public void bindCassette_shouldGaugeTheNotesLeftUntilTheCassetteIsEvicted() {
+        final AtmCassette atmCassette = atmCassetteRegistry.lockCassette(ATM_ID, TRACE_ID).orElseThrow();
+        try {
+            bankMetrics.bindCassette(atmCassette);
+            bankMetrics.bindCassette(atmCassette);
+            // Index 0 is the largest note, i.e., 1 x R200 and 2 x R50
+            atmCassette.dispense(new int[]{1, 2});
+        } finally {
+            atmCassette.unlock();
+        }
+
+        Assertions.assertEquals(2, meterRegistry.get(BankMetrics.CASSETTE_NOTES_GAUGE).gauges().size());
+        Assertions.assertEquals(9, meterRegistry.get(BankMetrics.CASSETTE_NOTES_GAUGE).tags("atm", "3", "denomination", "200").gauge().value());
+        Assertions.assertEquals(18, meterRegistry.get(BankMetrics.CASSETTE_NOTES_GAUGE).tags("atm", "3", "denomination", "50").gauge().value());
+
+        atmCassetteRegistry.evict(ATM_ID, TRACE_ID);
+
+        Assertions.assertTrue(Double.isNaN(meterRegistry.get(BankMetrics.CASSETTE_NOTES_GAUGE).tags("atm", "3", "denomination", "200").gauge().value()));
+    }
+
+    @Test
+    public void cacheGauges_shouldReportTheLookupsAndTheTimeSinceTheLastRefresh() {
+        Assertions.assertTrue(Double.isNaN(meterRegistry.get(BankMetrics.CACHE_AGE_GAUGE).timeGauge().value()));
+        Assertions.assertTrue(Double.isNaN(meterRegistry.get(BankMetrics.CACHE_HIT_RATIO_GAUGE).gauge().value()));
+
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode("USD");
+        currencyConversionRate.setConversionIndicator("*");
+        currencyConversionRate.setRate(new BigDecimal("18.50"));
+        currencyConversionCache.addCurrencyConversionRate("USD", currencyConversionRate, TRACE_ID);
+        currencyConversionCache.getCurrencyConversionRate("USD", TRACE_ID);
+        currencyConversionCache.getCurrencyConversionRate("USD", TRACE_ID);
+        currencyConversionCache.getCurrencyConversionRate("USD", TRACE_ID);
+        currencyConversionCache.getCurrencyConversionRate("EUR", TRACE_ID);
+
+        Assertions.assertEquals(0.75, meterRegistry.get(BankMetrics.CACHE_HIT_RATIO_GAUGE).gauge().value());
+        Assertions.assertEquals(3, meterRegistry.get(BankMetrics.CACHE_LOOKUPS_COUNTER).tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.CACHE_LOOKUPS_COUNTER).tag("result", "miss").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.CACHE_SIZE_GAUGE).gauge().value());
+        Assertions.assertTrue(meterRegistry.get(BankMetrics.CACHE_AGE_GAUGE).timeGauge().value() >= 0);
+    }
+
+    @Test
+    public void balanceCacheGauges_shouldReportTheLookupsAndTheBytesCached() throws Exception {
+        Assertions.assertTrue(Double.isNaN(meterRegistry.get(BankMetrics.BALANCE_CACHE_HIT_RATIO_GAUGE).gauge().value()));
+
+        final ResultDto resultDto = new ResultDto(true, 0, null);
+        final AtmResponse atmResponse = AtmResponse.builder()
+                .result(resultDto)
+                .build();
+        byte[] json = null;
+        for (int i = 0; i < 4; i++) {
+            json = balanceResponseCache.getOrLoad(1, BalanceResponseCache.BalanceView.TRANSACTIONAL, () -> atmResponse, TRACE_ID);
+        }
+
+        Assertions.assertEquals(0.75, meterRegistry.get(BankMetrics.BALANCE_CACHE_HIT_RATIO_GAUGE).gauge().value());
+        Assertions.assertEquals(3, meterRegistry.get(BankMetrics.BALANCE_CACHE_LOOKUPS_COUNTER).tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.BALANCE_CACHE_LOOKUPS_COUNTER).tag("result", "miss").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.BALANCE_CACHE_SIZE_GAUGE).gauge().value());
+        Assertions.assertEquals(BalanceResponseCache.entryBytes(json), meterRegistry.get(BankMetrics.BALANCE_CACHE_BYTES_GAUGE).gauge().value());
+
+        balanceResponseCache.evictClient(1, TRACE_ID);
+
+        Assertions.assertEquals(1, meterRegistry.get(BankMetrics.BALANCE_CACHE_EVICTIONS_COUNTER).functionCounter().count());
+        Assertions.assertEquals(0, meterRegistry.get(BankMetrics.BALANCE_CACHE_BYTES_GAUGE).gauge().value());
+    }
+
+    private AtmAllocation createAtmAllocation(final int denominationId, final String denominationValue, final int count) {
+        final DenominationType denominationType = new DenominationType();
+        denominationType.setDenominationTypeCode("N");
+
+        final Denomination denomination = new Denomination();
+        denomination.setDenominationId(denominationId);
+        denomination.setDenominationValue(new BigDecimal(denominationValue));
+        denomination.setDenominationType(denominationType);
+
+        final AtmAllocation atmAllocation = new AtmAllocation();
+        atmAllocation.setAtmAllocationId(denominationId);
+        atmAllocation.setDenomination(denomination);
+        atmAllocation.setCount(count);
+        return atmAllocation;
+    }
+}
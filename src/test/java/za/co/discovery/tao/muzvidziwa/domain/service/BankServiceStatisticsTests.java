@@ -0,0 +1,88 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+
+import java.math.BigDecimal;
+
+/**
+ * Counts the JDBC statements issued per balance request against the sample data migration (V2__load_sample_data.sql) using Hibernate statistics.
+ */
+@SpringBootTest(properties = {
+        // A database of its own, the sample data database is already in use by other cached application contexts
+        "spring.datasource.url=jdbc:h2:mem:bankbalancedispencingdb-statistics",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class BankServiceStatisticsTests {
+    private static final String TRACE_ID = "test-trace";
+
+    @Autowired
+    private BankService bankService;
+    @Autowired
+    private CurrencyConversionCache currencyConversionCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Keeps the start-up currency conversion rate refresh from adding statements while the tests count them
+    @MockBean
+    private ScheduledService scheduledService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        final CurrencyConversionRate zarConversionRate = new CurrencyConversionRate();
+        zarConversionRate.setCurrencyCode("ZAR");
+        zarConversionRate.setConversionIndicator("*");
+        zarConversionRate.setRate(BigDecimal.ONE);
+
+        currencyConversionCache.clearCache(TRACE_ID);
+        currencyConversionCache.addCurrencyConversionRate("ZAR", zarConversionRate, TRACE_ID);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @DisplayName("""
+            Test 'TRANSACTIONAL CLIENT ACCOUNTS' should issue a single statement regardless of the number of accounts the client has
+            """)
+    @Test
+    public void getTransactionalClientAccountBalances_givenClientsWithOneAndThreeAccounts_shouldIssueSameStatementCount() throws Exception {
+        // Client 15 has a single CHQ account
+        statistics.clear();
+        final AtmResponse singleAccountResponse = bankService.getTransactionalClientAccountBalances(15);
+        final long singleAccountStatementCount = statistics.getPrepareStatementCount();
+
+        // Client 1 has a SVGS, CHQ and CCRD account, the CCRD account needs its credit card limit
+        statistics.clear();
+        final AtmResponse threeAccountResponse = bankService.getTransactionalClientAccountBalances(1);
+        final long threeAccountStatementCount = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(1, singleAccountResponse.accounts().size());
+        Assertions.assertEquals(3, threeAccountResponse.accounts().size());
+        Assertions.assertEquals(1, singleAccountStatementCount);
+        Assertions.assertEquals(singleAccountStatementCount, threeAccountStatementCount);
+    }
+
+    @DisplayName("""
+            Test 'TRANSACTIONAL CLIENT ACCOUNTS' given an unknown client should issue a single statement
+            """)
+    @Test
+    public void getTransactionalClientAccountBalances_givenUnknownClient_shouldIssueSingleStatement() throws Exception {
+        statistics.clear();
+        final AtmResponse atmResponse = bankService.getTransactionalClientAccountBalances(9999);
+
+        Assertions.assertFalse(atmResponse.result().success());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
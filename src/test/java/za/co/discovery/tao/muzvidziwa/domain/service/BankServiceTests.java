@@ -1,5 +1,6 @@
 package za.co.discovery.tao.muzvidziwa.domain.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,10 +9,17 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.co.discovery.tao.muzvidziwa.domain.metrics.BankMetrics;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.AtmCassetteRegistry;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache.BalanceView;
 import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
 import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
-import za.co.discovery.tao.muzvidziwa.domain.model.dto.ConversionRatesDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Atm;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
@@ -23,15 +31,19 @@ import za.co.discovery.tao.muzvidziwa.domain.model.entity.Currency;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.DenominationType;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientPositionProjection;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientPositionDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
 import za.co.discovery.tao.muzvidziwa.domain.util.GeneralUtils;
 import za.co.discovery.tao.muzvidziwa.repository.AtmAllocationRepository;
 import za.co.discovery.tao.muzvidziwa.repository.AtmRepository;
 import za.co.discovery.tao.muzvidziwa.repository.ClientAccountRepository;
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
 import za.co.discovery.tao.muzvidziwa.repository.ClientRepository;
 import za.co.discovery.tao.muzvidziwa.repository.CreditCardLimitRepository;
 import za.co.discovery.tao.muzvidziwa.repository.CreditCardLimitRepositoryTests;
@@ -40,19 +52,31 @@ import za.co.discovery.tao.muzvidziwa.repository.CurrencyConversionRepositoryTes
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @ActiveProfiles("test")
 @SpringBootTest
 public class BankServiceTests {
     public static final String TRACE_ID = GeneralUtils.generateUniqueId() + "-test";
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
 
     @Autowired
     private BankService bankService;
     @Autowired
     private CurrencyConversionCache currencyConversionCache;
+    @Autowired
+    private AtmCassetteRegistry atmCassetteRegistry;
+    @Autowired
+    private BalanceResponseCache balanceResponseCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @MockBean
     private AtmAllocationRepository atmAllocationRepository;
@@ -66,6 +90,8 @@ public class BankServiceTests {
     private CurrencyConversionRepository currencyConversionRepository;
     @MockBean
     private CreditCardLimitRepository creditCardLimitRepository;
+    @MockBean
+    private ClientPositionRepository clientPositionRepository;
 
     @BeforeEach
     public void setUp() {
@@ -76,6 +102,10 @@ public class BankServiceTests {
         currencyConversionCache.addCurrencyConversionRate("TND", createTndCurrencyConversionRate(), TRACE_ID);
         currencyConversionCache.addCurrencyConversionRate("GBP", createGbpCurrencyConversionRate(), TRACE_ID);
         currencyConversionCache.addCurrencyConversionRate("AED", createAedCurrencyConversionRate(), TRACE_ID);
+
+        // Each test mocks its own ATM allocation, so no cassette may carry over from a previous test
+        atmCassetteRegistry.clearRegistry(TRACE_ID);
+        balanceResponseCache.clearCache(TRACE_ID);
     }
 
     /**
@@ -92,43 +122,68 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andValidClientAccounts_shouldReturnSortedTransactionalAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of(
-                createSavingsAccountDto(3L, BigDecimal.valueOf(101500.000)),
-                createChequeAccountDto(1L, BigDecimal.valueOf(1250.000)),
-                createChequeAccountDto(2L, BigDecimal.valueOf(-2500.000)),
-                createHomeLoanAccountDto(5L, BigDecimal.valueOf(-1101500.000))));
-        expectedAtmResponse.setResult(createTransactionalResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of(
+                        createSavingsAccountDto(3L, BigDecimal.valueOf(101500.000)),
+                        createChequeAccountDto(1L, BigDecimal.valueOf(1250.000)),
+                        createChequeAccountDto(2L, BigDecimal.valueOf(-2500.000))))
+                .result(createTransactionalResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final List<ClientAccount> clientAccounts = createStandardZarClientAccounts(client);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
     }
 
+    @DisplayName(value = """
+            Test 'TRANSACTIONAL CLIENT ACCOUNTS' given accounts with equal balances should list the last of the equal accounts first
+            """)
+    @Test
+    public void getTransactionalClientAccountBalances_givenEqualBalances_shouldListTheLastEqualAccountFirst() throws Exception {
+        final Client client = createStandardClient();
+        // 100 and 100.00 are equal balances, as are the two zero balances
+        final List<ClientAccount> clientAccounts = List.of(
+                createZarSavingsClientAccount(client, "11", new BigDecimal("100")),
+                createZarSavingsClientAccount(client, "12", new BigDecimal("0")),
+                createZarSavingsClientAccount(client, "13", new BigDecimal("250")),
+                createZarSavingsClientAccount(client, "14", new BigDecimal("100.00")),
+                createZarSavingsClientAccount(client, "15", new BigDecimal("-50")),
+                createZarSavingsClientAccount(client, "16", new BigDecimal("0.000")),
+                createZarSavingsClientAccount(client, "17", new BigDecimal("100")));
+
+        // Mock the repository methods
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
+
+        // Verify results
+        Assertions.assertEquals(List.of(13L, 17L, 14L, 11L, 16L, 12L, 15L), actualAtmResponse.accounts().stream().map(AccountDto::accountNumber).toList());
+    }
+
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andEmptyClientAccounts_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(createStandardClient()));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.empty());
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(createStandardClient(), List.of()));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -137,17 +192,17 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andNoClientAccounts_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(createStandardClient()));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(List.of()));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(createStandardClient(), List.of()));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -156,16 +211,42 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andNoClientFound_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(new ClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.empty());
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(List.of());
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    @Test
+    public void getTransactionalClientAccountBalances_givenInactiveClient_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
+
+        // The 'X' sub type belongs to the inactive client type, which the bank does not service
+        final Client client = createStandardClient();
+        final ClientSubType inactiveClientSubType = new ClientSubType();
+        inactiveClientSubType.setClientSubTypeCode("X");
+        client.setClientSubType(inactiveClientSubType);
+
+        // Mock the repository methods
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, createStandardZarClientAccounts(client)));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -174,14 +255,14 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenInvalidClientId_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(null);
-        expectedAtmResponse.setAccounts(null);
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
-        expectedAtmResponse.getResult().setStatusReason("Invalid client identifier (ID) provided");
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(null)
+                .accounts(null)
+                .result(createResultDto(false, 400, "Invalid client identifier (ID) provided"))
+                .build();
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, -1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(-1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -190,10 +271,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andNullBalanceClientAccount_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -212,11 +294,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
                 // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -225,10 +306,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullCurrency_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -247,11 +329,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -260,10 +341,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullCurrencyCode_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -282,11 +364,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -295,10 +376,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullAccountType_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -317,11 +399,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -330,10 +411,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullAccountTypeCode_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -352,32 +434,33 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
     }
 
     @Test
-    public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullAccountTypeDescription_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
+    public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withAccountTypeNotInReferenceData_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
         clientAccount.setClientAccountNumber("4");
         clientAccount.setClient(client);
 
+        // The account type's flag and description are resolved through the reference data, which has no such type
         final AccountType accountType = new AccountType();
-        accountType.setAccountTypeCode("CHQ");
-        accountType.setDescription(null);
+        accountType.setAccountTypeCode("NEW");
+        accountType.setDescription("New Account");
         accountType.setTransactional(true);
 
         clientAccount.setAccountType(accountType);
@@ -387,11 +470,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -400,10 +482,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNullAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -422,11 +505,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -435,10 +517,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withEmptyAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -457,11 +540,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -470,10 +552,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withInvalidAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -492,11 +575,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -505,10 +587,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withUnknownCurrencyConversionRateInCache_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -533,11 +616,10 @@ public class BankServiceTests {
         final List<ClientAccount> clientAccounts = List.of(clientAccount);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -546,10 +628,11 @@ public class BankServiceTests {
     @Test
     public void getTransactionalClientAccountBalances_givenValidClientId_andClientAccount_withNoCurrencyConversionRateInCache_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -570,11 +653,10 @@ public class BankServiceTests {
         currencyConversionCache.addCurrencyConversionRate("ZAR", null, TRACE_ID);
 
         // Mock the repository methods
-        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
-        Mockito.when(clientAccountRepository.findTransactionalClientAccountsByClientId(1)).thenReturn(Optional.of(clientAccounts));
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(createClientAccountBalances(client, clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getTransactionalClientAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -591,38 +673,28 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenValidClientId_andValidCHQAccountNumber_andValidAmount_andValidAtm_shouldReturnSuccessWithdrawalResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createChequeAccountDto(4L, BigDecimal.valueOf(10000.000)));
-
-        final DenominationDto denomination200Dto = new DenominationDto();
-        denomination200Dto.setDenominationId(5L);
-        denomination200Dto.setDenominationValue(BigDecimal.valueOf(200.000));
-        denomination200Dto.setCount(1);
-
-        final DenominationDto denomination50Dto = new DenominationDto();
-        denomination50Dto.setDenominationId(3L);
-        denomination50Dto.setDenominationValue(BigDecimal.valueOf(50.000));
-        denomination50Dto.setCount(1);
+        final DenominationDto denomination200Dto = new DenominationDto(5L, new BigDecimal("200.00"), 1);
+        final DenominationDto denomination50Dto = new DenominationDto(3L, new BigDecimal("50.00"), 1);
 
-        expectedAtmResponse.setDenomination(List.of(denomination200Dto, denomination50Dto));
-        expectedAtmResponse.setResult(createWithdrawalResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(10000.000)))
+                .denomination(List.of(denomination200Dto, denomination50Dto))
+                .result(createWithdrawalResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarClientAccount(client);
 
         final List<AtmAllocation> atmAllocationList = createStandardAtmAllocation();
 
-        final AtmAllocationUpdateDto atm10AllocationUpdateDto = new AtmAllocationUpdateDto(1L, 10);
-        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 4);
-        final AtmAllocationUpdateDto atm100AllocationUpdateDto = new AtmAllocationUpdateDto(4L, 20);
-        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 9);
+        // The dispensed notes are deducted from the ATM allocation, 1 x R200 and 1 x R50
+        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 1);
+        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 1);
 
         final List<AtmAllocationUpdateDto> atmAllocationUpdateDtoList = List.of(
-                atm10AllocationUpdateDto,
-                atm50AllocationUpdateDto,
-                atm100AllocationUpdateDto,
-                atm200AllocationUpdateDto
+                atm200AllocationUpdateDto,
+                atm50AllocationUpdateDto
         );
 
         // Mock the repository methods
@@ -631,13 +703,54 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
         Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
         Mockito.doNothing().when(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
-        Mockito.doNothing().when(clientAccountRepository).updateClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(10250.000));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(250.000), new BigDecimal("10000"))).thenReturn(Optional.of(new BigDecimal("10000.000")));
+
+        final double successfulWithdrawals = meterRegistry.get(BankMetrics.OUTCOME_COUNTER).tag("reason", "WITHDRAWAL_SUCCESSFUL_SCR").counter().count();
+        final long dbWrites = meterRegistry.get(BankMetrics.STAGE_TIMER).tag("stage", "db-write").timer().count();
+        // The balances the client, and another client, viewed before the withdrawal
+        isTransactionalBalanceCached(1);
+        isTransactionalBalanceCached(2);
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(250.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
+        Assertions.assertEquals(successfulWithdrawals + 1, meterRegistry.get(BankMetrics.OUTCOME_COUNTER).tag("reason", "WITHDRAWAL_SUCCESSFUL_SCR").counter().count());
+        Assertions.assertEquals(dbWrites + 1, meterRegistry.get(BankMetrics.STAGE_TIMER).tag("stage", "db-write").timer().count());
+        // 1 x R200 of the standard allocation's 10 dispensed
+        Assertions.assertEquals(9, meterRegistry.get(BankMetrics.CASSETTE_NOTES_GAUGE).tags("atm", "3", "denomination", "200").gauge().value());
+        Assertions.assertFalse(isTransactionalBalanceCached(1));
+        Assertions.assertTrue(isTransactionalBalanceCached(2));
+    }
+
+    /**
+     * <p>Test 'WITHDRAWAL TRANSACTION':</p>
+     * <p>Given valid client ID, account number, amount, and ATM ID, and another withdrawal debited the account after its balance was read,
+     * Should return AtmResponse with the balance the debit left, not the balance read less the amount.</p>
+     */
+    @DisplayName("""
+            Test 'WITHDRAWAL TRANSACTION': given a concurrent debit on the account should return AtmResponse with the balance the debit left
+            """)
+    @Test
+    public void postWithdrawalTransaction_givenConcurrentDebitOnTheAccount_shouldReturnTheBalanceTheDebitLeft() throws Exception {
+        final Client client = createStandardClient();
+        final ClientAccount clientAccount = createStandardZarClientAccount(client);
+
+        // Mock the repository methods, a R2 000.00 withdrawal was debited between the balance read and this debit
+        Mockito.when(atmRepository.atmExistsByAtmId(3)).thenReturn(true);
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(createStandardAtmAllocation()));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(250.000), new BigDecimal("10000"))).thenReturn(Optional.of(new BigDecimal("8000.000")));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
+
+        // Verify results
+        Assertions.assertEquals(createWithdrawalResultDto(), actualAtmResponse.result());
+        Assertions.assertEquals(createChequeAccountDto(4L, BigDecimal.valueOf(8000.000)), actualAtmResponse.account());
     }
 
     /**
@@ -651,11 +764,11 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenValidData_butWithdrawalAmountGreaterThanAccBalance_shouldReturnInsufficientFundsResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createChequeAccountDto(4L, BigDecimal.valueOf(10250.000)));
-
-        expectedAtmResponse.setResult(createWithdrawalErrorResultDto("Insufficient funds"));
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(10250.000)))
+                .result(createWithdrawalErrorResultDto("Insufficient funds"))
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarClientAccount(client);
@@ -666,10 +779,9 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
 //        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
 //        Mockito.doNothing().when(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
-//        Mockito.doNothing().when(clientAccountRepository).updateClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(10250.000));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(27000.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(27000.000));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -682,38 +794,28 @@ public class BankServiceTests {
     public void postWithdrawalTransaction_givenValidClientId_andValidCCRDAccountNumber_andValidAmount_andValidAtm_shouldReturnSuccessWithdrawalResult() throws Exception {
         // Prepare the expected AtmResponse object
         final BigDecimal ccrdLimitBalance = BigDecimal.valueOf(25000);
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createCCRDAccountDto(4L, BigDecimal.valueOf(10000.000), ccrdLimitBalance));
-
-        final DenominationDto denomination200Dto = new DenominationDto();
-        denomination200Dto.setDenominationId(5L);
-        denomination200Dto.setDenominationValue(BigDecimal.valueOf(200.000));
-        denomination200Dto.setCount(1);
+        final DenominationDto denomination200Dto = new DenominationDto(5L, new BigDecimal("200.00"), 1);
+        final DenominationDto denomination50Dto = new DenominationDto(3L, new BigDecimal("50.00"), 1);
 
-        final DenominationDto denomination50Dto = new DenominationDto();
-        denomination50Dto.setDenominationId(3L);
-        denomination50Dto.setDenominationValue(BigDecimal.valueOf(50.000));
-        denomination50Dto.setCount(1);
-
-        expectedAtmResponse.setDenomination(List.of(denomination200Dto, denomination50Dto));
-        expectedAtmResponse.setResult(createWithdrawalResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createCCRDAccountDto(4L, BigDecimal.valueOf(10000.000), ccrdLimitBalance))
+                .denomination(List.of(denomination200Dto, denomination50Dto))
+                .result(createWithdrawalResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarCCRDClientAccount(client);
 
         final List<AtmAllocation> atmAllocationList = createStandardAtmAllocation();
 
-        final AtmAllocationUpdateDto atm10AllocationUpdateDto = new AtmAllocationUpdateDto(1L, 10);
-        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 4);
-        final AtmAllocationUpdateDto atm100AllocationUpdateDto = new AtmAllocationUpdateDto(4L, 20);
-        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 9);
+        // The dispensed notes are deducted from the ATM allocation, 1 x R200 and 1 x R50
+        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 1);
+        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 1);
 
         final List<AtmAllocationUpdateDto> atmAllocationUpdateDtoList = List.of(
-                atm10AllocationUpdateDto,
-                atm50AllocationUpdateDto,
-                atm100AllocationUpdateDto,
-                atm200AllocationUpdateDto
+                atm200AllocationUpdateDto,
+                atm50AllocationUpdateDto
         );
 
         // Mock the repository methods
@@ -723,13 +825,14 @@ public class BankServiceTests {
         Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
         Mockito.when(creditCardLimitRepository.findCreditCardLimitByClientAccountNumber(clientAccount.getClientAccountNumber())).thenReturn(Optional.of(ccrdLimitBalance.setScale(3, RoundingMode.HALF_UP)));
         Mockito.doNothing().when(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
-        Mockito.doNothing().when(clientAccountRepository).updateClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(10250.000));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(250.000), BigDecimal.ZERO)).thenReturn(Optional.of(new BigDecimal("10000.000")));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(250.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
     }
 
     @DisplayName("""
@@ -738,38 +841,28 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenValidClientId_andValidSVGSAccountNumber_andValidAmount_andValidAtm_shouldReturnSuccessWithdrawalResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createSavingsAccountDto(4L, BigDecimal.valueOf(10000.000)));
-
-        final DenominationDto denomination200Dto = new DenominationDto();
-        denomination200Dto.setDenominationId(5L);
-        denomination200Dto.setDenominationValue(BigDecimal.valueOf(200.000));
-        denomination200Dto.setCount(1);
+        final DenominationDto denomination200Dto = new DenominationDto(5L, new BigDecimal("200.00"), 1);
+        final DenominationDto denomination50Dto = new DenominationDto(3L, new BigDecimal("50.00"), 1);
 
-        final DenominationDto denomination50Dto = new DenominationDto();
-        denomination50Dto.setDenominationId(3L);
-        denomination50Dto.setDenominationValue(BigDecimal.valueOf(50.000));
-        denomination50Dto.setCount(1);
-
-        expectedAtmResponse.setDenomination(List.of(denomination200Dto, denomination50Dto));
-        expectedAtmResponse.setResult(createWithdrawalResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createSavingsAccountDto(4L, BigDecimal.valueOf(10000.000)))
+                .denomination(List.of(denomination200Dto, denomination50Dto))
+                .result(createWithdrawalResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarSavingsClientAccount(client);
 
         final List<AtmAllocation> atmAllocationList = createStandardAtmAllocation();
 
-        final AtmAllocationUpdateDto atm10AllocationUpdateDto = new AtmAllocationUpdateDto(1L, 10);
-        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 4);
-        final AtmAllocationUpdateDto atm100AllocationUpdateDto = new AtmAllocationUpdateDto(4L, 20);
-        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 9);
+        // The dispensed notes are deducted from the ATM allocation, 1 x R200 and 1 x R50
+        final AtmAllocationUpdateDto atm200AllocationUpdateDto = new AtmAllocationUpdateDto(5L, 1);
+        final AtmAllocationUpdateDto atm50AllocationUpdateDto = new AtmAllocationUpdateDto(3L, 1);
 
         final List<AtmAllocationUpdateDto> atmAllocationUpdateDtoList = List.of(
-                atm10AllocationUpdateDto,
-                atm50AllocationUpdateDto,
-                atm100AllocationUpdateDto,
-                atm200AllocationUpdateDto
+                atm200AllocationUpdateDto,
+                atm50AllocationUpdateDto
         );
 
         // Mock the repository methods
@@ -778,13 +871,14 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
         Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
         Mockito.doNothing().when(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
-        Mockito.doNothing().when(clientAccountRepository).updateClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(10250.000));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(250.000), BigDecimal.ZERO)).thenReturn(Optional.of(new BigDecimal("10000.000")));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(250.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(atmAllocationRepository).updateDenominationCounts(3, atmAllocationUpdateDtoList);
     }
 
     /**
@@ -799,12 +893,12 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenValidInput_withUnderFundedAtm_shouldReturnUnfundedResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createChequeAccountDto(4L, BigDecimal.valueOf(10250.000)));
-
-        expectedAtmResponse.setDenomination(List.of());
-        expectedAtmResponse.setResult(createWithdrawalErrorResultDto("Amount not available, would you like to draw 100.00?"));
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(10250.000)))
+                .denomination(List.of())
+                .result(createWithdrawalErrorResultDto("Amount not available, would you like to draw 100.00?"))
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarClientAccount(client);
@@ -819,7 +913,7 @@ public class BankServiceTests {
         Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(250.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -838,12 +932,12 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenValidInput_withIncompatibleDenominationsInAtm_shouldReturnUnfundedResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccount(createChequeAccountDto(4L, BigDecimal.valueOf(10250.00)));
-
-        expectedAtmResponse.setDenomination(List.of());
-        expectedAtmResponse.setResult(createWithdrawalErrorResultDto("ATM can only dispense cash in multiples of 200.00"));
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(10250.00)))
+                .denomination(List.of())
+                .result(createWithdrawalErrorResultDto("ATM can only dispense cash in multiples of 200.00"))
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = createStandardZarClientAccount(client);
@@ -858,10 +952,122 @@ public class BankServiceTests {
         Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, 1, 3, "4", BigDecimal.valueOf(250.000));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    /**
+     * <p>Test 'WITHDRAWAL TRANSACTION':</p>
+     * <p>Given valid client ID, account number, amount, and ATM ID, where the ATM holds 1 x R50 and 3 x R20 notes and the client requests R60,
+     * Should return AtmResponse with 3 x R20 notes dispensed, a combination a greedy pass would have missed.</p>
+     */
+    @DisplayName("""
+            Test 'WITHDRAWAL TRANSACTION': given valid clientId, atmId, amount, and accountNumber where only a non-greedy note
+            combination can pay out the amount should return AtmResponse success result status
+            """)
+    @Test
+    public void postWithdrawalTransaction_givenValidInput_withNonGreedyNoteCombination_shouldReturnSuccessWithdrawalResult() throws Exception {
+        // Prepare the expected AtmResponse object
+        final DenominationDto denomination20Dto = new DenominationDto(2L, new BigDecimal("20.00"), 3);
+
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(10190.000)))
+                .denomination(List.of(denomination20Dto))
+                .result(createWithdrawalResultDto())
+                .build();
+
+        final Client client = createStandardClient();
+        final ClientAccount clientAccount = createStandardZarClientAccount(client);
+
+        final List<AtmAllocation> atmAllocationList = List.of(
+                createAtmAllocationWithDenomination(1, createStandardAtm(), create50NoteDenomination(), 1),
+                createAtmAllocationWithDenomination(2, createStandardAtm(), create20NoteDenomination(), 3));
+
+        // Mock the repository methods
+        Mockito.when(atmRepository.atmExistsByAtmId(3)).thenReturn(true);
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(60.000), new BigDecimal("10000"))).thenReturn(Optional.of(new BigDecimal("10190.000")));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(60.000));
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    /**
+     * <p>Test 'WITHDRAWAL TRANSACTION':</p>
+     * <p>Given valid client ID, account number, amount, and ATM ID, but the balance was spent by another withdrawal after it was read,
+     * Should return AtmResponse with insufficient funds result status, and not update the ATM allocation.</p>
+     */
+    @DisplayName("""
+            Test 'WITHDRAWAL TRANSACTION': given the guarded debit affects no rows should return AtmResponse insufficient funds status
+            """)
+    @Test
+    public void postWithdrawalTransaction_givenValidInput_butGuardedDebitRejected_shouldReturnInsufficientFundsResult() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                // The balance another withdrawal left, not the R10 250.00 read before the debit, which covers the amount
+                .account(createChequeAccountDto(4L, BigDecimal.valueOf(-9900.000)))
+                .result(createWithdrawalErrorResultDto("Insufficient funds"))
+                .build();
+
+        final Client client = createStandardClient();
+        final ClientAccount clientAccount = createStandardZarClientAccount(client);
+
+        final List<AtmAllocation> atmAllocationList = createStandardAtmAllocation();
+
+        // Mock the repository methods
+        Mockito.when(atmRepository.atmExistsByAtmId(3)).thenReturn(true);
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(clientAccount));
+        Mockito.when(atmAllocationRepository.findAtmAllocationByAtmId(3)).thenReturn(Optional.of(atmAllocationList));
+        Mockito.when(clientAccountRepository.debitClientAccountByAccountNumber(1, "4", BigDecimal.valueOf(250.000), new BigDecimal("10000"))).thenReturn(Optional.empty());
+        Mockito.when(clientAccountRepository.findDisplayBalanceByClientIdAndAccountNumber(1, "4")).thenReturn(Optional.of(new BigDecimal("-9900.000")));
+        isTransactionalBalanceCached(1);
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", BigDecimal.valueOf(250.000));
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(atmAllocationRepository, Mockito.never()).updateDenominationCounts(Mockito.anyLong(), Mockito.anyList());
+        // Nothing was debited, so the client's cached balances still hold
+        Assertions.assertTrue(isTransactionalBalanceCached(1));
+    }
+
+    @DisplayName("""
+            Test 'WITHDRAWAL TRANSACTION': given a foreign currency accountNumber should return AtmResponse no accounts status
+            """)
+    @Test
+    public void postWithdrawalTransaction_givenNonTransactionalAccountNumber_shouldReturnNoAccountsFoundResult() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .account(AccountDto.EMPTY)
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
+
+        final Client client = createStandardClient();
+        final ClientAccount clientAccount = createCfcaClientAccount(client, "21", createUsdCurrency(), new BigDecimal("1500"));
+
+        // Mock the repository methods
+        Mockito.when(atmRepository.atmExistsByAtmId(3)).thenReturn(true);
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, "21")).thenReturn(Optional.of(clientAccount));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "21", BigDecimal.valueOf(100));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(clientAccountRepository, Mockito.never()).debitClientAccountByAccountNumber(Mockito.anyLong(), Mockito.anyString(), Mockito.any(), Mockito.any());
     }
 
     @DisplayName("""
@@ -870,16 +1076,35 @@ public class BankServiceTests {
     @Test
     public void postWithdrawalTransaction_givenInvalidClientId_shouldReturnInvalidClientIdResult() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(new ClientDto());
-        expectedAtmResponse.setAccount(new AccountDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .account(AccountDto.EMPTY)
+                .result(createWithdrawalErrorResultDto("Invalid client identifier (ID) provided"))
+                .build();
 
-        expectedAtmResponse.setResult(createWithdrawalErrorResultDto("Invalid client identifier (ID) provided"));
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(-1, 3, "4", BigDecimal.valueOf(27000.000));
 
-        final AtmResponse actualAtmResponse = bankService.postWithdrawal(TRACE_ID, -1, 3, "4", BigDecimal.valueOf(27000.000));
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    @DisplayName("""
+            Test 'WITHDRAWAL TRANSACTION': given an amount with more decimals than a balance holds should return AtmResponse invalid amount status
+            """)
+    @Test
+    public void postWithdrawalTransaction_givenAmountFinerThanTheBalanceScale_shouldReturnInvalidAmountResult() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .account(AccountDto.EMPTY)
+                .result(createWithdrawalErrorResultDto("Invalid withdrawal amount requested"))
+                .build();
+
+        final AtmResponse actualAtmResponse = bankService.postWithdrawal(1, 3, "4", new BigDecimal("100.0001"));
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verify(clientAccountRepository, Mockito.never()).debitClientAccountByAccountNumber(Mockito.anyLong(), Mockito.anyString(), Mockito.any(), Mockito.any());
     }
 
     @DisplayName("""
@@ -888,15 +1113,16 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andValidClientAccounts_shouldReturnSortedTransactionalAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of(
-                createTndCFCAAccountDto(2L),
-                createAedCFCAAccountDto(4L),
-                createUsdCFCAAccountDto(1L),
-                createGbpCFCAAccountDto(3L)
-        ));
-        expectedAtmResponse.setResult(createForexResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of(
+                        createTndCFCAAccountDto(2L),
+                        createAedCFCAAccountDto(4L),
+                        createUsdCFCAAccountDto(1L),
+                        createGbpCFCAAccountDto(3L)
+                ))
+                .result(createForexResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final List<ClientAccount> clientAccounts = createStandardCFCAAccounts(client);
@@ -906,29 +1132,54 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
     }
 
+    @DisplayName("""
+            test 'CUSTOMER FOREIGN CURRENCY ACCOUNT': given accounts with equal ZAR balances should keep their order
+            """)
+    @Test
+    public void getForexAccountBalances_givenEqualZarBalances_shouldKeepTheOrderOfTheEqualAccounts() throws Exception {
+        final Client client = createStandardClient();
+        final List<ClientAccount> clientAccounts = List.of(
+                createCfcaClientAccount(client, "21", createUsdCurrency(), new BigDecimal("1500")),
+                createCfcaClientAccount(client, "22", createGbpCurrency(), new BigDecimal("10")),
+                createCfcaClientAccount(client, "23", createUsdCurrency(), new BigDecimal("1500.00")),
+                createCfcaClientAccount(client, "24", createUsdCurrency(), new BigDecimal("1")),
+                createCfcaClientAccount(client, "25", createUsdCurrency(), new BigDecimal("1500")));
+
+        // Mock the repository methods
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
+
+        // Verify results
+        Assertions.assertEquals(List.of(24L, 22L, 21L, 23L, 25L), actualAtmResponse.accounts().stream().map(AccountDto::accountNumber).toList());
+    }
+
     @DisplayName("""
             test 'CUSTOMER FOREIGN CURRENCY ACCOUNT': given valid clientId and DB returns an empty list of accounts should return no account found
             """)
     @Test
     public void getForexAccountBalances_givenValidClientId_andEmptyClientAccounts_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
         Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(createStandardClient()));
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.empty());
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -940,17 +1191,18 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andNoClientAccounts_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
         Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(createStandardClient()));
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(List.of()));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -962,16 +1214,17 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andNoClientFound_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(new ClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         // Mock the repository methods
         Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.empty());
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -983,14 +1236,14 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenInvalidClientId_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(null);
-        expectedAtmResponse.setAccounts(null);
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
-        expectedAtmResponse.getResult().setStatusReason("Invalid client identifier (ID) provided");
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(null)
+                .accounts(null)
+                .result(createResultDto(false, 400, "Invalid client identifier (ID) provided"))
+                .build();
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, -1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(-1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1002,10 +1255,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andNullBalanceClientAccount_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1028,7 +1282,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1040,10 +1294,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullCurrency_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1066,7 +1321,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1078,10 +1333,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullCurrencyCode_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1104,7 +1360,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1116,10 +1372,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullAccountType_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1142,7 +1399,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1154,10 +1411,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullAccountTypeCode_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1180,32 +1438,34 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
     }
 
     @DisplayName("""
-            test 'CUSTOMER FOREIGN CURRENCY ACCOUNT': given valid clientId and clientAccount with null accountTypeDescription should return no accounts found
+            test 'CUSTOMER FOREIGN CURRENCY ACCOUNT': given valid clientId and clientAccount with an accountType not in the reference data should return no accounts found
             """)
     @Test
-    public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullAccountTypeDescription_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
+    public void getForexAccountBalances_givenValidClientId_andClientAccount_withAccountTypeNotInReferenceData_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
         clientAccount.setClientAccountNumber("4");
         clientAccount.setClient(client);
 
+        // The account type's description is resolved through the reference data, which has no such type
         final AccountType accountType = new AccountType();
-        accountType.setAccountTypeCode("CFCA");
-        accountType.setDescription(null);
-        accountType.setTransactional(true);
+        accountType.setAccountTypeCode("NEW");
+        accountType.setDescription("New Account");
+        accountType.setTransactional(false);
 
         clientAccount.setAccountType(accountType);
         clientAccount.setCurrency(createUsdCurrency());
@@ -1218,7 +1478,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1230,10 +1490,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNullAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1256,7 +1517,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1268,10 +1529,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withEmptyAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1294,7 +1556,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1306,10 +1568,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withInvalidAccountNumber_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1332,7 +1595,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1344,10 +1607,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withUnknownCurrencyConversionRateInCache_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1376,7 +1640,7 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
@@ -1388,10 +1652,11 @@ public class BankServiceTests {
     @Test
     public void getForexAccountBalances_givenValidClientId_andClientAccount_withNoCurrencyConversionRateInCache_shouldReturnNoAccountsFoundAtmResponse() throws Exception {
         // Prepare the expected AtmResponse object
-        final AtmResponse expectedAtmResponse = new AtmResponse();
-        expectedAtmResponse.setClient(createClientDto());
-        expectedAtmResponse.setAccounts(List.of());
-        expectedAtmResponse.setResult(createNoAccountsToDisplayResultDto());
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(List.of())
+                .result(createNoAccountsToDisplayResultDto())
+                .build();
 
         final Client client = createStandardClient();
         final ClientAccount clientAccount = new ClientAccount();
@@ -1416,217 +1681,291 @@ public class BankServiceTests {
         Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(clientAccounts));
 
         // Perform SUT
-        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(TRACE_ID, 1);
+        final AtmResponse actualAtmResponse = bankService.getForexAccountBalances(1);
 
         // Verify results
         Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
     }
 
+    @DisplayName(value = """
+            Test 'CLIENT BALANCES' given valid, unknown, invalid and repeated client IDs should return the responses of the single client calls, from one query
+            """)
+    @Test
+    public void getClientAccountBalances_givenClientIds_shouldReturnTheResponsesOfTheSingleClientCalls() throws Exception {
+        final Client client = createStandardClient();
+        final List<ClientAccount> clientAccounts = new ArrayList<>(createStandardZarClientAccounts(client));
+        clientAccounts.addAll(createStandardCFCAAccounts(client));
+        final List<ClientAccountBalanceProjection> clientAccountBalances = createClientAccountBalances(client, clientAccounts);
+
+        // Mock the repository methods, client 2 is not found
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientIds(Set.of(1, 2))).thenReturn(clientAccountBalances);
+        Mockito.when(clientAccountRepository.findClientAccountBalancesByClientId(1)).thenReturn(clientAccountBalances);
+        Mockito.when(clientRepository.findByClientId(1)).thenReturn(Optional.of(client));
+        Mockito.when(clientAccountRepository.findClientAccountsByClientIdAndAccountType(1, "CFCA")).thenReturn(Optional.of(createStandardCFCAAccounts(client)));
+
+        // Perform SUT
+        final List<Integer> clientIds = Arrays.asList(1, 2, -1, null, 1);
+        final List<Integer> actualClientIds = new ArrayList<>();
+        final List<Map<BalanceView, AtmResponse>> actualResponses = new ArrayList<>();
+        bankService.getClientAccountBalances(clientIds, EnumSet.allOf(BalanceView.class), (clientId, responses) -> {
+            actualClientIds.add(clientId);
+            actualResponses.add(responses);
+        });
+
+        // Verify results
+        Mockito.verify(clientAccountRepository).findClientAccountBalancesByClientIds(Set.of(1, 2));
+        Assertions.assertEquals(clientIds, actualClientIds);
+        for (int i = 0; i < clientIds.size(); i++) {
+            Assertions.assertEquals(List.of(BalanceView.TRANSACTIONAL, BalanceView.CURRENCY), List.copyOf(actualResponses.get(i).keySet()));
+            Assertions.assertEquals(bankService.getTransactionalClientAccountBalances(clientIds.get(i)), actualResponses.get(i).get(BalanceView.TRANSACTIONAL));
+            Assertions.assertEquals(bankService.getForexAccountBalances(clientIds.get(i)), actualResponses.get(i).get(BalanceView.CURRENCY));
+        }
+        Assertions.assertTrue(actualResponses.get(0).get(BalanceView.TRANSACTIONAL).result().success());
+        Assertions.assertTrue(actualResponses.get(0).get(BalanceView.CURRENCY).result().success());
+    }
+
+    @DisplayName(value = """
+            Test 'CLIENT BALANCES' given more clients than a batch should read the clients a batch per query, in the order of the IDs
+            """)
+    @Test
+    public void getClientAccountBalances_givenMoreClientsThanABatch_shouldReadTheClientsABatchPerQuery() throws Exception {
+        final Object bankServiceTarget = AopTestUtils.getUltimateTargetObject(bankService);
+        ReflectionTestUtils.setField(bankServiceTarget, "balanceEnquiryBatchSize", 2);
+        try {
+            // Perform SUT
+            final List<Integer> actualClientIds = new ArrayList<>();
+            bankService.getClientAccountBalances(List.of(5, 4, 3, 2, 1), EnumSet.of(BalanceView.TRANSACTIONAL),
+                    (clientId, responses) -> actualClientIds.add(clientId));
+
+            // Verify results
+            Assertions.assertEquals(List.of(5, 4, 3, 2, 1), actualClientIds);
+            Mockito.verify(clientAccountRepository).findClientAccountBalancesByClientIds(Set.of(5, 4));
+            Mockito.verify(clientAccountRepository).findClientAccountBalancesByClientIds(Set.of(3, 2));
+            Mockito.verify(clientAccountRepository).findClientAccountBalancesByClientIds(Set.of(1));
+            Mockito.verify(clientAccountRepository, Mockito.never()).findClientAccountBalancesByClientId(Mockito.anyLong());
+        } finally {
+            ReflectionTestUtils.setField(bankServiceTarget, "balanceEnquiryBatchSize", 500);
+        }
+    }
+
+    @DisplayName(value = """
+            Test 'CLIENT POSITION' given valid client ID with a position should return the position rounded half up to 2 decimals
+            """)
+    @Test
+    public void getClientPosition_givenValidClientId_shouldReturnRoundedPosition() throws Exception {
+        // Prepare the expected AtmResponse object
+        final ClientPositionDto clientPositionDto = new ClientPositionDto(new BigDecimal("-1101500.00"), new BigDecimal("110250.01"), new BigDecimal("-984925.73"));
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(createClientDto())
+                .position(clientPositionDto)
+                .result(createResultDto(true, 200, "Displaying client financial position"))
+                .build();
+
+        // Mock the repository methods
+        Mockito.when(clientPositionRepository.findClientPositionByClientId(1)).thenReturn(Optional.of(createClientPosition(createStandardClient(),
+                new BigDecimal("-1101500.000"), new BigDecimal("110250.005"), new BigDecimal("-984925.7349999999999999999999999999999"))));
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getClientPosition(1);
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    @DisplayName(value = """
+            Test 'CLIENT POSITION' given an unknown client ID should return no client found
+            """)
+    @Test
+    public void getClientPosition_givenUnknownClientId_shouldReturnNoClientFoundAtmResponse() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .result(createResultDto(false, 400, "No client with the provided ID found"))
+                .build();
+
+        // Mock the repository methods
+        Mockito.when(clientPositionRepository.findClientPositionByClientId(99)).thenReturn(Optional.empty());
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getClientPosition(99);
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+    }
+
+    @DisplayName(value = """
+            Test 'CLIENT POSITION' given an invalid client ID should not look the position up
+            """)
+    @Test
+    public void getClientPosition_givenInvalidClientId_shouldReturnInvalidClientIdentifierAtmResponse() throws Exception {
+        // Prepare the expected AtmResponse object
+        final AtmResponse expectedAtmResponse = AtmResponse.builder()
+                .result(createResultDto(false, 400, "Invalid client identifier (ID) provided"))
+                .build();
+
+        // Perform SUT
+        final AtmResponse actualAtmResponse = bankService.getClientPosition(-1);
+
+        // Verify results
+        Assertions.assertEquals(expectedAtmResponse, actualAtmResponse);
+        Mockito.verifyNoInteractions(clientPositionRepository);
+    }
+
     private ClientDto createClientDto() {
-        final ClientDto clientDto = new ClientDto();
-        clientDto.setId(1L);
-        clientDto.setTitle("Mr");
-        clientDto.setName("Tao");
-        clientDto.setSurname("Muzvidziwa");
-        return clientDto;
+        return new ClientDto(1L, "Mr", "Tao", "Muzvidziwa");
     }
 
     private AccountDto createChequeAccountDto(final Long accountNumber, final BigDecimal balance) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CHQ");
-        accountDto.setAccountTypeDescription("Cheque Account");
-        accountDto.setCurrencyCode("ZAR");
-        accountDto.setConversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setBalance(balance.setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getBalance().add(BigDecimal.valueOf(10000.000).setScale(3, RoundingMode.HALF_UP)));
-        return accountDto;
+        final BigDecimal accountBalance = balance.setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CHQ")
+                .accountTypeDescription("Cheque Account")
+                .currencyCode("ZAR")
+                .conversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP))
+                .balance(accountBalance)
+                .zarBalance(accountBalance.setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(accountBalance.add(BigDecimal.valueOf(10000.000).setScale(3, RoundingMode.HALF_UP)))
+                .build();
     }
 
     private AccountDto createCCRDAccountDto(final Long accountNumber, final BigDecimal balance, final BigDecimal ccrdLimitBalance) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CCRD");
-        accountDto.setAccountTypeDescription("Credit Card Account");
-        accountDto.setCurrencyCode("ZAR");
-        accountDto.setConversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setBalance(balance.setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getBalance().subtract(ccrdLimitBalance).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(ccrdLimitBalance.setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal accountBalance = balance.setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CCRD")
+                .accountTypeDescription("Credit Card")
+                .currencyCode("ZAR")
+                .conversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP))
+                .balance(accountBalance)
+                .zarBalance(accountBalance.subtract(ccrdLimitBalance).setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(ccrdLimitBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
     }
 
     private AccountDto createSVGSAccountDto(final Long accountNumber, final BigDecimal balance) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("SVGS");
-        accountDto.setAccountTypeDescription("Savings Account");
-        accountDto.setCurrencyCode("ZAR");
-        accountDto.setConversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setBalance(balance.setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getBalance().add(BigDecimal.valueOf(10000.000).setScale(3, RoundingMode.HALF_UP)));
-        return accountDto;
+        final BigDecimal accountBalance = balance.setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("SVGS")
+                .accountTypeDescription("Savings Account")
+                .currencyCode("ZAR")
+                .conversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP))
+                .balance(accountBalance)
+                .zarBalance(accountBalance.setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(accountBalance.add(BigDecimal.valueOf(10000.000).setScale(3, RoundingMode.HALF_UP)))
+                .build();
     }
 
     private AccountDto createSavingsAccountDto(final Long accountNumber, final BigDecimal balance) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("SVGS");
-        accountDto.setAccountTypeDescription("Savings Account");
-        accountDto.setCurrencyCode("ZAR");
-        accountDto.setConversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setBalance(balance.setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal accountBalance = balance.setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("SVGS")
+                .accountTypeDescription("Savings Account")
+                .currencyCode("ZAR")
+                .conversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP))
+                .balance(accountBalance)
+                .zarBalance(accountBalance.setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(accountBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
     }
 
     private AccountDto createUsdCFCAAccountDto(final Long accountNumber) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CFCA");
-        accountDto.setAccountTypeDescription("Customer Foreign Currency Account");
-        accountDto.setCurrencyCode("USD");
-        accountDto.setConversionRate(BigDecimal.valueOf(18.6167).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setCcyBalance(BigDecimal.valueOf(1500.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getCcyBalance().multiply(BigDecimal.valueOf(18.6167)).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getCcyBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal ccyBalance = BigDecimal.valueOf(1500.000).setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CFCA")
+                .accountTypeDescription("Customer Foreign Currency Account")
+                .currencyCode("USD")
+                .conversionRate(BigDecimal.valueOf(18.6167).setScale(3, RoundingMode.HALF_UP))
+                .ccyBalance(ccyBalance)
+                .zarBalance(ccyBalance.multiply(BigDecimal.valueOf(18.6167)).setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(ccyBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
     }
 
     private AccountDto createTndCFCAAccountDto(final Long accountNumber) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CFCA");
-        accountDto.setAccountTypeDescription("Customer Foreign Currency Account");
-        accountDto.setCurrencyCode("TND");
-        accountDto.setConversionRate(BigDecimal.valueOf(0.1666).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setCcyBalance(BigDecimal.valueOf(500.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getCcyBalance().multiply(BigDecimal.valueOf(0.1666)).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getCcyBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal ccyBalance = BigDecimal.valueOf(500.000).setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CFCA")
+                .accountTypeDescription("Customer Foreign Currency Account")
+                .currencyCode("TND")
+                .conversionRate(BigDecimal.valueOf(0.1666).setScale(3, RoundingMode.HALF_UP))
+                .ccyBalance(ccyBalance)
+                .zarBalance(ccyBalance.multiply(BigDecimal.valueOf(0.1666)).setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(ccyBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
     }
 
     private AccountDto createGbpCFCAAccountDto(final Long accountNumber) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CFCA");
-        accountDto.setAccountTypeDescription("Customer Foreign Currency Account");
-        accountDto.setCurrencyCode("GBP");
-        accountDto.setConversionRate(BigDecimal.valueOf(23.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setCcyBalance(BigDecimal.valueOf(2025.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getCcyBalance().multiply(BigDecimal.valueOf(23.000)).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getCcyBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal ccyBalance = BigDecimal.valueOf(2025.000).setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CFCA")
+                .accountTypeDescription("Customer Foreign Currency Account")
+                .currencyCode("GBP")
+                .conversionRate(BigDecimal.valueOf(23.000).setScale(3, RoundingMode.HALF_UP))
+                .ccyBalance(ccyBalance)
+                .zarBalance(ccyBalance.multiply(BigDecimal.valueOf(23.000)).setScale(3, RoundingMode.HALF_UP))
+                .accountLimit(ccyBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
     }
 
     private AccountDto createAedCFCAAccountDto(final Long accountNumber) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("CFCA");
-        accountDto.setAccountTypeDescription("Customer Foreign Currency Account");
-        accountDto.setCurrencyCode("AED");
-        accountDto.setConversionRate(BigDecimal.valueOf(0.3196).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setCcyBalance(BigDecimal.valueOf(1000.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getCcyBalance().divide(BigDecimal.valueOf(0.3196), 3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getCcyBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
-    }
-
-    private AccountDto createHomeLoanAccountDto(final Long accountNumber, final BigDecimal balance) {
-        final AccountDto accountDto = new AccountDto();
-        accountDto.setAccountNumber(accountNumber);
-        accountDto.setTypeCode("HLOAN");
-        accountDto.setAccountTypeDescription("Home Loan Account");
-        accountDto.setCurrencyCode("ZAR");
-        accountDto.setConversionRate(BigDecimal.valueOf(1.000).setScale(3, RoundingMode.HALF_UP));
-        accountDto.setBalance(balance.setScale(3, RoundingMode.HALF_UP));
-        accountDto.setZarBalance(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        accountDto.setAccountLimit(accountDto.getBalance().setScale(3, RoundingMode.HALF_UP));
-        return accountDto;
+        final BigDecimal ccyBalance = BigDecimal.valueOf(1000.000).setScale(3, RoundingMode.HALF_UP);
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode("CFCA")
+                .accountTypeDescription("Customer Foreign Currency Account")
+                .currencyCode("AED")
+                .conversionRate(BigDecimal.valueOf(0.3196).setScale(3, RoundingMode.HALF_UP))
+                .ccyBalance(ccyBalance)
+                .zarBalance(ccyBalance.divide(BigDecimal.valueOf(0.3196), 3, RoundingMode.HALF_UP))
+                .accountLimit(ccyBalance.setScale(3, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    /**
+     * Looks up the client's transactional balances in the {@link BalanceResponseCache}, caching a successful response if
+     * they are not cached.
+     *
+     * @return true if the balances were cached
+     */
+    private boolean isTransactionalBalanceCached(final Integer clientId) throws Exception {
+        final long hits = balanceResponseCache.getHitCount();
+        balanceResponseCache.getOrLoad(clientId, BalanceView.TRANSACTIONAL, () -> {
+            return AtmResponse.builder()
+                    .client(createClientDto())
+                    .result(createTransactionalResultDto())
+                    .build();
+        }, TRACE_ID);
+        return balanceResponseCache.getHitCount() > hits;
+    }
+
+    private ResultDto createResultDto(final boolean success, final int statusCode, final String statusReason) {
+        return new ResultDto(success, statusCode, statusReason);
     }
 
     private ResultDto createTransactionalResultDto() {
-        final ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(true);
-        resultDto.setStatusCode(200);
-        resultDto.setStatusReason("Displaying transactional accounts");
-        return resultDto;
+        return new ResultDto(true, 200, "Displaying transactional accounts");
     }
 
     private ResultDto createForexResultDto() {
-        final ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(true);
-        resultDto.setStatusCode(200);
-        resultDto.setStatusReason("Displaying foreign currency accounts");
-        return resultDto;
+        return new ResultDto(true, 200, "Displaying foreign currency accounts");
     }
 
     private ResultDto createWithdrawalResultDto() {
-        final ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(true);
-        resultDto.setStatusCode(200);
-        resultDto.setStatusReason("Withdrawal successful");
-        return resultDto;
+        return new ResultDto(true, 200, "Withdrawal successful");
     }
 
     private ResultDto createWithdrawalErrorResultDto(final String message) {
-        final ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(false);
-        resultDto.setStatusCode(400);
-        resultDto.setStatusReason(message);
-        return resultDto;
+        return new ResultDto(false, 400, message);
     }
 
     private ResultDto createNoAccountsToDisplayResultDto() {
-        final ResultDto resultDto = new ResultDto();
-        resultDto.setSuccess(false);
-        resultDto.setStatusCode(400);
-        resultDto.setStatusReason("No accounts to display");
-        return resultDto;
-    }
-
-    private Map<String, ConversionRatesDto> createConversionRatesDtoMap() {
-        final ConversionRatesDto conversionRatesDtoZar = new ConversionRatesDto();
-        conversionRatesDtoZar.setConversionIndicator("/");
-        conversionRatesDtoZar.setConversionRate("1.000");
-
-        final ConversionRatesDto conversionRatesDtoUsd = new ConversionRatesDto();
-        conversionRatesDtoUsd.setConversionIndicator("*");
-        conversionRatesDtoUsd.setConversionRate("18.6167");
-
-        final ConversionRatesDto conversionRatesDtoTnd = new ConversionRatesDto();
-        conversionRatesDtoTnd.setConversionIndicator("*");
-        conversionRatesDtoTnd.setConversionRate("0.1666");
-
-        return Map.of(
-                "ZAR", conversionRatesDtoZar,
-                "USD", conversionRatesDtoUsd,
-                "TND", conversionRatesDtoTnd
-        );
-    }
-
-    private ConversionRatesDto createZarConversionRateDto() {
-        final ConversionRatesDto conversionRatesDto = new ConversionRatesDto();
-        conversionRatesDto.setConversionIndicator("/");
-        conversionRatesDto.setConversionRate("1.000");
-        return conversionRatesDto;
-    }
-
-    private ConversionRatesDto createUsdConversionRateDto() {
-        final ConversionRatesDto conversionRatesDto = new ConversionRatesDto();
-        conversionRatesDto.setConversionIndicator("*");
-        conversionRatesDto.setConversionRate("18.6167");
-        return conversionRatesDto;
-    }
-
-    private ConversionRatesDto createTndConversionRateDto() {
-        final ConversionRatesDto conversionRatesDto = new ConversionRatesDto();
-        conversionRatesDto.setConversionIndicator("*");
-        conversionRatesDto.setConversionRate("0.1666");
-        return conversionRatesDto;
+        return new ResultDto(false, 400, "No accounts to display");
     }
 
     private CurrencyConversionRate createZarCurrencyConversionRate() {
@@ -1685,6 +2024,7 @@ public class BankServiceTests {
         clientSubType.setClientSubTypeCode("MAL");
         clientSubType.setClientType(clientType);
         clientSubType.setDescription("Male");
+        client.setClientSubType(clientSubType);
 
         return client;
     }
@@ -1703,7 +2043,7 @@ public class BankServiceTests {
         final AccountType homeLoanAccountType = new AccountType();
         homeLoanAccountType.setAccountTypeCode("HLOAN");
         homeLoanAccountType.setDescription("Home Loan Account");
-        homeLoanAccountType.setTransactional(true);
+        homeLoanAccountType.setTransactional(false);
 
         final Currency currency = new Currency();
         currency.setCurrencyCode("ZAR");
@@ -1804,6 +2144,28 @@ public class BankServiceTests {
         return clientAccount;
     }
 
+    private ClientAccount createZarSavingsClientAccount(final Client client, final String accountNumber, final BigDecimal displayBalance) {
+        final ClientAccount clientAccount = createStandardZarSavingsClientAccount(client);
+        clientAccount.setClientAccountNumber(accountNumber);
+        clientAccount.setDisplayBalance(displayBalance);
+        return clientAccount;
+    }
+
+    private ClientAccount createCfcaClientAccount(final Client client, final String accountNumber, final Currency currency, final BigDecimal displayBalance) {
+        final AccountType cFCAAccountType = new AccountType();
+        cFCAAccountType.setAccountTypeCode("CFCA");
+        cFCAAccountType.setDescription("Customer Foreign Currency Account");
+        cFCAAccountType.setTransactional(false);
+
+        final ClientAccount clientAccount = new ClientAccount();
+        clientAccount.setClientAccountNumber(accountNumber);
+        clientAccount.setClient(client);
+        clientAccount.setAccountType(cFCAAccountType);
+        clientAccount.setCurrency(currency);
+        clientAccount.setDisplayBalance(displayBalance);
+        return clientAccount;
+    }
+
     private List<ClientAccount> createStandardCFCAAccounts(final Client client) {
         final AccountType cFCAAccountType = new AccountType();
         cFCAAccountType.setAccountTypeCode("CFCA");
@@ -1889,6 +2251,49 @@ public class BankServiceTests {
         return currency;
     }
 
+    private List<ClientAccountBalanceProjection> createClientAccountBalances(final Client client, final List<ClientAccount> clientAccounts) {
+        // A client without accounts is read as a single row with only the client's details populated
+        if (clientAccounts.isEmpty()) {
+            return List.of(createClientAccountBalance(client, null));
+        }
+
+        final List<ClientAccountBalanceProjection> clientAccountBalances = new ArrayList<>();
+        for (ClientAccount clientAccount : clientAccounts) {
+            clientAccountBalances.add(createClientAccountBalance(client, clientAccount));
+        }
+        return clientAccountBalances;
+    }
+
+    private ClientAccountBalanceProjection createClientAccountBalance(final Client client, final ClientAccount clientAccount) {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("clientId", client.getClientId());
+        row.put("title", client.getTitle());
+        row.put("name", client.getName());
+        row.put("surname", client.getSurname());
+        row.put("clientSubTypeCode", client.getClientSubType() != null ? client.getClientSubType().getClientSubTypeCode() : null);
+        if (clientAccount != null) {
+            row.put("clientAccountNumber", clientAccount.getClientAccountNumber());
+            row.put("accountTypeCode", clientAccount.getAccountType() != null ? clientAccount.getAccountType().getAccountTypeCode() : null);
+            row.put("currencyCode", clientAccount.getCurrency() != null ? clientAccount.getCurrency().getCurrencyCode() : null);
+            row.put("displayBalance", clientAccount.getDisplayBalance());
+        }
+        return PROJECTION_FACTORY.createProjection(ClientAccountBalanceProjection.class, row);
+    }
+
+    private ClientPositionProjection createClientPosition(final Client client, final BigDecimal loanBalance,
+                                                          final BigDecimal transactionalBalance, final BigDecimal netPosition) {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("clientId", client.getClientId());
+        row.put("title", client.getTitle());
+        row.put("name", client.getName());
+        row.put("surname", client.getSurname());
+        row.put("clientSubTypeCode", client.getClientSubType() != null ? client.getClientSubType().getClientSubTypeCode() : null);
+        row.put("loanBalance", loanBalance);
+        row.put("transactionalBalance", transactionalBalance);
+        row.put("netPosition", netPosition);
+        return PROJECTION_FACTORY.createProjection(ClientPositionProjection.class, row);
+    }
+
     private List<AtmAllocation> createStandardAtmAllocation() {
         final Atm atm = createStandardAtm();
 
@@ -0,0 +1,119 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+import za.co.discovery.tao.muzvidziwa.domain.service.report.FinancialPositionReportAggregator;
+import za.co.discovery.tao.muzvidziwa.domain.service.report.ReportAggregator;
+import za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the month-end reports from a single scan against the sample data and compares them with the reports written
+ * by running each report's SQL.
+ */
+@SpringBootTest
+public class CombinedReportExecutorTests {
+    private static final String TRACE_ID = "test-trace";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ResourceLoader resourceLoader;
+    @Autowired
+    private List<ReportAggregator> reportAggregators;
+    @Autowired
+    private ClientPositionRepository clientPositionRepository;
+
+    @TempDir
+    private Path tempDirectory;
+
+    @DisplayName("""
+            test 'RUN REPORTS' should write every registered report, each the same as the report's SQL writes it
+            """)
+    @Test
+    public void runReports_givenSampleData_shouldMatchSqlReports() throws Exception {
+        assertReportsMatchSqlReports();
+    }
+
+    @DisplayName("""
+            test 'RUN REPORTS' given tied and missing balances, clients without accounts or positions and credit cards without limits should match the SQL reports
+            """)
+    @Test
+    @Transactional
+    public void runReports_givenEdgeCases_shouldMatchSqlReports() throws Exception {
+        // Rolled back after the test, the reports read them on the test's transaction
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('9999999999', 1, 'SVGS', 'ZAR', 41693.22)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000001', 1, 'CHQ', 'ZAR', 41693.22)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000002', 2, 'CHQ', 'ZAR', NULL)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000003', 3, 'CCRD', 'ZAR', 1234.565)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000004', 3, 'CFCA', 'GBP', -0.005)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000005', 3, 'CFCA', 'AUD', 100.001)");
+        jdbcTemplate.update("INSERT INTO CLIENT VALUES (9000, NULL, 'Lonely', NULL, DATE '1990-01-01', 'MAL')");
+        jdbcTemplate.update("INSERT INTO CLIENT VALUES (9001, 'Mr', 'Empty', 'Cheque', DATE '1990-01-01', 'MAL')");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000006', 9001, 'CHQ', 'ZAR', NULL)");
+        // The accounts were inserted behind the repositories' back, client 9000 is left without a position
+        clientPositionRepository.recalculateClientPositions(1, 9001, new BigDecimal("10000"));
+        jdbcTemplate.update("DELETE FROM CLIENT_POSITION WHERE CLIENT_ID = 9000");
+
+        assertReportsMatchSqlReports();
+        // The client without a position is still listed
+        Assertions.assertTrue(writeSqlReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION).contains("Lonely, 0.00, 0.00, 0.00" + System.lineSeparator()));
+    }
+
+    @DisplayName("""
+            test 'RUN REPORTS' should write only the reports of the registered aggregators
+            """)
+    @Test
+    public void runReports_givenSingleAggregator_shouldWriteOnlyItsReport() throws Exception {
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, tempDirectory.resolve("combined").toString(), 2, false);
+        final CombinedReportExecutor combinedReportExecutor = new CombinedReportExecutor(reportWriter, jdbcTemplate,
+                List.of(new FinancialPositionReportAggregator()), 2);
+
+        final List<Path> reportFiles = combinedReportExecutor.runReports(TRACE_ID);
+
+        Assertions.assertEquals(1, reportFiles.size());
+        Assertions.assertEquals(writeSqlReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION),
+                Files.readString(reportFiles.get(0), StandardCharsets.UTF_8));
+        Assertions.assertEquals(List.of(reportFiles.get(0)), listFiles(tempDirectory.resolve("combined")));
+    }
+
+    private void assertReportsMatchSqlReports() throws IOException {
+        // A fetch size smaller than the number of rows, so the rows are read over several fetches
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, tempDirectory.resolve("combined").toString(), 2, false);
+        final CombinedReportExecutor combinedReportExecutor = new CombinedReportExecutor(reportWriter, jdbcTemplate, reportAggregators, 2);
+
+        final List<Path> reportFiles = combinedReportExecutor.runReports(TRACE_ID);
+
+        Assertions.assertEquals(MonthEndReport.values().length, reportFiles.size());
+        for (int i = 0; i < reportFiles.size(); i++) {
+            Assertions.assertEquals(writeSqlReport(reportAggregators.get(i).report()), Files.readString(reportFiles.get(i), StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals(reportFiles.size(), listFiles(tempDirectory.resolve("combined")).size());
+    }
+
+    private String writeSqlReport(final MonthEndReport report) throws IOException {
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, tempDirectory.resolve("sql").toString(), 1000, false);
+        return Files.readString(reportWriter.writeReport(report, TRACE_ID), StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
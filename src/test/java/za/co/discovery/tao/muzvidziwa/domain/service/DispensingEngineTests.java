@@ -0,0 +1,87 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.DispensePlanDto;
+
+public class DispensingEngineTests {
+    private static final long[] STANDARD_DENOMINATIONS = {20000, 10000, 5000, 2000, 1000};
+
+    private final DispensingEngine dispensingEngine = new DispensingEngine();
+
+    @DisplayName("""
+            test 'PLAN' given a well funded ATM should dispense the requested amount with the fewest notes
+            """)
+    @Test
+    public void plan_givenWellFundedAtm_shouldReturnExactPlanWithFewestNotes() {
+        final DispensePlanDto plan = dispensingEngine.plan(STANDARD_DENOMINATIONS, new int[]{10, 20, 5, 0, 10}, 25000);
+
+        Assertions.assertTrue(plan.isExact(25000));
+        Assertions.assertArrayEquals(new int[]{1, 0, 1, 0, 0}, plan.getNoteCounts());
+    }
+
+    @DisplayName("""
+            test 'PLAN' given R60 requested with R50 and R20 notes should dispense 3 x R20 where greedy would fail
+            """)
+    @Test
+    public void plan_givenAmountGreedyMisses_shouldReturnExactPlan() {
+        final DispensePlanDto plan = dispensingEngine.plan(new long[]{5000, 2000}, new int[]{1, 3}, 6000);
+
+        Assertions.assertTrue(plan.isExact(6000));
+        Assertions.assertArrayEquals(new int[]{0, 3}, plan.getNoteCounts());
+    }
+
+    @DisplayName("""
+            test 'PLAN' given an under funded ATM should return the largest dispensable amount below the requested amount
+            """)
+    @Test
+    public void plan_givenUnderFundedAtm_shouldReturnLargestDispensableAmount() {
+        final DispensePlanDto plan = dispensingEngine.plan(new long[]{1000}, new int[]{10}, 25000);
+
+        Assertions.assertFalse(plan.isExact(25000));
+        Assertions.assertEquals(10000, plan.getDispensableCents());
+        Assertions.assertArrayEquals(new int[]{10}, plan.getNoteCounts());
+    }
+
+    @DisplayName("""
+            test 'PLAN' given the note counts cannot make up the amount should return the largest lower amount they can make up
+            """)
+    @Test
+    public void plan_givenIncompatibleNoteCounts_shouldReturnLargestLowerAmount() {
+        // R130 cannot be made from 2 x R50 and 1 x R20, the best the ATM can do is R120
+        final DispensePlanDto plan = dispensingEngine.plan(new long[]{5000, 2000}, new int[]{2, 1}, 13000);
+
+        Assertions.assertEquals(12000, plan.getDispensableCents());
+        Assertions.assertArrayEquals(new int[]{2, 1}, plan.getNoteCounts());
+    }
+
+    @DisplayName("""
+            test 'PLAN' given an empty ATM should return a zero plan
+            """)
+    @Test
+    public void plan_givenEmptyAtm_shouldReturnZeroPlan() {
+        final DispensePlanDto plan = dispensingEngine.plan(STANDARD_DENOMINATIONS, new int[]{0, 0, 0, 0, 0}, 25000);
+
+        Assertions.assertEquals(0, plan.getDispensableCents());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0, 0, 0}, plan.getNoteCounts());
+    }
+
+    @DisplayName("""
+            test 'PLAN' given a large request against a nearly drained ATM should respect every note count
+            """)
+    @Test
+    public void plan_givenLargeRequest_shouldNeverExceedAvailableNotes() {
+        final int[] available = {3, 1, 7, 2, 9};
+        final DispensePlanDto plan = dispensingEngine.plan(STANDARD_DENOMINATIONS, available, 5_000_000);
+
+        long dispensed = 0;
+        for (int i = 0; i < STANDARD_DENOMINATIONS.length; i++) {
+            Assertions.assertTrue(plan.getNoteCounts()[i] <= available[i]);
+            dispensed += STANDARD_DENOMINATIONS[i] * plan.getNoteCounts()[i];
+        }
+        // The ATM holds R600 + R100 + R350 + R40 + R90 = R1 180 in total
+        Assertions.assertEquals(118000, plan.getDispensableCents());
+        Assertions.assertEquals(plan.getDispensableCents(), dispensed);
+    }
+}
@@ -0,0 +1,78 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the month-end reports over client ID ranges against the sample data and compares them with a single run of the
+ * report's SQL.
+ */
+@SpringBootTest
+public class PartitionedReportExecutorTests {
+    private static final String TRACE_ID = "test-trace";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @TempDir
+    private Path tempDirectory;
+
+    @DisplayName("""
+            test 'RUN REPORT' over more ranges than threads should write the same report as a single run, in client ID order
+            """)
+    @Test
+    public void runReport_givenMoreRangesThanThreads_shouldMatchSingleRun() throws Exception {
+        final PartitionedReportExecutor partitionedReportExecutor = createPartitionedReportExecutor(3, 2);
+
+        for (MonthEndReport report : MonthEndReport.values()) {
+            Assertions.assertEquals(writeSingleRunReport(report),
+                    Files.readString(partitionedReportExecutor.runReport(report, TRACE_ID), StandardCharsets.UTF_8));
+        }
+        // Only the reports are left, the part files are removed
+        Assertions.assertEquals(MonthEndReport.values().length, listFiles(tempDirectory.resolve("partitioned")).size());
+    }
+
+    @DisplayName("""
+            test 'RUN REPORT' over more ranges than there are clients should write the same report as a single run
+            """)
+    @Test
+    public void runReport_givenMoreRangesThanClients_shouldMatchSingleRun() throws Exception {
+        final PartitionedReportExecutor partitionedReportExecutor = createPartitionedReportExecutor(1000, 4);
+
+        Assertions.assertEquals(writeSingleRunReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION),
+                Files.readString(partitionedReportExecutor.runReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION, TRACE_ID),
+                        StandardCharsets.UTF_8));
+    }
+
+    private PartitionedReportExecutor createPartitionedReportExecutor(final int partitions, final int threads) {
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, tempDirectory.resolve("partitioned").toString(), 2, false);
+        return new PartitionedReportExecutor(reportWriter, jdbcTemplate, partitions, threads);
+    }
+
+    private String writeSingleRunReport(final MonthEndReport report) throws IOException {
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, tempDirectory.resolve("single").toString(), 1000, false);
+        return Files.readString(reportWriter.writeReport(report, TRACE_ID), StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
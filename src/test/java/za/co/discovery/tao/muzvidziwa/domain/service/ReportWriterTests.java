@@ -0,0 +1,148 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.discovery.tao.muzvidziwa.domain.constant.MonthEndReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes the month-end reports against the sample data and compares them with the reports as they were built before
+ * they were streamed, i.e., in memory from the report's SQL (the highest-balance report from its correlated subquery).
+ */
+@SpringBootTest
+public class ReportWriterTests {
+    private static final String TRACE_ID = "test-trace";
+    /**
+     * The highest-balance report's SQL before each client's highest balance was worked out while streaming the rows.
+     */
+    private static final String CORRELATED_HIGHEST_BALANCE_SQL = """
+            SELECT c.CLIENT_ID                  AS "Client Id",
+                   c.SURNAME                    AS "Client Surname",
+                   ca.CLIENT_ACCOUNT_NUMBER     AS "Client Account Number",
+                   act.DESCRIPTION              AS "Account Description",
+                   ROUND(ca.DISPLAY_BALANCE, 2) AS "Display Balance"
+            FROM CLIENT c
+                     JOIN
+                 CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
+                     JOIN
+                 ACCOUNT_TYPE act ON ca.ACCOUNT_TYPE_CODE = act.ACCOUNT_TYPE_CODE
+            WHERE c.CLIENT_ID BETWEEN :fromClientId AND :toClientId
+              AND ca.DISPLAY_BALANCE = (
+                SELECT MAX(ca2.DISPLAY_BALANCE)
+                FROM CLIENT_ACCOUNT ca2
+                WHERE ca2.CLIENT_ID = c.CLIENT_ID
+                )
+            ORDER BY c.CLIENT_ID""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @TempDir
+    private Path reportDirectory;
+
+    @DisplayName("""
+            test 'WRITE REPORT' should write the same header and rows as the in-memory report and leave no temporary file behind
+            """)
+    @Test
+    public void writeReport_givenEachReport_shouldMatchInMemoryReport() throws Exception {
+        // A fetch size smaller than the number of rows, so the rows are read over several fetches
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, reportDirectory.toString(), 2, false);
+
+        for (MonthEndReport report : MonthEndReport.values()) {
+            final Path reportFile = reportWriter.writeReport(report, TRACE_ID);
+
+            Assertions.assertTrue(reportFile.getFileName().toString().startsWith(report.fileNamePrefix + "_"));
+            Assertions.assertTrue(reportFile.getFileName().toString().endsWith(".txt"));
+            Assertions.assertEquals(buildInMemoryReport(report), Files.readString(reportFile, StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertEquals(MonthEndReport.values().length, listReportDirectory().size());
+        Assertions.assertTrue(listReportDirectory().stream().noneMatch(file -> file.toString().endsWith(".tmp")));
+    }
+
+    @DisplayName("""
+            test 'WRITE REPORT' with gzip enabled should write a gzip file holding the same report
+            """)
+    @Test
+    public void writeReport_givenGzipEnabled_shouldWriteCompressedReport() throws Exception {
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, reportDirectory.toString(), 1000, true);
+
+        final Path reportFile = reportWriter.writeReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION, TRACE_ID);
+
+        Assertions.assertTrue(reportFile.getFileName().toString().endsWith(".txt.gz"));
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(reportFile))) {
+            Assertions.assertEquals(buildInMemoryReport(MonthEndReport.CLIENT_AGGREGATE_FINANCIAL_POSITION),
+                    new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @DisplayName("""
+            test 'WRITE REPORT' of the highest balances given tied balances should match the correlated subquery report, ties included
+            """)
+    @Test
+    @Transactional
+    public void writeReport_givenTiedHighestBalances_shouldMatchCorrelatedSubqueryReport() throws Exception {
+        // Rolled back after the test, the report reads them on the test's transaction
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('9999999999', 1, 'SVGS', 'ZAR', 41693.22)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000001', 1, 'CHQ', 'ZAR', 41693.22)");
+        jdbcTemplate.update("INSERT INTO CLIENT_ACCOUNT VALUES ('0000000002', 2, 'CHQ', 'ZAR', NULL)");
+        final ReportWriter reportWriter = new ReportWriter(jdbcTemplate, resourceLoader, reportDirectory.toString(), 2, false);
+
+        final Path reportFile = reportWriter.writeReport(MonthEndReport.TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE, TRACE_ID);
+
+        final String report = Files.readString(reportFile, StandardCharsets.UTF_8);
+        Assertions.assertEquals(buildInMemoryReport(MonthEndReport.TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE), report);
+        Assertions.assertTrue(report.contains(String.join(System.lineSeparator(),
+                "1, Melcher, 9164010053, Customer Foreign Currency Account, 41693.22",
+                "1, Melcher, 9999999999, Savings Account, 41693.22",
+                "1, Melcher, 0000000001, Cheque Account, 41693.22")));
+    }
+
+    private String buildInMemoryReport(final MonthEndReport report) throws IOException {
+        if (report == MonthEndReport.TRANSACTIONAL_ACCOUNT_HIGHEST_BALANCE) {
+            return buildInMemoryReport(report, CORRELATED_HIGHEST_BALANCE_SQL);
+        }
+        try (InputStream inputStream = resourceLoader.getResource(report.sqlLocation).getInputStream()) {
+            return buildInMemoryReport(report, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private String buildInMemoryReport(final MonthEndReport report, final String sql) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(report.header).append(System.lineSeparator());
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, Map.of("fromClientId", Integer.MIN_VALUE, "toClientId", Integer.MAX_VALUE), (rs) -> {
+            int columnCount = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columnCount; i++) {
+                sb.append(rs.getString(i));
+                if (i < columnCount) sb.append(", ");
+            }
+            sb.append(System.lineSeparator());
+        });
+        return sb.toString();
+    }
+
+    private List<Path> listReportDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(reportDirectory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepositoryTests.KEPT_CLIENT_POSITIONS_SQL;
+import static za.co.discovery.tao.muzvidziwa.repository.ClientPositionRepositoryTests.SUMMED_CLIENT_POSITIONS_SQL;
+
+/**
+ * Refreshes the currency conversion rates against the sample data.
+ */
+@SpringBootTest
+public class ScheduledServiceTests {
+    private static final String TRACE_ID = "test-trace";
+
+    @Autowired
+    private ScheduledService scheduledService;
+    @Autowired
+    private CurrencyConversionCache currencyConversionCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @DisplayName("""
+            test 'UPDATE CURRENCY CONVERSION RATES' given a changed rate should recalculate the positions of the clients holding the currency
+            """)
+    @Test
+    @Transactional
+    public void findAndUpdateCurrencyConversionRates_givenChangedRate_shouldRecalculateClientPositions() {
+        final BigDecimal usdRate = jdbcTemplate.queryForObject("SELECT RATE FROM CURRENCY_CONVERSION_RATE WHERE CURRENCY_CODE = 'USD'", BigDecimal.class);
+        scheduledService.findAndUpdateCurrencyConversionRates();
+        final List<String> positionsBefore = jdbcTemplate.queryForList(KEPT_CLIENT_POSITIONS_SQL, String.class);
+
+        try {
+            // Rolled back after the test, the refresh reads the rates and writes the positions on the test's transaction
+            jdbcTemplate.update("UPDATE CURRENCY_CONVERSION_RATE SET RATE = 21.87654321 WHERE CURRENCY_CODE = 'USD'");
+            // The first refresh left the rates it read in the transaction's persistence context
+            entityManager.clear();
+            scheduledService.findAndUpdateCurrencyConversionRates();
+
+            final List<String> positionsAfter = jdbcTemplate.queryForList(KEPT_CLIENT_POSITIONS_SQL, String.class);
+            Assertions.assertNotEquals(positionsBefore, positionsAfter);
+            Assertions.assertEquals(jdbcTemplate.queryForList(SUMMED_CLIENT_POSITIONS_SQL, String.class), positionsAfter);
+            Assertions.assertEquals(0, new BigDecimal("21.87654321").compareTo(
+                    currencyConversionCache.getCurrencyConversionRate("USD", TRACE_ID).getConversionRate()));
+        } finally {
+            // The cache is not rolled back with the transaction
+            jdbcTemplate.update("UPDATE CURRENCY_CONVERSION_RATE SET RATE = ? WHERE CURRENCY_CODE = 'USD'", usdRate);
+            entityManager.clear();
+            scheduledService.findAndUpdateCurrencyConversionRates();
+        }
+    }
+}
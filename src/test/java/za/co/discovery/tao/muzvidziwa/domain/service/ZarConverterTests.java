@@ -0,0 +1,90 @@
+package za.co.discovery.tao.muzvidziwa.domain.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.Money;
+import za.co.discovery.tao.muzvidziwa.domain.model.entity.CurrencyConversionRate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+public class ZarConverterTests {
+    private static final String TRACE_ID = "test-trace";
+
+    private final CurrencyConversionCache currencyConversionCache = new CurrencyConversionCache();
+    private final ZarConverter zarConverter = new ZarConverter(currencyConversionCache);
+
+    @BeforeEach
+    public void setUp() {
+        currencyConversionCache.replaceCurrencyConversionRates(Map.of(
+                "USD", createCurrencyConversionRate("USD", "*", "18.6167"),
+                "AUD", createCurrencyConversionRate("AUD", "/", "0.1134")), TRACE_ID);
+    }
+
+    @DisplayName("""
+            test 'TO ZAR' given a multiplied rate should convert by multiplying by the unrounded rate and rounding to a scale of 3
+            """)
+    @Test
+    public void toZar_givenMultipliedRate_shouldMultiplyAndRound() {
+        // 35938.71 x 18.6167 = 669,060.182457
+        Assertions.assertEquals(new BigDecimal("669060.182"), zarConverter.toZar("USD", money("35938.71"), 3, TRACE_ID).toBigDecimal());
+    }
+
+    @DisplayName("""
+            test 'TO ZAR' given a divided rate should convert by dividing by the unrounded rate and rounding to a scale of 3
+            """)
+    @Test
+    public void toZar_givenDividedRate_shouldDivideAndRound() {
+        // 41693.22 / 0.1134 = 367,665.0793...
+        Assertions.assertEquals(new BigDecimal("367665.079"), zarConverter.toZar("AUD", money("41693.22"), 3, TRACE_ID).toBigDecimal());
+    }
+
+    @DisplayName("""
+            test 'TO ZAR' given a divided rate whose reciprocal is not a finite decimal should round the exact quotient
+            """)
+    @Test
+    public void toZar_givenDividedRateWithoutFiniteReciprocal_shouldRoundTheExactQuotient() {
+        currencyConversionCache.addCurrencyConversionRate("XXX", createCurrencyConversionRate("XXX", "/", "0.3"), TRACE_ID);
+
+        // 0.30015 / 0.3 = 1.0005 exactly, multiplying by a rounded 3.333... would leave it just under the half
+        Assertions.assertEquals(new BigDecimal("1.001"), zarConverter.toZar("XXX", new Money(300_150L, 6), 3, TRACE_ID).toBigDecimal());
+    }
+
+    @DisplayName("""
+            test 'DISPLAY RATE' given a cached rate should return the rate rounded to a scale of 3
+            """)
+    @Test
+    public void displayRate_givenCachedRate_shouldReturnRateWithScaleOfThree() {
+        Assertions.assertEquals(new BigDecimal("18.617"), zarConverter.displayRate("USD", TRACE_ID));
+        Assertions.assertEquals(new BigDecimal("0.113"), zarConverter.displayRate("AUD", TRACE_ID));
+    }
+
+    @DisplayName("""
+            test 'TO ZAR AND DISPLAY RATE' given a currency without a usable rate should return null
+            """)
+    @Test
+    public void toZarAndDisplayRate_givenCurrencyWithoutUsableRate_shouldReturnNull() {
+        currencyConversionCache.addCurrencyConversionRate("GBP", null, TRACE_ID);
+
+        Assertions.assertNull(zarConverter.displayRate("EUR", TRACE_ID));
+        Assertions.assertNull(zarConverter.toZar("EUR", money("10"), 3, TRACE_ID));
+        Assertions.assertNull(zarConverter.displayRate("GBP", TRACE_ID));
+        Assertions.assertNull(zarConverter.toZar("GBP", money("10"), 3, TRACE_ID));
+    }
+
+    private Money money(final String amount) {
+        return Money.of(new BigDecimal(amount), 3, RoundingMode.UNNECESSARY);
+    }
+
+    private CurrencyConversionRate createCurrencyConversionRate(final String currencyCode, final String conversionIndicator, final String rate) {
+        final CurrencyConversionRate currencyConversionRate = new CurrencyConversionRate();
+        currencyConversionRate.setCurrencyCode(currencyCode);
+        currencyConversionRate.setConversionIndicator(conversionIndicator);
+        currencyConversionRate.setRate(new BigDecimal(rate));
+        return currencyConversionRate;
+    }
+}
@@ -0,0 +1,135 @@
+package za.co.discovery.tao.muzvidziwa.domain.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static za.co.discovery.tao.muzvidziwa.domain.constant.Sources.BANK_SERVICE;
+
+public class LoggerUtilsTests {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggerUtils.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    public void setUp() {
+        previousLevel = logger.getLevel();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        MDC.clear();
+    }
+
+    @Test
+    public void logDebug_givenDebugDisabled_shouldNotLogNorCallTheSuppliers() {
+        logger.setLevel(Level.INFO);
+        final AtomicInteger calls = new AtomicInteger();
+        final Supplier<Object> expensiveArg = () -> calls.incrementAndGet();
+
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Skipping account: {}", expensiveArg);
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Client ID: {}, account number: {}, amount: {}", 1, "4067342946", 100);
+
+        Assertions.assertEquals(0, calls.get());
+        Assertions.assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void logDebug_givenDebugEnabled_shouldFormatTheMessageWithTheSuppliedArgs() {
+        logger.setLevel(Level.DEBUG);
+
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Report of {} rows written to: {}", () -> 3, () -> "report.txt");
+
+        Assertions.assertEquals(1, appender.list.size());
+        Assertions.assertEquals(Level.DEBUG, appender.list.get(0).getLevel());
+        Assertions.assertEquals("Report of 3 rows written to: report.txt", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void logDebug_givenVarargsWithoutSuppliers_shouldPassTheArrayOnUncopied() {
+        logger.setLevel(Level.DEBUG);
+        final Object[] args = {1, "4067342946", 100};
+
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Client ID: {}, account number: {}, amount: {}", args);
+
+        Assertions.assertSame(args, appender.list.get(0).getArgumentArray());
+        Assertions.assertEquals("Client ID: 1, account number: 4067342946, amount: 100", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void logDebug_givenFixedAritySuppliers_shouldLogTheSuppliedValues() {
+        logger.setLevel(Level.DEBUG);
+        final Supplier<Object> clientId = () -> 1;
+        final Object[] args = {clientId, "4067342946", 100};
+
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Client ID: {}", (Object) clientId);
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Client ID: {}, account number: {}", clientId, "4067342946");
+        LoggerUtils.logDebug("trace", BANK_SERVICE, "Client ID: {}, account number: {}, amount: {}", args);
+
+        Assertions.assertEquals("Client ID: 1", appender.list.get(0).getFormattedMessage());
+        Assertions.assertEquals("Client ID: 1, account number: 4067342946", appender.list.get(1).getFormattedMessage());
+        Assertions.assertEquals("Client ID: 1, account number: 4067342946, amount: 100", appender.list.get(2).getFormattedMessage());
+        Assertions.assertSame(clientId, args[0]);
+    }
+
+    @Test
+    public void logInfo_givenTraceIdAndSource_shouldPutThemInTheMdcWhileLogging() {
+        logger.setLevel(Level.INFO);
+
+        LoggerUtils.logInfo("trace", BANK_SERVICE, "Retrieving transactional balances for client ID: {}", 1);
+
+        final ILoggingEvent event = appender.list.get(0);
+        Assertions.assertEquals("Retrieving transactional balances for client ID: 1", event.getFormattedMessage());
+        Assertions.assertEquals(Map.of(LoggerUtils.TRACE_ID_KEY, "trace", LoggerUtils.SOURCE_KEY, BANK_SERVICE.source), event.getMDCPropertyMap());
+        Assertions.assertNull(MDC.get(LoggerUtils.TRACE_ID_KEY));
+        Assertions.assertNull(MDC.get(LoggerUtils.SOURCE_KEY));
+    }
+
+    @Test
+    public void logWarn_givenWarnEnabled_shouldLogAtWarn() {
+        logger.setLevel(Level.WARN);
+
+        LoggerUtils.logWarn("trace", BANK_SERVICE, "Virtual threads requested but the runtime is Java {}", 17);
+        LoggerUtils.logInfo("trace", BANK_SERVICE, "Serving requests on {} threads", "platform");
+
+        Assertions.assertEquals(1, appender.list.size());
+        Assertions.assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        Assertions.assertEquals("Virtual threads requested but the runtime is Java 17", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void logError_givenCallerMdc_shouldPutTheCallerValuesBack() {
+        MDC.put(LoggerUtils.TRACE_ID_KEY, "caller");
+
+        LoggerUtils.logError("trace", BANK_SERVICE, "Invalid client ID: {}", -1);
+
+        Assertions.assertEquals("trace", appender.list.get(0).getMDCPropertyMap().get(LoggerUtils.TRACE_ID_KEY));
+        Assertions.assertEquals("caller", MDC.get(LoggerUtils.TRACE_ID_KEY));
+    }
+
+    @Test
+    public void logError_givenNullTraceIdSourceAndMessage_shouldLogTheDefaults() {
+        LoggerUtils.logError(null, null, null);
+
+        final ILoggingEvent event = appender.list.get(0);
+        Assertions.assertEquals("No message provided", event.getFormattedMessage());
+        Assertions.assertEquals("No trace ID", event.getMDCPropertyMap().get(LoggerUtils.TRACE_ID_KEY));
+        Assertions.assertEquals("No source", event.getMDCPropertyMap().get(LoggerUtils.SOURCE_KEY));
+    }
+}
@@ -0,0 +1,88 @@
+package za.co.discovery.tao.muzvidziwa.domain.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import za.co.discovery.tao.muzvidziwa.domain.util.LoggerUtils;
+import za.co.discovery.tao.muzvidziwa.domain.util.TraceContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TraceContextTests {
+
+    @Test
+    public void newTraceId_givenManyThreads_shouldNeverRepeat() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    final List<String> traceIds = new ArrayList<>();
+                    for (int j = 0; j < 10_000; j++) {
+                        traceIds.add(TraceContext.newTraceId());
+                    }
+                    return traceIds;
+                }));
+            }
+
+            final Set<String> traceIds = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                traceIds.addAll(future.get());
+            }
+            Assertions.assertEquals(80_000, traceIds.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void open_givenValidTraceId_shouldBindItUntilClosed() {
+        Assertions.assertNull(TraceContext.boundTraceId());
+
+        try (TraceContext.Scope outer = TraceContext.open("atm-42.0001")) {
+            Assertions.assertEquals("atm-42.0001", outer.traceId());
+            Assertions.assertEquals("atm-42.0001", TraceContext.currentTraceId());
+            Assertions.assertEquals("atm-42.0001", MDC.get(LoggerUtils.TRACE_ID_KEY));
+
+            try (TraceContext.Scope inner = TraceContext.open(null)) {
+                Assertions.assertNotEquals("atm-42.0001", inner.traceId());
+                Assertions.assertEquals(inner.traceId(), TraceContext.boundTraceId());
+            }
+            Assertions.assertEquals("atm-42.0001", TraceContext.boundTraceId());
+        }
+
+        Assertions.assertNull(TraceContext.boundTraceId());
+        Assertions.assertNull(MDC.get(LoggerUtils.TRACE_ID_KEY));
+    }
+
+    @Test
+    public void open_givenInvalidTraceId_shouldBindNewTraceId() {
+        try (TraceContext.Scope scope = TraceContext.open("atm 42\nforged log line")) {
+            Assertions.assertTrue(scope.traceId().matches("[0-9a-f]{8}-[0-9a-f]+-[0-9a-f]+"));
+        }
+        try (TraceContext.Scope scope = TraceContext.open("x".repeat(65))) {
+            Assertions.assertEquals(TraceContext.boundTraceId(), scope.traceId());
+            Assertions.assertNotEquals("x".repeat(65), scope.traceId());
+        }
+    }
+
+    @Test
+    public void wrap_givenTaskRunOnAnotherThread_shouldRunWithTheWrappingThreadsTraceId() throws Exception {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (TraceContext.Scope ignored = TraceContext.open("atm-42.0001")) {
+            final Callable<String> task = TraceContext.wrap(TraceContext::boundTraceId);
+
+            Assertions.assertEquals("atm-42.0001", executorService.submit(task).get());
+            Assertions.assertNull(executorService.submit(TraceContext::boundTraceId).get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package za.co.discovery.tao.muzvidziwa.domain.views;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientPositionDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AtmResponseWriterTests {
+    private static final List<Class<?>> VIEWS = List.of(View.Transactional.class, View.Currency.class, View.Withdrawal.class, View.Position.class);
+
+    // Configured the way Spring MVC configures the mapper behind the REST endpoints
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtmResponseWriter atmResponseWriter = new AtmResponseWriter(objectMapper, true);
+
+    @DisplayName("""
+            test 'WRITE VALUE AS BYTES' given complete responses should write the same bytes as the view's Jackson writer
+            """)
+    @Test
+    public void writeValueAsBytes_givenCompleteResponses_shouldWriteTheViewWritersBytes() throws Exception {
+        Assertions.assertTrue(atmResponseWriter.isDirectWriter());
+
+        assertSameJson(objectMapper, atmResponseWriter, createBalanceResponse());
+        assertSameJson(objectMapper, atmResponseWriter, createWithdrawalResponse());
+    }
+
+    @DisplayName("""
+            test 'WRITE VALUE AS BYTES' given responses with null and empty parts should write the same bytes as the view's Jackson writer
+            """)
+    @Test
+    public void writeValueAsBytes_givenNullAndEmptyParts_shouldWriteTheViewWritersBytes() throws Exception {
+        assertSameJson(objectMapper, atmResponseWriter, null);
+        assertSameJson(objectMapper, atmResponseWriter, AtmResponse.builder().build());
+
+        final AtmResponse emptyResponse = AtmResponse.builder()
+                .client(ClientDto.EMPTY)
+                .accounts(List.of())
+                .account(AccountDto.EMPTY)
+                .denomination(List.of())
+                .result(new ResultDto(false, 0, null))
+                .build();
+        assertSameJson(objectMapper, atmResponseWriter, emptyResponse);
+
+        final AtmResponse withdrawalResponse = createWithdrawalResponse();
+        final AtmResponse nullElementsResponse = AtmResponse.builder()
+                .client(withdrawalResponse.client())
+                .accounts(Arrays.asList(null, AccountDto.EMPTY))
+                .account(withdrawalResponse.account())
+                .denomination(Arrays.asList(null, new DenominationDto(null, null, null)))
+                .position(withdrawalResponse.position())
+                .result(withdrawalResponse.result())
+                .build();
+        assertSameJson(objectMapper, atmResponseWriter, nullElementsResponse);
+    }
+
+    @DisplayName("""
+            test 'WRITE VALUE' given a stream should write the same bytes as the view's Jackson writer, and leave the stream open
+            """)
+    @Test
+    public void writeValue_givenStream_shouldWriteTheViewWritersBytesAndLeaveItOpen() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        atmResponseWriter.writeValue(outputStream, createBalanceResponse(), View.Transactional.class);
+        outputStream.write('\n');
+        atmResponseWriter.writeValue(outputStream, createBalanceResponse(), View.Currency.class);
+
+        Assertions.assertEquals(objectMapper.writerWithView(View.Transactional.class).writeValueAsString(createBalanceResponse())
+                + "\n" + objectMapper.writerWithView(View.Currency.class).writeValueAsString(createBalanceResponse()), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("""
+            test 'WRITE VALUE' given a generator should write the same JSON as the view's Jackson writer as a field's value, and leave a document cut short open
+            """)
+    @Test
+    public void writeValue_givenGenerator_shouldWriteTheViewWritersJsonAndLeaveTheDocumentOpen() throws Exception {
+        for (AtmResponseWriter writer : List.of(atmResponseWriter, new AtmResponseWriter(objectMapper, false))) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                generator.writeStartObject();
+                generator.writeFieldName("transactional");
+                writer.writeValue(generator, createBalanceResponse(), View.Transactional.class);
+                generator.writeFieldName("withdrawal");
+                writer.writeValue(generator, createWithdrawalResponse(), View.Withdrawal.class);
+            }
+
+            // The array and the object are not closed, so the document cannot be read as complete
+            Assertions.assertEquals("[{\"transactional\":" + objectMapper.writerWithView(View.Transactional.class).writeValueAsString(createBalanceResponse())
+                    + ",\"withdrawal\":" + objectMapper.writerWithView(View.Withdrawal.class).writeValueAsString(createWithdrawalResponse()),
+                    outputStream.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @DisplayName("""
+            test 'WRITE VALUE AS BYTES' given a mapper that writes big decimals plain or indents should follow its settings
+            """)
+    @Test
+    public void writeValueAsBytes_givenPlainBigDecimalsAndIndentation_shouldFollowTheMapper() throws Exception {
+        final ObjectMapper configuredObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN, SerializationFeature.INDENT_OUTPUT).build();
+        final AtmResponseWriter configuredAtmResponseWriter = new AtmResponseWriter(configuredObjectMapper, true);
+        final AtmResponse atmResponse = createBalanceResponse(new BigDecimal("1E+3"));
+
+        Assertions.assertTrue(configuredAtmResponseWriter.isDirectWriter());
+        assertSameJson(configuredObjectMapper, configuredAtmResponseWriter, atmResponse);
+    }
+
+    @DisplayName("""
+            test 'WRITE VALUE AS BYTES' given a mapper that leaves nulls out, or the direct writer off, should write through Jackson
+            """)
+    @Test
+    public void writeValueAsBytes_givenNonNullInclusionOrDirectWriterOff_shouldWriteThroughJackson() throws Exception {
+        final ObjectMapper nonNullObjectMapper = Jackson2ObjectMapperBuilder.json().serializationInclusion(JsonInclude.Include.NON_NULL).build();
+        final AtmResponseWriter nonNullAtmResponseWriter = new AtmResponseWriter(nonNullObjectMapper, true);
+        final AtmResponseWriter jacksonAtmResponseWriter = new AtmResponseWriter(objectMapper, false);
+
+        Assertions.assertFalse(nonNullAtmResponseWriter.isDirectWriter());
+        Assertions.assertFalse(jacksonAtmResponseWriter.isDirectWriter());
+        assertSameJson(nonNullObjectMapper, nonNullAtmResponseWriter, createWithdrawalResponse());
+        assertSameJson(objectMapper, jacksonAtmResponseWriter, createWithdrawalResponse());
+    }
+
+    private static void assertSameJson(final ObjectMapper objectMapper, final AtmResponseWriter atmResponseWriter, final AtmResponse atmResponse) throws Exception {
+        for (Class<?> view : VIEWS) {
+            Assertions.assertEquals(objectMapper.writerWithView(view).writeValueAsString(atmResponse),
+                    new String(atmResponseWriter.writeValueAsBytes(atmResponse, view), StandardCharsets.UTF_8), view.getSimpleName());
+        }
+    }
+
+    private AtmResponse createBalanceResponse() {
+        return createBalanceResponse(new BigDecimal("-500.000"));
+    }
+
+    private AtmResponse createBalanceResponse(final BigDecimal chequeZarBalance) {
+        final List<AccountDto> accountDtos = new ArrayList<>();
+        accountDtos.add(AccountDto.builder()
+                .accountNumber(4067342946L)
+                .typeCode("CHQ")
+                .accountTypeDescription("Cheque Account")
+                .currencyCode("ZAR")
+                .conversionRate(new BigDecimal("1.000"))
+                .balance(new BigDecimal("-500.000"))
+                .zarBalance(chequeZarBalance)
+                .accountLimit(new BigDecimal("9500.000"))
+                .build());
+        accountDtos.add(createAccountDto(1054528721L, "CFCA", "Customer Foreign Currency Account", "USD", "18.617", null, "1000.000", "18616.700", "1000.000"));
+        // An account type without a description and a balance without decimals
+        accountDtos.add(createAccountDto(1L, "NEW", null, "ZAR", null, "0", null, "0", null));
+
+        return AtmResponse.builder()
+                .client(createClientDto())
+                .accounts(accountDtos)
+                .result(new ResultDto(true, 200, "Display accounts"))
+                .build();
+    }
+
+    private AtmResponse createWithdrawalResponse() {
+        return AtmResponse.builder()
+                .client(createClientDto())
+                .account(createAccountDto(4067342946L, "CHQ", "Cheque Account", "ZAR", "1.000", "750.000", null, "750.000", "10750.000"))
+                .denomination(List.of(createDenominationDto(5L, "200.00", 1), createDenominationDto(2L, "50.00", 1)))
+                .position(new ClientPositionDto(new BigDecimal("-150000.00"), new BigDecimal("12500.00"), new BigDecimal("-137500.00")))
+                // Quotes, a backslash, a control character and non-ASCII characters are escaped or encoded
+                .result(new ResultDto(false, 400, "Amount not available, would you like to withdraw \"R 200.00\"?\\\t – ✓"))
+                .build();
+    }
+
+    private ClientDto createClientDto() {
+        return new ClientDto(12L, "Ms", "Zoë", "O'Neil-Mkhize");
+    }
+
+    private AccountDto createAccountDto(final Long accountNumber, final String typeCode, final String accountTypeDescription, final String currencyCode,
+                                        final String conversionRate, final String balance, final String ccyBalance, final String zarBalance, final String accountLimit) {
+        return AccountDto.builder()
+                .accountNumber(accountNumber)
+                .typeCode(typeCode)
+                .accountTypeDescription(accountTypeDescription)
+                .currencyCode(currencyCode)
+                .conversionRate(conversionRate != null ? new BigDecimal(conversionRate) : null)
+                .balance(balance != null ? new BigDecimal(balance) : null)
+                .ccyBalance(ccyBalance != null ? new BigDecimal(ccyBalance) : null)
+                .zarBalance(zarBalance != null ? new BigDecimal(zarBalance) : null)
+                .accountLimit(accountLimit != null ? new BigDecimal(accountLimit) : null)
+                .build();
+    }
+
+    private DenominationDto createDenominationDto(final Long denominationId, final String denominationValue, final Integer count) {
+        return new DenominationDto(denominationId, new BigDecimal(denominationValue), count);
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.test.context.ActiveProfiles;
+import za.co.discovery.tao.muzvidziwa.domain.model.dto.AtmAllocationUpdateDto;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Atm;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.AtmAllocation;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Denomination;
@@ -72,6 +74,50 @@ public class AtmAllocationRepositoryTests {
         Assertions.assertEquals(0, atmAllocationList.get().size());
     }
 
+    @DisplayName("""
+            test 'UPDATE DENOMINATION COUNTS' where the ATM holds enough notes should deduct the dispensed notes
+            """)
+    @Test
+    public void updateDenominationCounts_givenEnoughNotes_shouldDeductDispensedCount() throws Exception {
+        // Perform SUT
+        atmAllocationRepository.updateDenominationCounts(1L, List.of(new AtmAllocationUpdateDto(1L, 3)));
+
+        final Optional<List<AtmAllocation>> atmAllocationList = atmAllocationRepository.findAtmAllocationByAtmId(1L);
+
+        Assertions.assertTrue(atmAllocationList.isPresent());
+        Assertions.assertEquals(7, atmAllocationList.get().get(0).getCount());
+    }
+
+    @DisplayName("""
+            test 'UPDATE DENOMINATION COUNTS' where the ATM holds fewer notes than dispensed should throw the translated IllegalStateException
+            """)
+    @Test
+    public void updateDenominationCounts_givenMoreNotesThanHeld_shouldThrowInvalidDataAccessApiUsageException() throws Exception {
+        final List<AtmAllocationUpdateDto> updates = List.of(new AtmAllocationUpdateDto(1L, 11));
+
+        // Perform SUT
+        final InvalidDataAccessApiUsageException exception = Assertions.assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> atmAllocationRepository.updateDenominationCounts(1L, updates));
+
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        Assertions.assertEquals("ATM ID 1 does not hold 11 notes of denomination ID 1", exception.getCause().getMessage());
+    }
+
+    @DisplayName("""
+            test 'UPDATE DENOMINATION COUNTS' where one of the denominations is not allocated to the ATM should throw the translated IllegalStateException
+            """)
+    @Test
+    public void updateDenominationCounts_givenDenominationNotAllocated_shouldThrowInvalidDataAccessApiUsageException() throws Exception {
+        final List<AtmAllocationUpdateDto> updates = List.of(new AtmAllocationUpdateDto(1L, 3), new AtmAllocationUpdateDto(2L, 1));
+
+        // Perform SUT
+        final InvalidDataAccessApiUsageException exception = Assertions.assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> atmAllocationRepository.updateDenominationCounts(1L, updates));
+
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        Assertions.assertEquals("ATM ID 1 does not hold 1 notes of denomination ID 2", exception.getCause().getMessage());
+    }
+
     private Atm createAtm() {
         final Atm atm = new Atm();
         atm.setAtmId(1);
@@ -1,16 +1,30 @@
 package za.co.discovery.tao.muzvidziwa.repository;
 
+import org.assertj.core.groups.Tuple;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.AccountType;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Client;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.ClientAccount;
 import za.co.discovery.tao.muzvidziwa.domain.model.entity.Currency;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientAccountBalanceProjection;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,6 +37,12 @@ public class ClientAccountRepositoryTests {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private ClientPositionRepository clientPositionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
 
     private Client client;
     private AccountType chqType;
@@ -64,4 +84,107 @@ public class ClientAccountRepositoryTests {
         Optional<ClientAccount> account = clientAccountRepository.findClientAccountByClientIdAndAccountNumber(-1L, "0000000000");
         assertThat(account).isNotPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("givenClientIdAndAccountNumber_whenFindClientAccountByClientIdAndAccountNumber_shouldNotLoadTheReferenceRows")
+    void givenClientIdAndAccountNumber_whenFindClientAccountByClientIdAndAccountNumber_shouldNotLoadTheReferenceRows() {
+        ClientAccount account = clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1L, "4067342946").orElseThrow();
+        // The codes are read off the proxies, the reference rows are resolved through the ReferenceDataRegistry
+        assertThat(account.getAccountType().getAccountTypeCode()).isEqualTo("CHQ");
+        assertThat(account.getCurrency().getCurrencyCode()).isEqualTo("ZAR");
+        assertThat(account.getClient().getClientSubType().getClientSubTypeCode()).isEqualTo("FEM");
+        assertThat(Hibernate.isInitialized(account.getAccountType())).isFalse();
+        assertThat(Hibernate.isInitialized(account.getCurrency())).isFalse();
+        assertThat(Hibernate.isInitialized(account.getClient().getClientSubType())).isFalse();
+    }
+
+    @Test
+    @DisplayName("givenClientId_whenFindClientAccountBalancesByClientId_shouldReturnAllAccountsWithCreditCardLimit")
+    void givenClientId_whenFindClientAccountBalancesByClientId_shouldReturnAllAccountsWithCreditCardLimit() {
+        List<ClientAccountBalanceProjection> balances = clientAccountRepository.findClientAccountBalancesByClientId(1);
+        // The accounts of every type are returned, the transactional ones are picked through the ReferenceDataRegistry
+        assertThat(balances).extracting(ClientAccountBalanceProjection::getAccountTypeCode)
+                .containsExactlyInAnyOrder("SVGS", "CHQ", "CCRD", "PLOAN", "HLOAN", "CFCA", "CFCA", "CFCA");
+        assertThat(balances).allSatisfy(balance -> assertThat(balance.getName()).isEqualTo("Marylou"));
+        assertThat(balances).allSatisfy(balance -> assertThat(balance.getClientSubTypeCode()).isEqualTo("FEM"));
+        assertThat(balances).filteredOn(balance -> "CCRD".equals(balance.getAccountTypeCode()))
+                .singleElement().satisfies(balance -> assertThat(balance.getCreditCardLimit()).isEqualByComparingTo("25000"));
+        assertThat(balances).filteredOn(balance -> !"CCRD".equals(balance.getAccountTypeCode()))
+                .allSatisfy(balance -> assertThat(balance.getCreditCardLimit()).isNull());
+    }
+
+    @Test
+    @DisplayName("givenInvalidClientId_whenFindClientAccountBalancesByClientId_shouldReturnEmptyList")
+    void givenInvalidClientId_whenFindClientAccountBalancesByClientId_shouldReturnEmptyList() {
+        List<ClientAccountBalanceProjection> balances = clientAccountRepository.findClientAccountBalancesByClientId(-1L);
+        assertThat(balances).isEmpty();
+    }
+
+    @Test
+    @DisplayName("givenClientIds_whenFindClientAccountBalancesByClientIds_shouldReturnTheRowsOfEachClientAsReadOnItsOwn")
+    void givenClientIds_whenFindClientAccountBalancesByClientIds_shouldReturnTheRowsOfEachClientAsReadOnItsOwn() {
+        List<ClientAccountBalanceProjection> balances = clientAccountRepository.findClientAccountBalancesByClientIds(List.of(3, 1, -1, 2));
+        // The unknown client has no rows, the others have the rows, in the order, of the single client query
+        for (int clientId : List.of(1, 2, 3)) {
+            assertThat(balances).filteredOn(balance -> balance.getClientId() == clientId)
+                    .extracting(ClientAccountBalanceProjection::getClientAccountNumber, ClientAccountBalanceProjection::getAccountTypeCode,
+                            ClientAccountBalanceProjection::getDisplayBalance, ClientAccountBalanceProjection::getCreditCardLimit)
+                    .containsExactlyElementsOf(clientAccountRepository.findClientAccountBalancesByClientId(clientId).stream()
+                            .map(balance -> Tuple.tuple(balance.getClientAccountNumber(), balance.getAccountTypeCode(),
+                                    balance.getDisplayBalance(), balance.getCreditCardLimit()))
+                            .toList());
+        }
+        assertThat(balances).extracting(ClientAccountBalanceProjection::getClientId).containsOnly(1, 2, 3);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("givenConcurrentDebits_whenDebitClientAccountByAccountNumber_shouldNeverOverdrawAccount")
+    void givenConcurrentDebits_whenDebitClientAccountByAccountNumber_shouldNeverOverdrawAccount() throws Exception {
+        // CHQ account with a balance of 13 603.55 and an overdraft facility of 10 000.00, i.e., 236 debits of 100.00 fit
+        final String accountNumber = "4067342946";
+        final BigDecimal openingBalance = new BigDecimal("13603.55");
+        final BigDecimal overdraftLimit = new BigDecimal("10000");
+        final BigDecimal amount = new BigDecimal("100.00");
+
+        final int threads = 32;
+        final int debitsPerThread = 20;
+        final AtomicInteger successfulDebits = new AtomicInteger();
+        final List<BigDecimal> balancesAfterDebits = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+                    for (int d = 0; d < debitsPerThread; d++) {
+                        clientAccountRepository.debitClientAccountByAccountNumber(1, accountNumber, amount, overdraftLimit)
+                                .ifPresent(balanceAfterDebit -> {
+                                    successfulDebits.incrementAndGet();
+                                    balancesAfterDebits.add(balanceAfterDebit);
+                                });
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            final BigDecimal closingBalance = clientAccountRepository.findClientAccountByClientIdAndAccountNumber(1, accountNumber)
+                    .orElseThrow().getDisplayBalance();
+            assertThat(successfulDebits.get()).isEqualTo(236);
+            assertThat(closingBalance).isEqualByComparingTo(openingBalance.subtract(amount.multiply(BigDecimal.valueOf(236))));
+            // Each debit returns the balance it left, so no two debits return the same balance
+            assertThat(balancesAfterDebits).doesNotHaveDuplicates();
+            assertThat(balancesAfterDebits).contains(closingBalance);
+        } finally {
+            executorService.shutdownNow();
+            jdbcTemplate.update("UPDATE CLIENT_ACCOUNT SET DISPLAY_BALANCE = ? WHERE CLIENT_ACCOUNT_NUMBER = ?", openingBalance, accountNumber);
+            clientPositionRepository.recalculateClientPositions(1, 1, overdraftLimit);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package za.co.discovery.tao.muzvidziwa.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.discovery.tao.muzvidziwa.domain.model.projection.ClientPositionProjection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class ClientPositionRepositoryTests {
+    /**
+     * The client aggregate financial position month-end report as it summed every client's accounts before the positions
+     * were kept, each client's rounded loan balance, transactional balance and net position.
+     */
+    public static final String SUMMED_CLIENT_POSITIONS_SQL = """
+            SELECT CONCAT_WS(', ', c.CLIENT_ID,
+                   ROUND(COALESCE(SUM(CASE WHEN ca.ACCOUNT_TYPE_CODE IN ('PLOAN', 'HLOAN') THEN ca.DISPLAY_BALANCE ELSE 0 END), 0), 2),
+                   ROUND(COALESCE(SUM(CASE
+                       WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CHQ' THEN ca.DISPLAY_BALANCE + 10000
+                       WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'SVGS' THEN ca.DISPLAY_BALANCE
+                       WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CCRD' THEN ca.DISPLAY_BALANCE - COALESCE(ccl.ACCOUNT_LIMIT, 0)
+                       ELSE 0 END), 0), 2),
+                   ROUND(COALESCE(SUM(CASE WHEN ca.ACCOUNT_TYPE_CODE IN ('PLOAN', 'HLOAN') THEN ca.DISPLAY_BALANCE ELSE 0 END), 0)
+                       + COALESCE(SUM(CASE WHEN ca.ACCOUNT_TYPE_CODE = 'CFCA' THEN CASE
+                           WHEN ccr.CONVERSION_INDICATOR = '*' THEN ca.DISPLAY_BALANCE * ccr.RATE
+                           WHEN ccr.CONVERSION_INDICATOR = '/' THEN ca.DISPLAY_BALANCE / ccr.RATE
+                           ELSE ca.DISPLAY_BALANCE END ELSE 0 END), 0)
+                       + COALESCE(SUM(CASE
+                           WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CHQ' THEN ca.DISPLAY_BALANCE + 10000
+                           WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'SVGS' THEN ca.DISPLAY_BALANCE
+                           WHEN at.TRANSACTIONAL = TRUE AND ca.ACCOUNT_TYPE_CODE = 'CCRD' THEN ca.DISPLAY_BALANCE - COALESCE(ccl.ACCOUNT_LIMIT, 0)
+                           ELSE 0 END), 0), 2))
+            FROM CLIENT c
+                     LEFT JOIN CLIENT_ACCOUNT ca ON ca.CLIENT_ID = c.CLIENT_ID
+                     LEFT JOIN ACCOUNT_TYPE at ON ca.ACCOUNT_TYPE_CODE = at.ACCOUNT_TYPE_CODE
+                     LEFT JOIN CURRENCY_CONVERSION_RATE ccr ON ca.CURRENCY_CODE = ccr.CURRENCY_CODE
+                     LEFT JOIN CREDIT_CARD_LIMIT ccl ON ca.CLIENT_ACCOUNT_NUMBER = ccl.CLIENT_ACCOUNT_NUMBER
+            GROUP BY c.CLIENT_ID
+            ORDER BY c.CLIENT_ID
+            """;
+    /**
+     * Every client's kept position, rounded as {@link #SUMMED_CLIENT_POSITIONS_SQL} rounds the sums.
+     */
+    public static final String KEPT_CLIENT_POSITIONS_SQL = """
+            SELECT CONCAT_WS(', ', c.CLIENT_ID, ROUND(cp.LOAN_BALANCE, 2), ROUND(cp.TRANSACTIONAL_BALANCE, 2), ROUND(cp.NET_POSITION, 2))
+            FROM CLIENT c
+                     LEFT JOIN CLIENT_POSITION cp ON cp.CLIENT_ID = c.CLIENT_ID
+            ORDER BY c.CLIENT_ID
+            """;
+
+    // CHQ account of client 1 with a balance of 13 603.55
+    private static final String CHEQUE_ACCOUNT_NUMBER = "4067342946";
+    private static final BigDecimal OVERDRAFT_LIMIT = new BigDecimal("10000");
+
+    @Autowired
+    private ClientPositionRepository clientPositionRepository;
+
+    @Autowired
+    private ClientAccountRepository clientAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("givenMigratedPositions_whenComparedToSummedAccounts_shouldMatchEveryClient")
+    void givenMigratedPositions_whenComparedToSummedAccounts_shouldMatchEveryClient() {
+        assertKeptPositionsMatchSummedAccounts();
+    }
+
+    @Test
+    @DisplayName("givenClientId_whenFindClientPositionByClientId_shouldReturnClientDetailsAndPosition")
+    void givenClientId_whenFindClientPositionByClientId_shouldReturnClientDetailsAndPosition() {
+        final Optional<ClientPositionProjection> clientPosition = clientPositionRepository.findClientPositionByClientId(1);
+
+        assertThat(clientPosition).isPresent();
+        assertThat(clientPosition.get().getClientId()).isEqualTo(1);
+        assertThat(clientPosition.get().getSurname()).isNotNull();
+        assertThat(clientPosition.get().getNetPosition()).isNotNull();
+        assertThat(clientPositionRepository.findClientPositionByClientId(-1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("givenDebit_whenDebitClientAccountByAccountNumber_shouldMoveTransactionalBalanceAndNetPositionByTheAmount")
+    void givenDebit_whenDebitClientAccountByAccountNumber_shouldMoveTransactionalBalanceAndNetPositionByTheAmount() {
+        final ClientPositionProjection before = clientPositionRepository.findClientPositionByClientId(1).orElseThrow();
+
+        final Optional<BigDecimal> debited = clientAccountRepository.debitClientAccountByAccountNumber(1, CHEQUE_ACCOUNT_NUMBER, new BigDecimal("100.005"), BigDecimal.ZERO);
+
+        final ClientPositionProjection after = clientPositionRepository.findClientPositionByClientId(1).orElseThrow();
+        assertThat(debited).isPresent();
+        assertThat(after.getLoanBalance()).isEqualByComparingTo(before.getLoanBalance());
+        assertThat(after.getTransactionalBalance()).isEqualByComparingTo(before.getTransactionalBalance().subtract(new BigDecimal("100.005")));
+        assertThat(after.getNetPosition()).isEqualByComparingTo(before.getNetPosition().subtract(new BigDecimal("100.005")));
+        assertKeptPositionsMatchSummedAccounts();
+    }
+
+    @Test
+    @DisplayName("givenInsufficientFunds_whenDebitClientAccountByAccountNumber_shouldLeavePositionAsIs")
+    void givenInsufficientFunds_whenDebitClientAccountByAccountNumber_shouldLeavePositionAsIs() {
+        final ClientPositionProjection before = clientPositionRepository.findClientPositionByClientId(1).orElseThrow();
+
+        final Optional<BigDecimal> debited = clientAccountRepository.debitClientAccountByAccountNumber(1, CHEQUE_ACCOUNT_NUMBER, new BigDecimal("1000000"), BigDecimal.ZERO);
+
+        assertThat(debited).isEmpty();
+        assertThat(clientPositionRepository.findClientPositionByClientId(1).orElseThrow().getNetPosition()).isEqualByComparingTo(before.getNetPosition());
+    }
+
+    @Test
+    @DisplayName("givenClientWithoutPosition_whenDebitClientAccountByAccountNumber_shouldCreateThePosition")
+    void givenClientWithoutPosition_whenDebitClientAccountByAccountNumber_shouldCreateThePosition() {
+        clientPositionRepository.deleteById(1);
+        clientPositionRepository.flush();
+
+        clientAccountRepository.debitClientAccountByAccountNumber(1, CHEQUE_ACCOUNT_NUMBER, new BigDecimal("100"), BigDecimal.ZERO);
+
+        assertKeptPositionsMatchSummedAccounts();
+    }
+
+    @Test
+    @DisplayName("givenConversionRateChange_whenRecalculateClientPositionsByCurrencyCode_shouldRecalculateHoldersOnly")
+    void givenConversionRateChange_whenRecalculateClientPositionsByCurrencyCode_shouldRecalculateHoldersOnly() {
+        jdbcTemplate.update("UPDATE CURRENCY_CONVERSION_RATE SET RATE = 17.12345678 WHERE CURRENCY_CODE = 'USD'");
+
+        // Clients 1 and 2 hold USD accounts
+        assertThat(clientPositionRepository.recalculateClientPositionsByCurrencyCode("USD", OVERDRAFT_LIMIT)).isEqualTo(2);
+        assertKeptPositionsMatchSummedAccounts();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("givenConcurrentDebits_whenRecalculateClientPositionsByCurrencyCode_shouldKeepEveryDebit")
+    void givenConcurrentDebits_whenRecalculateClientPositionsByCurrencyCode_shouldKeepEveryDebit() throws Exception {
+        // Client 1 holds a USD account, its positions are recalculated while its cheque account is debited
+        final BigDecimal openingBalance = new BigDecimal("13603.55");
+        final int threads = 8;
+        final int debitsPerThread = 20;
+        final AtomicBoolean debiting = new AtomicBoolean(true);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads + 1);
+        try {
+            final List<Future<?>> debits = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                debits.add(executorService.submit(() -> {
+                    startLatch.await();
+                    for (int d = 0; d < debitsPerThread; d++) {
+                        clientAccountRepository.debitClientAccountByAccountNumber(1, CHEQUE_ACCOUNT_NUMBER, new BigDecimal("10.00"), OVERDRAFT_LIMIT);
+                    }
+                    return null;
+                }));
+            }
+            final Future<?> recalculations = executorService.submit(() -> {
+                startLatch.await();
+                while (debiting.get()) {
+                    clientPositionRepository.recalculateClientPositionsByCurrencyCode("USD", OVERDRAFT_LIMIT);
+                }
+                return null;
+            });
+            startLatch.countDown();
+            for (Future<?> future : debits) {
+                future.get();
+            }
+            debiting.set(false);
+            recalculations.get();
+
+            assertKeptPositionsMatchSummedAccounts();
+        } finally {
+            executorService.shutdownNow();
+            jdbcTemplate.update("UPDATE CLIENT_ACCOUNT SET DISPLAY_BALANCE = ? WHERE CLIENT_ACCOUNT_NUMBER = ?", openingBalance, CHEQUE_ACCOUNT_NUMBER);
+            clientPositionRepository.recalculateClientPositions(1, 1, OVERDRAFT_LIMIT);
+        }
+    }
+
+    @Test
+    @DisplayName("givenOverdraftLimit_whenRecalculateClientPositions_shouldCountTheLimitOnEveryChequeAccount")
+    void givenOverdraftLimit_whenRecalculateClientPositions_shouldCountTheLimitOnEveryChequeAccount() {
+        final ClientPositionProjection before = clientPositionRepository.findClientPositionByClientId(1).orElseThrow();
+        final int chequeAccounts = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM CLIENT_ACCOUNT WHERE CLIENT_ID = 1 AND ACCOUNT_TYPE_CODE = 'CHQ'", Integer.class);
+
+        assertThat(clientPositionRepository.recalculateClientPositions(1, 1, new BigDecimal("2500"))).isEqualTo(1);
+
+        // The sample data positions were summed with a limit of R10 000
+        final BigDecimal lowerLimit = new BigDecimal("7500").multiply(BigDecimal.valueOf(chequeAccounts));
+        final ClientPositionProjection after = clientPositionRepository.findClientPositionByClientId(1).orElseThrow();
+        assertThat(chequeAccounts).isPositive();
+        assertThat(after.getTransactionalBalance()).isEqualByComparingTo(before.getTransactionalBalance().subtract(lowerLimit));
+        assertThat(after.getNetPosition()).isEqualByComparingTo(before.getNetPosition().subtract(lowerLimit));
+    }
+
+    private void assertKeptPositionsMatchSummedAccounts() {
+        final List<String> keptPositions = jdbcTemplate.queryForList(KEPT_CLIENT_POSITIONS_SQL, String.class);
+        assertThat(keptPositions).isNotEmpty();
+        assertThat(keptPositions).isEqualTo(jdbcTemplate.queryForList(SUMMED_CLIENT_POSITIONS_SQL, String.class));
+    }
+}
@@ -0,0 +1,137 @@
+package za.co.discovery.tao.muzvidziwa.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.discovery.tao.muzvidziwa.domain.exception.BankServiceException;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.BalanceResponseCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.cache.CurrencyConversionCache;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.AtmResponse;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.AccountDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ClientDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.DenominationDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.dto.ResultDto;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.AtmResponseWriter;
+import za.co.discovery.tao.muzvidziwa.domain.model.response.views.View;
+import za.co.discovery.tao.muzvidziwa.domain.service.BankService;
+import za.co.discovery.tao.muzvidziwa.web.gateway.InProcessBankGateway;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+
+public class InProcessBankGatewayTests {
+    // Configured the way Spring MVC configures the mapper behind the REST endpoints
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final BankService bankService = Mockito.mock(BankService.class);
+    private final InProcessBankGateway inProcessBankGateway = new InProcessBankGateway(bankService,
+            new BalanceResponseCache(new AtmResponseWriter(objectMapper, true), new CurrencyConversionCache(), 1024 * 1024));
+
+    @DisplayName("""
+            test 'GET TRANSACTIONAL BALANCES' should return what a REST client reads back through the Transactional JSON view
+            """)
+    @Test
+    public void getTransactionalBalances_shouldMatchTransactionalJsonView() throws Exception {
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1))).thenReturn(createAtmResponse());
+
+        final AtmResponse actualAtmResponse = inProcessBankGateway.getTransactionalBalances(1);
+
+        Assertions.assertEquals(readBackThroughView(createAtmResponse(), View.Transactional.class), actualAtmResponse);
+        Assertions.assertNull(actualAtmResponse.accounts().get(0).ccyBalance());
+        Assertions.assertNull(actualAtmResponse.account());
+    }
+
+    @DisplayName("""
+            test 'GET FOREX BALANCES' should return what a REST client reads back through the Currency JSON view
+            """)
+    @Test
+    public void getForexBalances_shouldMatchCurrencyJsonView() throws Exception {
+        Mockito.when(bankService.getForexAccountBalances(eq(1))).thenReturn(createAtmResponse());
+
+        final AtmResponse actualAtmResponse = inProcessBankGateway.getForexBalances(1);
+
+        Assertions.assertEquals(readBackThroughView(createAtmResponse(), View.Currency.class), actualAtmResponse);
+        Assertions.assertNull(actualAtmResponse.accounts().get(0).balance());
+        Assertions.assertNull(actualAtmResponse.denomination());
+    }
+
+    @DisplayName("""
+            test 'GET TRANSACTIONAL BALANCES' given repeat calls should load once, and return copies the pages can not change the cached response through
+            """)
+    @Test
+    public void getTransactionalBalances_givenRepeatCalls_shouldLoadOnceAndReturnCopies() throws Exception {
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1))).thenReturn(createAtmResponse());
+
+        final AtmResponse firstAtmResponse = inProcessBankGateway.getTransactionalBalances(1);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> firstAtmResponse.accounts().set(0, AccountDto.EMPTY));
+        final AtmResponse secondAtmResponse = inProcessBankGateway.getTransactionalBalances(1);
+
+        Mockito.verify(bankService, Mockito.times(1)).getTransactionalClientAccountBalances(eq(1));
+        Assertions.assertNotSame(firstAtmResponse, secondAtmResponse);
+        Assertions.assertEquals(readBackThroughView(createAtmResponse(), View.Transactional.class), secondAtmResponse);
+    }
+
+    @DisplayName("""
+            test 'POST WITHDRAWAL' should return what a REST client reads back through the Withdrawal JSON view
+            """)
+    @Test
+    public void postWithdrawal_shouldMatchWithdrawalJsonView() throws Exception {
+        Mockito.when(bankService.postWithdrawal(eq(1), eq(3), eq("4067342946"), eq(new BigDecimal("300"))))
+                .thenReturn(createAtmResponse());
+
+        final AtmResponse actualAtmResponse = inProcessBankGateway.postWithdrawal(1, 3, "4067342946", new BigDecimal("300"));
+
+        Assertions.assertEquals(readBackThroughView(createAtmResponse(), View.Withdrawal.class), actualAtmResponse);
+        Assertions.assertNull(actualAtmResponse.accounts());
+        Assertions.assertNull(actualAtmResponse.account().ccyBalance());
+    }
+
+    @DisplayName("""
+            test 'GET TRANSACTIONAL BALANCES' given a service exception should propagate it, as the REST client would get an error status
+            """)
+    @Test
+    public void getTransactionalBalances_givenBankServiceException_shouldThrow() throws Exception {
+        Mockito.when(bankService.getTransactionalClientAccountBalances(eq(1)))
+                .thenThrow(new BankServiceException("Service level exception"));
+
+        Assertions.assertThrows(BankServiceException.class, () -> inProcessBankGateway.getTransactionalBalances(1));
+    }
+
+    private AtmResponse readBackThroughView(final AtmResponse atmResponse, final Class<?> view) throws Exception {
+        final String json = objectMapper.writerWithView(view).writeValueAsString(atmResponse);
+        return objectMapper.readValue(json, AtmResponse.class);
+    }
+
+    private AtmResponse createAtmResponse() {
+        final ClientDto clientDto = new ClientDto(1L, "Ms", "Marylou", "Melcher");
+
+        final AccountDto accountDto = AccountDto.builder()
+                .accountNumber(4067342946L)
+                .typeCode("CHQ")
+                .accountTypeDescription("Cheque Account")
+                .currencyCode("ZAR")
+                .conversionRate(new BigDecimal("1.000"))
+                .balance(new BigDecimal("13603.550"))
+                .ccyBalance(new BigDecimal("13603.550"))
+                .zarBalance(new BigDecimal("13603.550"))
+                .accountLimit(new BigDecimal("23603.550"))
+                .build();
+
+        final DenominationDto denominationDto = new DenominationDto(5L, new BigDecimal("200.00"), 1);
+
+        final ResultDto resultDto = new ResultDto(true, 200, "Withdrawal successful");
+
+        return AtmResponse.builder()
+                .client(clientDto)
+                .accounts(List.of(accountDto))
+                .account(accountDto)
+                .denomination(List.of(denominationDto))
+                .result(resultDto)
+                .build();
+    }
+}
@@ -33,6 +33,8 @@ INSERT INTO DENOMINATION_TYPE VALUES ('C', 'Coin');
 INSERT INTO DENOMINATION VALUES (1, 10, 'N');
 INSERT INTO DENOMINATION VALUES (2, 20, 'N');
 INSERT INTO DENOMINATION VALUES (3, 50, 'N');
+INSERT INTO DENOMINATION VALUES (4, 100, 'N');
+INSERT INTO DENOMINATION VALUES (5, 200, 'N');
 INSERT INTO DENOMINATION VALUES (10, 5, 'C');
 
 -- CLIENT